@@ -0,0 +1,15 @@
+#include <systemc.h>
+#include "paper_fifo_mutex.h"
+
+
+int sc_main(int argc, char* argv[])
+{
+  paperFifoMutex fm("fifomutex");
+
+  sc_fifo<int> f;
+  fm.out(f);
+  fm.in(f);
+
+  sc_start(1200,SC_NS);
+  return 0;
+}
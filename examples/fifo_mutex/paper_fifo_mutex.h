@@ -0,0 +1,56 @@
+#include <systemc.h>
+#include <iostream>
+
+#ifndef __FIFOMUTEX_H__
+#define __FIFOMUTEX_H__
+
+SC_MODULE(paperFifoMutex)
+{
+  sc_fifo_out<int> out;
+  sc_fifo_in<int> in;
+  sc_mutex mutex;
+
+  int UNTRUSTED_IN;
+  int TRUSTED_IN;
+  int SHARED;
+  int UNTRUSTED_OUT;
+  int TRUSTED_OUT;
+
+  void producer() {
+    while (true) {
+      mutex.lock();
+      SHARED = TRUSTED_IN;
+      mutex.unlock();
+      out.write(UNTRUSTED_IN);
+      wait(2, SC_NS);
+    }
+  }
+
+  void consumer() {
+    while (true) {
+      int data = in.read();
+      UNTRUSTED_OUT = data;
+      wait(1, SC_NS);
+    }
+  }
+
+  void pump() {
+    while (true) {
+      wait(1, SC_NS);
+      mutex.lock();
+      int shared = SHARED;
+      mutex.unlock();
+      TRUSTED_OUT = shared;
+    }
+  }
+
+  SC_CTOR(paperFifoMutex)
+  {
+    SC_THREAD(producer);
+    SC_THREAD(consumer);
+    SC_THREAD(pump);
+  }
+
+};
+
+#endif
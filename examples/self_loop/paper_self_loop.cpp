@@ -0,0 +1,11 @@
+#include <systemc.h>
+#include "paper_self_loop.h"
+
+
+int sc_main(int argc, char* argv[])
+{
+  paperSelfLoop s("s");
+
+  sc_start(1200,SC_NS);
+  return 0;
+}
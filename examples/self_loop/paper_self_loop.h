@@ -0,0 +1,27 @@
+#include <systemc.h>
+#include <iostream>
+
+#ifndef __SELFLOOP_H__
+#define __SELFLOOP_H__
+
+SC_MODULE(paperSelfLoop)
+{
+  sc_event e;
+  int IN;
+  int OUT;
+
+  void loop() {
+    while (true) {
+      OUT = IN;
+      wait(e);
+    }
+  }
+
+  SC_CTOR(paperSelfLoop)
+  {
+    SC_THREAD(loop);
+  }
+
+};
+
+#endif
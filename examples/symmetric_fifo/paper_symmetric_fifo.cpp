@@ -0,0 +1,17 @@
+#include <systemc.h>
+#include "paper_symmetric_fifo.h"
+
+
+int sc_main(int argc, char* argv[])
+{
+  paperSymmetricFifo p1("p1");
+  paperSymmetricFifo p2("p2");
+  sc_fifo<int> f;
+  p1.out(f);
+  p1.in(f);
+  p2.out(f);
+  p2.in(f);
+
+  sc_start(1200,SC_NS);
+  return 0;
+}
@@ -0,0 +1,42 @@
+#include <systemc.h>
+#include <iostream>
+
+#ifndef __SYMMETRICFIFO_H__
+#define __SYMMETRICFIFO_H__
+
+SC_MODULE(paperSymmetricFifo)
+{
+  sc_fifo_out<int> out;
+  sc_fifo_in<int> in;
+
+  int UNTRUSTED_IN;
+  int TRUSTED_IN;
+  int SHARED;
+  int UNTRUSTED_OUT;
+  int TRUSTED_OUT;
+
+  void producer() {
+    while (true) {
+      SHARED = TRUSTED_IN;
+      out.write(UNTRUSTED_IN);
+      wait(2, SC_NS);
+    }
+  }
+
+  void consumer() {
+    while (true) {
+      int data = in.read();
+      UNTRUSTED_OUT = data;
+      wait(1, SC_NS);
+    }
+  }
+
+  SC_CTOR(paperSymmetricFifo)
+  {
+    SC_THREAD(producer);
+    SC_THREAD(consumer);
+  }
+
+};
+
+#endif
@@ -18,30 +18,53 @@ import de.tub.pes.syscir.sc_model.variables.SCEvent;
 import de.tub.pes.syscir.sc_model.variables.SCPortEvent;
 import de.tub.pes.syscir.statespace_exploration.AbstractedValue;
 import de.tub.pes.syscir.statespace_exploration.AnalyzedProcess;
+import de.tub.pes.syscir.statespace_exploration.BitstateVisitedStates;
+import de.tub.pes.syscir.statespace_exploration.CanonicalizingVisitedStates;
+import de.tub.pes.syscir.statespace_exploration.ConcurrentStateSpaceExploration;
 import de.tub.pes.syscir.statespace_exploration.ConsideredState;
+import de.tub.pes.syscir.statespace_exploration.EvaluationContext;
 import de.tub.pes.syscir.statespace_exploration.EventBlocker;
 import de.tub.pes.syscir.statespace_exploration.EventBlocker.Event;
+import de.tub.pes.syscir.statespace_exploration.ExactVisitedStates;
 import de.tub.pes.syscir.statespace_exploration.ExplorationRecord;
+import de.tub.pes.syscir.statespace_exploration.FingerprintVisitedStates;
 import de.tub.pes.syscir.statespace_exploration.GlobalState;
+import de.tub.pes.syscir.statespace_exploration.PartialOrderReducedStateSpaceExploration;
+import de.tub.pes.syscir.statespace_exploration.ProcessBlocker;
 import de.tub.pes.syscir.statespace_exploration.ProcessState;
 import de.tub.pes.syscir.statespace_exploration.Scheduler;
 import de.tub.pes.syscir.statespace_exploration.Scheduler.SimulationStopMode;
 import de.tub.pes.syscir.statespace_exploration.SequentialStateSpaceExploration;
+import de.tub.pes.syscir.statespace_exploration.SpillingVisitedStates;
+import de.tub.pes.syscir.statespace_exploration.StateCodec;
+import de.tub.pes.syscir.statespace_exploration.StateInterner;
 import de.tub.pes.syscir.statespace_exploration.StateSpaceExploration;
 import de.tub.pes.syscir.statespace_exploration.TimedBlocker;
 import de.tub.pes.syscir.statespace_exploration.TransitionInformation;
+import de.tub.pes.syscir.statespace_exploration.VirtualThreadStateSpaceExploration;
+import de.tub.pes.syscir.statespace_exploration.VisitedStates;
+import de.tub.pes.syscir.statespace_exploration.WorkStealingStateSpaceExploration;
 import de.tub.pes.syscir.statespace_exploration.no_variables_implementation.NoVariablesNoInformationProcess;
 import de.tub.pes.syscir.statespace_exploration.no_variables_implementation.NoVariablesNoInformationScheduler;
+import de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesChannelIntrinsics;
 import de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesGlobalState;
 import de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesProcess;
 import de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesProcessState;
 import de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesScheduler;
+import de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesStateCodec;
+import de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesStateCodecBenchmark;
+import de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesSymmetryReduction;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.BaseProcess;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.BinaryAbstractedValue;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.CfgLikeRecord;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.ComposableTransitionInformation;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.GlobalVariable;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.LocalVariable;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.SlotVariableMap;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.TransitionCache;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.TransitionGraphRecord;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.UpdateCache;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.VariableSymbolTable;
 import de.tub.pes.syscir.statespace_exploration.transition_informations.NoInformation;
 import de.tub.pes.syscir.statespace_exploration.transition_informations.VariablesReadWrittenInformation;
 import de.tub.pes.syscir.statespace_exploration.transition_informations.pdg.PdgInformation;
@@ -53,15 +76,21 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.PrintWriter;
+import java.nio.ByteBuffer;
 import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 import java.util.regex.Pattern;
 
 public class Main {
@@ -69,50 +98,155 @@ public class Main {
     public static final Predicate<Object> ALWAYS_TRUE = x -> true;
     public static final Predicate<Object> ALWAYS_FALSE = x -> false;
 
+    public enum ExplorationMode {
+        SEQUENTIAL, CONCURRENT, WORK_STEALING, VIRTUAL_THREADS, PARTIAL_ORDER_REDUCED;
+
+        public boolean isConcurrent() {
+            return this != SEQUENTIAL && this != PARTIAL_ORDER_REDUCED;
+        }
+    }
+
+    public static final String EXPLORATION_MODE_PROPERTY = "syscir.explorationMode";
+    public static final String REGRESSION_CHECK_PROPERTY = "syscir.regressionCheck";
+
+    /**
+     * The outcome of analyzing one example, as compared by a {@link RegressionCheck}.
+     *
+     * @param name the name of the example
+     * @param numExploredStates the number of nodes of the TIG
+     * @param verdicts for each node of interest, whether it is contained in the slice
+     * @param compactedSlice the compacted nodes of the slice
+     * @param compactedNodes the compacted nodes of the SysCDG
+     * @param compactedEdges the compacted edges of the SysCDG
+     */
+    public record ExampleResult(String name, long numExploredStates, Map<String, Boolean> verdicts,
+            Set<String> compactedSlice, Set<String> compactedNodes, Set<String> compactedEdges) {}
+
+    public enum VisitedStatesMode {
+        EXACT, FINGERPRINT, BITSTATE, SPILLING;
+    }
+
+    // besides the visited states, the CfgLikeRecord identifies states by fingerprint or encoding in the
+    // non-exact modes (see recordStateKey), so explored states can be collected there as well
+    public static VisitedStatesMode visitedStatesMode =
+            VisitedStatesMode.valueOf(System.getProperty("syscir.visitedStates", VisitedStatesMode.EXACT.name()));
+    public static int bitstateLog2NumBits = Integer.getInteger("syscir.bitstateLog2NumBits", 30);
+    public static int bitstateNumHashes = Integer.getInteger("syscir.bitstateNumHashes", 3);
+    public static long maxCachedBytes = Long.getLong("syscir.maxCachedBytes", 256L << 20);
+    public static File spillDirectory =
+            new File(System.getProperty("syscir.spillDirectory", System.getProperty("java.io.tmpdir")));
+    // only usable with records not needing every reachable state, so the examples refuse it
+    public static boolean symmetryReduction = Boolean.getBoolean("syscir.symmetryReduction");
+    // never merges branches that rejoin within a step, so k consecutive undecidable if-statements cost
+    // 2^k executions of the remaining step (see BaseProcess#setInPlaceSmallSteps)
+    public static boolean inPlaceSmallSteps = Boolean.getBoolean("syscir.inPlaceSmallSteps");
+    public static int transitionCacheSize = Integer.getInteger("syscir.transitionCacheSize", 0);
+    public static int updateCacheSize = Integer.getInteger("syscir.updateCacheSize", 0);
+    public static boolean collisionStatistics = Boolean.getBoolean("syscir.collisionStatistics");
+    public static boolean stateInterning = Boolean.getBoolean("syscir.stateInterning");
+    public static boolean channelIntrinsics = Boolean.getBoolean("syscir.channelIntrinsics");
+
+    private final ExplorationMode explorationMode;
+
+    public Main(ExplorationMode explorationMode) {
+        this.explorationMode = Objects.requireNonNull(explorationMode);
+    }
+
+    private static <P extends BaseProcess<?, ?, ?, ?, ?>> P configureProcess(P process) {
+        process.setInPlaceSmallSteps(inPlaceSmallSteps);
+        process.setTransitionCacheSize(transitionCacheSize);
+        return process;
+    }
+
     public static TriFunction<SCSystem, SCProcess, SCClassInstance, NoVariablesNoInformationProcess> processConstructor(
             NoVariablesNoInformationScheduler scheduler) {
-        return (s, p, i) -> new NoVariablesNoInformationProcess(s, p, i, scheduler);
+        return (s, p, i) -> configureProcess(new NoVariablesNoInformationProcess(s, p, i, scheduler));
     }
 
     public static TriFunction<SCSystem, SCProcess, SCClassInstance, SomeVariablesProcess<BinaryAbstractedValue<?>, NoInformation>> noInformationProcessConstructor(
             SomeVariablesScheduler<BinaryAbstractedValue<?>, NoInformation> scheduler,
             Predicate<? super GlobalVariable<?, ?>> globalVariableStorageCondition,
             Predicate<? super LocalVariable<?>> localVariableStorageCondition) {
-        return (s, p, i) -> SomeVariablesProcess.withBinaryAbstractionAndNoInformation(s, p, i, scheduler,
-                globalVariableStorageCondition, localVariableStorageCondition);
+        return (s, p, i) -> configureProcess(SomeVariablesProcess.withBinaryAbstractionAndNoInformation(s, p, i,
+                scheduler, globalVariableStorageCondition, localVariableStorageCondition));
     }
 
     public static TriFunction<SCSystem, SCProcess, SCClassInstance, SomeVariablesProcess<BinaryAbstractedValue<?>, VariablesReadWrittenInformation<BinaryAbstractedValue<Boolean>>>> variablesReadWrittenInformationProcessConstructor(
             SomeVariablesScheduler<BinaryAbstractedValue<?>, VariablesReadWrittenInformation<BinaryAbstractedValue<Boolean>>> scheduler,
             Predicate<? super GlobalVariable<?, ?>> globalVariableStorageCondition,
             Predicate<? super LocalVariable<?>> localVariableStorageCondition) {
-        return (s, p, i) -> SomeVariablesProcess.withBinaryAbstractionAndVariablesReadWrittenInformation(s, p, i,
-                scheduler, globalVariableStorageCondition, localVariableStorageCondition);
+        return (s, p, i) -> configureProcess(SomeVariablesProcess.withBinaryAbstractionAndVariablesReadWrittenInformation(
+                s, p, i, scheduler, globalVariableStorageCondition, localVariableStorageCondition));
     }
 
     public static TriFunction<SCSystem, SCProcess, SCClassInstance, SomeVariablesProcess<BinaryAbstractedValue<?>, PdgInformation>> pdgInformationProcessConstructor(
             SomeVariablesScheduler<BinaryAbstractedValue<?>, PdgInformation> scheduler,
             Predicate<? super GlobalVariable<?, ?>> globalVariableStorageCondition,
             Predicate<? super LocalVariable<?>> localVariableStorageCondition) {
-        return (s, p, i) -> SomeVariablesProcess.withBinaryAbstractionAndPdgInformation(s, p, i, scheduler,
-                globalVariableStorageCondition, localVariableStorageCondition);
+        return (s, p, i) -> configureProcess(SomeVariablesProcess.withBinaryAbstractionAndPdgInformation(s, p, i,
+                scheduler, globalVariableStorageCondition, localVariableStorageCondition));
     }
 
     public static <G extends GlobalState<G>, P extends ProcessState<P, ?>, T extends TransitionInformation<T>, ProcessT extends AnalyzedProcess<ProcessT, G, P, T>> StateSpaceExploration<G, P, T, ProcessT> constructExplorer(
-            Scheduler<G, P, T, ProcessT> scheduler, ExplorationRecord<G, P, T> record,
-            Set<ConsideredState<G, P, ProcessT>> initialStates) {
-        return new SequentialStateSpaceExploration<>(scheduler, record, initialStates);
+            ExplorationMode explorationMode, Scheduler<G, P, T, ProcessT> scheduler, ExplorationRecord<G, P, T> record,
+            Set<ConsideredState<G, P, ProcessT>> initialStates, Function<? super T, ? extends Collection<?>> readFootprint,
+            Function<? super T, ? extends Collection<?>> writtenFootprint,
+            UnaryOperator<ConsideredState<G, P, ProcessT>> canonicalizer, StateCodec<ConsideredState<G, P, ProcessT>> codec) {
+        if (canonicalizer != null && explorationMode == ExplorationMode.PARTIAL_ORDER_REDUCED) {
+            // the sleep sets are stored per explored state, not per representative
+            throw new IllegalStateException("symmetry reduction cannot be combined with partial order reduction");
+        }
+        if (canonicalizer != null && record.requiresAllStates()) {
+            // the TIG would lack the transitions out of states equivalent to visited ones, such that the
+            // PDG built from it would miss dependencies (see SymmetryReductionCheck)
+            throw new IllegalStateException("symmetry reduction cannot be used with a record of all transitions");
+        }
+        if (codec == null && visitedStatesMode == VisitedStatesMode.SPILLING) {
+            throw new IllegalStateException("spilling visited states requires a state codec");
+        }
+        // create the spill directory up front, so that a misconfiguration fails before exploring
+        if (visitedStatesMode == VisitedStatesMode.SPILLING && !spillDirectory.isDirectory()
+                && !spillDirectory.mkdirs()) {
+            throw new IllegalStateException("spill directory " + spillDirectory + " cannot be created");
+        }
+
+        StateSpaceExploration<G, P, T, ProcessT> explorer = switch (explorationMode) {
+            case SEQUENTIAL -> new SequentialStateSpaceExploration<>(scheduler, record, initialStates);
+            case CONCURRENT -> new ConcurrentStateSpaceExploration<>(scheduler, record, initialStates);
+            case WORK_STEALING -> new WorkStealingStateSpaceExploration<>(scheduler, record, initialStates);
+            case VIRTUAL_THREADS -> new VirtualThreadStateSpaceExploration<>(scheduler, record, initialStates);
+            case PARTIAL_ORDER_REDUCED -> new PartialOrderReducedStateSpaceExploration<>(scheduler, record,
+                    initialStates, readFootprint, writtenFootprint);
+        };
+
+        StateInterner interner = stateInterning ? new StateInterner() : null;
+        VisitedStates<ConsideredState<G, P, ProcessT>> visitedStates = switch (visitedStatesMode) {
+            case EXACT -> new ExactVisitedStates<>(explorationMode.isConcurrent());
+            case FINGERPRINT -> new FingerprintVisitedStates<>(ConsideredState::fingerprint);
+            case BITSTATE -> new BitstateVisitedStates<>(bitstateLog2NumBits, bitstateNumHashes,
+                    ConsideredState::fingerprint);
+            case SPILLING -> new SpillingVisitedStates<>(spillDirectory, maxCachedBytes, codec, interner);
+        };
+        if (canonicalizer != null) {
+            visitedStates = new CanonicalizingVisitedStates<>(visitedStates, canonicalizer);
+        }
+        explorer.setVisitedStates(visitedStates);
+        if (interner != null) {
+            explorer.setStateInterner(interner);
+        }
+        return explorer;
     }
 
-    public static <G extends GlobalState<G>, P extends ProcessState<P, ?>, T extends ComposableTransitionInformation<T>> TransitionGraphRecord<G, P, T> constructRecord() {
-        return new TransitionGraphRecord<>(false);
+    public static <G extends GlobalState<G>, P extends ProcessState<P, ?>, T extends ComposableTransitionInformation<T>> TransitionGraphRecord<G, P, T> constructRecord(
+            ExplorationMode explorationMode) {
+        return new TransitionGraphRecord<>(explorationMode.isConcurrent());
     }
 
     public static <V extends AbstractedValue<V, ?, ?>> TriFunction<Map<Event, TimedBlocker>, Set<WrappedSCClassInstance>, Boolean, SomeVariablesGlobalState<V>> globalStateConstructor(
             SCSystem scSystem, Function<Object, ? extends V> determinedValueConstructor) {
         return (eventStates, requestedUpdates, simulationStopped) -> {
             SomeVariablesGlobalState<V> result = new SomeVariablesGlobalState<>(eventStates, requestedUpdates,
-                    simulationStopped, new LinkedHashMap<>());
+                    simulationStopped, new SlotVariableMap<>(VariableSymbolTable.of(scSystem)));
 
             for (SCConnectionInterface con : scSystem.getPortSocketInstances()) {
                 SCPortInstance portInstance = (SCPortInstance) con;
@@ -156,21 +290,61 @@ public class Main {
         };
     }
 
+    public static <V extends AbstractedValue<V, ?, ?>> BiFunction<ProcessBlocker, List<EvaluationContext<V>>, SomeVariablesProcessState<V>> processStateConstructor(
+            SCSystem scSystem) {
+        VariableSymbolTable symbols = VariableSymbolTable.of(scSystem);
+        return (waitingFor, executionStack) -> new SomeVariablesProcessState<>(waitingFor, executionStack, symbols);
+    }
+
     public static <G extends SomeVariablesGlobalState<V>, V extends AbstractedValue<V, ?, ?>, ProcessT extends SomeVariablesProcess<V, ?>> Set<Event> initialSensitivitiesGetter(
             ProcessT process, G globalState) {
         return process.getSensitivities(globalState);
     }
 
     public static void main(String[] args) throws IOException {
-        Main main = new Main();
-        main.runningExample();
-        main.timingAgnosticExample();
-        main.timingLeakExample();
-        main.changeDependentExample();
-        main.gpioBasedExample();
+        String property = System.getProperty(EXPLORATION_MODE_PROPERTY);
+        ExplorationMode explorationMode =
+                ExplorationMode.valueOf(property == null ? ExplorationMode.SEQUENTIAL.name() : property.toUpperCase());
+        if (args.length > 0) {
+            ExplorationMode argument = ExplorationMode.valueOf(args[0].toUpperCase());
+            if (property != null && argument != explorationMode) {
+                throw new IllegalArgumentException("exploration mode " + argument + " given as argument conflicts with "
+                        + explorationMode + " given by " + EXPLORATION_MODE_PROPERTY);
+            }
+            explorationMode = argument;
+        }
+        if (SomeVariablesStateCodecBenchmark.isEnabled() && (visitedStatesMode == VisitedStatesMode.FINGERPRINT
+                || visitedStatesMode == VisitedStatesMode.BITSTATE)) {
+            throw new IllegalArgumentException("the state codec benchmark needs the explored states, which are not "
+                    + "stored with visited states mode " + visitedStatesMode);
+        }
+
+        String regressionCheck = System.getProperty(REGRESSION_CHECK_PROPERTY);
+        if (regressionCheck != null) {
+            boolean passed = switch (regressionCheck.toUpperCase()) {
+                case SymmetryReductionCheck.NAME -> SymmetryReductionCheck.run(System.out);
+                case PersistentHashMapCheck.NAME -> PersistentHashMapCheck.run(System.out);
+                case SelfLoopCheck.NAME -> SelfLoopCheck.run(System.out);
+                default -> RegressionCheck.valueOf(regressionCheck.toUpperCase()).run(System.out);
+            };
+            System.exit(passed ? 0 : 1);
+        }
+
+        new Main(explorationMode).runExamples();
+    }
+
+    public List<ExampleResult> runExamples() throws IOException {
+        List<ExampleResult> results = new ArrayList<>();
+        results.add(runningExample());
+        results.add(timingAgnosticExample());
+        results.add(timingLeakExample());
+        results.add(changeDependentExample());
+        results.add(gpioBasedExample());
+        results.add(fifoMutexExample());
+        return results;
     }
 
-    public void runningExample() throws IOException {
+    public ExampleResult runningExample() throws IOException {
         String path = "examples/running_example/";
         SCSystem scSystem = Engine.buildModelFromFile(path + "sc2ast.ast.xml");
 
@@ -185,14 +359,14 @@ public class Main {
         ConsideredState<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, SomeVariablesProcess<BinaryAbstractedValue<?>, PdgInformation>> initialState =
                 ConsideredState.getInitialState(scSystem, globalStateConstructor(scSystem, BinaryAbstractedValue::of),
                         pdgInformationProcessConstructor(scheduler, eventsAndPortsOnlyGlobal, ALWAYS_FALSE),
-                        SomeVariablesProcessState::new, Main::initialSensitivitiesGetter, BinaryAbstractedValue::of);
+                        processStateConstructor(scSystem), Main::initialSensitivitiesGetter, BinaryAbstractedValue::of);
 
-        executeExample("RunningExample", path, scheduler, initialState, "(STATEMENT [paperProdcons pc;, pump:[0, 3]])",
+        return executeExample("RunningExample", path, scheduler, initialState, "(STATEMENT [paperProdcons pc;, pump:[0, 3]])",
                 Map.of("Untrusted input", "(IN GVar[paperProdcons pc;.int UNTRUSTED_IN;])", "Trusted input",
                         "(IN GVar[paperProdcons pc;.int TRUSTED_IN;])"));
     }
 
-    public void timingAgnosticExample() throws IOException {
+    public ExampleResult timingAgnosticExample() throws IOException {
         String path = "examples/timing_agnostic/";
         SCSystem scSystem = Engine.buildModelFromFile(path + "sc2ast.ast.xml");
 
@@ -207,15 +381,15 @@ public class Main {
         ConsideredState<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, SomeVariablesProcess<BinaryAbstractedValue<?>, PdgInformation>> initialState =
                 ConsideredState.getInitialState(scSystem, globalStateConstructor(scSystem, BinaryAbstractedValue::of),
                         pdgInformationProcessConstructor(scheduler, eventsAndPortsOnlyGlobal, ALWAYS_FALSE),
-                        SomeVariablesProcessState::new, Main::initialSensitivitiesGetter, BinaryAbstractedValue::of);
+                        processStateConstructor(scSystem), Main::initialSensitivitiesGetter, BinaryAbstractedValue::of);
 
-        executeExample("TimingAgnostic", path, scheduler, initialState,
+        return executeExample("TimingAgnostic", path, scheduler, initialState,
                 "(STATEMENT [paperTimeAgnostic ta;, pump:[0, 3]])",
                 Map.of("Untrusted input", "(IN GVar[paperTimeAgnostic ta;.int UNTRUSTED_IN;])", "Trusted input",
                         "(IN GVar[paperTimeAgnostic ta;.int TRUSTED_IN;])"));
     }
 
-    public void timingLeakExample() throws IOException {
+    public ExampleResult timingLeakExample() throws IOException {
         String path = "examples/timing_leak/";
         SCSystem scSystem = Engine.buildModelFromFile(path + "sc2ast.ast.xml");
 
@@ -230,14 +404,14 @@ public class Main {
         ConsideredState<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, SomeVariablesProcess<BinaryAbstractedValue<?>, PdgInformation>> initialState =
                 ConsideredState.getInitialState(scSystem, globalStateConstructor(scSystem, BinaryAbstractedValue::of),
                         pdgInformationProcessConstructor(scheduler, eventsAndPortsOnlyGlobal, ALWAYS_FALSE),
-                        SomeVariablesProcessState::new, Main::initialSensitivitiesGetter, BinaryAbstractedValue::of);
+                        processStateConstructor(scSystem), Main::initialSensitivitiesGetter, BinaryAbstractedValue::of);
 
-        executeExample("TimingLeak", path, scheduler, initialState, "(STATEMENT [paperTimingLeak tl;, pump:[0, 3]])",
+        return executeExample("TimingLeak", path, scheduler, initialState, "(STATEMENT [paperTimingLeak tl;, pump:[0, 3]])",
                 Map.of("Untrusted input", "(IN GVar[paperTimingLeak tl;.int UNTRUSTED_IN;])", "Trusted input",
                         "(IN GVar[paperTimingLeak tl;.int TRUSTED_IN;])"));
     }
 
-    public void changeDependentExample() throws IOException {
+    public ExampleResult changeDependentExample() throws IOException {
         String path = "examples/change_dependent/";
         SCSystem scSystem = Engine.buildModelFromFile(path + "sc2ast.ast.xml");
 
@@ -252,15 +426,15 @@ public class Main {
         ConsideredState<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, SomeVariablesProcess<BinaryAbstractedValue<?>, PdgInformation>> initialState =
                 ConsideredState.getInitialState(scSystem, globalStateConstructor(scSystem, BinaryAbstractedValue::of),
                         pdgInformationProcessConstructor(scheduler, eventsAndPortsOnlyGlobal, ALWAYS_FALSE),
-                        SomeVariablesProcessState::new, Main::initialSensitivitiesGetter, BinaryAbstractedValue::of);
+                        processStateConstructor(scSystem), Main::initialSensitivitiesGetter, BinaryAbstractedValue::of);
 
-        executeExample("ChangeDependent", path, scheduler, initialState,
+        return executeExample("ChangeDependent", path, scheduler, initialState,
                 "(STATEMENT [paperChangeDependent cd;, pump:[0, 4]])",
                 Map.of("Untrusted input", "(IN GVar[paperChangeDependent cd;.int UNTRUSTED_IN;])", "Trusted input",
                         "(IN GVar[paperChangeDependent cd;.int TRUSTED_IN;])"));
     }
 
-    public void gpioBasedExample() throws IOException {
+    public ExampleResult gpioBasedExample() throws IOException {
         String path = "examples/gpio_based/";
         SCSystem scSystem = Engine.buildModelFromFile(path + "sc2ast.ast.xml");
 
@@ -300,7 +474,7 @@ public class Main {
         ConsideredState<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, SomeVariablesProcess<BinaryAbstractedValue<?>, PdgInformation>> initialState =
                 ConsideredState.getInitialState(scSystem, globalStateConstructor(scSystem, BinaryAbstractedValue::of),
                         pdgInformationProcessConstructor(scheduler, globalVarsPredicate, localVarsPredicate),
-                        SomeVariablesProcessState::new, Main::initialSensitivitiesGetter, BinaryAbstractedValue::of);
+                        processStateConstructor(scSystem), Main::initialSensitivitiesGetter, BinaryAbstractedValue::of);
 
         initialState = initialState.unlockedClone();
         initialState.getProcessStates().values().stream().forEach(ps -> {
@@ -349,21 +523,94 @@ public class Main {
         }
         initialState.lock();
 
-        executeExample("GpioExample", path, scheduler, initialState, "(STATEMENT [gpioTest gpioTest;, pump:[1, 1]])",
+        return executeExample("GpioExample", path, scheduler, initialState, "(STATEMENT [gpioTest gpioTest;, pump:[1, 1]])",
                 Map.of("Sensor", "(IN GVar[gpioTest gpioTest;.sc_uint<8> SENSOR_VALUE;])", "WiFi",
                         "(IN GVar[gpioTest gpioTest;.sc_uint<8> WIFI_VALUE;])"));
     }
 
-    public void executeExample(String name, String path,
+    public ExampleResult fifoMutexExample() throws IOException {
+        String path = "examples/fifo_mutex/";
+        SCSystem scSystem = Engine.buildModelFromFile(path + "sc2ast.ast.xml");
+
+        Predicate<GlobalVariable<?, ?>> globalVarsPredicate = SomeVariablesChannelIntrinsics::isChannelState;
+
+        SomeVariablesScheduler<BinaryAbstractedValue<?>, PdgInformation> scheduler = SomeVariablesScheduler
+                .withBinaryAbstractionAndPdgInformation(scSystem, SimulationStopMode.SC_STOP_FINISH_IMMEDIATE,
+                        ALWAYS_TRUE, globalVarsPredicate, ALWAYS_FALSE);
+
+        ConsideredState<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, SomeVariablesProcess<BinaryAbstractedValue<?>, PdgInformation>> initialState =
+                ConsideredState.getInitialState(scSystem, globalStateConstructor(scSystem, BinaryAbstractedValue::of),
+                        pdgInformationProcessConstructor(scheduler, globalVarsPredicate, ALWAYS_FALSE),
+                        processStateConstructor(scSystem), Main::initialSensitivitiesGetter, BinaryAbstractedValue::of);
+
+        initialState = initializeChannels(scSystem, initialState);
+
+        return executeExample("FifoMutexExample", path, scheduler, initialState,
+                "(STATEMENT [paperFifoMutex fm;, pump:[0, 5]])",
+                Map.of("Untrusted input", "(IN GVar[paperFifoMutex fm;.int UNTRUSTED_IN;])", "Trusted input",
+                        "(IN GVar[paperFifoMutex fm;.int TRUSTED_IN;])"));
+    }
+
+    // constructors are not executed, so initialize the channels as their constructors would
+    static <ProcessT extends AnalyzedProcess<ProcessT, SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, ?>> ConsideredState<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, ProcessT> initializeChannels(
+            SCSystem scSystem,
+            ConsideredState<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, ProcessT> initialState) {
+        initialState = initialState.unlockedClone();
+        SomeVariablesChannelIntrinsics.<BinaryAbstractedValue<?>> initializeChannels(scSystem,
+                initialState.getGlobalState(), BinaryAbstractedValue::of);
+        initialState.lock();
+        return initialState;
+    }
+
+
+    /**
+     * Returns the function by which the {@link CfgLikeRecord} identifies states in the current
+     * {@link #visitedStatesMode}.
+     * <p>
+     * With exact visited states, the record just keeps the states, as they are retained anyway. In the
+     * other modes, it would otherwise keep every explored state alive and thus void the memory savings.
+     * It keeps their fingerprints instead, identifying states exactly as the visited states do, or
+     * their (exact) encodings when spilling.
+     */
+    private static <G extends GlobalState<G>, P extends ProcessState<P, ?>, ProcessT extends AnalyzedProcess<ProcessT, G, P, ?>> Function<ConsideredState<G, P, ?>, ?> recordStateKey(
+            StateCodec<ConsideredState<G, P, ProcessT>> codec) {
+        return switch (visitedStatesMode) {
+            case EXACT -> state -> state;
+            case FINGERPRINT, BITSTATE -> ConsideredState::fingerprint;
+            // the record only receives the states the explorer produced, so the cast is safe
+            case SPILLING -> state -> ByteBuffer.wrap(codec.encode(castState(state)));
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <G extends GlobalState<G>, P extends ProcessState<P, ?>, ProcessT extends AnalyzedProcess<ProcessT, G, P, ?>> ConsideredState<G, P, ProcessT> castState(
+            ConsideredState<G, P, ?> state) {
+        return (ConsideredState<G, P, ProcessT>) state;
+    }
+
+    public ExampleResult executeExample(String name, String path,
             SomeVariablesScheduler<BinaryAbstractedValue<?>, PdgInformation> scheduler,
             ConsideredState<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, SomeVariablesProcess<BinaryAbstractedValue<?>, PdgInformation>> initialState,
             String slicingCriterion, Map<String, String> nodesOfInterest) throws IOException {
+        scheduler.setUpdateCacheSize(updateCacheSize);
+        SomeVariablesChannelIntrinsics.setEnabled(channelIntrinsics);
+        SomeVariablesStateCodec<BinaryAbstractedValue<?>, SomeVariablesProcess<BinaryAbstractedValue<?>, PdgInformation>> codec =
+                new SomeVariablesStateCodec<>(initialState);
         CfgLikeRecord<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, PdgInformation> record =
-                new CfgLikeRecord<>(false, PdgInformation::getReadVariables, PdgInformation::getWrittenVariables,
-                        initialState);
+                new CfgLikeRecord<>(this.explorationMode.isConcurrent(), PdgInformation::getReadVariables, PdgInformation::getWrittenVariables,
+                        initialState, recordStateKey(codec));
+        SomeVariablesSymmetryReduction<BinaryAbstractedValue<?>, PdgInformation> symmetry =
+                symmetryReduction ? new SomeVariablesSymmetryReduction<BinaryAbstractedValue<?>, PdgInformation>(
+                        initialState, BinaryAbstractedValue::of) : null;
         StateSpaceExploration<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, PdgInformation, SomeVariablesProcess<BinaryAbstractedValue<?>, PdgInformation>> explorer =
-                constructExplorer(scheduler, record, Set.of(initialState));
-
+                constructExplorer(this.explorationMode, scheduler, record, Set.of(initialState), i -> i.getReadVariables().keySet(),
+                        i -> i.getWrittenVariables().keySet(), symmetry == null ? null : symmetry::canonicalize,
+                        codec);
+
+        ConsideredState.setCollisionStatisticsEnabled(collisionStatistics);
+        ConsideredState.resetCollisionStatistics();
+        TransitionCache.resetStatistics();
+        UpdateCache.resetStatistics();
         long explorationStartTime = System.nanoTime();
         explorer.run();
         long explorationEndTime = System.nanoTime();
@@ -390,6 +637,14 @@ public class Main {
 
         long totalTime = explorationTime + integrationTime + slicingTime;
 
+        SomeVariablesStateCodecBenchmark.Result codecResult = null;
+        if (SomeVariablesStateCodecBenchmark.isEnabled()) {
+            codecResult = new SomeVariablesStateCodecBenchmark<BinaryAbstractedValue<?>, SomeVariablesProcess<BinaryAbstractedValue<?>, PdgInformation>>()
+                    .run(codec, explorer.getExploredStates());
+        }
+        // the explored states are not needed anymore, so spilled ones can be deleted
+        explorer.closeVisitedStates();
+
         explorationTime = Math.round(explorationTime / 1000000.0);
         integrationTime = Math.round(integrationTime / 1000000.0);
         slicingTime = Math.round(slicingTime / 1000000.0);
@@ -449,7 +704,33 @@ public class Main {
         output.println("=== Report on " + name + " ===");
         output.println();
 
+        output.println("Exploration mode: " + this.explorationMode);
+        output.println("Visited states mode: " + visitedStatesMode);
+        if (symmetry != null) {
+            output.println("Symmetry groups: " + symmetry.getSymmetryGroups());
+        }
         output.println("TIG #nodes: " + explorer.getNumExploredStates());
+        if (explorer.getStateInterner() != null) {
+            output.println("TIG #distinct state components: " + explorer.getStateInterner().getNumCanonicalInstances());
+        }
+        if (explorer instanceof PartialOrderReducedStateSpaceExploration<?, ?, ?, ?> reducedExplorer) {
+            output.println("TIG #pruned steps: " + reducedExplorer.getNumPrunedSteps());
+        }
+        if (visitedStatesMode != VisitedStatesMode.EXACT) {
+            output.println("TIG probability of omission: " + explorer.getOmissionProbability());
+        }
+        if (collisionStatistics) {
+            output.println("TIG #hash collisions: " + ConsideredState.getNumHashCollisions());
+            output.println("TIG #fingerprint collisions: " + ConsideredState.getNumFingerprintCollisions());
+        }
+        if (transitionCacheSize > 0) {
+            output.println("TIG #transition cache hits: " + TransitionCache.getNumHits());
+            output.println("TIG #transition cache misses: " + TransitionCache.getNumMisses());
+        }
+        if (updateCacheSize > 0) {
+            output.println("TIG #update cache hits: " + UpdateCache.getNumHits());
+            output.println("TIG #update cache misses: " + UpdateCache.getNumMisses());
+        }
         output.println("SysCDG #nodes: " + sdg.getNodes().size());
         output.println("SysCDG #nodes (compacted): " + compactedNodes.size());
         output.println("SysCDG %nodes (compacted): "
@@ -471,6 +752,11 @@ public class Main {
         output.println("Total time: " + totalTime + " ms");
         output.println();
 
+        if (codecResult != null) {
+            codecResult.print(output);
+            output.println();
+        }
+
         printWriter.println("Slicing criteria:");
         criteria.stream().map(displayMapper).forEach(printWriter::println);
         printWriter.println();
@@ -505,6 +791,9 @@ public class Main {
         printWriter.println();
 
         printWriter.close();
+
+        return new ExampleResult(name, explorer.getNumExploredStates(), nodesOfInteresetContained, compactedSlice,
+                compactedNodes, compactedEdges);
     }
 
 }
@@ -0,0 +1,333 @@
+package de.tub.pes.syscir;
+
+import de.tub.pes.syscir.statespace_exploration.PersistentHashMap;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Checks {@link PersistentHashMap} against the maps of java.util.
+ *
+ * The keys used by the check have chosen hashes, such that the trie contains collision nodes (keys
+ * with equal hashes), deep paths (keys whose hashes share all but their last bits) as well as
+ * ordinary entries. The check consists of three parts:
+ * <ul>
+ * <li>random puts, removals (directly and via iterators) and copies, after each of which the map
+ * must agree with a reference map in its contents, hashCode and fingerprint, and earlier copies must
+ * remain unchanged,</li>
+ * <li>filling and emptying collision nodes, including pushing them down next to a key with a
+ * different hash and pulling single remaining entries back up,</li>
+ * <li>the iteration order, which must only depend on the contents of the map and not on the order of
+ * insertions and removals that led to them, except among keys with equal hashes.</li>
+ * </ul>
+ * <p>
+ * The check is run instead of the examples if the system property
+ * {@value Main#REGRESSION_CHECK_PROPERTY} is set to {@value #NAME}.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ */
+public class PersistentHashMapCheck {
+
+    public static final String NAME = "PERSISTENT_HASH_MAP";
+
+    private static final long SEED = 0x5eed;
+    private static final int NUM_OPERATIONS = 200_000;
+    private static final int NUM_SHUFFLES = 200;
+
+    // hash shared by the colliding keys
+    private static final int COLLIDING_HASH = 0x1234_5678;
+
+    /*
+     * Key with a chosen hash. PersistentHashMap spreads the hashCode by xoring its upper half into its
+     * lower half, which is an involution, so the hashCode is chosen such that spreading it yields the
+     * intended hash.
+     */
+    private static record Key(int hash, int id) {
+
+        @Override
+        public int hashCode() {
+            return this.hash ^ (this.hash >>> 16);
+        }
+
+        @Override
+        public String toString() {
+            return Integer.toHexString(this.hash) + "#" + this.id;
+        }
+
+    }
+
+    private PersistentHashMapCheck() {}
+
+    /**
+     * Runs the check and prints its outcome.
+     *
+     * @param output the stream to print the outcome to
+     * @return whether all parts of the check passed
+     */
+    public static boolean run(PrintStream output) {
+        output.println("=== Regression check " + NAME + " ===");
+        output.println();
+
+        List<Key> keys = createKeys(new Random(SEED));
+        boolean passed = true;
+        passed &= report(output, "random operations", () -> checkRandomOperations(keys, new Random(SEED)));
+        passed &= report(output, "collision nodes", () -> checkCollisions(keys));
+        passed &= report(output, "iteration order", () -> checkIterationOrder(keys, new Random(SEED)));
+
+        output.println();
+        output.println(NAME + (passed ? " passed" : " FAILED"));
+        return passed;
+    }
+
+    // runs a part of the check, which returns a description of the failure or null
+    private static boolean report(PrintStream output, String what, Supplier<String> part) {
+        String failure;
+        try {
+            failure = part.get();
+        } catch (RuntimeException e) {
+            failure = "threw " + e;
+        }
+        output.println("  " + what + (failure == null ? " passed" : " FAILED: " + failure));
+        return failure == null;
+    }
+
+    private static List<Key> createKeys(Random random) {
+        List<Key> keys = new ArrayList<>();
+        int id = 0;
+        // fully colliding keys, twice: the second group collides at a different place in the trie
+        for (int i = 0; i < 8; i++) {
+            keys.add(new Key(COLLIDING_HASH, id++));
+        }
+        for (int i = 0; i < 4; i++) {
+            keys.add(new Key(COLLIDING_HASH ^ (1 << 31), id++));
+        }
+        // keys sharing all lower levels with the colliding ones
+        for (int bit = 5; bit < 31; bit++) {
+            keys.add(new Key(COLLIDING_HASH ^ (1 << bit), id++));
+        }
+        // keys sharing only the first level
+        for (int i = 0; i < 8; i++) {
+            keys.add(new Key((random.nextInt() & ~0x1f) | (COLLIDING_HASH & 0x1f), id++));
+        }
+        // ordinary keys
+        for (int i = 0; i < 32; i++) {
+            keys.add(new Key(random.nextInt(), id++));
+        }
+        return keys;
+    }
+
+    private static String checkRandomOperations(List<Key> keys, Random random) {
+        PersistentHashMap<Key, Integer> map = new PersistentHashMap<>();
+        Map<Key, Integer> reference = new HashMap<>();
+        List<PersistentHashMap<Key, Integer>> copies = new ArrayList<>();
+        List<Map<Key, Integer>> copiedReferences = new ArrayList<>();
+
+        for (int i = 0; i < NUM_OPERATIONS; i++) {
+            Key key = keys.get(random.nextInt(keys.size()));
+            int operation = random.nextInt(100);
+            String description;
+            if (operation < 45) {
+                Integer value = random.nextInt(10) == 0 ? null : random.nextInt(4);
+                description = "put(" + key + ", " + value + ")";
+                if (!Objects.equals(map.put(key, value), reference.put(key, value))) {
+                    return description + " returned the wrong previous value";
+                }
+            } else if (operation < 85) {
+                description = "remove(" + key + ")";
+                if (!Objects.equals(map.remove(key), reference.remove(key))) {
+                    return description + " returned the wrong value";
+                }
+            } else if (operation < 93) {
+                // remove an arbitrary entry via the iterator and change another one via its entry
+                description = "iterator modification";
+                Iterator<Entry<Key, Integer>> iterator = map.entrySet().iterator();
+                int toSkip = map.isEmpty() ? 0 : random.nextInt(map.size());
+                for (int j = 0; j < toSkip; j++) {
+                    iterator.next();
+                }
+                if (iterator.hasNext()) {
+                    Key removed = iterator.next().getKey();
+                    iterator.remove();
+                    reference.remove(removed);
+                }
+                if (iterator.hasNext()) {
+                    Entry<Key, Integer> entry = iterator.next();
+                    entry.setValue(i);
+                    reference.put(entry.getKey(), i);
+                }
+            } else {
+                if (copies.size() == 8) {
+                    int index = random.nextInt(copies.size());
+                    copies.remove(index);
+                    copiedReferences.remove(index);
+                }
+                description = operation < 97 ? "copy" : "switch to copy";
+                copies.add(new PersistentHashMap<>(map));
+                copiedReferences.add(new HashMap<>(reference));
+                if (operation >= 97) {
+                    // continue with the copy, such that the original is the one that remains unchanged
+                    map = copies.set(copies.size() - 1, map);
+                    map.put(key, -1);
+                    reference.put(key, -1);
+                }
+            }
+
+            String failure = compare(map, reference, keys);
+            if (failure != null) {
+                return "after operation " + i + " (" + description + "): " + failure;
+            }
+            if (i % 1000 == 0) {
+                for (int j = 0; j < copies.size(); j++) {
+                    failure = compare(copies.get(j), copiedReferences.get(j), keys);
+                    if (failure != null) {
+                        return "copy changed by later operations before operation " + i + ": " + failure;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String checkCollisions(List<Key> keys) {
+        List<Key> colliding = keys.subList(0, 8);
+        Key pushingDown = keys.stream().filter(k -> k.hash() == (COLLIDING_HASH ^ (1 << 30))).findAny().get();
+
+        PersistentHashMap<Key, Integer> map = new PersistentHashMap<>();
+        Map<Key, Integer> reference = new HashMap<>();
+        for (Key key : colliding) {
+            map.put(key, key.id());
+            reference.put(key, key.id());
+        }
+        String failure = compare(map, reference, keys);
+        if (failure != null) {
+            return "after filling: " + failure;
+        }
+
+        // a key differing only in the last level forces the collision node below a new bitmap node
+        map.put(pushingDown, -1);
+        reference.put(pushingDown, -1);
+        failure = compare(map, reference, keys);
+        if (failure != null) {
+            return "after pushing down: " + failure;
+        }
+
+        // removing all but one colliding key pulls the remaining one up again, in any order
+        for (int start = 0; start < colliding.size(); start++) {
+            PersistentHashMap<Key, Integer> copy = new PersistentHashMap<>(map);
+            Map<Key, Integer> copiedReference = new HashMap<>(reference);
+            for (int j = 1; j < colliding.size(); j++) {
+                Key removed = colliding.get((start + j) % colliding.size());
+                copy.remove(removed);
+                copiedReference.remove(removed);
+                failure = compare(copy, copiedReference, keys);
+                if (failure != null) {
+                    return "after removing " + removed + ": " + failure;
+                }
+            }
+            copy.remove(pushingDown);
+            copiedReference.remove(pushingDown);
+            failure = compare(copy, copiedReference, keys);
+            if (failure != null) {
+                return "after removing " + pushingDown + ": " + failure;
+            }
+            // removing the last entry of a collision node must leave an empty map behind
+            copy.remove(colliding.get(start));
+            if (!copy.isEmpty() || copy.entrySet().iterator().hasNext() || copy.hashCode() != 0
+                    || copy.fingerprint() != 0) {
+                return "map not empty after removing all keys";
+            }
+        }
+
+        failure = compare(map, reference, keys);
+        return failure == null ? null : "original changed by removals from copies: " + failure;
+    }
+
+    private static String checkIterationOrder(List<Key> keys, Random random) {
+        List<Key> expected = null;
+        for (int i = 0; i < NUM_SHUFFLES; i++) {
+            List<Key> insertionOrder = new ArrayList<>(keys);
+            Collections.shuffle(insertionOrder, random);
+
+            // contents: a random subset, reached via insertions and removals of other keys in between
+            PersistentHashMap<Key, Integer> map = new PersistentHashMap<>();
+            Set<Key> removed = new HashSet<>();
+            for (Key key : insertionOrder) {
+                map.put(key, key.id());
+                if (key.id() % 3 == 0) {
+                    Key other = insertionOrder.get(random.nextInt(insertionOrder.size()));
+                    if (other.id() % 2 == 0 && map.containsKey(other)) {
+                        map.remove(other);
+                        removed.add(other);
+                    }
+                }
+            }
+            for (Key key : removed) {
+                map.put(key, key.id());
+            }
+
+            List<Key> actual = new ArrayList<>(map.keySet());
+            if (expected == null) {
+                expected = actual;
+                if (!new HashSet<>(expected).equals(new HashSet<>(keys))) {
+                    return "iteration doesn't yield all keys exactly once";
+                }
+                continue;
+            }
+            for (int j = 0; j < expected.size(); j++) {
+                if (expected.get(j).hash() != actual.get(j).hash()) {
+                    return "order depends on the history: " + expected + " vs. " + actual;
+                }
+            }
+            // keys with equal hashes may be in any order among themselves
+            if (!new HashSet<>(expected).equals(new HashSet<>(actual))) {
+                return "iteration doesn't yield all keys exactly once";
+            }
+        }
+        return null;
+    }
+
+    private static String compare(PersistentHashMap<Key, Integer> map, Map<Key, Integer> reference, List<Key> keys) {
+        if (map.size() != reference.size()) {
+            return "size " + map.size() + " instead of " + reference.size();
+        }
+        if (!map.equals(reference) || !reference.equals(map)) {
+            return map + " instead of " + reference;
+        }
+        if (map.hashCode() != reference.hashCode()) {
+            return "hashCode " + map.hashCode() + " instead of " + reference.hashCode();
+        }
+        if (map.fingerprint() != PersistentHashMap.fingerprint(reference)) {
+            return "fingerprint doesn't match the contents";
+        }
+        for (Key key : keys) {
+            if (map.containsKey(key) != reference.containsKey(key)
+                    || !Objects.equals(map.get(key), reference.get(key))) {
+                return "wrong mapping of " + key;
+            }
+        }
+        Map<Key, Integer> iterated = new LinkedHashMap<>();
+        for (Entry<Key, Integer> entry : map.entrySet()) {
+            if (iterated.containsKey(entry.getKey())) {
+                return "iteration yields " + entry.getKey() + " twice";
+            }
+            iterated.put(entry.getKey(), entry.getValue());
+        }
+        if (!iterated.equals(reference)) {
+            return "iteration yields " + iterated + " instead of " + reference;
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,158 @@
+package de.tub.pes.syscir;
+
+import de.tub.pes.syscir.Main.ExampleResult;
+import de.tub.pes.syscir.Main.ExplorationMode;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Checks that an optional feature of the analysis doesn't change its results, by running all
+ * examples of {@link Main} once without the feature (the baseline) and once with it (the variant)
+ * and comparing the outcomes.
+ *
+ * For every example, the verdicts on the nodes of interest and the compacted slice must be equal.
+ * Checks of features that must not change the SysCDG at all additionally compare its compacted
+ * nodes and edges.
+ * <p>
+ * A check is run instead of the examples if the system property
+ * {@value Main#REGRESSION_CHECK_PROPERTY} is set to its name. It modifies the static configuration
+ * of {@link Main}, so it should be run in a JVM of its own.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ */
+public enum RegressionCheck {
+
+    /**
+     * Built-in models of channel functions (see
+     * {@link de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesChannelIntrinsics})
+     * against interpreting their implementations.
+     */
+    CHANNEL_INTRINSICS(true) {
+
+        @Override
+        protected void configure(boolean variant) {
+            Main.channelIntrinsics = variant;
+        }
+    },
+
+    /**
+     * Executing the small steps of a large step in place (see
+     * {@link de.tub.pes.syscir.statespace_exploration.standard_implementations.BaseProcess#setInPlaceSmallSteps(boolean)})
+     * against using the worklist.
+     */
+    IN_PLACE_SMALL_STEPS(true) {
+
+        @Override
+        protected void configure(boolean variant) {
+            Main.inPlaceSmallSteps = variant;
+        }
+    },
+
+    /**
+     * Partial order reduced exploration (see
+     * {@link de.tub.pes.syscir.statespace_exploration.PartialOrderReducedStateSpaceExploration}) against
+     * sequential exploration. The reduced TIG omits interleavings, so only the verdicts and the slice
+     * are compared.
+     */
+    PARTIAL_ORDER_REDUCTION(false) {
+
+        @Override
+        protected void configure(boolean variant) {
+            // only the exploration mode differs
+        }
+
+        @Override
+        protected ExplorationMode getExplorationMode(boolean variant) {
+            return variant ? ExplorationMode.PARTIAL_ORDER_REDUCED : ExplorationMode.SEQUENTIAL;
+        }
+    };
+
+    private final boolean compareGraph;
+
+    private RegressionCheck(boolean compareGraph) {
+        this.compareGraph = compareGraph;
+    }
+
+    /**
+     * Sets the static configuration of {@link Main} for the baseline or the variant.
+     *
+     * @param variant whether to configure the variant
+     */
+    protected abstract void configure(boolean variant);
+
+    /**
+     * Returns the exploration mode used for the baseline or the variant.
+     *
+     * @param variant whether the mode for the variant is requested
+     * @return the exploration mode
+     */
+    protected ExplorationMode getExplorationMode(boolean variant) {
+        return ExplorationMode.SEQUENTIAL;
+    }
+
+    private List<ExampleResult> runExamples(boolean variant) {
+        configure(variant);
+        try {
+            return new Main(getExplorationMode(variant)).runExamples();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Runs all examples as baseline and as variant and prints the outcome of the comparison.
+     *
+     * @param output the stream to print the outcome to
+     * @return whether the outcomes of baseline and variant agree on all examples
+     */
+    public boolean run(PrintStream output) {
+        List<ExampleResult> baseline = runExamples(false);
+        List<ExampleResult> variant = runExamples(true);
+
+        output.println("=== Regression check " + name() + " ===");
+        output.println();
+
+        boolean passed = true;
+        for (int i = 0; i < baseline.size(); i++) {
+            ExampleResult expected = baseline.get(i);
+            ExampleResult actual = variant.get(i);
+
+            boolean equal = expected.verdicts().equals(actual.verdicts());
+            output.println(expected.name() + ": TIG #nodes " + expected.numExploredStates() + " -> "
+                    + actual.numExploredStates() + ", verdicts " + (equal ? "equal" : "differ"));
+            equal &= compare(output, "slice", expected.compactedSlice(), actual.compactedSlice());
+            if (this.compareGraph) {
+                equal &= compare(output, "SysCDG nodes", expected.compactedNodes(), actual.compactedNodes());
+                equal &= compare(output, "SysCDG edges", expected.compactedEdges(), actual.compactedEdges());
+            }
+            passed &= equal;
+        }
+
+        output.println();
+        output.println(name() + (passed ? " passed" : " FAILED"));
+        return passed;
+    }
+
+    private static boolean compare(PrintStream output, String what, Set<String> expected, Set<String> actual) {
+        if (Objects.equals(expected, actual)) {
+            output.println("  compacted " + what + " equal (" + expected.size() + ")");
+            return true;
+        }
+
+        Set<String> missing = new LinkedHashSet<>(expected);
+        missing.removeAll(actual);
+        Set<String> additional = new LinkedHashSet<>(actual);
+        additional.removeAll(expected);
+        output.println("  compacted " + what + " differ (" + expected.size() + " -> " + actual.size() + ")");
+        missing.forEach(s -> output.println("    - " + s));
+        additional.forEach(s -> output.println("    + " + s));
+        return false;
+    }
+
+}
@@ -0,0 +1,111 @@
+package de.tub.pes.syscir;
+
+import static de.tub.pes.syscir.Main.ALWAYS_FALSE;
+import static de.tub.pes.syscir.Main.ALWAYS_TRUE;
+
+import de.tub.pes.syscir.Main.ExplorationMode;
+import de.tub.pes.syscir.engine.Engine;
+import de.tub.pes.syscir.sc_model.SCSystem;
+import de.tub.pes.syscir.statespace_exploration.ConsideredState;
+import de.tub.pes.syscir.statespace_exploration.Scheduler.SimulationStopMode;
+import de.tub.pes.syscir.statespace_exploration.StateSpaceExploration;
+import de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesGlobalState;
+import de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesProcess;
+import de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesProcessState;
+import de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesScheduler;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.BinaryAbstractedValue;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.CfgLikeRecord;
+import de.tub.pes.syscir.statespace_exploration.transition_informations.pdg.PdgInformation;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks that {@link CfgLikeRecord} connects a transition leading back to its own source state to
+ * itself.
+ *
+ * The example consists of a single process that copies a variable and waits for an event in an
+ * endless loop. The event is not considered by the analysis, so it may be notified at any time, and
+ * the process may run again from the state in which it waits, reaching that very state again. The TIG
+ * must contain that transition with an edge to itself, both when recorded sequentially and when
+ * recorded concurrently.
+ * <p>
+ * The check is run instead of the examples if the system property
+ * {@value Main#REGRESSION_CHECK_PROPERTY} is set to {@value #NAME}.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ */
+public class SelfLoopCheck {
+
+    public static final String NAME = "SELF_LOOP";
+
+    private static final String PATH = "examples/self_loop/";
+
+    private SelfLoopCheck() {}
+
+    /**
+     * Runs the check and prints its outcome.
+     *
+     * @param output the stream to print the outcome to
+     * @return whether the self-loop is recorded in all exploration modes
+     * @throws IOException if the example cannot be read
+     */
+    public static boolean run(PrintStream output) throws IOException {
+        output.println("=== Regression check " + NAME + " ===");
+        output.println();
+
+        boolean passed = true;
+        for (ExplorationMode mode : List.of(ExplorationMode.SEQUENTIAL, ExplorationMode.CONCURRENT)) {
+            CfgLikeRecord<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, PdgInformation> record =
+                    explore(mode);
+
+            int numSelfLoops = 0;
+            boolean connected = true;
+            for (CfgLikeRecord<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, PdgInformation>.Node node : record
+                    .getNodes()) {
+                if (node == record.getRoot() || !node.getFromStateKey().equals(node.getToStateKey())) {
+                    continue;
+                }
+                numSelfLoops++;
+                long numEdges = node.getOutgoingEdges().stream().filter(e -> e.getTarget() == node).count();
+                connected &= numEdges == 1;
+            }
+
+            boolean ok = numSelfLoops > 0 && connected;
+            output.println(mode + ": TIG #nodes " + record.getNodes().size() + ", self-loops " + numSelfLoops
+                    + (ok ? ", each connected to itself once" : numSelfLoops == 0 ? ", NONE found" : ", NOT connected"));
+            passed &= ok;
+        }
+
+        output.println();
+        output.println(NAME + (passed ? " passed" : " FAILED"));
+        return passed;
+    }
+
+    private static CfgLikeRecord<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, PdgInformation> explore(
+            ExplorationMode mode) throws IOException {
+        SCSystem scSystem = Engine.buildModelFromFile(PATH + "sc2ast.ast.xml");
+
+        SomeVariablesScheduler<BinaryAbstractedValue<?>, PdgInformation> scheduler = SomeVariablesScheduler
+                .withBinaryAbstractionAndPdgInformation(scSystem, SimulationStopMode.SC_STOP_FINISH_IMMEDIATE,
+                        ALWAYS_FALSE, ALWAYS_TRUE, ALWAYS_FALSE);
+
+        ConsideredState<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, SomeVariablesProcess<BinaryAbstractedValue<?>, PdgInformation>> initialState =
+                ConsideredState.getInitialState(scSystem, Main.globalStateConstructor(scSystem, BinaryAbstractedValue::of),
+                        Main.pdgInformationProcessConstructor(scheduler, ALWAYS_TRUE, ALWAYS_FALSE),
+                        Main.processStateConstructor(scSystem), Main::initialSensitivitiesGetter,
+                        BinaryAbstractedValue::of);
+        initialState.lock();
+
+        CfgLikeRecord<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, PdgInformation> record =
+                new CfgLikeRecord<>(mode.isConcurrent(), PdgInformation::getReadVariables,
+                        PdgInformation::getWrittenVariables, initialState, state -> state);
+        StateSpaceExploration<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, PdgInformation, SomeVariablesProcess<BinaryAbstractedValue<?>, PdgInformation>> explorer =
+                Main.constructExplorer(mode, scheduler, record, Set.of(initialState), null, null, null, null);
+        explorer.run();
+        return record;
+    }
+
+}
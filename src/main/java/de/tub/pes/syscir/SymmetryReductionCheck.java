@@ -0,0 +1,168 @@
+package de.tub.pes.syscir;
+
+import static de.tub.pes.syscir.Main.ALWAYS_FALSE;
+import static de.tub.pes.syscir.Main.ALWAYS_TRUE;
+
+import de.tub.pes.syscir.Main.ExplorationMode;
+import de.tub.pes.syscir.engine.Engine;
+import de.tub.pes.syscir.sc_model.SCSystem;
+import de.tub.pes.syscir.statespace_exploration.ConsideredState;
+import de.tub.pes.syscir.statespace_exploration.ExplorationRecord;
+import de.tub.pes.syscir.statespace_exploration.Scheduler.SimulationStopMode;
+import de.tub.pes.syscir.statespace_exploration.StateSpaceExploration;
+import de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesChannelIntrinsics;
+import de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesGlobalState;
+import de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesProcess;
+import de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesProcessState;
+import de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesScheduler;
+import de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesSymmetryReduction;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.BinaryAbstractedValue;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.GlobalVariable;
+import de.tub.pes.syscir.statespace_exploration.transition_informations.NoInformation;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Checks that {@link SomeVariablesSymmetryReduction} is sound on an example with two
+ * interchangeable module instances writing to and reading from the same fifo.
+ *
+ * The example is explored once without and once with the reduction, using a record that only
+ * collects the reached states. The reduction is sound if the reduced exploration reaches a state of
+ * every equivalence class reached by the full one, i.e. if the representatives of the states reached
+ * by both explorations coincide. It is only effective if it explores the transitions out of fewer
+ * states.
+ * <p>
+ * The reduced exploration doesn't reach every state, so records of all transitions (like the TIG
+ * from which the PDG is built) cannot be used with it. The check therefore also makes sure that such
+ * a combination is refused.
+ * <p>
+ * The check is run instead of the examples if the system property
+ * {@value Main#REGRESSION_CHECK_PROPERTY} is set to {@value #NAME}.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ */
+public class SymmetryReductionCheck {
+
+    public static final String NAME = "SYMMETRY_REDUCTION";
+
+    private static final String PATH = "examples/symmetric_fifo/";
+
+    private SymmetryReductionCheck() {}
+
+    // only collects the reached states and those whose transitions were explored, so it doesn't need
+    // all of them
+    private static class ReachedStatesRecord
+            implements ExplorationRecord<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, NoInformation> {
+
+        private final Set<ConsideredState<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, ?>> reached;
+        private final Set<ConsideredState<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, ?>> expanded;
+
+        private ReachedStatesRecord(ConsideredState<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, ?> initialState) {
+            this.reached = new LinkedHashSet<>();
+            this.expanded = new LinkedHashSet<>();
+            this.reached.add(initialState);
+        }
+
+        @Override
+        public void explorationMade(ConsideredState<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, ?> from,
+                ConsideredState<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, ?> to, NoInformation info) {
+            this.expanded.add(from);
+            this.reached.add(to);
+        }
+
+        @Override
+        public boolean requiresAllStates() {
+            return false;
+        }
+
+    }
+
+    /**
+     * Runs the check and prints its outcome.
+     *
+     * @param output the stream to print the outcome to
+     * @return whether the reduction is sound and effective on the example
+     * @throws IOException if the example cannot be read
+     */
+    public static boolean run(PrintStream output) throws IOException {
+        SCSystem scSystem = Engine.buildModelFromFile(PATH + "sc2ast.ast.xml");
+
+        Predicate<GlobalVariable<?, ?>> globalVarsPredicate = SomeVariablesChannelIntrinsics::isChannelState;
+
+        SomeVariablesScheduler<BinaryAbstractedValue<?>, NoInformation> scheduler = SomeVariablesScheduler
+                .withBinaryAbstractionAndNoInformation(scSystem, SimulationStopMode.SC_STOP_FINISH_IMMEDIATE,
+                        ALWAYS_TRUE, globalVarsPredicate, ALWAYS_FALSE);
+
+        ConsideredState<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, SomeVariablesProcess<BinaryAbstractedValue<?>, NoInformation>> initialState =
+                ConsideredState.getInitialState(scSystem, Main.globalStateConstructor(scSystem, BinaryAbstractedValue::of),
+                        Main.noInformationProcessConstructor(scheduler, globalVarsPredicate, ALWAYS_FALSE),
+                        Main.processStateConstructor(scSystem), Main::initialSensitivitiesGetter,
+                        BinaryAbstractedValue::of);
+        initialState = Main.initializeChannels(scSystem, initialState);
+
+        SomeVariablesSymmetryReduction<BinaryAbstractedValue<?>, NoInformation> symmetry =
+                new SomeVariablesSymmetryReduction<BinaryAbstractedValue<?>, NoInformation>(initialState, BinaryAbstractedValue::of);
+
+        ReachedStatesRecord full = explore(scheduler, initialState, null);
+        ReachedStatesRecord reduced = explore(scheduler, initialState, symmetry::canonicalize);
+
+        Set<Object> fullRepresentatives = representatives(symmetry, full.reached);
+        Set<Object> reducedRepresentatives = representatives(symmetry, reduced.reached);
+
+        output.println("=== Regression check " + NAME + " ===");
+        output.println();
+        output.println("Symmetry groups: " + symmetry.getSymmetryGroups());
+        output.println("Expanded states: " + full.expanded.size() + " -> " + reduced.expanded.size());
+        output.println("Equivalence classes: " + fullRepresentatives.size() + " -> " + reducedRepresentatives.size());
+
+        boolean sound = fullRepresentatives.equals(reducedRepresentatives);
+        boolean effective = reduced.expanded.size() < full.expanded.size();
+        output.println("  equivalence classes " + (sound ? "equal" : "differ"));
+        output.println("  reduction " + (effective ? "effective" : "NOT effective"));
+
+        boolean refused;
+        try {
+            Main.constructExplorer(ExplorationMode.SEQUENTIAL, scheduler, Main.constructRecord(ExplorationMode.SEQUENTIAL),
+                    Set.of(initialState), null, null, symmetry::canonicalize, null);
+            refused = false;
+        } catch (IllegalStateException e) {
+            refused = true;
+        }
+        output.println("  record of all transitions " + (refused ? "refused" : "NOT refused"));
+
+        boolean passed = sound && effective && refused;
+        output.println();
+        output.println(NAME + (passed ? " passed" : " FAILED"));
+        return passed;
+    }
+
+    private static ReachedStatesRecord explore(
+            SomeVariablesScheduler<BinaryAbstractedValue<?>, NoInformation> scheduler,
+            ConsideredState<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, SomeVariablesProcess<BinaryAbstractedValue<?>, NoInformation>> initialState,
+            UnaryOperator<ConsideredState<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, SomeVariablesProcess<BinaryAbstractedValue<?>, NoInformation>>> canonicalizer) {
+        ReachedStatesRecord record = new ReachedStatesRecord(initialState);
+        StateSpaceExploration<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, NoInformation, SomeVariablesProcess<BinaryAbstractedValue<?>, NoInformation>> explorer =
+                Main.constructExplorer(ExplorationMode.SEQUENTIAL, scheduler, record, Set.of(initialState), null, null,
+                        canonicalizer, null);
+        explorer.run();
+        return record;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Object> representatives(SomeVariablesSymmetryReduction<BinaryAbstractedValue<?>, NoInformation> symmetry,
+            Set<ConsideredState<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, ?>> states) {
+        Set<Object> result = new LinkedHashSet<>();
+        for (ConsideredState<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, ?> state : states) {
+            // the record only receives the states the explorer produced, so the cast is safe
+            result.add(symmetry.canonicalize(
+                    (ConsideredState<SomeVariablesGlobalState<BinaryAbstractedValue<?>>, SomeVariablesProcessState<BinaryAbstractedValue<?>>, SomeVariablesProcess<BinaryAbstractedValue<?>, NoInformation>>) state));
+        }
+        return result;
+    }
+
+}
@@ -38,10 +38,12 @@ import java.net.URLClassLoader;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -503,6 +505,36 @@ public class TransformerFactory {
 
 	}
 
+	/**
+	 * Returns the names of all types listed in the types definition file for
+	 * which the property type name + '.intrinsic' is set to true. For these
+	 * types, the analysis may use a built-in model of the type instead of
+	 * interpreting its reference implementation.
+	 * 
+	 * @return
+	 */
+	public static Set<String> getIntrinsicTypes() {
+		Set<String> ret = new LinkedHashSet<String>();
+		Properties props = new Properties();
+		try {
+			props.load(IOUtil.getInputStream(PROPERTIES_FOLDER
+					+ TYPES_DEFINITION_FILE));
+		} catch (Exception e) {
+			logger.error("Problem encountered parsing property file {}: {}",
+					PROPERTIES_FOLDER + TYPES_DEFINITION_FILE, e.getMessage());
+			return ret;
+		}
+
+		for (String key : props.stringPropertyNames()) {
+			if (key.endsWith(".intrinsic")
+					&& Boolean.parseBoolean(props.getProperty(key).trim())) {
+				ret.add(key.substring(0, key.length() - ".intrinsic".length()));
+			}
+		}
+
+		return ret;
+	}
+
 	/**
 	 * Returns a list of all model transformers listed in the modeltransformers
 	 * property file. The transformers are ordered by occurence in the file.
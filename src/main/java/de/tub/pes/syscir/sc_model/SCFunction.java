@@ -52,6 +52,11 @@ public class SCFunction implements Serializable, Comparable<SCFunction> {
     private static Logger logger = LogManager.getLogger(SCFunction.class.getName());
 
     private static final long serialVersionUID = -5059654048644387505L;
+
+    /**
+     * Wrapper of this object used by the state space exploration, created on demand.
+     */
+    private final WrapperSlot<Object> wrapper = new WrapperSlot<>();
     private static final String VOID_RETURN_TYPE = "void";
     /**
      * name of the function
@@ -704,4 +709,15 @@ public class SCFunction implements Serializable, Comparable<SCFunction> {
             return 0;
         }
     }
+
+    /**
+     * Returns the slot holding the wrapper of this object used by the state space
+     * exploration.
+     * 
+     * @return the wrapper slot
+     */
+    public WrapperSlot<Object> getWrapperSlot() {
+        return this.wrapper;
+    }
+
 }
@@ -49,6 +49,11 @@ public class SCPortInstance implements SCConnectionInterface, Serializable {
 
 	private static final long serialVersionUID = -3854123608062278089L;
 
+	/**
+	 * Wrapper of this object used by the state space exploration, created on demand.
+	 */
+	private final WrapperSlot<Object> wrapper = new WrapperSlot<>();
+
 	/**
 	 * name of the port instance
 	 */
@@ -297,4 +302,14 @@ public class SCPortInstance implements SCConnectionInterface, Serializable {
 		return name + ": " + port.toString();
 	}
 
+	/**
+	 * Returns the slot holding the wrapper of this object used by the state space
+	 * exploration.
+	 * 
+	 * @return the wrapper slot
+	 */
+	public WrapperSlot<Object> getWrapperSlot() {
+		return wrapper;
+	}
+
 }
@@ -51,6 +51,11 @@ public class SCProcess implements Serializable {
 
 	private static final long serialVersionUID = 4827343065412103535L;
 
+	/**
+	 * Wrapper of this object used by the state space exploration, created on demand.
+	 */
+	private final WrapperSlot<Object> wrapper = new WrapperSlot<>();
+
 	/**
 	 * the name of the Process
 	 */
@@ -310,4 +315,14 @@ public class SCProcess implements Serializable {
 		return true;
 	}
 
+	/**
+	 * Returns the slot holding the wrapper of this object used by the state space
+	 * exploration.
+	 * 
+	 * @return the wrapper slot
+	 */
+	public WrapperSlot<Object> getWrapperSlot() {
+		return wrapper;
+	}
+
 }
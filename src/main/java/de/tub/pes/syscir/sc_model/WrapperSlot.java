@@ -0,0 +1,58 @@
+package de.tub.pes.syscir.sc_model;
+
+import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Holds an object attached to a model object by the state space exploration, such as its wrapper,
+ * which is created on demand.
+ *
+ * The attached object is set at most once. Concurrent attempts to set it agree on the same object,
+ * and reading it afterwards requires neither allocation nor locking. It is not serialized, so a
+ * deserialized model object starts out without one.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <T> the type of the attached object
+ */
+public final class WrapperSlot<T> implements Serializable {
+
+	private static final long serialVersionUID = -2913484310262215647L;
+
+	private static final VarHandle VALUE;
+
+	static {
+		try {
+			VALUE = MethodHandles.lookup().findVarHandle(WrapperSlot.class, "value", Object.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private transient volatile T value;
+
+	/**
+	 * Returns the attached object, or null if none has been set yet.
+	 *
+	 * @return the attached object or null
+	 */
+	public T get() {
+		return value;
+	}
+
+	/**
+	 * Sets the attached object if none has been set yet and returns the object
+	 * that is attached afterwards.
+	 *
+	 * @param newValue the object to attach
+	 * @return the attached object
+	 */
+	public T setIfAbsent(T newValue) {
+		if (VALUE.compareAndSet(this, null, newValue)) {
+			return newValue;
+		}
+		return value;
+	}
+
+}
@@ -41,6 +41,7 @@ import org.w3c.dom.Node;
 
 import de.tub.pes.syscir.engine.util.NodeUtil;
 import de.tub.pes.syscir.engine.util.Pair;
+import de.tub.pes.syscir.sc_model.WrapperSlot;
 
 /**
  * This Expression is the superclass of all Expressions
@@ -51,6 +52,11 @@ public abstract class Expression implements Serializable {
 
 	private static final long serialVersionUID = 2051413859219437508L;
 
+	/**
+	 * Wrapper of this object used by the state space exploration, created on demand.
+	 */
+	private final WrapperSlot<Object> wrapper = new WrapperSlot<>();
+
 	private static transient Logger logger = LogManager
 			.getLogger(Expression.class.getName());
 
@@ -355,4 +361,15 @@ public abstract class Expression implements Serializable {
 		}
 		return true;
 	}
+
+	/**
+	 * Returns the slot holding the wrapper of this object used by the state space
+	 * exploration.
+	 * 
+	 * @return the wrapper slot
+	 */
+	public WrapperSlot<Object> getWrapperSlot() {
+		return wrapper;
+	}
+
 }
@@ -45,6 +45,7 @@ import de.tub.pes.syscir.sc_model.SCConnectionInterface;
 import de.tub.pes.syscir.sc_model.SCMODIFIER;
 import de.tub.pes.syscir.sc_model.SCProcess;
 import de.tub.pes.syscir.sc_model.SCVariable;
+import de.tub.pes.syscir.sc_model.WrapperSlot;
 import de.tub.pes.syscir.sc_model.expressions.Expression;
 
 /**
@@ -61,6 +62,11 @@ public class SCClassInstance extends SCVariable {
 
 	private static final long serialVersionUID = -3456898813749532732L;
 
+	/**
+	 * Wrapper of this object used by the state space exploration, created on demand.
+	 */
+	private final WrapperSlot<Object> wrapper = new WrapperSlot<>();
+
 	/**
 	 * The scclass this instance is an instance of.
 	 */
@@ -352,4 +358,14 @@ public class SCClassInstance extends SCVariable {
 		return new SCClassInstance(this, newName);
 	}
 
+	/**
+	 * Returns the slot holding the wrapper of this object used by the state space
+	 * exploration.
+	 * 
+	 * @return the wrapper slot
+	 */
+	public WrapperSlot<Object> getWrapperSlot() {
+		return wrapper;
+	}
+
 }
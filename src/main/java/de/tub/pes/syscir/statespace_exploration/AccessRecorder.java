@@ -0,0 +1,289 @@
+package de.tub.pes.syscir.statespace_exploration;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records which parts of the state are accessed by the current thread while a process makes a step.
+ *
+ * Recording is started by {@link #start(AnalyzedProcess)} and stopped by {@link #stop()}. In
+ * between, {@link ConsideredState}, {@link GlobalState} and their subclasses report every access
+ * to their components via the static methods of this class. Those methods do nothing if no
+ * recording is active on the current thread.
+ * <p>
+ * Accesses are recorded at the granularity needed to decide which part of the state a step depends
+ * on and which part it changes: individual variables (identified by the keys of the variable maps),
+ * the event states and requested updates as a whole, and whether the state of any other process
+ * than the recording one has been accessed. Accesses that cannot be attributed precisely (such as
+ * iterating over all variables or replacing the global state) are recorded conservatively.
+ * <p>
+ * Instances of this class are confined to the thread that created them.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ */
+public final class AccessRecorder {
+
+    private static final ThreadLocal<AccessRecorder> current = new ThreadLocal<>();
+
+    private final AnalyzedProcess<?, ?, ?, ?> process;
+    private final AccessRecorder previous;
+
+    private final Set<Object> readVariables;
+    private final Set<Object> writtenVariables;
+    private boolean allVariablesRead;
+    private boolean eventStatesAccessed;
+    private boolean requestedUpdatesAccessed;
+    private boolean otherProcessesAccessed;
+    private boolean globalStateReplaced;
+
+    private AccessRecorder(AnalyzedProcess<?, ?, ?, ?> process, AccessRecorder previous) {
+        this.process = process;
+        this.previous = previous;
+
+        this.readVariables = new HashSet<>();
+        this.writtenVariables = new HashSet<>();
+    }
+
+    /**
+     * Starts recording the accesses of the current thread on behalf of the given process.
+     * <p>
+     * The process may be null if the recorded computation is not part of a process (e.g. the update of
+     * a channel by the scheduler). In that case, accessing the state of any process counts as accessing
+     * another process.
+     * <p>
+     * If another recording is already active on this thread, it is suspended until the returned one is
+     * stopped.
+     *
+     * @param process the process making the step, or null
+     * @return the new recording
+     */
+    public static AccessRecorder start(AnalyzedProcess<?, ?, ?, ?> process) {
+        AccessRecorder result = new AccessRecorder(process, current.get());
+        current.set(result);
+        return result;
+    }
+
+    /**
+     * Stops this recording and resumes the one that was active when this one was started, if any.
+     *
+     * @throws IllegalStateException if this recording is not the active one on the current thread
+     */
+    public void stop() {
+        if (current.get() != this) {
+            throw new IllegalStateException("recording is not active on the current thread");
+        }
+        if (this.previous == null) {
+            current.remove();
+        } else {
+            current.set(this.previous);
+        }
+    }
+
+    /**
+     * Records that the variable identified by the given key has been read.
+     *
+     * @param variable the key of the variable
+     */
+    public static void recordVariableRead(Object variable) {
+        AccessRecorder recorder = current.get();
+        if (recorder != null) {
+            recorder.readVariables.add(variable);
+        }
+    }
+
+    /**
+     * Records that the variable identified by the given key has been written or deleted.
+     *
+     * @param variable the key of the variable
+     */
+    public static void recordVariableWrite(Object variable) {
+        AccessRecorder recorder = current.get();
+        if (recorder != null) {
+            recorder.writtenVariables.add(variable);
+        }
+    }
+
+    /**
+     * Returns a view of the given unmodifiable map of variable values that records every read, or the
+     * map itself if no recording is active.
+     *
+     * @param <K> the type of variables
+     * @param <V> the type of values
+     * @param variableValues the variable values
+     * @return the map or a recording view of it
+     */
+    public static <K, V> Map<K, V> recordingView(Map<K, V> variableValues) {
+        AccessRecorder recorder = current.get();
+        return recorder == null ? variableValues : recorder.new RecordingMap<>(variableValues);
+    }
+
+    /**
+     * Records that the event states have been accessed (for reading or writing).
+     */
+    public static void recordEventStatesAccess() {
+        AccessRecorder recorder = current.get();
+        if (recorder != null) {
+            recorder.eventStatesAccessed = true;
+        }
+    }
+
+    /**
+     * Records that the requested updates have been accessed (for reading or writing).
+     */
+    public static void recordRequestedUpdatesAccess() {
+        AccessRecorder recorder = current.get();
+        if (recorder != null) {
+            recorder.requestedUpdatesAccessed = true;
+        }
+    }
+
+    /**
+     * Records that the state of the given process has been accessed.
+     *
+     * @param process the process whose state has been accessed
+     */
+    public static void recordProcessStateAccess(Object process) {
+        AccessRecorder recorder = current.get();
+        if (recorder != null && (recorder.process == null || !recorder.process.equals(process))) {
+            recorder.otherProcessesAccessed = true;
+        }
+    }
+
+    /**
+     * Records that the states of all processes have been accessed.
+     */
+    public static void recordAllProcessStatesAccess() {
+        AccessRecorder recorder = current.get();
+        if (recorder != null) {
+            recorder.otherProcessesAccessed = true;
+        }
+    }
+
+    /**
+     * Records that the global state has been modified in a way not covered by the other methods, e.g.
+     * by replacing it entirely or stopping the simulation.
+     */
+    public static void recordGlobalStateReplacement() {
+        AccessRecorder recorder = current.get();
+        if (recorder != null) {
+            recorder.globalStateReplaced = true;
+        }
+    }
+
+    /**
+     * Returns the process on whose behalf this recording was started.
+     *
+     * @return the recording process, or null
+     */
+    public AnalyzedProcess<?, ?, ?, ?> getProcess() {
+        return this.process;
+    }
+
+    /**
+     * Returns the keys of all variables that have been read individually.
+     *
+     * @return unmodifiable set of read variables
+     */
+    public Set<Object> getReadVariables() {
+        return Collections.unmodifiableSet(this.readVariables);
+    }
+
+    /**
+     * Returns the keys of all variables that have been written or deleted.
+     *
+     * @return unmodifiable set of written variables
+     */
+    public Set<Object> getWrittenVariables() {
+        return Collections.unmodifiableSet(this.writtenVariables);
+    }
+
+    /**
+     * Returns whether all variables may have been read, e.g. by iterating over them.
+     *
+     * @return whether all variables may have been read
+     */
+    public boolean isAllVariablesRead() {
+        return this.allVariablesRead;
+    }
+
+    /**
+     * Returns whether the event states have been accessed.
+     *
+     * @return whether the event states have been accessed
+     */
+    public boolean isEventStatesAccessed() {
+        return this.eventStatesAccessed;
+    }
+
+    /**
+     * Returns whether the requested updates have been accessed.
+     *
+     * @return whether the requested updates have been accessed
+     */
+    public boolean isRequestedUpdatesAccessed() {
+        return this.requestedUpdatesAccessed;
+    }
+
+    /**
+     * Returns whether the state of any other process than the recording one has been accessed.
+     *
+     * @return whether other processes have been accessed
+     */
+    public boolean isOtherProcessesAccessed() {
+        return this.otherProcessesAccessed;
+    }
+
+    /**
+     * Returns whether the global state has been modified in a way not covered by the other accessors of
+     * this class.
+     *
+     * @return whether the global state has been replaced
+     */
+    public boolean isGlobalStateReplaced() {
+        return this.globalStateReplaced;
+    }
+
+    private class RecordingMap<K, V> extends AbstractMap<K, V> {
+
+        private final Map<K, V> backing;
+
+        private RecordingMap(Map<K, V> backing) {
+            this.backing = backing;
+        }
+
+        @Override
+        public V get(Object key) {
+            AccessRecorder.this.readVariables.add(key);
+            return this.backing.get(key);
+        }
+
+        @Override
+        public V getOrDefault(Object key, V defaultValue) {
+            AccessRecorder.this.readVariables.add(key);
+            return this.backing.getOrDefault(key, defaultValue);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            AccessRecorder.this.readVariables.add(key);
+            return this.backing.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            AccessRecorder.this.allVariablesRead = true;
+            return this.backing.size();
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            AccessRecorder.this.allVariablesRead = true;
+            return this.backing.entrySet();
+        }
+    }
+
+}
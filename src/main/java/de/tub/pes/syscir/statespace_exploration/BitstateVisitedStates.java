@@ -0,0 +1,131 @@
+package de.tub.pes.syscir.statespace_exploration;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.ToLongFunction;
+
+/**
+ * Implementation of {@link VisitedStates} using a fixed-size bit array (bitstate hashing).
+ *
+ * Every visited state sets k bits in an array of m bits, chosen by k hash functions derived from its
+ * 64-bit fingerprint. A state is considered visited if all of its bits are set. Thus, memory usage is
+ * independent of the number of visited states, but the probability of omitting a state grows as the
+ * array fills up. After n states have been stored, a new state is mistaken for a visited one with a
+ * probability of about (1 - e<sup>-kn/m</sup>)<sup>k</sup>.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <StateT> the type of visited states
+ */
+public class BitstateVisitedStates<StateT> extends VisitedStates<StateT> {
+
+    private final ToLongFunction<? super StateT> fingerprintFunction;
+    private final int numHashes;
+    private final long bitMask;
+    private final AtomicLongArray bits;
+    private final AtomicInteger size;
+
+    /**
+     * Constructs a new, empty BitstateVisitedStates using a bit array with 2<sup>log2NumBits</sup> bits
+     * and the given number of hash functions.
+     *
+     * @param log2NumBits the binary logarithm of the number of bits (between 6 and 36)
+     * @param numHashes the number of bits set per state (at least 1)
+     * @param fingerprintFunction function computing the 64-bit fingerprint of a state
+     * @throws IllegalArgumentException if log2NumBits or numHashes is out of range
+     */
+    public BitstateVisitedStates(int log2NumBits, int numHashes, ToLongFunction<? super StateT> fingerprintFunction) {
+        // the bits are stored in an array of longs, which can have less than 2^31 elements
+        if (log2NumBits < 6 || log2NumBits > 36) {
+            throw new IllegalArgumentException("number of bits must be between 2^6 and 2^36");
+        }
+        if (numHashes < 1) {
+            throw new IllegalArgumentException("needs at least 1 hash function");
+        }
+
+        this.fingerprintFunction = fingerprintFunction;
+        this.numHashes = numHashes;
+        this.bitMask = (1L << log2NumBits) - 1;
+        this.bits = new AtomicLongArray(1 << (log2NumBits - 6));
+        this.size = new AtomicInteger();
+    }
+
+    @Override
+    public boolean add(StateT state) {
+        long fingerprint = this.fingerprintFunction.applyAsLong(state);
+        // double hashing: the i-th bit index is h1 + i * h2
+        long h1 = fingerprint;
+        long h2 = mix(fingerprint) | 1;
+
+        boolean changed = false;
+        for (int i = 0; i < this.numHashes; i++) {
+            long bitIndex = (h1 + i * h2) & this.bitMask;
+            int wordIndex = (int) (bitIndex >>> 6);
+            long bit = 1L << bitIndex;
+            if ((this.bits.getAndAccumulate(wordIndex, bit, (a, b) -> a | b) & bit) == 0) {
+                changed = true;
+            }
+        }
+
+        if (changed) {
+            this.size.incrementAndGet();
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean contains(StateT state) {
+        long fingerprint = this.fingerprintFunction.applyAsLong(state);
+        long h1 = fingerprint;
+        long h2 = mix(fingerprint) | 1;
+
+        for (int i = 0; i < this.numHashes; i++) {
+            long bitIndex = (h1 + i * h2) & this.bitMask;
+            if ((this.bits.get((int) (bitIndex >>> 6)) & (1L << bitIndex)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return this.size.get();
+    }
+
+    /**
+     * Throws an {@link UnsupportedOperationException}, as the visited states are not stored.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Set<StateT> asSet() throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("only a bitstate hash of visited states is stored");
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The expected number of omitted states is estimated by summing the probability of a false match
+     * over all n stored states, which is approximated by integrating
+     * (1 - e<sup>-kx/m</sup>)<sup>k</sup> from 0 to n. The returned probability is 1 - e to the
+     * negated expected number of omissions.
+     */
+    @Override
+    public double getOmissionProbability() {
+        double n = size();
+        double m = this.bitMask + 1.0;
+        int steps = 1000;
+        double stepWidth = n / steps;
+
+        double expectedOmissions = 0;
+        for (int i = 0; i < steps; i++) {
+            // midpoint rule
+            double x = (i + 0.5) * stepWidth;
+            expectedOmissions += Math.pow(-Math.expm1(-this.numHashes * x / m), this.numHashes) * stepWidth;
+        }
+        return -Math.expm1(-expectedOmissions);
+    }
+
+}
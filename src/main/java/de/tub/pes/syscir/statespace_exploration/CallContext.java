@@ -0,0 +1,160 @@
+package de.tub.pes.syscir.statespace_exploration;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An interned, immutable list describing a call stack, such as the functions or the call sites on the
+ * execution stack of a process.
+ *
+ * All call contexts form a trie rooted in the empty context ({@link #empty()}). Each context is
+ * created only once by {@link #enter(Object)} on its parent, so equal contexts are identical. This
+ * allows call contexts to be compared by identity and hashed in constant time, and gives every context
+ * a small canonical id ({@link #getId()}). The hashCode of a context is the same as that of any other
+ * list with the same elements, and equality with lists that are not call contexts follows the
+ * contract of {@link List#equals(Object)}.
+ * <p>
+ * The elements of a call context must not change their equality or hashCode afterwards (e.g.
+ * {@link EvaluationLocation}s must be locked). Contexts are never removed from the trie, which is
+ * intended for the bounded number of call stacks occurring in the analysis of one design. This class is
+ * thread-safe.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <E> the type of elements of the call stack
+ */
+public final class CallContext<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final AtomicInteger nextId = new AtomicInteger();
+
+    private static final CallContext<?> EMPTY = new CallContext<>(null, new Object[0], 1);
+
+    private final CallContext<E> parent;
+    private final Object[] elements;
+    private final int hashCode;
+    private final int id;
+
+    private final Map<E, CallContext<E>> children;
+
+    private CallContext(CallContext<E> parent, Object[] elements, int hashCode) {
+        this.parent = parent;
+        this.elements = elements;
+        this.hashCode = hashCode;
+        this.id = nextId.getAndIncrement();
+
+        this.children = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the empty call context, which is the root of all call contexts.
+     *
+     * @param <E> the type of elements of the call stack
+     * @return the empty call context
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> CallContext<E> empty() {
+        return (CallContext<E>) EMPTY;
+    }
+
+    /**
+     * Returns the call context with the same elements as the given list.
+     *
+     * If the given list is a call context itself, it is returned as is.
+     *
+     * @param <E> the type of elements of the call stack
+     * @param stack the elements of the call stack, bottom first
+     * @return the interned call context
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> CallContext<E> of(List<? extends E> stack) {
+        if (stack instanceof CallContext<?> context) {
+            return (CallContext<E>) context;
+        }
+
+        CallContext<E> result = empty();
+        for (E element : stack) {
+            result = result.enter(element);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the call context consisting of this context with the given element pushed on top.
+     *
+     * @param element the new top of the call stack
+     * @return the interned call context
+     */
+    public CallContext<E> enter(E element) {
+        CallContext<E> result = this.children.get(element);
+        if (result != null) {
+            return result;
+        }
+        return this.children.computeIfAbsent(element, this::createChild);
+    }
+
+    private CallContext<E> createChild(E element) {
+        Object[] childElements = Arrays.copyOf(this.elements, this.elements.length + 1);
+        childElements[this.elements.length] = element;
+        return new CallContext<>(this, childElements, 31 * this.hashCode + element.hashCode());
+    }
+
+    /**
+     * Returns the call context consisting of this context without its top element.
+     *
+     * @return the parent context
+     * @throws IllegalStateException if this is the empty context
+     */
+    public CallContext<E> getParent() {
+        if (this.parent == null) {
+            throw new IllegalStateException("empty call context has no parent");
+        }
+        return this.parent;
+    }
+
+    /**
+     * Returns the canonical id of this context, which is unique among all call contexts.
+     *
+     * @return the id
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        return (E) this.elements[index];
+    }
+
+    @Override
+    public int size() {
+        return this.elements.length;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return this.elements.clone();
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hashCode;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other == this) {
+            return true;
+        }
+        if (other instanceof CallContext<?>) {
+            return false;
+        }
+        return super.equals(other);
+    }
+
+}
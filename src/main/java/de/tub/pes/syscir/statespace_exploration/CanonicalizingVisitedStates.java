@@ -0,0 +1,76 @@
+package de.tub.pes.syscir.statespace_exploration;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Implementation of {@link VisitedStates} mapping every state to a canonical representative before
+ * passing it on to another VisitedStates object.
+ *
+ * This can be used to implement reductions such as symmetry reduction (see
+ * {@link de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesSymmetryReduction}):
+ * A state is considered visited if any state with the same representative has been visited. The
+ * canonicalizer must therefore only map states to the same representative if their exploration is
+ * guaranteed to yield equivalent results.
+ * <p>
+ * The exploration itself still continues from the original states, only the lookup in the visited
+ * states uses the representatives. Consequently, {@link #asSet()} returns the representatives, not
+ * the originally explored states. As the transitions out of the other states are never explored, this
+ * class cannot be used with records needing all of them (see
+ * {@link ExplorationRecord#requiresAllStates()}).
+ * <p>
+ * This class is thread-safe iff both the underlying VisitedStates object and the canonicalizer are.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <StateT> the type of visited states
+ */
+public class CanonicalizingVisitedStates<StateT> extends VisitedStates<StateT> {
+
+    private final VisitedStates<StateT> delegate;
+    private final UnaryOperator<StateT> canonicalizer;
+
+    /**
+     * Constructs a new CanonicalizingVisitedStates storing the representatives computed by the given
+     * canonicalizer in the given VisitedStates object.
+     *
+     * @param delegate the object storing the representatives
+     * @param canonicalizer function mapping a locked state to its locked representative
+     */
+    public CanonicalizingVisitedStates(VisitedStates<StateT> delegate, UnaryOperator<StateT> canonicalizer) {
+        this.delegate = delegate;
+        this.canonicalizer = canonicalizer;
+    }
+
+    @Override
+    public boolean add(StateT state) {
+        return this.delegate.add(this.canonicalizer.apply(state));
+    }
+
+    @Override
+    public boolean contains(StateT state) {
+        return this.delegate.contains(this.canonicalizer.apply(state));
+    }
+
+    @Override
+    public int size() {
+        return this.delegate.size();
+    }
+
+    @Override
+    public Set<StateT> asSet() throws UnsupportedOperationException {
+        return this.delegate.asSet();
+    }
+
+    @Override
+    public double getOmissionProbability() {
+        return this.delegate.getOmissionProbability();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.delegate.close();
+    }
+
+}
@@ -2,11 +2,9 @@ package de.tub.pes.syscir.statespace_exploration;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -28,7 +26,6 @@ extends StateSpaceExploration<GlobalStateT, ProcessStateT, InfoT, ProcessType> {
 
     private int numOfThreads;
 
-    private Set<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> exploredStates;
     private BlockingQueue<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> worklist;
     private AtomicInteger worklistSize;
     private ThreadLocal<List<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>>> worklistCache;
@@ -75,7 +72,7 @@ extends StateSpaceExploration<GlobalStateT, ProcessStateT, InfoT, ProcessType> {
         }
         this.numOfThreads = numOfThreads;
 
-        this.exploredStates = ConcurrentHashMap.newKeySet();
+        setVisitedStates(new ExactVisitedStates<>(true));
         this.worklist = new LinkedBlockingQueue<>();
         this.worklistSize = new AtomicInteger(initialStates.size());
 
@@ -187,7 +184,7 @@ extends StateSpaceExploration<GlobalStateT, ProcessStateT, InfoT, ProcessType> {
                 }
 
                 // attempt to add the state to the set of explored states
-                if (ConcurrentStateSpaceExploration.this.exploredStates.add(currentState)) {
+                if (getVisitedStates().add(currentState)) {
                     // if the state was successfully added, explore all followup states (adding them to the
                     // worklistCache)
                     int addedToWorklist = explorationStep(currentState);
@@ -246,12 +243,7 @@ extends StateSpaceExploration<GlobalStateT, ProcessStateT, InfoT, ProcessType> {
 
     @Override
     public int getNumExploredStates() {
-        return this.exploredStates.size();
-    }
-
-    @Override
-    public Set<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> getExploredStates() {
-        return Collections.unmodifiableSet(this.exploredStates);
+        return getVisitedStates().size();
     }
 
 }
@@ -12,6 +12,7 @@ import de.tub.pes.syscir.sc_model.variables.SCClassInstance;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -19,6 +20,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -33,9 +35,19 @@ import java.util.function.Function;
  * {@link #lock()}. When locked, any attempt to modify a state results in an
  * {@link IllegalStateException}.
  * <p>
- * The cached hashCode of a ConsideredState is reset whenever it is modified or any modifiable
- * reference to a part of its state is obtained. If any so obtained reference is mofified after the
- * hashCode has been computed, it must be assured that the hashCode is reset again.
+ * The cached hashCode of a ConsideredState is reset whenever it or any of its components is modified
+ * (see {@link HashCachingLockableObject#setHashOwner(HashCachingLockableObject)}), including
+ * modifications through the map returned by {@link #getProcessStates()} (see
+ * {@link ModificationTrackingMap}). Obtaining a component or that map does not reset the hashCode by
+ * itself.
+ * <p>
+ * Copies of a ConsideredState share all locked components (the global state and the process states)
+ * with the original. While a ConsideredState is not locked, any of its components that is locked is
+ * considered shared and is replaced by an unlocked clone the first time a modifiable reference to it
+ * is obtained (copy-on-write). The cost of a transition therefore scales with the number of
+ * components it touches, not with the number of processes. Components that are only read should be
+ * accessed via {@link #getGlobalStateReadOnly()}, {@link #getProcessStateReadOnly(AnalyzedProcess)}
+ * or {@link #getProcessStatesReadOnly()}, which never clone.
  * 
  * @author Jonas Becker-Kupczok
  *
@@ -45,7 +57,7 @@ import java.util.function.Function;
  *        considered in this state may provide
  */
 public class ConsideredState<GlobalStateT extends GlobalState<GlobalStateT>, ProcessStateT extends ProcessState<ProcessStateT, ?>, ProcessT extends AnalyzedProcess<ProcessT, GlobalStateT, ProcessStateT, ?>>
-extends HashCachingLockableObject<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>> {
+extends HashCachingLockableObject<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>> implements Fingerprintable {
 
     /**
      * Creates the initial state of a SystemC model.
@@ -124,9 +136,21 @@ extends HashCachingLockableObject<ConsideredState<GlobalStateT, ProcessStateT, P
         return result;
     }
 
+    private static volatile boolean collisionStatisticsEnabled;
+    private static final LongAdder numHashCollisions = new LongAdder();
+    private static final LongAdder numFingerprintCollisions = new LongAdder();
+
     private GlobalStateT globalState;
     private Map<ProcessT, ProcessStateT> processStates;
 
+    // index of the processes waiting for each event, computed lazily and shared with copies until the
+    // process states change what they are waiting for
+    private volatile Map<Event, List<ProcessT>> waitingProcesses;
+
+    // computed once when this state is locked, null before
+    private List<ProcessT> readyProcesses;
+    private List<ProcessT> eventBlockedProcesses;
+
     /**
      * Constructs a new, mutable ConsideredState with the given global and local portions.
      * 
@@ -141,21 +165,36 @@ extends HashCachingLockableObject<ConsideredState<GlobalStateT, ProcessStateT, P
     public ConsideredState(GlobalStateT globalState, Map<ProcessT, ProcessStateT> processStates) {
         this.globalState = globalState;
         this.processStates = processStates;
+
+        adoptComponents();
     }
 
     /**
-     * Constructs a new, mutable (deep) copy of the given ConsideredState.
+     * Constructs a new, mutable copy of the given ConsideredState.
+     * 
+     * Locked components are shared with the original and only cloned once they are accessed for
+     * modification, unlocked components are cloned immediately.
      * 
      * @param copyOf the state to copy
      */
     protected ConsideredState(ConsideredState<GlobalStateT, ProcessStateT, ProcessT> copyOf) {
         super(copyOf);
 
-        LinkedHashMap<ProcessT, ProcessStateT> newProcessStates = new LinkedHashMap<>(copyOf.processStates.size());
-        copyOf.processStates.forEach((process, state) -> newProcessStates.put(process, state.unlockedClone()));
+        LinkedHashMap<ProcessT, ProcessStateT> newProcessStates = new LinkedHashMap<>(copyOf.processStates);
+        newProcessStates.replaceAll((process, state) -> state.isLocked() ? state : state.unlockedClone());
 
-        this.globalState = copyOf.globalState.unlockedClone();
+        this.globalState = copyOf.globalState.isLocked() ? copyOf.globalState : copyOf.globalState.unlockedClone();
         this.processStates = newProcessStates;
+        this.waitingProcesses = copyOf.waitingProcesses;
+
+        adoptComponents();
+    }
+
+    private void adoptComponents() {
+        this.globalState.setHashOwner(this);
+        for (ProcessStateT state : this.processStates.values()) {
+            state.setHashOwner(this);
+        }
     }
 
     @Override
@@ -167,13 +206,114 @@ extends HashCachingLockableObject<ConsideredState<GlobalStateT, ProcessStateT, P
         return result;
     }
 
+    /**
+     * Returns a 64-bit fingerprint of this state, intended for {@link VisitedStates} implementations
+     * that don't store the states themselves.
+     * <p>
+     * Equal states have equal fingerprints. The fingerprint combines the 64-bit fingerprints of the
+     * global state and of all process states (see {@link GlobalState#fingerprint()} and
+     * {@link LocalState#fingerprint()}), which are computed from their contents (see
+     * {@link Fingerprintable}), such that states differing in any component are unlikely to share a
+     * fingerprint, even if their 32-bit hashCodes collide. Like the hashCode, the fingerprint is cached
+     * and only recomputed after a modification, and so are those of the components.
+     *
+     * @return fingerprint of this state
+     */
+    @Override
+    public long fingerprint() {
+        return cachedFingerprint();
+    }
+
+    @Override
+    protected long fingerprintInternal() {
+        // equal maps may differ in their iteration order, so the process states are combined commutatively
+        long processStatesFingerprint = 0;
+        for (Entry<ProcessT, ProcessStateT> entry : this.processStates.entrySet()) {
+            processStatesFingerprint += Fingerprintable.entry(entry.getKey(), entry.getValue());
+        }
+        return Fingerprintable.combine(this.globalState.fingerprint(), processStatesFingerprint);
+    }
+
+    /**
+     * Sets whether collisions shall be counted when unequal states are compared (see
+     * {@link #getNumHashCollisions()} and {@link #getNumFingerprintCollisions()}).
+     * <p>
+     * Counting requires the hashCode and fingerprint of both states on every unsuccessful comparison,
+     * so it is disabled by default.
+     *
+     * @param enabled whether collisions shall be counted
+     */
+    public static void setCollisionStatisticsEnabled(boolean enabled) {
+        collisionStatisticsEnabled = enabled;
+    }
+
+    /**
+     * Returns whether collisions are counted when unequal states are compared.
+     *
+     * @return whether collision statistics are enabled
+     */
+    public static boolean isCollisionStatisticsEnabled() {
+        return collisionStatisticsEnabled;
+    }
+
+    /**
+     * Returns the number of times two unequal states with the same hashCode have been compared for
+     * equality (e.g. during a lookup in the visited states) since the last invocation of
+     * {@link #resetCollisionStatistics()}, while collision statistics were enabled.
+     *
+     * @return number of observed hashCode collisions
+     */
+    public static long getNumHashCollisions() {
+        return numHashCollisions.sum();
+    }
+
+    /**
+     * Returns the number of times two unequal states with the same hashCode and the same
+     * {@link #fingerprint()} have been compared for equality since the last invocation of
+     * {@link #resetCollisionStatistics()}, while collision statistics were enabled.
+     * <p>
+     * Each such collision would have caused a state to be omitted by a {@link FingerprintVisitedStates}.
+     *
+     * @return number of observed fingerprint collisions
+     */
+    public static long getNumFingerprintCollisions() {
+        return numFingerprintCollisions.sum();
+    }
+
+    /**
+     * Resets the collision statistics reported by {@link #getNumHashCollisions()} and
+     * {@link #getNumFingerprintCollisions()}.
+     */
+    public static void resetCollisionStatistics() {
+        numHashCollisions.reset();
+        numFingerprintCollisions.reset();
+    }
+
     /**
      * Returns the global portion of this state.
      * 
+     * If this state is not locked, the result is modifiable (cloning the global state if it is still
+     * shared with another state).
+     * 
      * @return global state
      */
     public GlobalStateT getGlobalState() {
-        resetHashCode();
+        if (!isLocked() && this.globalState.isLocked()) {
+            // the clone is equal, so the hashCode remains valid
+            this.globalState = this.globalState.unlockedClone();
+            this.globalState.setHashOwner(this);
+        }
+        return this.globalState;
+    }
+
+    /**
+     * Returns the global portion of this state without making it modifiable.
+     * 
+     * The result may be shared with other states and must not be modified.
+     * 
+     * @return global state
+     */
+    public GlobalStateT getGlobalStateReadOnly() {
         return this.globalState;
     }
 
@@ -186,22 +326,58 @@ extends HashCachingLockableObject<ConsideredState<GlobalStateT, ProcessStateT, P
      */
     public void setGlobalState(GlobalStateT globalState) {
         requireNotLocked();
+        AccessRecorder.recordGlobalStateReplacement();
         resetHashCode();
         this.globalState = globalState;
+        this.globalState.setHashOwner(this);
     }
 
     /**
      * Returns a view of the local portion of this state that is modifiable iff this state is not
      * locked.
      * <p>
+     * If this state is not locked, all process states still shared with other states are cloned, such
+     * that all of them are modifiable. Use {@link #getProcessState(AnalyzedProcess)} to only obtain
+     * the modifiable state of one process or {@link #getProcessStatesReadOnly()} to avoid cloning.
+     * <p>
      * If the local portion is overwritten by {@link #setProcessStates(Map)}, a previously returned view
      * will no longer be up to date.
      * 
      * @return view of the process states
      */
     public Map<ProcessT, ProcessStateT> getProcessStates() {
-        resetHashCode();
-        return isLocked() ? Collections.unmodifiableMap(this.processStates) : this.processStates;
+        AccessRecorder.recordAllProcessStatesAccess();
+        if (isLocked()) {
+            return Collections.unmodifiableMap(this.processStates);
+        }
+        // the process states may be modified arbitrarily, changing what they are waiting for. the clones are
+        // equal, so the hashCode remains valid
+        invalidateWaitingProcesses();
+        this.processStates.replaceAll((process, state) -> state.isLocked() ? state.unlockedClone() : state);
+        adoptComponents();
+        return new ModificationTrackingMap<>(this.processStates, this) {
+
+            @Override
+            protected void modified() {
+                super.modified();
+                invalidateWaitingProcesses();
+            }
+        };
+    }
+
+    /**
+     * Returns an unmodifiable view of the local portion of this state, without making any process
+     * state modifiable.
+     * <p>
+     * The process states may be shared with other states and must not be modified. If the local
+     * portion is overwritten by {@link #setProcessStates(Map)}, a previously returned view will no
+     * longer be up to date.
+     * 
+     * @return unmodifiable view of the process states
+     */
+    public Map<ProcessT, ProcessStateT> getProcessStatesReadOnly() {
+        AccessRecorder.recordAllProcessStatesAccess();
+        return Collections.unmodifiableMap(this.processStates);
     }
 
     /**
@@ -216,13 +392,19 @@ extends HashCachingLockableObject<ConsideredState<GlobalStateT, ProcessStateT, P
      */
     public void setProcessStates(Map<ProcessT, ProcessStateT> processStates) {
         requireNotLocked();
+        AccessRecorder.recordAllProcessStatesAccess();
         resetHashCode();
         this.processStates = processStates;
+        invalidateWaitingProcesses();
+        adoptComponents();
     }
 
     /**
      * Returns the local state associated with the given process in this state.
      * 
+     * If this state is not locked, the result is modifiable (cloning the local state if it is still
+     * shared with another state).
+     * <p>
      * Throws a {@link NullPointerException} if the given process is not associated with any local
      * state.
      * 
@@ -230,9 +412,34 @@ extends HashCachingLockableObject<ConsideredState<GlobalStateT, ProcessStateT, P
      * @return the local state associated with the given process
      * @throws NullPointerException if the given process is not associated with any local state
      */
+    @SuppressWarnings("unchecked")
     public ProcessStateT getProcessState(AnalyzedProcess<?, GlobalStateT, ProcessStateT, ?> process)
             throws NullPointerException {
-        resetHashCode();
+        AccessRecorder.recordProcessStateAccess(process);
+        ProcessStateT result = Objects.requireNonNull(this.processStates.get(process));
+        if (!isLocked() && result.isLocked()) {
+            // the clone is equal, so the hashCode remains valid
+            result = result.unlockedClone();
+            result.setHashOwner(this);
+            // the key is known to be present, so it must be of type ProcessT
+            this.processStates.put((ProcessT) process, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the local state associated with the given process in this state without making it
+     * modifiable.
+     * 
+     * The result may be shared with other states and must not be modified.
+     * 
+     * @param process a process
+     * @return the local state associated with the given process
+     * @throws NullPointerException if the given process is not associated with any local state
+     */
+    public ProcessStateT getProcessStateReadOnly(AnalyzedProcess<?, GlobalStateT, ProcessStateT, ?> process)
+            throws NullPointerException {
+        AccessRecorder.recordProcessStateAccess(process);
         return Objects.requireNonNull(this.processStates.get(process));
     }
 
@@ -246,8 +453,50 @@ extends HashCachingLockableObject<ConsideredState<GlobalStateT, ProcessStateT, P
      */
     public void setState(ProcessT process, ProcessStateT state) {
         requireNotLocked();
+        AccessRecorder.recordProcessStateAccess(process);
         resetHashCode();
         this.processStates.put(process, state);
+        invalidateWaitingProcesses();
+        state.setHashOwner(this);
+    }
+
+    /**
+     * Returns all processes whose local states are waiting for the given event (via an
+     * {@link EventBlocker}) in this state.
+     * <p>
+     * The result is obtained from an index of all waiting processes, which is computed once and shared
+     * with copies of this state until any process state changes what it is waiting for. The returned
+     * list is unmodifiable and not updated by later changes of this state.
+     *
+     * @param event some event
+     * @return unmodifiable list of processes waiting for the event
+     */
+    public List<ProcessT> getProcessesWaitingFor(Event event) {
+        AccessRecorder.recordAllProcessStatesAccess();
+        Map<Event, List<ProcessT>> index = this.waitingProcesses;
+        if (index == null) {
+            Map<Event, List<ProcessT>> newIndex = new HashMap<>();
+            for (Entry<ProcessT, ProcessStateT> entry : this.processStates.entrySet()) {
+                if (entry.getValue().getWaitingFor() instanceof EventBlocker eb) {
+                    for (Event waitedFor : eb.getEvents()) {
+                        newIndex.computeIfAbsent(waitedFor, e -> new ArrayList<>()).add(entry.getKey());
+                    }
+                }
+            }
+            newIndex.replaceAll((e, processes) -> Collections.unmodifiableList(processes));
+            index = newIndex;
+            this.waitingProcesses = index;
+        }
+        return index.getOrDefault(event, List.of());
+    }
+
+    /**
+     * Invalidates the index used by {@link #getProcessesWaitingFor(Event)}.
+     * <p>
+     * This is called whenever a process state of this state changes what it is waiting for.
+     */
+    protected void invalidateWaitingProcesses() {
+        this.waitingProcesses = null;
     }
 
     /**
@@ -260,6 +509,10 @@ extends HashCachingLockableObject<ConsideredState<GlobalStateT, ProcessStateT, P
      * @return collection of ready processes
      */
     public Collection<ProcessT> getReadyProcesses() {
+        AccessRecorder.recordAllProcessStatesAccess();
+        if (this.readyProcesses != null) {
+            return this.readyProcesses;
+        }
         Collection<ProcessT> result = new ArrayList<>();
         for (Entry<ProcessT, ProcessStateT> entry : this.processStates.entrySet()) {
             if (entry.getValue().isReady()) {
@@ -269,10 +522,35 @@ extends HashCachingLockableObject<ConsideredState<GlobalStateT, ProcessStateT, P
         return result;
     }
 
+    /**
+     * Returns a collection of all processes which are associated with local states waiting for an
+     * {@link EventBlocker}.
+     * 
+     * The collection is guaranteed not to contain duplicates, but may not be a set for performance
+     * reasons. It is disjoint from the collection returned by {@link #getReadyProcesses()}.
+     *
+     * @return collection of processes waiting for events
+     */
+    public Collection<ProcessT> getEventBlockedProcesses() {
+        AccessRecorder.recordAllProcessStatesAccess();
+        if (this.eventBlockedProcesses != null) {
+            return this.eventBlockedProcesses;
+        }
+        Collection<ProcessT> result = new ArrayList<>();
+        for (Entry<ProcessT, ProcessStateT> entry : this.processStates.entrySet()) {
+            if (entry.getValue().getWaitingFor() instanceof EventBlocker) {
+                result.add(entry.getKey());
+            }
+        }
+        return result;
+    }
+
     /**
      * {@inheritDoc}
      * 
-     * Locking this state writes through to the global state and all process states.
+     * Locking this state writes through to the global state and all process states. The collections
+     * returned by {@link #getReadyProcesses()} and {@link #getEventBlockedProcesses()} are computed at
+     * this point and returned without further allocations afterwards.
      */
     @Override
     public boolean lock() {
@@ -281,13 +559,49 @@ extends HashCachingLockableObject<ConsideredState<GlobalStateT, ProcessStateT, P
         }
 
         this.globalState.lock();
-        for (ProcessStateT processState : this.processStates.values()) {
+        List<ProcessT> ready = new ArrayList<>();
+        List<ProcessT> eventBlocked = new ArrayList<>();
+        for (Entry<ProcessT, ProcessStateT> entry : this.processStates.entrySet()) {
+            ProcessStateT processState = entry.getValue();
             processState.lock();
+            if (processState.isReady()) {
+                ready.add(entry.getKey());
+            } else if (processState.getWaitingFor() instanceof EventBlocker) {
+                eventBlocked.add(entry.getKey());
+            }
         }
+        this.readyProcesses = ready.isEmpty() ? List.of() : Collections.unmodifiableList(ready);
+        this.eventBlockedProcesses = eventBlocked.isEmpty() ? List.of() : Collections.unmodifiableList(eventBlocked);
 
         return true;
     }
 
+    @Override
+    protected ConsideredState<GlobalStateT, ProcessStateT, ProcessT> withInternedComponents(StateInterner interner) {
+        // the clone shares all locked components and is only made if some component is replaced
+        ConsideredState<GlobalStateT, ProcessStateT, ProcessT> result = null;
+        GlobalStateT internedGlobalState = interner.intern(this.globalState);
+        if (internedGlobalState != this.globalState) {
+            result = unlockedClone();
+            result.globalState = internedGlobalState;
+        }
+        for (Entry<ProcessT, ProcessStateT> entry : this.processStates.entrySet()) {
+            ProcessStateT internedState = interner.intern(entry.getValue());
+            if (internedState != entry.getValue()) {
+                if (result == null) {
+                    result = unlockedClone();
+                }
+                result.processStates.put(entry.getKey(), internedState);
+            }
+        }
+
+        if (result == null) {
+            return this;
+        }
+        result.lock();
+        return result;
+    }
+
     // increase visibility
     @Override
     public ConsideredState<GlobalStateT, ProcessStateT, ProcessT> unlockedVersion() {
@@ -308,7 +622,14 @@ extends HashCachingLockableObject<ConsideredState<GlobalStateT, ProcessStateT, P
         if (!(other instanceof ConsideredState<?, ?, ?> s)) {
             return false;
         }
-        return this.globalState.equals(s.globalState) && this.processStates.equals(s.processStates);
+        boolean result = this.globalState.equals(s.globalState) && this.processStates.equals(s.processStates);
+        if (!result && collisionStatisticsEnabled && hashCode() == s.hashCode()) {
+            numHashCollisions.increment();
+            if (fingerprint() == s.fingerprint()) {
+                numFingerprintCollisions.increment();
+            }
+        }
+        return result;
     }
 
     @Override
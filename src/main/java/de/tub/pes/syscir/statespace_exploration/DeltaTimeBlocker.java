@@ -27,6 +27,11 @@ public final class DeltaTimeBlocker extends TimedBlocker {
         return 0;
     }
 
+    @Override
+    public long fingerprint() {
+        return 0x44656c7461L;
+    }
+
     @Override
     public String toString() {
         return "Δ";
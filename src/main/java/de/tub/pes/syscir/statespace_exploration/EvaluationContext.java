@@ -110,14 +110,15 @@ public class EvaluationContext<ValueT extends AbstractedValue<? extends ValueT,
      * Returns a modifiable or unmodifiable view of the expression values of this context, depending on
      * whether or not this state is locked.
      * 
-     * If the expression values are overwritten by {@link #setExpressionValues(List)}, a previously
-     * returned view will no longer be up to date.
+     * Modifications of the view (including the inner lists) reset the hashCode of this context. If the
+     * expression values are overwritten by {@link #setExpressionValues(List)}, a previously returned
+     * view will no longer be up to date.
      * 
      * @return modifiable or unmodifiable view of the expression values
      */
     public List<List<ValueT>> getExpressionValues() {
-        resetHashCode();
-        return isLocked() ? CollectionUtil.deeplyUnmodifiableList(this.expressionValues) : this.expressionValues;
+        return isLocked() ? CollectionUtil.deeplyUnmodifiableList(this.expressionValues)
+                : ModificationTrackingList.ofLists(this.expressionValues, this);
     }
 
     /**
@@ -193,6 +194,13 @@ public class EvaluationContext<ValueT extends AbstractedValue<? extends ValueT,
                 + this.thisValue.hashCode();
     }
 
+    @Override
+    protected long fingerprintInternal() {
+        long result = Fingerprintable.combine(super.fingerprintInternal(), this.comingFrom);
+        result = Fingerprintable.combine(result, Fingerprintable.of(this.expressionValues));
+        return Fingerprintable.combine(result, Fingerprintable.of(this.thisValue));
+    }
+
     @Override
     public boolean equals(Object other) {
         if (this == other) {
@@ -22,7 +22,9 @@ import java.util.Objects;
  * @author Jonas Becker-Kupczok
  *
  */
-public class EvaluationLocation extends HashCachingLockableObject<EvaluationLocation> {
+public class EvaluationLocation extends HashCachingLockableObject<EvaluationLocation> implements Fingerprintable {
+
+    private static final int UNRESOLVED = -2;
 
     private WrappedSCFunction function;
 
@@ -30,6 +32,11 @@ public class EvaluationLocation extends HashCachingLockableObject<EvaluationLoca
     // within that, etc
     private List<Integer> expressionIndices;
 
+    // execution plan of the function, resolved on first use
+    private ExecutionPlan plan;
+
+    // node of the execution plan targeted by this location, reset together with the hashCode
+    private int node;
 
     /**
      * Creates a new EvaluationLocation, specifying the location of the evaluation.
@@ -54,6 +61,7 @@ public class EvaluationLocation extends HashCachingLockableObject<EvaluationLoca
     public EvaluationLocation(WrappedSCFunction function, List<Integer> expressionIndices) {
         this.function = Objects.requireNonNull(function);
         this.expressionIndices = Objects.requireNonNull(expressionIndices);
+        this.node = UNRESOLVED;
     }
 
     /**
@@ -70,6 +78,8 @@ public class EvaluationLocation extends HashCachingLockableObject<EvaluationLoca
 
         this.function = copyOf.function;
         this.expressionIndices = new ArrayList<>(copyOf.expressionIndices);
+        this.plan = copyOf.plan;
+        this.node = copyOf.node;
 
         if (!retainHashCode) {
             resetHashCode();
@@ -88,13 +98,14 @@ public class EvaluationLocation extends HashCachingLockableObject<EvaluationLoca
     /**
      * Returns the indices of the expression and sub expressions where this location is found.
      * 
-     * The returned list is mutable iff this location has not been locked.
+     * The returned list is mutable iff this location has not been locked. Modifications of the list
+     * reset the hashCode of this location.
      *
      * @return the indices of the expression and sub expressions where this location is found
      */
     public List<Integer> getExpressionIndices() {
-        resetHashCode();
-        return isLocked() ? Collections.unmodifiableList(this.expressionIndices) : this.expressionIndices;
+        return isLocked() ? Collections.unmodifiableList(this.expressionIndices)
+                : new ModificationTrackingList<>(this.expressionIndices, this);
     }
 
     /**
@@ -118,6 +129,14 @@ public class EvaluationLocation extends HashCachingLockableObject<EvaluationLoca
             return null;
         }
 
+        ExecutionPlan plan = getPlan();
+        int resolved = levelsAbove == 0 ? getNode()
+                : plan.resolve(this.expressionIndices.subList(0, this.expressionIndices.size() - levelsAbove));
+        if (resolved != ExecutionPlan.NO_NODE) {
+            return plan.getExpression(resolved);
+        }
+
+        // not part of the plan, walk the expression tree to obtain the same result (or exception)
         List<Integer> indices = this.expressionIndices.subList(0, this.expressionIndices.size() - levelsAbove);
         Expression current = this.function.getBody().get(indices.get(0));
         for (int i = 1; i < indices.size(); i++) {
@@ -126,6 +145,62 @@ public class EvaluationLocation extends HashCachingLockableObject<EvaluationLoca
         return current;
     }
 
+    /**
+     * Returns the kind of the next expression targeted by this evaluation location, as determined by
+     * the {@link ExecutionPlan} of the function.
+     * 
+     * If no expression is targeted, {@link ExecutionPlan.Kind#OTHER} is returned.
+     * 
+     * @return the kind of the next expression
+     */
+    public ExecutionPlan.Kind getNextExpressionKind() {
+        int resolved = getNode();
+        if (resolved == ExecutionPlan.NO_NODE) {
+            Expression next = getNextExpression();
+            return next == null ? ExecutionPlan.Kind.OTHER : ExecutionPlan.Kind.of(next);
+        }
+        return getPlan().getKind(resolved);
+    }
+
+    /**
+     * Returns the {@link ExecutionPlan} of the function where this location is found.
+     * 
+     * @return the execution plan of the function
+     */
+    public ExecutionPlan getPlan() {
+        ExecutionPlan result = this.plan;
+        if (result == null) {
+            result = ExecutionPlan.of(this.function);
+            this.plan = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the node of the {@link ExecutionPlan} of the function that is targeted by this location,
+     * or {@link ExecutionPlan#NO_NODE} if there is none.
+     * 
+     * The node is cached until this location is modified.
+     * 
+     * @return the targeted node
+     */
+    public int getNode() {
+        int resolved = this.node;
+        if (resolved == UNRESOLVED) {
+            resolved = getPlan().resolve(this.expressionIndices);
+            this.node = resolved;
+        }
+        return resolved;
+    }
+
+    @Override
+    protected void resetHashCode() {
+        if (!isLocked()) {
+            this.node = UNRESOLVED;
+        }
+        super.resetHashCode();
+    }
+
     // increase visibility
     @Override
     public boolean lock() {
@@ -148,6 +223,25 @@ public class EvaluationLocation extends HashCachingLockableObject<EvaluationLoca
         return this.expressionIndices.hashCode() * 31 + this.function.hashCode();
     }
 
+    /**
+     * Returns a 64-bit fingerprint of this location, intended for {@link ConsideredState#fingerprint()}.
+     * <p>
+     * Equal locations have equal fingerprints. The fingerprint is cached like the hashCode. Subclasses
+     * introducing additional portions of the location should override {@link #fingerprintInternal()}
+     * to include them.
+     *
+     * @return fingerprint of this location
+     */
+    @Override
+    public final long fingerprint() {
+        return cachedFingerprint();
+    }
+
+    @Override
+    protected long fingerprintInternal() {
+        return Fingerprintable.combine(Fingerprintable.of(this.function), Fingerprintable.of(this.expressionIndices));
+    }
+
     @Override
     public boolean equals(Object other) {
         if (this == other) {
@@ -1,9 +1,13 @@
 package de.tub.pes.syscir.statespace_exploration;
 
 import de.tub.pes.syscir.sc_model.variables.SCEvent;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -18,13 +22,19 @@ public final class EventBlocker extends ProcessBlocker {
      * Class modeling an event in SystemC. Equality of events is determined by identity.
      * 
      * Note that this is different from {@link SCEvent} which merely models a variable holding an event.
+     * <p>
+     * Every event is assigned a unique, dense id on construction, which allows sets of events to be
+     * represented as bit sets (see {@link EventBlocker#toIdSet(Collection)}).
      * 
      * @author Jonas Becker-Kupczok
      *
      */
-    public static class Event {
+    public static class Event implements Fingerprintable {
+
+        private static final AtomicInteger nextId = new AtomicInteger();
 
         private String name;
+        private final int id;
 
         /**
          * Constructs a new event for the given name.
@@ -35,6 +45,7 @@ public final class EventBlocker extends ProcessBlocker {
          */
         public Event(String name) {
             this.name = name;
+            this.id = nextId.getAndIncrement();
         }
 
         /**
@@ -52,6 +63,23 @@ public final class EventBlocker extends ProcessBlocker {
             return this.name;
         }
 
+        /**
+         * Returns the unique id of this event.
+         * 
+         * Ids are assigned densely in the order in which events are constructed, starting at zero.
+         *
+         * @return the id of this event
+         */
+        public int getId() {
+            return this.id;
+        }
+
+        @Override
+        public long fingerprint() {
+            // events are equal iff they are identical, so their unique ids identify them exactly
+            return Fingerprintable.combine(0x4576656e74L, this.id);
+        }
+
         @Override
         public String toString() {
             return getName();
@@ -59,6 +87,7 @@ public final class EventBlocker extends ProcessBlocker {
     }
 
     private final Set<Event> events;
+    private final BitSet eventIds;
 
     // true means one event is enough (e1 | e1 | ...),
     // false means all events are necessary (e1 & e2 & ...)
@@ -85,6 +114,22 @@ public final class EventBlocker extends ProcessBlocker {
         if (events.isEmpty()) {
             throw new IllegalArgumentException("events may not be empty");
         }
+
+        this.eventIds = toIdSet(events);
+    }
+
+    /**
+     * Returns a new bit set containing the ids of the given events.
+     *
+     * @param events some events
+     * @return bit set of the ids of the events
+     */
+    public static BitSet toIdSet(Collection<Event> events) {
+        BitSet result = new BitSet();
+        for (Event event : events) {
+            result.set(event.getId());
+        }
+        return result;
     }
 
     /**
@@ -106,6 +151,64 @@ public final class EventBlocker extends ProcessBlocker {
         return new EventBlocker(events, this.choice, this.timeout);
     }
 
+    /**
+     * Returns whether the given event is one of the events to wait for.
+     *
+     * @param event some event
+     * @return whether this blocker waits for the event
+     */
+    public boolean isWaitingFor(Event event) {
+        return this.eventIds.get(event.getId());
+    }
+
+    /**
+     * Returns what remains of this block after the events with the given ids have been notified.
+     * <p>
+     * The result is this blocker itself if it doesn't wait for any of the events, null if the block is
+     * resolved (i.e. if it is a choice or all events have been notified), or an EventBlocker waiting
+     * for the events that have not been notified otherwise.
+     *
+     * @param notifiedIds the ids of the notified events (see {@link #toIdSet(Collection)})
+     * @return the remaining blocker, or null
+     */
+    public EventBlocker removeNotifiedEvents(BitSet notifiedIds) {
+        if (!this.eventIds.intersects(notifiedIds)) {
+            return this;
+        }
+        if (this.choice) {
+            return null;
+        }
+
+        Set<Event> remainingEvents = new LinkedHashSet<>();
+        for (Event event : this.events) {
+            if (!notifiedIds.get(event.getId())) {
+                remainingEvents.add(event);
+            }
+        }
+        return remainingEvents.isEmpty() ? null : replaceEvents(remainingEvents);
+    }
+
+    /**
+     * Returns what remains of this block after the given event has been notified.
+     * <p>
+     * The result is defined as for {@link #removeNotifiedEvents(BitSet)}.
+     *
+     * @param event the notified event
+     * @return the remaining blocker, or null
+     */
+    public EventBlocker removeNotifiedEvent(Event event) {
+        if (!isWaitingFor(event)) {
+            return this;
+        }
+        if (this.choice || this.events.size() == 1) {
+            return null;
+        }
+
+        Set<Event> remainingEvents = new LinkedHashSet<>(this.events);
+        remainingEvents.remove(event);
+        return replaceEvents(remainingEvents);
+    }
+
     /**
      * Returns whether or not one of the given events being triggered is enough to resolve this block.
      *
@@ -141,6 +244,12 @@ public final class EventBlocker extends ProcessBlocker {
         return (this.events.size() <= 1 || this.choice) ? result : ~result;
     }
 
+    @Override
+    public long fingerprint() {
+        long result = Fingerprintable.combine(Fingerprintable.of(this.eventIds), Fingerprintable.of(this.timeout));
+        return (this.events.size() <= 1 || this.choice) ? result : ~result;
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other == this) {
@@ -149,7 +258,8 @@ public final class EventBlocker extends ProcessBlocker {
         if (!(other instanceof EventBlocker e)) {
             return false;
         }
-        return this.events.equals(e.events) && (this.events.size() <= 1 || this.choice == e.choice)
+        // events are equal iff they are identical, which is the case iff their ids are equal
+        return this.eventIds.equals(e.eventIds) && (this.events.size() <= 1 || this.choice == e.choice)
                 && Objects.equals(this.timeout, e.timeout);
     }
 
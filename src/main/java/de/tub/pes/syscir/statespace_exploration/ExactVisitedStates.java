@@ -0,0 +1,51 @@
+package de.tub.pes.syscir.statespace_exploration;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementation of {@link VisitedStates} storing all visited states in a {@link Set}.
+ *
+ * No state is ever omitted by this implementation. It is only thread-safe if constructed to be.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <StateT> the type of visited states
+ */
+public class ExactVisitedStates<StateT> extends VisitedStates<StateT> {
+
+    private Set<StateT> states;
+
+    /**
+     * Constructs a new, empty ExactVisitedStates.
+     *
+     * @param threadSafe whether or not the object shall be thread-safe (if false, the states are kept
+     *        in insertion order)
+     */
+    public ExactVisitedStates(boolean threadSafe) {
+        this.states = threadSafe ? ConcurrentHashMap.newKeySet() : new LinkedHashSet<>();
+    }
+
+    @Override
+    public boolean add(StateT state) {
+        return this.states.add(state);
+    }
+
+    @Override
+    public boolean contains(StateT state) {
+        return this.states.contains(state);
+    }
+
+    @Override
+    public int size() {
+        return this.states.size();
+    }
+
+    @Override
+    public Set<StateT> asSet() {
+        return Collections.unmodifiableSet(this.states);
+    }
+
+}
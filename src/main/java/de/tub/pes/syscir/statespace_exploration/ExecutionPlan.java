@@ -0,0 +1,360 @@
+package de.tub.pes.syscir.statespace_exploration;
+
+import de.tub.pes.syscir.sc_model.expressions.AccessExpression;
+import de.tub.pes.syscir.sc_model.expressions.ArrayAccessExpression;
+import de.tub.pes.syscir.sc_model.expressions.ArrayInitializerExpression;
+import de.tub.pes.syscir.sc_model.expressions.AssertionExpression;
+import de.tub.pes.syscir.sc_model.expressions.BinaryExpression;
+import de.tub.pes.syscir.sc_model.expressions.BracketExpression;
+import de.tub.pes.syscir.sc_model.expressions.BreakExpression;
+import de.tub.pes.syscir.sc_model.expressions.CaseExpression;
+import de.tub.pes.syscir.sc_model.expressions.ConstantExpression;
+import de.tub.pes.syscir.sc_model.expressions.ContinueExpression;
+import de.tub.pes.syscir.sc_model.expressions.DeleteExpression;
+import de.tub.pes.syscir.sc_model.expressions.DoWhileLoopExpression;
+import de.tub.pes.syscir.sc_model.expressions.EmptyExpression;
+import de.tub.pes.syscir.sc_model.expressions.EndlineExpression;
+import de.tub.pes.syscir.sc_model.expressions.EnumElementExpression;
+import de.tub.pes.syscir.sc_model.expressions.EventNotificationExpression;
+import de.tub.pes.syscir.sc_model.expressions.Expression;
+import de.tub.pes.syscir.sc_model.expressions.ExpressionBlock;
+import de.tub.pes.syscir.sc_model.expressions.ForLoopExpression;
+import de.tub.pes.syscir.sc_model.expressions.FunctionCallExpression;
+import de.tub.pes.syscir.sc_model.expressions.IfElseExpression;
+import de.tub.pes.syscir.sc_model.expressions.NameExpression;
+import de.tub.pes.syscir.sc_model.expressions.NewExpression;
+import de.tub.pes.syscir.sc_model.expressions.OutputExpression;
+import de.tub.pes.syscir.sc_model.expressions.RefDerefExpression;
+import de.tub.pes.syscir.sc_model.expressions.ReturnExpression;
+import de.tub.pes.syscir.sc_model.expressions.SCClassInstanceExpression;
+import de.tub.pes.syscir.sc_model.expressions.SCDeltaCountExpression;
+import de.tub.pes.syscir.sc_model.expressions.SCPortSCSocketExpression;
+import de.tub.pes.syscir.sc_model.expressions.SCStopExpression;
+import de.tub.pes.syscir.sc_model.expressions.SCTimeStampExpression;
+import de.tub.pes.syscir.sc_model.expressions.SCVariableDeclarationExpression;
+import de.tub.pes.syscir.sc_model.expressions.SCVariableExpression;
+import de.tub.pes.syscir.sc_model.expressions.SCVariableNonDetSet;
+import de.tub.pes.syscir.sc_model.expressions.SwitchExpression;
+import de.tub.pes.syscir.sc_model.expressions.TimeUnitExpression;
+import de.tub.pes.syscir.sc_model.expressions.UnaryExpression;
+import de.tub.pes.syscir.sc_model.expressions.WhileLoopExpression;
+import de.tub.pes.syscir.util.ExpressionUtil;
+import de.tub.pes.syscir.util.WrappedSCFunction;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flat, index-addressed representation of the expression tree of a {@link WrappedSCFunction}.
+ *
+ * Every expression of the function body is compiled once into a node identified by an int. For
+ * every node, the plan stores the expression itself, its {@link Kind}, the node of its parent and
+ * the nodes of its children in evaluation order (as defined by
+ * {@link ExpressionUtil#getChildByIndex(Expression, int)}). This allows {@link EvaluationLocation}s
+ * to find their targeted expression by a few array accesses instead of walking the expression tree
+ * (which creates a new list of children on every level), and allows the interpreter to dispatch on
+ * the precomputed kind instead of testing the class of the expression.
+ * <p>
+ * Plans are created on demand by {@link #of(WrappedSCFunction)} and stored with their function. The
+ * compiled function must not be modified afterwards. This class is thread-safe.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ */
+public final class ExecutionPlan {
+
+    /**
+     * The kind of an expression, i.e. its class as relevant for the interpreter.
+     *
+     * Kinds are assigned in the same order in which the interpreter tests the classes of expressions,
+     * so an expression of a subclass of multiple handled classes receives the kind of the class tested
+     * first.
+     */
+    public enum Kind {
+        CONSTANT, ENDLINE, ENUM_ELEMENT, CLASS_INSTANCE, DELTA_COUNT, PORT_SOCKET, VARIABLE, TIME_UNIT,
+
+        ASSERTION, EMPTY, NAME, TIME_STAMP,
+
+        ACCESS, ARRAY_ACCESS, ARRAY_INITIALIZER, BINARY, BRACKET, DELETE, BLOCK, NEW, OUTPUT, REF_DEREF,
+        VARIABLE_DECLARATION, NON_DET_SET, UNARY,
+
+        IF_ELSE, WHILE_LOOP, DO_WHILE_LOOP, FOR_LOOP, SWITCH, CASE, BREAK, CONTINUE,
+
+        FUNCTION_CALL, RETURN, EVENT_NOTIFICATION, SC_STOP,
+
+        OTHER;
+
+        /**
+         * Returns the kind of the given expression.
+         *
+         * @param expression some expression
+         * @return the kind of the expression
+         */
+        public static Kind of(Expression expression) {
+            if (expression instanceof ConstantExpression) {
+                return CONSTANT;
+            } else if (expression instanceof EndlineExpression) {
+                return ENDLINE;
+            } else if (expression instanceof EnumElementExpression) {
+                return ENUM_ELEMENT;
+            } else if (expression instanceof SCClassInstanceExpression) {
+                return CLASS_INSTANCE;
+            } else if (expression instanceof SCDeltaCountExpression) {
+                return DELTA_COUNT;
+            } else if (expression instanceof SCPortSCSocketExpression) {
+                return PORT_SOCKET;
+            } else if (expression instanceof SCVariableExpression) {
+                return VARIABLE;
+            } else if (expression instanceof TimeUnitExpression) {
+                return TIME_UNIT;
+            }
+
+            if (expression instanceof AssertionExpression) {
+                return ASSERTION;
+            } else if (expression instanceof EmptyExpression) {
+                return EMPTY;
+            } else if (expression instanceof NameExpression) {
+                return NAME;
+            } else if (expression instanceof SCTimeStampExpression) {
+                return TIME_STAMP;
+            }
+
+            if (expression instanceof AccessExpression) {
+                return ACCESS;
+            } else if (expression instanceof ArrayAccessExpression) {
+                return ARRAY_ACCESS;
+            } else if (expression instanceof ArrayInitializerExpression) {
+                return ARRAY_INITIALIZER;
+            } else if (expression instanceof BinaryExpression) {
+                return BINARY;
+            } else if (expression instanceof BracketExpression) {
+                return BRACKET;
+            } else if (expression instanceof DeleteExpression) {
+                return DELETE;
+            } else if (expression instanceof ExpressionBlock) {
+                return BLOCK;
+            } else if (expression instanceof NewExpression) {
+                return NEW;
+            } else if (expression instanceof OutputExpression) {
+                return OUTPUT;
+            } else if (expression instanceof RefDerefExpression) {
+                return REF_DEREF;
+            } else if (expression instanceof SCVariableDeclarationExpression) {
+                return VARIABLE_DECLARATION;
+            } else if (expression instanceof SCVariableNonDetSet) {
+                return NON_DET_SET;
+            } else if (expression instanceof UnaryExpression) {
+                return UNARY;
+            }
+
+            if (expression instanceof IfElseExpression) {
+                return IF_ELSE;
+            } else if (expression instanceof WhileLoopExpression) {
+                return WHILE_LOOP;
+            } else if (expression instanceof DoWhileLoopExpression) {
+                return DO_WHILE_LOOP;
+            } else if (expression instanceof ForLoopExpression) {
+                return FOR_LOOP;
+            } else if (expression instanceof SwitchExpression) {
+                return SWITCH;
+            } else if (expression instanceof CaseExpression) {
+                return CASE;
+            } else if (expression instanceof BreakExpression) {
+                return BREAK;
+            } else if (expression instanceof ContinueExpression) {
+                return CONTINUE;
+            }
+
+            if (expression instanceof FunctionCallExpression) {
+                return FUNCTION_CALL;
+            } else if (expression instanceof ReturnExpression) {
+                return RETURN;
+            } else if (expression instanceof EventNotificationExpression) {
+                return EVENT_NOTIFICATION;
+            } else if (expression instanceof SCStopExpression) {
+                return SC_STOP;
+            }
+
+            return OTHER;
+        }
+    }
+
+    /**
+     * Node returned for locations that don't target any node of the plan.
+     */
+    public static final int NO_NODE = -1;
+
+    private final WrappedSCFunction function;
+
+    private final int[] roots;
+
+    private final List<Expression> expressions;
+    private final List<Kind> kinds;
+    private final int[] parents;
+    private final int[][] children;
+
+    /**
+     * Returns the execution plan of the given function, compiling it if this has not yet been done.
+     *
+     * The plan is stored with the wrapper of the function (see {@link WrappedSCFunction#getPlanSlot()}),
+     * which in turn is stored in the function itself. Plans therefore belong to one model, even if
+     * another model contains equal functions (e.g. the same example built twice), and they are released
+     * together with their model.
+     *
+     * @param function some function
+     * @return the execution plan of the function
+     */
+    public static ExecutionPlan of(WrappedSCFunction function) {
+        Object plan = function.getPlanSlot().get();
+        if (plan == null) {
+            plan = function.getPlanSlot().setIfAbsent(new ExecutionPlan(function));
+        }
+        return (ExecutionPlan) plan;
+    }
+
+    private ExecutionPlan(WrappedSCFunction function) {
+        this.function = function;
+
+        List<Expression> body = function.getBody();
+        this.expressions = new ArrayList<>();
+        this.kinds = new ArrayList<>();
+        List<Integer> parentList = new ArrayList<>();
+        List<int[]> childrenList = new ArrayList<>();
+
+        this.roots = new int[body.size()];
+        for (int i = 0; i < body.size(); i++) {
+            this.roots[i] = compile(body.get(i), NO_NODE, parentList, childrenList);
+        }
+
+        this.parents = parentList.stream().mapToInt(Integer::intValue).toArray();
+        this.children = childrenList.toArray(new int[childrenList.size()][]);
+    }
+
+    private int compile(Expression expression, int parent, List<Integer> parentList, List<int[]> childrenList) {
+        if (expression == null) {
+            return NO_NODE;
+        }
+
+        int node = this.expressions.size();
+        this.expressions.add(expression);
+        this.kinds.add(Kind.of(expression));
+        parentList.add(parent);
+        childrenList.add(null);
+
+        int numChildren = expression.getNumOfChildren();
+        int[] childNodes = new int[numChildren];
+        for (int i = 0; i < numChildren; i++) {
+            childNodes[i] = compile(ExpressionUtil.getChildByIndex(expression, i), node, parentList, childrenList);
+        }
+        childrenList.set(node, childNodes);
+
+        return node;
+    }
+
+    /**
+     * Returns the function compiled into this plan.
+     *
+     * @return the compiled function
+     */
+    public WrappedSCFunction getFunction() {
+        return this.function;
+    }
+
+    /**
+     * Returns the number of nodes in this plan.
+     *
+     * @return number of nodes
+     */
+    public int getNumNodes() {
+        return this.expressions.size();
+    }
+
+    /**
+     * Returns the node targeted by the given expression indices (as used by
+     * {@link EvaluationLocation}), or {@link #NO_NODE} if the indices don't target any node of this
+     * plan (e.g. because they point past the last child of some expression).
+     *
+     * @param expressionIndices the indices of the expression and sub expressions
+     * @return the targeted node or {@link #NO_NODE}
+     */
+    public int resolve(List<Integer> expressionIndices) {
+        if (expressionIndices.isEmpty()) {
+            return NO_NODE;
+        }
+
+        int index = expressionIndices.get(0);
+        if (index < 0 || index >= this.roots.length) {
+            return NO_NODE;
+        }
+        int node = this.roots[index];
+
+        for (int i = 1; i < expressionIndices.size() && node != NO_NODE; i++) {
+            index = expressionIndices.get(i);
+            int[] childNodes = this.children[node];
+            if (index < 0 || index >= childNodes.length) {
+                return NO_NODE;
+            }
+            node = childNodes[index];
+        }
+        return node;
+    }
+
+    /**
+     * Returns the expression compiled into the given node.
+     *
+     * @param node a node of this plan
+     * @return the expression of that node
+     */
+    public Expression getExpression(int node) {
+        return this.expressions.get(node);
+    }
+
+    /**
+     * Returns the kind of the expression compiled into the given node.
+     *
+     * @param node a node of this plan
+     * @return the kind of that node
+     */
+    public Kind getKind(int node) {
+        return this.kinds.get(node);
+    }
+
+    /**
+     * Returns the parent of the given node, or {@link #NO_NODE} if it is a top-level expression of the
+     * function body.
+     *
+     * @param node a node of this plan
+     * @return the parent node or {@link #NO_NODE}
+     */
+    public int getParent(int node) {
+        return this.parents[node];
+    }
+
+    /**
+     * Returns the child of the given node at the given index in evaluation order, or {@link #NO_NODE}
+     * if there is no such child.
+     *
+     * @param node a node of this plan
+     * @param index the index of the child
+     * @return the child node or {@link #NO_NODE}
+     */
+    public int getChild(int node, int index) {
+        int[] childNodes = this.children[node];
+        return index < 0 || index >= childNodes.length ? NO_NODE : childNodes[index];
+    }
+
+    /**
+     * Returns the number of children of the given node.
+     *
+     * @param node a node of this plan
+     * @return the number of children
+     */
+    public int getNumChildren(int node) {
+        return this.children[node].length;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionPlan[" + this.function.getName() + ", " + getNumNodes() + " nodes]";
+    }
+
+}
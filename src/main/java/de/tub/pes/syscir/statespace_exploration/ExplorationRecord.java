@@ -25,4 +25,19 @@ public interface ExplorationRecord<GlobalStateT extends GlobalState<GlobalStateT
     void explorationMade(ConsideredState<GlobalStateT, ProcessStateT, ?> from,
             ConsideredState<GlobalStateT, ProcessStateT, ?> to, InfoT info);
 
+    /**
+     * Returns whether this record needs to be informed about the transitions out of every reachable
+     * state.
+     * 
+     * Reductions that skip states merely equivalent to an already visited one (see
+     * {@link CanonicalizingVisitedStates}) must not be used with such a record, as it would lack the
+     * transitions out of the skipped states. This is the case for any record building a graph of the
+     * explored transitions, so it is the default.
+     * 
+     * @return whether the transitions out of all reachable states are needed
+     */
+    default boolean requiresAllStates() {
+        return true;
+    }
+
 }
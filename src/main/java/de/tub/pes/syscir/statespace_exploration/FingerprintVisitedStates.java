@@ -0,0 +1,160 @@
+package de.tub.pes.syscir.statespace_exploration;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+
+/**
+ * Implementation of {@link VisitedStates} only storing a 64-bit fingerprint per visited state (hash
+ * compaction).
+ *
+ * A state is considered visited if a state with the same fingerprint has been visited. Thus, states
+ * whose fingerprint collides with that of a visited state are omitted. Assuming uniformly
+ * distributed fingerprints, the probability of any such collision among n states is about
+ * n<sup>2</sup> / 2<sup>65</sup>.
+ * <p>
+ * The fingerprints are stored in open addressing hash tables, needing about 8 to 16 bytes per
+ * visited state. To allow concurrent access, the fingerprints are distributed over several
+ * independently synchronized segments.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <StateT> the type of visited states
+ */
+public class FingerprintVisitedStates<StateT> extends VisitedStates<StateT> {
+
+    private static final int NUM_SEGMENTS = 64;
+    private static final int INITIAL_SEGMENT_CAPACITY = 1024;
+
+    /**
+     * Open addressing hash table of fingerprints. 0 marks an empty slot, the fingerprint 0 is stored
+     * separately.
+     */
+    private static class Segment {
+
+        private long[] table = new long[INITIAL_SEGMENT_CAPACITY];
+        private int size;
+        private boolean containsZero;
+
+        private synchronized boolean add(long fingerprint) {
+            if (fingerprint == 0) {
+                if (this.containsZero) {
+                    return false;
+                }
+                this.containsZero = true;
+                return true;
+            }
+
+            int index = find(this.table, fingerprint);
+            if (this.table[index] == fingerprint) {
+                return false;
+            }
+
+            this.table[index] = fingerprint;
+            this.size++;
+            // keep the load factor at or below 1/2
+            if (2 * this.size > this.table.length) {
+                grow();
+            }
+            return true;
+        }
+
+        private synchronized boolean contains(long fingerprint) {
+            if (fingerprint == 0) {
+                return this.containsZero;
+            }
+            return this.table[find(this.table, fingerprint)] == fingerprint;
+        }
+
+        private void grow() {
+            long[] newTable = new long[2 * this.table.length];
+            for (long fingerprint : this.table) {
+                if (fingerprint != 0) {
+                    newTable[find(newTable, fingerprint)] = fingerprint;
+                }
+            }
+            this.table = newTable;
+        }
+
+        // returns the index of the given fingerprint or of the empty slot where it would be inserted
+        private static int find(long[] table, long fingerprint) {
+            int mask = table.length - 1;
+            int index = (int) fingerprint & mask;
+            while (table[index] != 0 && table[index] != fingerprint) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+    }
+
+    private final ToLongFunction<? super StateT> fingerprintFunction;
+    private final Segment[] segments;
+    private final AtomicInteger size;
+
+    /**
+     * Constructs a new, empty FingerprintVisitedStates using the given function to compute the
+     * fingerprints of states.
+     *
+     * The bits of the fingerprints should be distributed uniformly, as the estimated probability of
+     * omission is based on that assumption.
+     *
+     * @param fingerprintFunction function computing the 64-bit fingerprint of a state
+     */
+    public FingerprintVisitedStates(ToLongFunction<? super StateT> fingerprintFunction) {
+        this.fingerprintFunction = fingerprintFunction;
+        this.segments = new Segment[NUM_SEGMENTS];
+        for (int i = 0; i < NUM_SEGMENTS; i++) {
+            this.segments[i] = new Segment();
+        }
+        this.size = new AtomicInteger();
+    }
+
+    private Segment getSegment(long fingerprint) {
+        // use the upper bits, as the lower ones are used to index the segment's table
+        return this.segments[(int) (fingerprint >>> 58)];
+    }
+
+    @Override
+    public boolean add(StateT state) {
+        long fingerprint = this.fingerprintFunction.applyAsLong(state);
+        if (!getSegment(fingerprint).add(fingerprint)) {
+            return false;
+        }
+        this.size.incrementAndGet();
+        return true;
+    }
+
+    @Override
+    public boolean contains(StateT state) {
+        long fingerprint = this.fingerprintFunction.applyAsLong(state);
+        return getSegment(fingerprint).contains(fingerprint);
+    }
+
+    @Override
+    public int size() {
+        return this.size.get();
+    }
+
+    /**
+     * Throws an {@link UnsupportedOperationException}, as only fingerprints are stored.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Set<StateT> asSet() throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("only fingerprints of visited states are stored");
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The probability is estimated as 1 - e<sup>-n(n-1) / 2<sup>65</sup></sup> for n stored
+     * fingerprints.
+     */
+    @Override
+    public double getOmissionProbability() {
+        double n = size();
+        return -Math.expm1(-n * (n - 1) / 0x1p65);
+    }
+
+}
@@ -0,0 +1,134 @@
+package de.tub.pes.syscir.statespace_exploration;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Interface for objects providing a 64-bit fingerprint, intended for {@link VisitedStates}
+ * implementations that don't store the states themselves (see {@link ConsideredState#fingerprint()}).
+ * <p>
+ * Equal objects must have equal fingerprints. Fingerprints are computed from the contents of an object
+ * using a 64-bit accumulator (see {@link #combine(long, long)}) down to its leaves, rather than from
+ * the 32-bit hashCodes of its components, such that objects only share a fingerprint if they actually
+ * collide in 64 bits. Leaves without a fingerprint of their own (see {@link #of(Object)}) contribute
+ * their hashCode. Apart from numbers, strings and events, these are the objects of the SysCIR model
+ * (functions, class instances, variables), of which there is a fixed number per system, so their
+ * collisions don't grow with the number of states.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ */
+public interface Fingerprintable {
+
+    /**
+     * Returns the 64-bit fingerprint of this object.
+     *
+     * @return fingerprint
+     */
+    long fingerprint();
+
+    /**
+     * Appends an element to the fingerprint of a sequence.
+     *
+     * For a fixed accumulator, distinct elements yield distinct results and vice versa, so sequences
+     * of equal length differing in a single element never share a fingerprint.
+     *
+     * @param accumulator the fingerprint of the preceding elements
+     * @param element the fingerprint of the next element
+     * @return the fingerprint of the extended sequence
+     */
+    static long combine(long accumulator, long element) {
+        return VisitedStates.mix(accumulator * 0x9e3779b97f4a7c15L + element);
+    }
+
+    /**
+     * Returns the contribution of an element to the fingerprint of an unordered collection, which is
+     * the sum of the contributions of its elements.
+     *
+     * @param element the fingerprint of the element
+     * @return contribution to the fingerprint of a collection
+     */
+    static long unordered(long element) {
+        return VisitedStates.mix(element ^ 0x632be59bd9b4e019L);
+    }
+
+    /**
+     * Returns the contribution of a single entry to the fingerprint of a map, which is the sum of the
+     * contributions of its entries.
+     *
+     * @param key the key of the entry
+     * @param value the value of the entry
+     * @return contribution to the fingerprint
+     */
+    static long entry(Object key, Object value) {
+        return unordered(combine(of(key), of(value)));
+    }
+
+    /**
+     * Returns the 64-bit fingerprint of the given object.
+     * <p>
+     * {@link Fingerprintable} objects provide their own fingerprint. Lists are fingerprinted in
+     * order, sets, maps and bit sets independent of their iteration order. Integral numbers, characters,
+     * booleans and enum constants are mapped injectively, strings are hashed over all their characters.
+     * Any other object contributes its hashCode.
+     *
+     * @param object some object (or null)
+     * @return fingerprint of the object
+     */
+    static long of(Object object) {
+        if (object == null) {
+            return 0x5bd1e9955bd1e995L;
+        }
+        if (object instanceof Fingerprintable f) {
+            return f.fingerprint();
+        }
+        if (object instanceof Integer || object instanceof Long || object instanceof Short
+                || object instanceof Byte) {
+            return VisitedStates.mix(((Number) object).longValue());
+        }
+        if (object instanceof Boolean b) {
+            return b ? 0x2545f4914f6cdd1dL : 0x1b873593cc9e2d51L;
+        }
+        if (object instanceof Character c) {
+            return VisitedStates.mix(~(long) c.charValue());
+        }
+        if (object instanceof String s) {
+            long result = s.length();
+            for (int i = 0; i < s.length(); i++) {
+                result = result * 0x100000001b3L + s.charAt(i);
+            }
+            return VisitedStates.mix(result ^ 0xcbf29ce484222325L);
+        }
+        if (object instanceof Enum<?> e) {
+            return combine(of(e.getDeclaringClass().getName()), e.ordinal());
+        }
+        if (object instanceof List<?> list) {
+            long result = list.size();
+            for (Object element : list) {
+                result = combine(result, of(element));
+            }
+            return result;
+        }
+        if (object instanceof Set<?> set) {
+            long result = set.size();
+            for (Object element : set) {
+                result += unordered(of(element));
+            }
+            return result;
+        }
+        if (object instanceof Map<?, ?> map) {
+            return PersistentHashMap.fingerprint(map);
+        }
+        if (object instanceof BitSet bits) {
+            long result = bits.length();
+            for (long word : bits.toLongArray()) {
+                result = combine(result, word);
+            }
+            return result;
+        }
+        return VisitedStates.mix(object.hashCode() + 0x9e3779b97f4a7c15L);
+    }
+
+}
@@ -3,8 +3,6 @@ package de.tub.pes.syscir.statespace_exploration;
 import de.tub.pes.syscir.statespace_exploration.EventBlocker.Event;
 import de.tub.pes.syscir.util.WrappedSCClassInstance;
 import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -24,7 +22,7 @@ import java.util.Set;
  *        {@link #unlockedClone()})
  */
 public abstract class GlobalState<GlobalStateT extends GlobalState<GlobalStateT>>
-        extends HashCachingLockableObject<GlobalStateT> {
+        extends HashCachingLockableObject<GlobalStateT> implements Fingerprintable {
 
     private Map<Event, TimedBlocker> eventStates; // not contained means not pending, null mapping is not allowed
 
@@ -59,8 +57,8 @@ public abstract class GlobalState<GlobalStateT extends GlobalState<GlobalStateT>
     protected GlobalState(GlobalState<GlobalStateT> copyOf) {
         super(copyOf);
 
-        this.eventStates = new LinkedHashMap<>(copyOf.eventStates);
-        this.requestedUpdates = new LinkedHashSet<>(copyOf.requestedUpdates);
+        this.eventStates = new PersistentHashMap<>(copyOf.eventStates);
+        this.requestedUpdates = new PersistentHashSet<>(copyOf.requestedUpdates);
     }
 
     @Override
@@ -83,8 +81,9 @@ public abstract class GlobalState<GlobalStateT extends GlobalState<GlobalStateT>
      * @return view of the event states
      */
     public Map<Event, TimedBlocker> getEventStates() {
-        resetHashCode();
-        return isLocked() ? Collections.unmodifiableMap(this.eventStates) : this.eventStates;
+        AccessRecorder.recordEventStatesAccess();
+        return isLocked() ? Collections.unmodifiableMap(this.eventStates)
+                : new ModificationTrackingMap<>(this.eventStates, this);
     }
 
     /**
@@ -97,8 +96,9 @@ public abstract class GlobalState<GlobalStateT extends GlobalState<GlobalStateT>
      * @return unmodifiable view of the events with their states
      */
     public Set<Entry<Event, TimedBlocker>> getEventsWithStates() {
-        resetHashCode();
-        return isLocked() ? Collections.unmodifiableSet(this.eventStates.entrySet()) : this.eventStates.entrySet();
+        AccessRecorder.recordEventStatesAccess();
+        return isLocked() ? Collections.unmodifiableSet(this.eventStates.entrySet())
+                : new ModificationTrackingMap<>(this.eventStates, this).entrySet();
     }
 
     /**
@@ -111,6 +111,7 @@ public abstract class GlobalState<GlobalStateT extends GlobalState<GlobalStateT>
      */
     public void setEventStates(Map<Event, TimedBlocker> eventStates) {
         requireNotLocked();
+        AccessRecorder.recordEventStatesAccess();
         resetHashCode();
         this.eventStates = eventStates;
     }
@@ -125,8 +126,9 @@ public abstract class GlobalState<GlobalStateT extends GlobalState<GlobalStateT>
      * @return view of the requested updates
      */
     public Set<WrappedSCClassInstance> getRequestedUpdates() {
-        resetHashCode();
-        return isLocked() ? Collections.unmodifiableSet(this.requestedUpdates) : this.requestedUpdates;
+        AccessRecorder.recordRequestedUpdatesAccess();
+        return isLocked() ? Collections.unmodifiableSet(this.requestedUpdates)
+                : new ModificationTrackingSet<>(this.requestedUpdates, this);
     }
 
     /**
@@ -139,6 +141,7 @@ public abstract class GlobalState<GlobalStateT extends GlobalState<GlobalStateT>
      */
     public void setRequestedUpdates(Set<WrappedSCClassInstance> requestedUpdates) {
         requireNotLocked();
+        AccessRecorder.recordRequestedUpdatesAccess();
         resetHashCode();
         this.requestedUpdates = requestedUpdates;
     }
@@ -160,6 +163,7 @@ public abstract class GlobalState<GlobalStateT extends GlobalState<GlobalStateT>
      */
     public void setSimulationStopped(boolean value) {
         requireNotLocked();
+        AccessRecorder.recordGlobalStateReplacement();
         resetHashCode();
         this.simulationStopped = value;
     }
@@ -187,6 +191,42 @@ public abstract class GlobalState<GlobalStateT extends GlobalState<GlobalStateT>
         return this.eventStates.equals(g.eventStates) && this.requestedUpdates.equals(g.requestedUpdates);
     }
 
+    /**
+     * Returns whether or not the given global state agrees with this one in all scheduling related
+     * parts, i.e. the event states, the requested updates and whether the simulation has been stopped.
+     * <p>
+     * In contrast to {@link #equals(Object)}, any additional portions of the state introduced by
+     * subclasses (e.g. variable values) are ignored.
+     *
+     * @param other some global state
+     * @return whether the scheduling state of both global states is equal
+     */
+    public boolean hasSameSchedulingState(GlobalState<?> other) {
+        return this.simulationStopped == other.simulationStopped && this.eventStates.equals(other.eventStates)
+                && this.requestedUpdates.equals(other.requestedUpdates);
+    }
+
+    /**
+     * Returns a 64-bit fingerprint of this state, intended for {@link ConsideredState#fingerprint()}.
+     * <p>
+     * Equal states have equal fingerprints. The fingerprint is cached like the hashCode. Subclasses
+     * introducing additional portions of the state should override {@link #fingerprintInternal()} to
+     * include them.
+     *
+     * @return fingerprint of this state
+     */
+    @Override
+    public final long fingerprint() {
+        return cachedFingerprint();
+    }
+
+    @Override
+    protected long fingerprintInternal() {
+        long result = Fingerprintable.combine(Fingerprintable.of(this.eventStates),
+                Fingerprintable.of(this.requestedUpdates));
+        return Fingerprintable.combine(result, Fingerprintable.of(this.simulationStopped));
+    }
+
     @Override
     public String toString() {
         return this.eventStates.toString() + ", updates " + this.requestedUpdates.toString();
@@ -3,6 +3,20 @@ package de.tub.pes.syscir.statespace_exploration;
 /**
  * Subclass of LockableObject that caches the hashCode of the object.
  *
+ * The cached hashCode is only reset by {@link #resetHashCode()}, which subclasses invoke on every
+ * actual modification. If the hashCode of an object depends on the hashCodes of unlocked components
+ * that are HashCachingLockableObjects themselves, those components must be registered via
+ * {@link #setHashOwner(HashCachingLockableObject)}, such that resetting their hashCode also resets
+ * that of the containing object. Every unlocked object can be registered with at most one owner at a
+ * time. Locked components never change and may thus be shared freely.
+ * <p>
+ * Once computed, the hashCode is published without synchronization. For locked objects, concurrent
+ * invocations of {@link #hashCode()} may compute it multiple times, but always with the same result.
+ * <p>
+ * Subclasses implementing {@link Fingerprintable} can cache their fingerprint in the same way by
+ * overriding {@link #fingerprintInternal()} and returning {@link #cachedFingerprint()}. It is reset
+ * together with the hashCode.
+ *
  * @author Jonas Becker-Kupczok
  *
  * @param <T> The type of this object (to specify the return types of {@link #unlockedClone()} and
@@ -14,6 +28,12 @@ public abstract class HashCachingLockableObject<T extends HashCachingLockableObj
 
     private volatile boolean hashCodePrecomputed;
 
+    private volatile long fingerprint;
+
+    private volatile boolean fingerprintPrecomputed;
+
+    private HashCachingLockableObject<?> hashOwner;
+
     /**
      * Constructs a new HashCachingLockableObject without a precomputed hash.
      */
@@ -34,6 +54,11 @@ public abstract class HashCachingLockableObject<T extends HashCachingLockableObj
      * given object.
      */
     public HashCachingLockableObject(HashCachingLockableObject<T> copyOf) {
+        if (copyOf.fingerprintPrecomputed) {
+            this.fingerprint = copyOf.fingerprint;
+            this.fingerprintPrecomputed = true;
+        }
+
         if (!copyOf.hashCodePrecomputed) {
             return;
         }
@@ -42,17 +67,6 @@ public abstract class HashCachingLockableObject<T extends HashCachingLockableObj
         this.hashCodePrecomputed = true;
     }
 
-    /**
-     * Returns the synchronization lock that shall be used to synchronize accesses to {@link #hashCode}.
-     * 
-     * By default, this method returns {@code this}.
-     * 
-     * @return synchronization lock für {@link #hashCode}
-     */
-    protected Object hashSynchronizationLock() {
-        return this;
-    }
-
     /**
      * Internally computes the hashCode for this object.
      * 
@@ -63,26 +77,89 @@ public abstract class HashCachingLockableObject<T extends HashCachingLockableObj
      */
     protected abstract int hashCodeInternal();
 
+    /**
+     * Internally computes the 64-bit fingerprint of this object (see {@link Fingerprintable}).
+     *
+     * This method is invoked by {@link #cachedFingerprint()} whenever no valid fingerprint is cached.
+     * By default, it throws an {@link UnsupportedOperationException}.
+     *
+     * @return fingerprint
+     * @throws UnsupportedOperationException if this object does not support fingerprints
+     */
+    protected long fingerprintInternal() throws UnsupportedOperationException {
+        throw new UnsupportedOperationException(getClass().getName() + " does not support fingerprints");
+    }
+
+    /**
+     * Returns the fingerprint of this object, computing it by {@link #fingerprintInternal()} only if
+     * it has not been computed since the last reset.
+     *
+     * @return fingerprint
+     * @throws UnsupportedOperationException if this object does not support fingerprints
+     */
+    protected final long cachedFingerprint() throws UnsupportedOperationException {
+        if (this.fingerprintPrecomputed) {
+            return this.fingerprint;
+        }
+        // fingerprint must be written before the flag, such that readers seeing the flag see it
+        long result = fingerprintInternal();
+        this.fingerprint = result;
+        this.fingerprintPrecomputed = true;
+        return result;
+    }
+
+    /**
+     * Registers the given object as the owner of this object, i.e. as an object whose hashCode depends
+     * on that of this object.
+     * <p>
+     * Whenever the hashCode of this object is reset, that of the owner is reset as well. If this object
+     * is locked, this method does nothing, as locked objects may be shared by multiple owners.
+     *
+     * @param owner the new owner of this object (or null)
+     */
+    protected final void setHashOwner(HashCachingLockableObject<?> owner) {
+        if (!isLocked()) {
+            this.hashOwner = owner;
+        }
+    }
+
+    /**
+     * Returns the object registered as the owner of this object, if any.
+     *
+     * @return the owner of this object (or null)
+     * @see #setHashOwner(HashCachingLockableObject)
+     */
+    protected final HashCachingLockableObject<?> getHashOwner() {
+        return this.hashOwner;
+    }
+
     /**
      * Resets the hashCode if it has been precomputed and this object has not yet been locked.
      * <p>
-     * This method must be called whenever the internal hashCode might have changed.
+     * This method must be called whenever the internal hashCode might have changed. It also resets the
+     * hashCode of the registered owner (see {@link #setHashOwner(HashCachingLockableObject)}).
      */
     protected void resetHashCode() {
-        if (!isLocked()) {
-            this.hashCodePrecomputed = false;
+        if (isLocked()) {
+            return;
+        }
+        this.hashCodePrecomputed = false;
+        this.fingerprintPrecomputed = false;
+        if (this.hashOwner != null) {
+            this.hashOwner.resetHashCode();
         }
     }
 
     @Override
     public final int hashCode() {
-        synchronized (hashSynchronizationLock()) {
-            if (!this.hashCodePrecomputed) {
-                this.hashCodePrecomputed = true;
-                this.hashCode = hashCodeInternal();
-            }
+        if (this.hashCodePrecomputed) {
             return this.hashCode;
         }
+        // hashCode must be written before the flag, such that readers seeing the flag see the hashCode
+        int result = hashCodeInternal();
+        this.hashCode = result;
+        this.hashCodePrecomputed = true;
+        return result;
     }
 
 }
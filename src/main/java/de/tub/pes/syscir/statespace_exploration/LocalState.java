@@ -29,7 +29,7 @@ import java.util.Map;
  * @param <ValueT> the type of abstracted values used for this state
  */
 public abstract class LocalState<LocalStateT extends LocalState<LocalStateT, ValueT>, ValueT extends AbstractedValue<? extends ValueT, ?, ?>>
-        extends HashCachingLockableObject<LocalStateT> {
+        extends HashCachingLockableObject<LocalStateT> implements Fingerprintable {
 
     public static class StateInformationKey<T extends StateInformation<T>> {
 
@@ -48,6 +48,9 @@ public abstract class LocalState<LocalStateT extends LocalState<LocalStateT, Val
 
     private Map<StateInformationKey<?>, StateInformation<?>> stateInformation;
 
+    // call context of the last invocation of getStackTrace(), validated against the execution stack
+    private CallContext<WrappedSCFunction> stackTrace;
+
     /**
      * Constructs a new, mutable LocalState at the given execution stack.
      * <p>
@@ -60,39 +63,78 @@ public abstract class LocalState<LocalStateT extends LocalState<LocalStateT, Val
      */
     public LocalState(List<EvaluationContext<ValueT>> executionStack) {
         this.executionStack = executionStack;
+        for (EvaluationContext<ValueT> ec : executionStack) {
+            ec.setHashOwner(this);
+        }
 
         this.stateInformation = new LinkedHashMap<>();
     }
 
     /**
      * Constructs a new, mutable copy of the given LocalState.
+     * <p>
+     * Locked elements of the execution stack are not cloned right away, but shared with the given
+     * state until they are obtained from this state (see {@link #getExecutionStack()}). Copying a
+     * locked state therefore takes time linear in the depth of the execution stack, but does not copy
+     * any of the contexts on it.
      * 
      * @param copyOf the state to copy
      */
     protected LocalState(LocalState<LocalStateT, ValueT> copyOf) {
         super(copyOf);
 
+        // locked contexts are shared and only cloned once they are obtained for modification
         this.executionStack = new ArrayList<>(copyOf.executionStack.size());
         for (EvaluationContext<ValueT> ec : copyOf.executionStack) {
-            this.executionStack.add(ec.unlockedClone());
+            if (!ec.isLocked()) {
+                ec = ec.unlockedClone();
+                ec.setHashOwner(this);
+            }
+            this.executionStack.add(ec);
         }
 
         this.stateInformation = new LinkedHashMap<>(copyOf.stateInformation);
         this.stateInformation.replaceAll((key, info) -> info.copy());
+        this.stackTrace = copyOf.stackTrace;
     }
 
     /**
      * Returns a modifiable or unmodifiable view of the execution stack at this state, depending on
      * whether or not this state is locked.
      * 
-     * If the execution stack is overwritten by {@link #setExecutionStack(List)}, a previously returned
-     * view will no longer be up to date.
+     * Modifications of the view or of the contained contexts reset the hashCode of this state. If the
+     * execution stack is overwritten by {@link #setExecutionStack(List)}, a previously returned view
+     * will no longer be up to date. If this state is unlocked, contexts obtained from the view are
+     * unlocked as well, replacing contexts shared with other states by unlocked clones. Read-only
+     * traversals should use {@link #getExecutionStackReadOnly()} instead, which never clones.
      * 
      * @return modifiable or unmodifiable view of the execution stack
      */
     public List<EvaluationContext<ValueT>> getExecutionStack() {
-        resetHashCode();
-        return isLocked() ? Collections.unmodifiableList(this.executionStack) : this.executionStack;
+        if (isLocked()) {
+            return Collections.unmodifiableList(this.executionStack);
+        }
+        return new ModificationTrackingList<>(this.executionStack, this) {
+
+            @Override
+            public EvaluationContext<ValueT> get(int index) {
+                return getUnlockedContext(index);
+            }
+        };
+    }
+
+    /**
+     * Returns an unmodifiable view of the execution stack at this state without cloning any of the
+     * contexts on it.
+     * 
+     * The contexts may be shared with other states and must not be modified, even if this state is
+     * unlocked. Use {@link #getExecutionStack()} or {@link #getTopOfStack()} to obtain contexts for
+     * modification.
+     * 
+     * @return unmodifiable view of the execution stack
+     */
+    public List<EvaluationContext<ValueT>> getExecutionStackReadOnly() {
+        return Collections.unmodifiableList(this.executionStack);
     }
 
     /**
@@ -101,22 +143,62 @@ public abstract class LocalState<LocalStateT extends LocalState<LocalStateT, Val
      * @return top of stack
      */
     public EvaluationContext<ValueT> getTopOfStack() {
-        resetHashCode();
-        return getExecutionStack().get(getExecutionStack().size() - 1);
+        if (isLocked()) {
+            return this.executionStack.get(this.executionStack.size() - 1);
+        }
+        return getUnlockedContext(this.executionStack.size() - 1);
+    }
+
+    /**
+     * Returns the topmost element of the execution stack without cloning it, even if it is shared with
+     * other states. The returned context must not be modified.
+     *
+     * @return top of stack
+     */
+    public EvaluationContext<ValueT> getTopOfStackReadOnly() {
+        return this.executionStack.get(this.executionStack.size() - 1);
+    }
+
+    // replaces a locked (and thus possibly shared) context by an unlocked clone before handing it out
+    private EvaluationContext<ValueT> getUnlockedContext(int index) {
+        EvaluationContext<ValueT> result = this.executionStack.get(index);
+        if (result.isLocked()) {
+            // the clone is equal to and retains the hashCode of the original, so no reset is needed
+            result = result.unlockedClone();
+            this.executionStack.set(index, result);
+        }
+        result.setHashOwner(this);
+        return result;
     }
 
     /**
      * Returns the list of all functions on the execution stack in their order on the execution stack.
      * 
-     * The result is a new list not backed continously by the execution stack.
+     * The result is an interned {@link CallContext} not backed by the execution stack. If the
+     * functions on the execution stack have not changed since the last invocation, the same context is
+     * returned without consulting the trie of call contexts.
      *
      * @return stack trace
      */
-    public List<WrappedSCFunction> getStackTrace() {
-        List<WrappedSCFunction> result = new ArrayList<>(this.executionStack.size());
+    public CallContext<WrappedSCFunction> getStackTrace() {
+        CallContext<WrappedSCFunction> result = this.stackTrace;
+        if (result != null && result.size() == this.executionStack.size()) {
+            CallContext<WrappedSCFunction> current = result;
+            int i = this.executionStack.size() - 1;
+            while (i >= 0 && current.getLast() == this.executionStack.get(i).getFunction()) {
+                current = current.getParent();
+                i--;
+            }
+            if (i < 0) {
+                return result;
+            }
+        }
+
+        result = CallContext.empty();
         for (EvaluationContext<ValueT> ec : this.executionStack) {
-            result.add(ec.getFunction());
+            result = result.enter(ec.getFunction());
         }
+        this.stackTrace = result;
         return result;
     }
 
@@ -136,6 +218,9 @@ public abstract class LocalState<LocalStateT extends LocalState<LocalStateT, Val
         requireNotLocked();
         resetHashCode();
         this.executionStack = executionStack;
+        for (EvaluationContext<ValueT> ec : executionStack) {
+            ec.setHashOwner(this);
+        }
     }
 
     /**
@@ -171,9 +256,14 @@ public abstract class LocalState<LocalStateT extends LocalState<LocalStateT, Val
 
     /**
      * Removes all currently stored additional state information.
+     * 
+     * If no information is stored, this state is not modified at all. This allows invoking this method
+     * on states shared between multiple threads.
      */
     public void clearStateInformation() {
-        this.stateInformation.clear();
+        if (!this.stateInformation.isEmpty()) {
+            this.stateInformation.clear();
+        }
     }
 
     /**
@@ -193,6 +283,32 @@ public abstract class LocalState<LocalStateT extends LocalState<LocalStateT, Val
         return true;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    protected LocalStateT withInternedComponents(StateInterner interner) {
+        // the stack is only copied once some context is replaced
+        List<EvaluationContext<ValueT>> internedStack = null;
+        for (int i = 0; i < this.executionStack.size(); i++) {
+            EvaluationContext<ValueT> ec = this.executionStack.get(i);
+            EvaluationContext<ValueT> interned = interner.intern(ec);
+            if (interned != ec && internedStack == null) {
+                internedStack = new ArrayList<>(this.executionStack.size());
+                internedStack.addAll(this.executionStack.subList(0, i));
+            }
+            if (internedStack != null) {
+                internedStack.add(interned);
+            }
+        }
+
+        if (internedStack == null) {
+            return (LocalStateT) this;
+        }
+        LocalStateT result = unlockedClone();
+        result.setExecutionStack(internedStack);
+        result.lock();
+        return result;
+    }
+
     /**
      * {@inheritDoc}
      * 
@@ -209,6 +325,25 @@ public abstract class LocalState<LocalStateT extends LocalState<LocalStateT, Val
         return this.executionStack.hashCode();
     }
 
+    /**
+     * Returns a 64-bit fingerprint of this state, intended for {@link ConsideredState#fingerprint()}.
+     * <p>
+     * Equal states have equal fingerprints. The fingerprint is cached like the hashCode. Subclasses
+     * introducing additional portions of the state should override {@link #fingerprintInternal()} to
+     * include them.
+     *
+     * @return fingerprint of this state
+     */
+    @Override
+    public final long fingerprint() {
+        return cachedFingerprint();
+    }
+
+    @Override
+    protected long fingerprintInternal() {
+        return Fingerprintable.of(this.executionStack);
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other == this) {
@@ -50,6 +50,22 @@ public abstract class LockableObject<T extends LockableObject<T>> {
         return true;
     }
 
+    /**
+     * Returns a locked object equal to this locked object whose lockable components are the canonical
+     * instances from the given {@link StateInterner}.
+     * <p>
+     * This object itself is never modified, as it may already be visible to other threads. If all of its
+     * components already are canonical, this object is returned. Otherwise, implementations return a
+     * locked clone with the components replaced. By default, this object is returned.
+     *
+     * @param interner the interner providing the canonical instances
+     * @return this object or an equal one with canonical components
+     */
+    @SuppressWarnings("unchecked")
+    protected T withInternedComponents(StateInterner interner) {
+        return (T) this;
+    }
+
     /**
      * Throws an {@link IllegalStateException} iff this object is locked. Returns normally otherwise.
      * 
@@ -0,0 +1,114 @@
+package de.tub.pes.syscir.statespace_exploration;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Modifiable view of a list belonging to a {@link HashCachingLockableObject} that resets the cached
+ * hashCode of that object whenever the list is modified.
+ *
+ * This allows such objects to hand out modifiable references to their components without having to
+ * reset their hashCode preemptively. Elements that are unlocked HashCachingLockableObjects
+ * themselves are registered as components of the owner when inserted into or obtained from the
+ * list, such that their modifications reset the hashCode of the owner as well.
+ * <p>
+ * Lists of lists can be tracked by {@link #ofLists(List, HashCachingLockableObject)}, which also
+ * returns tracking views for the inner lists.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <E> the type of elements
+ */
+public class ModificationTrackingList<E> extends AbstractList<E> implements RandomAccess {
+
+    private final List<E> backing;
+    private final HashCachingLockableObject<?> owner;
+
+    /**
+     * Constructs a new view of the given list, resetting the hashCode of the given owner on every
+     * modification.
+     *
+     * @param backing the list to be viewed
+     * @param owner the object whose hashCode depends on the list
+     */
+    public ModificationTrackingList(List<E> backing, HashCachingLockableObject<?> owner) {
+        this.backing = backing;
+        this.owner = owner;
+    }
+
+    /**
+     * Returns a view of the given list of lists, resetting the hashCode of the given owner on every
+     * modification of the outer or any of the inner lists.
+     *
+     * @param <T> the type of elements of the inner lists
+     * @param backing the list to be viewed
+     * @param owner the object whose hashCode depends on the list
+     * @return view of the list
+     */
+    public static <T> List<List<T>> ofLists(List<List<T>> backing, HashCachingLockableObject<?> owner) {
+        return new ModificationTrackingList<>(backing, owner) {
+
+            @Override
+            protected List<T> view(List<T> element) {
+                return element == null ? null : new ModificationTrackingList<>(element, owner);
+            }
+        };
+    }
+
+    /**
+     * Returns the object handed out by {@link #get(int)} for the given element.
+     *
+     * By default, the element itself is returned.
+     *
+     * @param element an element of the list
+     * @return the view of that element
+     */
+    protected E view(E element) {
+        return element;
+    }
+
+    private E adopt(E element) {
+        if (element instanceof HashCachingLockableObject<?> h) {
+            h.setHashOwner(this.owner);
+        }
+        return element;
+    }
+
+    @Override
+    public E get(int index) {
+        return view(adopt(this.backing.get(index)));
+    }
+
+    @Override
+    public int size() {
+        return this.backing.size();
+    }
+
+    @Override
+    public E set(int index, E element) {
+        E result = this.backing.set(index, adopt(element));
+        this.owner.resetHashCode();
+        return result;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        this.backing.add(index, adopt(element));
+        this.owner.resetHashCode();
+    }
+
+    @Override
+    public E remove(int index) {
+        E result = this.backing.remove(index);
+        this.owner.resetHashCode();
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        this.backing.clear();
+        this.owner.resetHashCode();
+    }
+
+}
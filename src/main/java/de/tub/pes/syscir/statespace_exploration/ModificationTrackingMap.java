@@ -0,0 +1,174 @@
+package de.tub.pes.syscir.statespace_exploration;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Modifiable view of a map belonging to a {@link HashCachingLockableObject} that resets the cached
+ * hashCode of that object whenever the map is modified.
+ *
+ * This is the counterpart of {@link ModificationTrackingList} for maps. Values that are unlocked
+ * HashCachingLockableObjects themselves are registered as components of the owner when inserted into
+ * or obtained from the map, such that their modifications reset the hashCode of the owner as well.
+ * Subclasses can react to further modifications by overriding {@link #modified()}.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public class ModificationTrackingMap<K, V> extends AbstractMap<K, V> {
+
+    private class TrackingEntry implements Entry<K, V> {
+
+        private final Entry<K, V> backing;
+
+        private TrackingEntry(Entry<K, V> backing) {
+            this.backing = backing;
+        }
+
+        @Override
+        public K getKey() {
+            return this.backing.getKey();
+        }
+
+        @Override
+        public V getValue() {
+            return adopt(this.backing.getValue());
+        }
+
+        @Override
+        public V setValue(V value) {
+            V result = this.backing.setValue(adopt(value));
+            modified();
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this.backing.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.backing.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return this.backing.toString();
+        }
+    }
+
+    private class TrackingEntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            Iterator<Entry<K, V>> iterator = ModificationTrackingMap.this.backing.entrySet().iterator();
+            return new Iterator<>() {
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Entry<K, V> next() {
+                    return new TrackingEntry(iterator.next());
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                    modified();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return ModificationTrackingMap.this.backing.size();
+        }
+    }
+
+    private final Map<K, V> backing;
+    private final HashCachingLockableObject<?> owner;
+
+    private Set<Entry<K, V>> entrySet;
+
+    /**
+     * Constructs a new view of the given map, resetting the hashCode of the given owner on every
+     * modification.
+     *
+     * @param backing the map to be viewed
+     * @param owner the object whose hashCode depends on the map
+     */
+    public ModificationTrackingMap(Map<K, V> backing, HashCachingLockableObject<?> owner) {
+        this.backing = backing;
+        this.owner = owner;
+    }
+
+    /**
+     * Invoked after every modification of the map. Resets the hashCode of the owner.
+     */
+    protected void modified() {
+        this.owner.resetHashCode();
+    }
+
+    private V adopt(V value) {
+        if (value instanceof HashCachingLockableObject<?> h) {
+            h.setHashOwner(this.owner);
+        }
+        return value;
+    }
+
+    @Override
+    public int size() {
+        return this.backing.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.backing.containsKey(key);
+    }
+
+    @Override
+    public V get(Object key) {
+        return adopt(this.backing.get(key));
+    }
+
+    @Override
+    public V put(K key, V value) {
+        V result = this.backing.put(key, adopt(value));
+        modified();
+        return result;
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (!this.backing.containsKey(key)) {
+            return null;
+        }
+        V result = this.backing.remove(key);
+        modified();
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        this.backing.clear();
+        modified();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (this.entrySet == null) {
+            this.entrySet = new TrackingEntrySet();
+        }
+        return this.entrySet;
+    }
+
+}
@@ -0,0 +1,102 @@
+package de.tub.pes.syscir.statespace_exploration;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Modifiable view of a set belonging to a {@link HashCachingLockableObject} that resets the cached
+ * hashCode of that object whenever the set is modified.
+ *
+ * This is the counterpart of {@link ModificationTrackingList} for sets. As elements of a set must
+ * not be modified anyway, they are not registered as components of the owner.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <E> the type of elements
+ */
+public class ModificationTrackingSet<E> extends AbstractSet<E> {
+
+    private final Set<E> backing;
+    private final HashCachingLockableObject<?> owner;
+
+    /**
+     * Constructs a new view of the given set, resetting the hashCode of the given owner on every
+     * modification.
+     *
+     * @param backing the set to be viewed
+     * @param owner the object whose hashCode depends on the set
+     */
+    public ModificationTrackingSet(Set<E> backing, HashCachingLockableObject<?> owner) {
+        this.backing = backing;
+        this.owner = owner;
+    }
+
+    /**
+     * Invoked after every modification of the set. Resets the hashCode of the owner.
+     */
+    protected void modified() {
+        this.owner.resetHashCode();
+    }
+
+    @Override
+    public int size() {
+        return this.backing.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return this.backing.contains(o);
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (!this.backing.add(e)) {
+            return false;
+        }
+        modified();
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!this.backing.remove(o)) {
+            return false;
+        }
+        modified();
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        if (this.backing.isEmpty()) {
+            return;
+        }
+        this.backing.clear();
+        modified();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        Iterator<E> iterator = this.backing.iterator();
+        return new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                modified();
+            }
+        };
+    }
+
+}
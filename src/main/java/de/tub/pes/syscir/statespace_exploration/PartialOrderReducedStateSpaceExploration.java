@@ -0,0 +1,355 @@
+package de.tub.pes.syscir.statespace_exploration;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A sequential implementation of the state space exploration applying partial-order reduction.
+ *
+ * Within one evaluation phase, every ready process makes exactly one step (up to its next wait), so
+ * n ready processes whose steps don't interfere produce all n! interleavings of the same steps. This
+ * exploration only follows one representative order of such independent steps, combining two
+ * techniques:
+ * <ul>
+ * <li>Persistent sets: If the step of some ready process is independent of the steps of all other
+ * ready processes, only that step is explored from the current state.</li>
+ * <li>Sleep sets: After exploring the step of some process p, the steps of all processes q explored
+ * before are not explored again from the successor of p if they are independent of p, as the
+ * resulting interleavings have already been covered.</li>
+ * </ul>
+ * <p>
+ * Independence is decided using the footprint of a step, i.e. the variables read and written by it
+ * (as provided by the given functions on the {@link TransitionInformation}). Two steps are
+ * considered independent only if neither writes a variable accessed by the other and both are
+ * local, meaning that they neither change the scheduling state of the {@link GlobalState} (see
+ * {@link GlobalState#hasSameSchedulingState(GlobalState)}) nor the state of any other process. The
+ * footprint functions must therefore cover every modification of the global state other than its
+ * scheduling state. The end of an evaluation phase ({@link Scheduler#endEvaluation(ConsideredState)})
+ * is considered dependent on every step.
+ * <p>
+ * As independent steps access disjoint variables, the data dependencies between all recorded steps
+ * are preserved by this reduction, even though fewer interleavings are passed to the
+ * {@link ExplorationRecord}.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <GlobalStateT> the type of {@link GlobalState} used in the exploration
+ * @param <ProcessStateT> the type of {@link ProcessState} used in the exploration
+ * @param <InfoT> the type of {@link TransitionInformation} supplied by the {@link AnalyzedProcess}
+ */
+public class PartialOrderReducedStateSpaceExploration<GlobalStateT extends GlobalState<GlobalStateT>, ProcessStateT extends ProcessState<ProcessStateT, ?>, InfoT extends TransitionInformation<InfoT>, ProcessType extends AnalyzedProcess<ProcessType, GlobalStateT, ProcessStateT, InfoT>>
+extends StateSpaceExploration<GlobalStateT, ProcessStateT, InfoT, ProcessType> {
+
+    /**
+     * The variables accessed by one step of a process, together with whether the step is local.
+     *
+     * @param read the variables read by the step
+     * @param written the variables written by the step
+     * @param local whether the step changes neither the scheduling state nor other processes
+     * @param staysReady whether the process may still be ready after the step
+     */
+    private static record Footprint(Set<Object> read, Set<Object> written, boolean local, boolean staysReady) {
+
+        private boolean isIndependentOf(Footprint other) {
+            return this.local && other.local && Collections.disjoint(this.written, other.written)
+                    && Collections.disjoint(this.written, other.read) && Collections.disjoint(this.read, other.written);
+        }
+    }
+
+    /**
+     * A state in the worklist, together with the sleep set it has been reached with.
+     */
+    private static record WorkItem<StateT, ProcessT>(StateT state, Map<ProcessT, Footprint> sleepSet) {}
+
+    private Function<? super InfoT, ? extends Collection<?>> readFootprint;
+    private Function<? super InfoT, ? extends Collection<?>> writtenFootprint;
+
+    private Queue<WorkItem<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>, ProcessType>> worklist;
+
+    // sleep sets with which explored states have been explored, if not empty
+    private Map<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>, Map<ProcessType, Footprint>> sleepSets;
+
+    private volatile int numExploredStates;
+    private volatile long numPrunedSteps;
+
+    /**
+     * Constructs a new PartialOrderReducedStateSpaceExploration using the given scheduler, starting at
+     * the given initialState and recording all explored state transitions in the given record.
+     * <p>
+     * All initial states are locked by this constructor.
+     *
+     * @param scheduler the {@link Scheduler} implementation used for this exploration
+     * @param record the {@link ExplorationRecord} informed about every explored state transition
+     * @param initialStates the {@link ConsideredState}s from which the exploration shall be conducted
+     * @param readFootprint function returning the variables read during a transition
+     * @param writtenFootprint function returning the variables written during a transition
+     */
+    public PartialOrderReducedStateSpaceExploration(Scheduler<GlobalStateT, ProcessStateT, InfoT, ProcessType> scheduler,
+            ExplorationRecord<GlobalStateT, ProcessStateT, InfoT> record,
+            Set<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> initialStates,
+            Function<? super InfoT, ? extends Collection<?>> readFootprint,
+            Function<? super InfoT, ? extends Collection<?>> writtenFootprint) {
+        super(scheduler, record);
+
+        this.readFootprint = readFootprint;
+        this.writtenFootprint = writtenFootprint;
+
+        setVisitedStates(new ExactVisitedStates<>(false));
+        this.worklist = new ArrayDeque<>();
+        this.sleepSets = new HashMap<>();
+
+        for (ConsideredState<GlobalStateT, ProcessStateT, ProcessType> state : initialStates) {
+            state.lock();
+            this.worklist.add(new WorkItem<>(state, Map.of()));
+        }
+    }
+
+    @Override
+    public void run() {
+        setCurrentExplorer(this);
+
+        try {
+            while (!this.worklist.isEmpty()) {
+                WorkItem<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>, ProcessType> item =
+                        this.worklist.poll();
+                ConsideredState<GlobalStateT, ProcessStateT, ProcessType> currentState = item.state();
+                Map<ProcessType, Footprint> sleepSet = item.sleepSet();
+
+                if (getVisitedStates().add(currentState)) {
+                    if (!sleepSet.isEmpty()) {
+                        this.sleepSets.put(currentState, sleepSet);
+                    }
+                    reducedExplorationStep(currentState, sleepSet, null);
+                } else {
+                    // a revisited state only needs to be explored again for processes that were asleep when
+                    // the state was explored before, but are awake now
+                    Map<ProcessType, Footprint> previousSleepSet = this.sleepSets.get(currentState);
+                    if (previousSleepSet == null || sleepSet.keySet().containsAll(previousSleepSet.keySet())) {
+                        continue;
+                    }
+
+                    Set<ProcessType> wokenUp = new LinkedHashSet<>(previousSleepSet.keySet());
+                    wokenUp.removeAll(sleepSet.keySet());
+
+                    Map<ProcessType, Footprint> remainingSleepSet = new LinkedHashMap<>(sleepSet);
+                    remainingSleepSet.keySet().retainAll(previousSleepSet.keySet());
+                    if (remainingSleepSet.isEmpty()) {
+                        this.sleepSets.remove(currentState);
+                    } else {
+                        this.sleepSets.put(currentState, remainingSleepSet);
+                    }
+
+                    reducedExplorationStep(currentState, sleepSet, wokenUp);
+                }
+
+                this.numExploredStates = getVisitedStates().size();
+            }
+        } catch (ExplorationAbortedError e) {
+            return;
+        } finally {
+            setCurrentExplorer(null);
+        }
+
+        if (!isAborted()) {
+            done();
+        }
+    }
+
+    /**
+     * Performs one step of the reduced exploration.
+     *
+     * @param currentState the state to explore
+     * @param sleepSet the processes whose steps need not be explored, with their footprints
+     * @param restrictTo if not null, only the steps of these processes are explored (used when
+     *        revisiting a state)
+     */
+    private void reducedExplorationStep(ConsideredState<GlobalStateT, ProcessStateT, ProcessType> currentState,
+            Map<ProcessType, Footprint> sleepSet, Set<ProcessType> restrictTo) {
+        boolean canEndEvaluation = getScheduler().canEndEvaluation(currentState);
+        if (canEndEvaluation && restrictTo == null) {
+            // the end of the evaluation phase is dependent on everything, so its successors start without a
+            // sleep set
+            Set<ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessType>> transitions =
+                    getScheduler().endEvaluation(currentState);
+            handleReducedExploration(currentState, transitions, Map.of());
+        }
+
+        // compute the steps of all awake processes, the footprints of sleeping ones are already known
+        Collection<ProcessType> ready = getScheduler().getReadyProcesses(currentState);
+        Map<ProcessType, Set<ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessType>>> steps =
+                new LinkedHashMap<>();
+        Map<ProcessType, Footprint> footprints = new LinkedHashMap<>();
+        for (ProcessType process : ready) {
+            Footprint sleeping = sleepSet.get(process);
+            if (sleeping != null) {
+                footprints.put(process, sleeping);
+                continue;
+            }
+
+            Set<ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessType>> transitions =
+                    process.makeStep(currentState);
+            assert !transitions.isEmpty(); // a ready process should be able to make at least one transition
+            steps.put(process, transitions);
+            footprints.put(process, computeFootprint(currentState, process, transitions));
+        }
+
+        // find a persistent set consisting of one step, if possible
+        Collection<ProcessType> persistentSet = canEndEvaluation ? ready : findPersistentSet(footprints, ready);
+
+        // explore the steps in the persistent set that are not asleep, extending the sleep set for later
+        // steps by the steps explored before
+        Map<ProcessType, Footprint> currentSleepSet = new LinkedHashMap<>(sleepSet);
+        for (ProcessType process : persistentSet) {
+            Set<ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessType>> transitions =
+                    steps.get(process);
+            if (transitions == null || (restrictTo != null && !restrictTo.contains(process))) {
+                continue;
+            }
+
+            Footprint footprint = footprints.get(process);
+            Map<ProcessType, Footprint> successorSleepSet = new LinkedHashMap<>();
+            for (Entry<ProcessType, Footprint> entry : currentSleepSet.entrySet()) {
+                if (entry.getValue().isIndependentOf(footprint)) {
+                    successorSleepSet.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            handleReducedExploration(currentState, transitions, successorSleepSet);
+            currentSleepSet.put(process, footprint);
+        }
+
+        this.numPrunedSteps += steps.size() - persistentSet.stream().filter(steps::containsKey).count();
+    }
+
+    private Collection<ProcessType> findPersistentSet(Map<ProcessType, Footprint> footprints,
+            Collection<ProcessType> ready) {
+        // a process that may stay ready after its step might make further steps in the same evaluation phase,
+        // which are not known yet. these could be dependent on any other step and, for the candidate itself,
+        // allow cycles in which the other processes are never explored.
+        for (Footprint footprint : footprints.values()) {
+            if (footprint.staysReady()) {
+                return ready;
+            }
+        }
+
+        for (Entry<ProcessType, Footprint> candidate : footprints.entrySet()) {
+            boolean independent = true;
+            for (Entry<ProcessType, Footprint> other : footprints.entrySet()) {
+                if (other.getKey() != candidate.getKey() && !candidate.getValue().isIndependentOf(other.getValue())) {
+                    independent = false;
+                    break;
+                }
+            }
+            if (independent) {
+                return List.of(candidate.getKey());
+            }
+        }
+        return ready;
+    }
+
+    private Footprint computeFootprint(ConsideredState<GlobalStateT, ProcessStateT, ProcessType> currentState,
+            ProcessType process,
+            Collection<ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessType>> transitions) {
+        Set<Object> read = new LinkedHashSet<>();
+        Set<Object> written = new LinkedHashSet<>();
+        boolean local = true;
+        boolean staysReady = false;
+
+        for (ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessType> transition : transitions) {
+            read.addAll(this.readFootprint.apply(transition.transitionInformation()));
+            written.addAll(this.writtenFootprint.apply(transition.transitionInformation()));
+
+            ConsideredState<GlobalStateT, ProcessStateT, ProcessType> resultingState = transition.resultingState();
+            staysReady |= resultingState.getProcessState(process).isReady();
+            if (!local) {
+                continue;
+            }
+
+            if (!resultingState.getGlobalState().hasSameSchedulingState(currentState.getGlobalState())) {
+                local = false;
+                continue;
+            }
+            for (Entry<ProcessType, ProcessStateT> entry : currentState.getProcessStates().entrySet()) {
+                if (entry.getKey() != process && !entry.getValue().equals(resultingState.getProcessState(entry.getKey()))) {
+                    local = false;
+                    break;
+                }
+            }
+        }
+
+        return new Footprint(read, written, local, staysReady);
+    }
+
+    private void handleReducedExploration(ConsideredState<GlobalStateT, ProcessStateT, ProcessType> from,
+            Collection<ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessType>> transitions,
+            Map<ProcessType, Footprint> sleepSet) {
+        for (ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessType> transition : internComponents(
+                transitions)) {
+            this.worklist.add(new WorkItem<>(transition.resultingState(), sleepSet));
+            getRecord().explorationMade(from, transition.resultingState(), transition.transitionInformation());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * This exploration does not use {@link #explorationStep(ConsideredState)} itself. If it is invoked
+     * nonetheless, the resulting states are explored without a sleep set.
+     */
+    @Override
+    protected void handleExploration(ConsideredState<GlobalStateT, ProcessStateT, ProcessType> from,
+            Collection<ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessType>> transitions) {
+        for (ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessType> transition : transitions) {
+            this.worklist.add(new WorkItem<>(transition.resultingState(), Map.of()));
+            getRecord().explorationMade(from, transition.resultingState(), transition.transitionInformation());
+        }
+    }
+
+    /**
+     * Returns the number of process steps that have been computed but not explored, because they were
+     * not part of the persistent set of their state.
+     *
+     * This method is safe to call from any thread. If serves merely as a way to monitor the
+     * explorations progress.
+     *
+     * @return number of pruned steps
+     */
+    public long getNumPrunedSteps() {
+        return this.numPrunedSteps;
+    }
+
+    @Override
+    public int getNumPendingStates() {
+        return this.worklist.size();
+    }
+
+    @Override
+    public int getNumExploredStates() {
+        return this.numExploredStates;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The resulting set is <strong>not synchronized</strong>. It should only be used after
+     * {@link #run()} has returned and the calling thread has been joined with the exploring thread.
+     *
+     * @return unmodifiable view on the set of explored states
+     */
+    @Override
+    public Set<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> getExploredStates()
+            throws UnsupportedOperationException {
+        return super.getExploredStates();
+    }
+
+}
@@ -0,0 +1,596 @@
+package de.tub.pes.syscir.statespace_exploration;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Map backed by a persistent hash array mapped trie (HAMT), such that copies share their structure.
+ *
+ * The trie itself is immutable: Every modification copies the path from the root to the modified
+ * entry (at most seven nodes of up to 32 entries each) and leaves all other nodes shared. Copying a
+ * PersistentHashMap via {@link #PersistentHashMap(Map)} therefore takes constant time, and the copy
+ * and the original can be modified independently afterwards. This is meant for the variable and event
+ * maps of states, which are cloned and then modified in only a few entries by every transition.
+ * <p>
+ * Additionally, the map keeps its hashCode and a 64-bit fingerprint up to date on every
+ * modification. Both values are sums over all entries (in the fashion of Zobrist hashing), so
+ * {@link #hashCode()} and {@link #fingerprint()} run in constant time as well. The hashes of keys and
+ * values are assumed not to change while they are contained in the map, i.e. mutable values must not
+ * be modified in place.
+ * <p>
+ * Null keys are not supported, null values are. The iteration order is determined by the hashes of
+ * the keys, independent of the order of modifications, except that keys with equal hashes are
+ * iterated in the order of their insertion. Iterators operate on the contents of the map at the time of their creation and are never
+ * invalidated by modifications. This class is not thread-safe.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public class PersistentHashMap<K, V> extends AbstractMap<K, V> implements Fingerprintable {
+
+    private static final Object NOT_FOUND = new Object();
+
+    private static final int BITS_PER_LEVEL = 5;
+    private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+
+    // result of a modification of the trie
+    private static class Change {
+
+        private boolean found;
+        private Object oldValue;
+
+    }
+
+    /*
+     * Both kinds of nodes store their entries as consecutive pairs in an array. In a BitmapNode, a pair
+     * with a null key holds a sub node instead of a value. A CollisionNode only holds entries with the
+     * same hash and never holds sub nodes.
+     */
+    private static abstract class Node {
+
+        protected final Object[] array;
+
+        private Node(Object[] array) {
+            this.array = array;
+        }
+
+        abstract Object find(Object key, int hash, int shift);
+
+        abstract Node put(Object key, int hash, Object value, int shift, Change change);
+
+        abstract Node remove(Object key, int hash, int shift, Change change);
+
+    }
+
+    private static final class BitmapNode extends Node {
+
+        private final int bitmap;
+
+        private BitmapNode(int bitmap, Object[] array) {
+            super(array);
+            this.bitmap = bitmap;
+        }
+
+        private int index(int bit) {
+            return 2 * Integer.bitCount(this.bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int bit = bit(hash, shift);
+            if ((this.bitmap & bit) == 0) {
+                return NOT_FOUND;
+            }
+            int index = index(bit);
+            Object storedKey = this.array[index];
+            if (storedKey == null) {
+                return ((Node) this.array[index + 1]).find(key, hash, shift + BITS_PER_LEVEL);
+            }
+            return key.equals(storedKey) ? this.array[index + 1] : NOT_FOUND;
+        }
+
+        @Override
+        Node put(Object key, int hash, Object value, int shift, Change change) {
+            int bit = bit(hash, shift);
+            int index = index(bit);
+
+            if ((this.bitmap & bit) == 0) {
+                Object[] newArray = new Object[this.array.length + 2];
+                System.arraycopy(this.array, 0, newArray, 0, index);
+                newArray[index] = key;
+                newArray[index + 1] = value;
+                System.arraycopy(this.array, index, newArray, index + 2, this.array.length - index);
+                return new BitmapNode(this.bitmap | bit, newArray);
+            }
+
+            Object storedKey = this.array[index];
+            if (storedKey == null) {
+                Node subNode = (Node) this.array[index + 1];
+                Node newSubNode = subNode.put(key, hash, value, shift + BITS_PER_LEVEL, change);
+                return newSubNode == subNode ? this : replace(index + 1, newSubNode);
+            }
+
+            if (key.equals(storedKey)) {
+                change.found = true;
+                change.oldValue = this.array[index + 1];
+                return change.oldValue == value ? this : replace(index + 1, value);
+            }
+
+            Node newSubNode = createNode(shift + BITS_PER_LEVEL, storedKey, this.array[index + 1], key, hash, value);
+            Object[] newArray = this.array.clone();
+            newArray[index] = null;
+            newArray[index + 1] = newSubNode;
+            return new BitmapNode(this.bitmap, newArray);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift, Change change) {
+            int bit = bit(hash, shift);
+            if ((this.bitmap & bit) == 0) {
+                return this;
+            }
+            int index = index(bit);
+
+            Object storedKey = this.array[index];
+            if (storedKey == null) {
+                Node subNode = (Node) this.array[index + 1];
+                Node newSubNode = subNode.remove(key, hash, shift + BITS_PER_LEVEL, change);
+                if (newSubNode == subNode) {
+                    return this;
+                }
+                if (newSubNode == null) {
+                    return removePair(bit, index);
+                }
+                if (newSubNode.array.length == 2 && newSubNode.array[0] != null) {
+                    // a sub node holding only a single entry is replaced by that entry
+                    Object[] newArray = this.array.clone();
+                    newArray[index] = newSubNode.array[0];
+                    newArray[index + 1] = newSubNode.array[1];
+                    return new BitmapNode(this.bitmap, newArray);
+                }
+                return replace(index + 1, newSubNode);
+            }
+
+            if (!key.equals(storedKey)) {
+                return this;
+            }
+            change.found = true;
+            change.oldValue = this.array[index + 1];
+            return removePair(bit, index);
+        }
+
+        private Node replace(int index, Object element) {
+            Object[] newArray = this.array.clone();
+            newArray[index] = element;
+            return new BitmapNode(this.bitmap, newArray);
+        }
+
+        private Node removePair(int bit, int index) {
+            if (this.bitmap == bit) {
+                return null;
+            }
+            Object[] newArray = new Object[this.array.length - 2];
+            System.arraycopy(this.array, 0, newArray, 0, index);
+            System.arraycopy(this.array, index + 2, newArray, index, newArray.length - index);
+            return new BitmapNode(this.bitmap ^ bit, newArray);
+        }
+
+    }
+
+    private static final class CollisionNode extends Node {
+
+        private final int hash;
+
+        private CollisionNode(int hash, Object[] array) {
+            super(array);
+            this.hash = hash;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < this.array.length; i += 2) {
+                if (key.equals(this.array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            if (hash != this.hash) {
+                return NOT_FOUND;
+            }
+            int index = indexOf(key);
+            return index < 0 ? NOT_FOUND : this.array[index + 1];
+        }
+
+        @Override
+        Node put(Object key, int hash, Object value, int shift, Change change) {
+            if (hash != this.hash) {
+                // push this node one level down, next to the new entry
+                Node parent = new BitmapNode(bit(this.hash, shift), new Object[] {null, this});
+                return parent.put(key, hash, value, shift, change);
+            }
+
+            int index = indexOf(key);
+            if (index >= 0) {
+                change.found = true;
+                change.oldValue = this.array[index + 1];
+                if (change.oldValue == value) {
+                    return this;
+                }
+                Object[] newArray = this.array.clone();
+                newArray[index + 1] = value;
+                return new CollisionNode(hash, newArray);
+            }
+
+            Object[] newArray = new Object[this.array.length + 2];
+            System.arraycopy(this.array, 0, newArray, 0, this.array.length);
+            newArray[this.array.length] = key;
+            newArray[this.array.length + 1] = value;
+            return new CollisionNode(hash, newArray);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift, Change change) {
+            int index = hash == this.hash ? indexOf(key) : -1;
+            if (index < 0) {
+                return this;
+            }
+            change.found = true;
+            change.oldValue = this.array[index + 1];
+
+            if (this.array.length == 2) {
+                return null;
+            }
+            Object[] newArray = new Object[this.array.length - 2];
+            System.arraycopy(this.array, 0, newArray, 0, index);
+            System.arraycopy(this.array, index + 2, newArray, index, newArray.length - index);
+            return new CollisionNode(hash, newArray);
+        }
+
+    }
+
+    private class TrieEntry implements Entry<K, V> {
+
+        private final K key;
+        private V value;
+
+        private TrieEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return this.key;
+        }
+
+        @Override
+        public V getValue() {
+            return this.value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V old = this.value;
+            put(this.key, value);
+            this.value = value;
+            return old;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(this.key) ^ Objects.hashCode(this.value);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Entry<?, ?> e && Objects.equals(this.key, e.getKey())
+                    && Objects.equals(this.value, e.getValue());
+        }
+
+        @Override
+        public String toString() {
+            return this.key + "=" + this.value;
+        }
+
+    }
+
+    private class TrieIterator implements Iterator<Entry<K, V>> {
+
+        // nodes on the path to the next entry and the position within each of them
+        private final Deque<Object[]> arrays;
+        private final Deque<Integer> positions;
+
+        private K lastKey;
+        private boolean canRemove;
+
+        private TrieIterator(Node root) {
+            this.arrays = new ArrayDeque<>();
+            this.positions = new ArrayDeque<>();
+            if (root != null) {
+                this.arrays.push(root.array);
+                this.positions.push(0);
+                advance();
+            }
+        }
+
+        // makes sure that the top of the stack points at an entry, unless the iteration is finished
+        private void advance() {
+            while (!this.arrays.isEmpty()) {
+                Object[] array = this.arrays.peek();
+                int position = this.positions.peek();
+                if (position >= array.length) {
+                    this.arrays.pop();
+                    this.positions.pop();
+                    if (!this.positions.isEmpty()) {
+                        this.positions.push(this.positions.pop() + 2);
+                    }
+                    continue;
+                }
+                if (array[position] != null) {
+                    return;
+                }
+                this.arrays.push(((Node) array[position + 1]).array);
+                this.positions.push(0);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !this.arrays.isEmpty();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object[] array = this.arrays.peek();
+            int position = this.positions.pop();
+            this.positions.push(position + 2);
+            advance();
+
+            this.lastKey = (K) array[position];
+            this.canRemove = true;
+            return new TrieEntry(this.lastKey, (V) array[position + 1]);
+        }
+
+        @Override
+        public void remove() {
+            if (!this.canRemove) {
+                throw new IllegalStateException("next() has not been called since the last removal");
+            }
+            this.canRemove = false;
+            PersistentHashMap.this.remove(this.lastKey);
+        }
+
+    }
+
+    private class TrieEntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new TrieIterator(PersistentHashMap.this.root);
+        }
+
+        @Override
+        public int size() {
+            return PersistentHashMap.this.size;
+        }
+
+        @Override
+        public void clear() {
+            PersistentHashMap.this.clear();
+        }
+
+    }
+
+    private Node root;
+    private int size;
+
+    private int hashCode;
+    private int keyHashCode;
+    private long fingerprint;
+
+    private Set<Entry<K, V>> entrySet;
+
+    /**
+     * Constructs a new, empty PersistentHashMap.
+     */
+    public PersistentHashMap() {}
+
+    /**
+     * Constructs a new PersistentHashMap containing the same mappings as the given map.
+     *
+     * If the given map is a PersistentHashMap itself, its trie is shared and this constructor takes
+     * constant time.
+     *
+     * @param copyOf the map to copy
+     */
+    public PersistentHashMap(Map<? extends K, ? extends V> copyOf) {
+        if (copyOf instanceof PersistentHashMap<? extends K, ? extends V> other) {
+            this.root = other.root;
+            this.size = other.size;
+            this.hashCode = other.hashCode;
+            this.keyHashCode = other.keyHashCode;
+            this.fingerprint = other.fingerprint;
+        } else {
+            putAll(copyOf);
+        }
+    }
+
+    private static int spread(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & LEVEL_MASK);
+    }
+
+    private static Node createNode(int shift, Object key1, Object value1, Object key2, int hash2, Object value2) {
+        int hash1 = spread(key1);
+        if (hash1 == hash2) {
+            return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+        }
+
+        int bit1 = bit(hash1, shift);
+        int bit2 = bit(hash2, shift);
+        if (bit1 == bit2) {
+            return new BitmapNode(bit1,
+                    new Object[] {null, createNode(shift + BITS_PER_LEVEL, key1, value1, key2, hash2, value2)});
+        }
+        return new BitmapNode(bit1 | bit2, Integer.compareUnsigned(bit1, bit2) < 0
+                ? new Object[] {key1, value1, key2, value2}
+                : new Object[] {key2, value2, key1, value1});
+    }
+
+    /**
+     * Returns the 64-bit fingerprint of the given map, which is the sum of
+     * {@link Fingerprintable#entry(Object, Object)} over all entries.
+     *
+     * For a map maintaining its fingerprint (such as a PersistentHashMap), this takes constant time.
+     * For any other map, the fingerprint is computed from all entries. Equal maps have equal
+     * fingerprints.
+     *
+     * @param map some map
+     * @return fingerprint of the map
+     */
+    public static long fingerprint(Map<?, ?> map) {
+        if (map instanceof Fingerprintable fingerprintable) {
+            return fingerprintable.fingerprint();
+        }
+
+        long result = 0;
+        for (Entry<?, ?> entry : map.entrySet()) {
+            result += Fingerprintable.entry(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    private void entryAdded(Object key, Object value) {
+        this.hashCode += key.hashCode() ^ Objects.hashCode(value);
+        this.keyHashCode += key.hashCode();
+        this.fingerprint += Fingerprintable.entry(key, value);
+    }
+
+    private void entryRemoved(Object key, Object value) {
+        this.hashCode -= key.hashCode() ^ Objects.hashCode(value);
+        this.keyHashCode -= key.hashCode();
+        this.fingerprint -= Fingerprintable.entry(key, value);
+    }
+
+    /**
+     * Returns the 64-bit fingerprint of this map (see {@link #fingerprint(Map)}).
+     *
+     * @return fingerprint
+     */
+    @Override
+    public long fingerprint() {
+        return this.fingerprint;
+    }
+
+    // sum of the hashCodes of all keys, i.e. the hashCode of the key set
+    int keyHashCode() {
+        return this.keyHashCode;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key != null && this.root != null && this.root.find(key, spread(key), 0) != NOT_FOUND;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (key == null || this.root == null) {
+            return null;
+        }
+        Object result = this.root.find(key, spread(key), 0);
+        return result == NOT_FOUND ? null : (V) result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        Objects.requireNonNull(key);
+
+        Change change = new Change();
+        if (this.root == null) {
+            this.root = new BitmapNode(bit(spread(key), 0), new Object[] {key, value});
+        } else {
+            this.root = this.root.put(key, spread(key), value, 0, change);
+        }
+
+        if (change.found) {
+            entryRemoved(key, change.oldValue);
+        } else {
+            this.size++;
+        }
+        entryAdded(key, value);
+        return (V) change.oldValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        if (key == null || this.root == null) {
+            return null;
+        }
+
+        Change change = new Change();
+        this.root = this.root.remove(key, spread(key), 0, change);
+        if (!change.found) {
+            return null;
+        }
+
+        this.size--;
+        entryRemoved(key, change.oldValue);
+        return (V) change.oldValue;
+    }
+
+    @Override
+    public void clear() {
+        this.root = null;
+        this.size = 0;
+        this.hashCode = 0;
+        this.keyHashCode = 0;
+        this.fingerprint = 0;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (this.entrySet == null) {
+            this.entrySet = new TrieEntrySet();
+        }
+        return this.entrySet;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hashCode;
+    }
+
+}
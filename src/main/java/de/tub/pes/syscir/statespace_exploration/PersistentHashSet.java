@@ -0,0 +1,99 @@
+package de.tub.pes.syscir.statespace_exploration;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map.Entry;
+
+/**
+ * Set backed by a {@link PersistentHashMap}, such that copies share their structure.
+ *
+ * Copying a PersistentHashSet via {@link #PersistentHashSet(Collection)} takes constant time, and
+ * {@link #hashCode()} is kept up to date on every modification. All other properties are those of
+ * the {@link PersistentHashMap}.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <E> the type of elements
+ */
+public class PersistentHashSet<E> extends AbstractSet<E> {
+
+    private final PersistentHashMap<E, Boolean> map;
+
+    /**
+     * Constructs a new, empty PersistentHashSet.
+     */
+    public PersistentHashSet() {
+        this.map = new PersistentHashMap<>();
+    }
+
+    /**
+     * Constructs a new PersistentHashSet containing the same elements as the given collection.
+     *
+     * If the given collection is a PersistentHashSet itself, its trie is shared and this constructor
+     * takes constant time.
+     *
+     * @param copyOf the collection to copy
+     */
+    public PersistentHashSet(Collection<? extends E> copyOf) {
+        if (copyOf instanceof PersistentHashSet<? extends E> other) {
+            this.map = new PersistentHashMap<>(other.map);
+        } else {
+            this.map = new PersistentHashMap<>();
+            addAll(copyOf);
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        Iterator<Entry<E, Boolean>> it = this.map.entrySet().iterator();
+        return new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return it.next().getKey();
+            }
+
+            @Override
+            public void remove() {
+                it.remove();
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return this.map.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return this.map.containsKey(o);
+    }
+
+    @Override
+    public boolean add(E e) {
+        return this.map.put(e, Boolean.TRUE) == null;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return this.map.remove(o) != null;
+    }
+
+    @Override
+    public void clear() {
+        this.map.clear();
+    }
+
+    @Override
+    public int hashCode() {
+        return this.map.keyHashCode();
+    }
+
+}
@@ -4,11 +4,13 @@ package de.tub.pes.syscir.statespace_exploration;
  * Represents something which a {@link AnalyzedProcess} can be waiting for, either an event
  * ({@link EventBlocker}) or some time ({@link TimedBlocker}).
  * 
- * All instances of this class are immutable.
+ * All instances of this class are immutable. Equal blockers have equal fingerprints (see
+ * {@link Fingerprintable}).
  *
  * @author Jonas Becker-Kupczok
  *
  */
-public abstract sealed class ProcessBlocker permits TimedBlocker, EventBlocker, ProcessTerminatedBlocker {
+public abstract sealed class ProcessBlocker implements Fingerprintable
+        permits TimedBlocker, EventBlocker, ProcessTerminatedBlocker {
 
 }
@@ -83,6 +83,9 @@ public abstract class ProcessState<ProcessStateT extends ProcessState<ProcessSta
         requireNotLocked();
         resetHashCode();
         this.waitingFor = waitingFor;
+        if (getHashOwner() instanceof ConsideredState<?, ?, ?> owner) {
+            owner.invalidateWaitingProcesses();
+        }
     }
 
     @Override
@@ -90,6 +93,11 @@ public abstract class ProcessState<ProcessStateT extends ProcessState<ProcessSta
         return super.hashCodeInternal() * 31 + Objects.hashCode(this.waitingFor);
     }
 
+    @Override
+    protected long fingerprintInternal() {
+        return Fingerprintable.combine(super.fingerprintInternal(), Fingerprintable.of(this.waitingFor));
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other == this) {
@@ -111,7 +119,7 @@ public abstract class ProcessState<ProcessStateT extends ProcessState<ProcessSta
         } else {
             builder.append("Wait ").append(this.waitingFor);
         }
-        builder.append(" at ").append(getExecutionStack());
+        builder.append(" at ").append(getExecutionStackReadOnly());
         return builder.toString();
     }
 
@@ -14,6 +14,11 @@ public final class ProcessTerminatedBlocker extends ProcessBlocker {
 
     private ProcessTerminatedBlocker() {}
 
+    @Override
+    public long fingerprint() {
+        return 0x446f6e65L;
+    }
+
     @Override
     public String toString() {
         return "DONE";
@@ -6,17 +6,23 @@ import de.tub.pes.syscir.sc_model.variables.SCTIMEUNIT;
  * Class indicating that a {@link AnalyzedProcess} or {@link Event} is waiting for some real
  * (positive, non-delta) amount of time.
  * 
+ * The duration is stored as a single normalized number of femtoseconds, such that comparing and
+ * subtracting durations (as done for every pending timer whenever time passes) is a single
+ * arithmetic operation. Durations are always relative to the current simulation time, so that
+ * states differing only in the absolute time at which they occur remain equal.
+ * 
  * @author Jonas Becker-Kupczok
  *
  */
 public final class RealTimedBlocker extends TimedBlocker {
 
-    private final int sec;
-    private final short ms;
-    private final short us;
-    private final short ns;
-    private final short ps;
-    private final short fs;
+    private static final long FS_PER_PS = 1_000L;
+    private static final long FS_PER_NS = 1_000L * FS_PER_PS;
+    private static final long FS_PER_US = 1_000L * FS_PER_NS;
+    private static final long FS_PER_MS = 1_000L * FS_PER_US;
+    private static final long FS_PER_SEC = 1_000L * FS_PER_MS;
+
+    private final long femtoseconds;
 
     /**
      * Creates a new RealTimedBlocker with the given duration.
@@ -31,41 +37,12 @@ public final class RealTimedBlocker extends TimedBlocker {
      * @param ns the number of nanoseconds
      * @param ps the number of picoseconds
      * @param fs the number of femtoseconds
+     * @throws IllegalArgumentException if the duration cannot be represented in femtoseconds
      */
-    public RealTimedBlocker(int sec, int ms, int us, int ns, int ps, int fs) {
-        if (fs > 1000) {
-            ps += (fs / 1000);
-            fs %= 1000;
-        }
-        if (ps > 1000) {
-            ns += (ps / 1000);
-            ps %= 1000;
-        }
-        if (ns > 1000) {
-            us += (ns / 1000);
-            ns %= 1000;
-        }
-        if (us > 1000) {
-            ms += (us / 1000);
-            us %= 1000;
-        }
-        if (ms > 1000) {
-            sec += (ms / 1000);
-            ms %= 1000;
-        }
-
-        this.sec = sec;
-        this.ms = (short) ms;
-        this.us = (short) us;
-        this.ns = (short) ns;
-        this.ps = (short) ps;
-        this.fs = (short) fs;
-
-        assert sec >= 0 && ms >= 0 && us >= 0 && ns >= 0 && ps >= 0 && fs >= 0;
-        assert sec != 0 || ms != 0 || us != 0 || ns != 0 || ps != 0 || fs != 0;
+    public RealTimedBlocker(int sec, int ms, int us, int ns, int ps, int fs) throws IllegalArgumentException {
+        this(toFemtoseconds(sec, ms, us, ns, ps, fs));
     }
 
-
     /**
      * Creates a new RealTimedBlocker with the given duration.
      * 
@@ -73,11 +50,64 @@ public final class RealTimedBlocker extends TimedBlocker {
      * 
      * @param amount the amount of time to be waited in the given unit
      * @param unit the unit in which the time is measured
+     * @throws IllegalArgumentException if the duration cannot be represented in femtoseconds
+     */
+    public RealTimedBlocker(int amount, SCTIMEUNIT unit) throws IllegalArgumentException {
+        this(toFemtoseconds(amount, unit));
+    }
+
+    private RealTimedBlocker(long femtoseconds) {
+        this.femtoseconds = femtoseconds;
+
+        assert femtoseconds > 0;
+    }
+
+    /**
+     * Returns a RealTimedBlocker with the given positive duration in femtoseconds.
+     *
+     * @param femtoseconds the duration in femtoseconds
+     * @return RealTimedBlocker with the given duration
+     * @throws IllegalArgumentException if the duration is not positive
+     */
+    public static RealTimedBlocker ofFemtoseconds(long femtoseconds) throws IllegalArgumentException {
+        if (femtoseconds <= 0) {
+            throw new IllegalArgumentException("duration must be positive");
+        }
+        return new RealTimedBlocker(femtoseconds);
+    }
+
+    private static long toFemtoseconds(int sec, int ms, int us, int ns, int ps, int fs) {
+        try {
+            long result = Math.multiplyExact(sec, FS_PER_SEC);
+            result = Math.addExact(result, Math.multiplyExact(ms, FS_PER_MS));
+            result = Math.addExact(result, Math.multiplyExact(us, FS_PER_US));
+            result = Math.addExact(result, Math.multiplyExact(ns, FS_PER_NS));
+            result = Math.addExact(result, Math.multiplyExact(ps, FS_PER_PS));
+            return Math.addExact(result, fs);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("duration too long", e);
+        }
+    }
+
+    private static long toFemtoseconds(int amount, SCTIMEUNIT unit) {
+        return switch (unit) {
+            case SC_SEC -> toFemtoseconds(amount, 0, 0, 0, 0, 0);
+            case SC_MS -> toFemtoseconds(0, amount, 0, 0, 0, 0);
+            case SC_US -> toFemtoseconds(0, 0, amount, 0, 0, 0);
+            case SC_NS -> toFemtoseconds(0, 0, 0, amount, 0, 0);
+            case SC_PS -> toFemtoseconds(0, 0, 0, 0, amount, 0);
+            case SC_FS -> amount;
+            case SC_ZERO_TIME -> throw new IllegalArgumentException("unit must not be SC_ZERO_TIME");
+        };
+    }
+
+    /**
+     * Returns the length of the waited duration in femtoseconds.
+     *
+     * @return the waited duration in femtoseconds
      */
-    public RealTimedBlocker(int amount, SCTIMEUNIT unit) {
-        this(unit == SCTIMEUNIT.SC_SEC ? amount : 0, unit == SCTIMEUNIT.SC_MS ? amount : 0,
-                unit == SCTIMEUNIT.SC_US ? amount : 0, unit == SCTIMEUNIT.SC_NS ? amount : 0,
-                unit == SCTIMEUNIT.SC_PS ? amount : 0, unit == SCTIMEUNIT.SC_FS ? amount : 0);
+    public long getFemtoseconds() {
+        return this.femtoseconds;
     }
 
     /**
@@ -86,7 +116,7 @@ public final class RealTimedBlocker extends TimedBlocker {
      * @return number of full seconds
      */
     public int getSec() {
-        return this.sec;
+        return (int) (this.femtoseconds / FS_PER_SEC);
     }
 
     /**
@@ -95,7 +125,7 @@ public final class RealTimedBlocker extends TimedBlocker {
      * @return number of full milliseconds
      */
     public int getMs() {
-        return this.ms;
+        return (int) (this.femtoseconds / FS_PER_MS % 1000);
     }
 
     /**
@@ -104,7 +134,7 @@ public final class RealTimedBlocker extends TimedBlocker {
      * @return number of full microseconds
      */
     public int getUs() {
-        return this.us;
+        return (int) (this.femtoseconds / FS_PER_US % 1000);
     }
 
     /**
@@ -113,7 +143,7 @@ public final class RealTimedBlocker extends TimedBlocker {
      * @return number of full nanoseconds
      */
     public int getNs() {
-        return this.ns;
+        return (int) (this.femtoseconds / FS_PER_NS % 1000);
     }
 
     /**
@@ -122,7 +152,7 @@ public final class RealTimedBlocker extends TimedBlocker {
      * @return number of full picoseconds
      */
     public int getPs() {
-        return this.ps;
+        return (int) (this.femtoseconds / FS_PER_PS % 1000);
     }
 
     /**
@@ -131,71 +161,38 @@ public final class RealTimedBlocker extends TimedBlocker {
      * @return number of full femtoseconds
      */
     public int getFs() {
-        return this.fs;
+        return (int) (this.femtoseconds % 1000);
     }
 
     /**
-     * Returns the length of the waited duration in the given unit.
+     * Returns the length of the waited duration in the given unit, rounded down.
      *
      * @return length of the waited duration in the given unit
      */
     public long getValue(SCTIMEUNIT unit) {
-        return SCTIMEUNIT.convert(this.sec, SCTIMEUNIT.SC_SEC, unit)
-                + SCTIMEUNIT.convert(this.ms, SCTIMEUNIT.SC_MS, unit)
-                + SCTIMEUNIT.convert(this.us, SCTIMEUNIT.SC_US, unit)
-                + SCTIMEUNIT.convert(this.ns, SCTIMEUNIT.SC_NS, unit)
-                + SCTIMEUNIT.convert(this.ps, SCTIMEUNIT.SC_PS, unit)
-                + SCTIMEUNIT.convert(this.fs, SCTIMEUNIT.SC_FS, unit);
+        long result = this.femtoseconds;
+        for (int i = SCTIMEUNIT.SC_FS.getExponent(); i < unit.getExponent(); i++) {
+            result /= 10;
+        }
+        return result;
     }
 
     /**
      * Returns a new RealTimedBlocker with the difference in duration between this RealTimedBlocker and
      * the given parameter.
      * 
-     * The given parameter must not have a longer duration than this.
+     * The given parameter must have a shorter duration than this.
      *
      * @param other the subtrahend
      * @return RealTimedBlocker with the duration of this minus the subtrahend
-     * @throws IllegalArgumentException if the subtrahend has a larger duration than this
+     * @throws IllegalArgumentException if the subtrahend does not have a shorter duration than this
      */
     public RealTimedBlocker subtract(RealTimedBlocker other) throws IllegalArgumentException {
-        int sec = this.sec - other.sec;
-        int ms = this.ms - other.ms;
-        int us = this.us - other.us;
-        int ns = this.ns - other.ns;
-        int ps = this.ps - other.ps;
-        int fs = this.fs - other.fs;
-
-        if (fs < 0) {
-            int extra = Math.floorDiv(fs, 1000);
-            ps += extra;
-            fs += (-1000 * extra);
-        }
-        if (ps < 0) {
-            int extra = Math.floorDiv(ps, 1000);
-            ns += extra;
-            ps += (-1000 * extra);
-        }
-        if (ns < 0) {
-            int extra = Math.floorDiv(ns, 1000);
-            us += extra;
-            ns += (-1000 * extra);
-        }
-        if (us < 0) {
-            int extra = Math.floorDiv(us, 1000);
-            ms += extra;
-            us += (-1000 * extra);
-        }
-        if (ms < 0) {
-            int extra = Math.floorDiv(ms, 1000);
-            sec += extra;
-            ms += (-1000 * extra);
+        long difference = this.femtoseconds - other.femtoseconds;
+        if (difference <= 0) {
+            throw new IllegalArgumentException("other is not smaller than this");
         }
-        if (sec < 0) {
-            throw new IllegalArgumentException("other is bigger than this");
-        }
-
-        return new RealTimedBlocker(sec, ms, us, ns, ps, fs);
+        return new RealTimedBlocker(difference);
     }
 
     @Override
@@ -203,34 +200,17 @@ public final class RealTimedBlocker extends TimedBlocker {
         if (other instanceof DeltaTimeBlocker) {
             return -1;
         }
-        RealTimedBlocker rtb = (RealTimedBlocker) other;
-
-        int result = Integer.compare(this.sec, rtb.sec);
-        if (result != 0) {
-            return result;
-        }
-        result = Integer.compare(this.ms, rtb.ms);
-        if (result != 0) {
-            return result;
-        }
-        result = Integer.compare(this.us, rtb.us);
-        if (result != 0) {
-            return result;
-        }
-        result = Integer.compare(this.ns, rtb.ns);
-        if (result != 0) {
-            return result;
-        }
-        result = Integer.compare(this.ps, rtb.ps);
-        if (result != 0) {
-            return result;
-        }
-        return Integer.compare(this.fs, rtb.fs);
+        return Long.compare(this.femtoseconds, ((RealTimedBlocker) other).femtoseconds);
     }
 
     @Override
     public int hashCode() {
-        return this.sec + 31 * (this.ms + 31 * (this.us + 31 * (this.ns + 31 * (this.ps + 31 * (this.fs)))));
+        return Long.hashCode(this.femtoseconds);
+    }
+
+    @Override
+    public long fingerprint() {
+        return Fingerprintable.combine(0x5265616cL, this.femtoseconds);
     }
 
     @Override
@@ -241,31 +221,30 @@ public final class RealTimedBlocker extends TimedBlocker {
         if (!(other instanceof RealTimedBlocker t)) {
             return false;
         }
-        return this.sec == t.sec && this.ms == t.ms && this.us == t.us && this.ns == t.ns && this.ps == t.ps
-                && this.fs == t.fs;
+        return this.femtoseconds == t.femtoseconds;
     }
 
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
 
-        if (this.sec != 0) {
-            builder.append(this.sec).append("s");
+        if (getSec() != 0) {
+            builder.append(getSec()).append("s");
         }
-        if (this.ms != 0) {
-            builder.append(this.ms).append("ms");
+        if (getMs() != 0) {
+            builder.append(getMs()).append("ms");
         }
-        if (this.us != 0) {
-            builder.append(this.us).append("us");
+        if (getUs() != 0) {
+            builder.append(getUs()).append("us");
         }
-        if (this.ns != 0) {
-            builder.append(this.ns).append("ns");
+        if (getNs() != 0) {
+            builder.append(getNs()).append("ns");
         }
-        if (this.ps != 0) {
-            builder.append(this.ps).append("ps");
+        if (getPs() != 0) {
+            builder.append(getPs()).append("ps");
         }
-        if (this.fs != 0) {
-            builder.append(this.fs).append("fs");
+        if (getFs() != 0) {
+            builder.append(getFs()).append("fs");
         }
 
         if (builder.isEmpty()) {
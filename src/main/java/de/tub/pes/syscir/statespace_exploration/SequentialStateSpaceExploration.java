@@ -2,8 +2,6 @@ package de.tub.pes.syscir.statespace_exploration;
 
 import java.util.ArrayDeque;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.LinkedHashSet;
 import java.util.Queue;
 import java.util.Set;
 
@@ -19,7 +17,6 @@ import java.util.Set;
 public class SequentialStateSpaceExploration<GlobalStateT extends GlobalState<GlobalStateT>, ProcessStateT extends ProcessState<ProcessStateT, ?>, InfoT extends TransitionInformation<InfoT>, ProcessType extends AnalyzedProcess<ProcessType, GlobalStateT, ProcessStateT, InfoT>>
 extends StateSpaceExploration<GlobalStateT, ProcessStateT, InfoT, ProcessType> {
 
-    private Set<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> exploredStates;
     private Queue<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> worklist;
 
     private volatile int numExploredStates;
@@ -39,7 +36,7 @@ extends StateSpaceExploration<GlobalStateT, ProcessStateT, InfoT, ProcessType> {
             Set<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> initialStates) {
         super(scheduler, record);
 
-        this.exploredStates = new LinkedHashSet<>();
+        setVisitedStates(new ExactVisitedStates<>(false));
         this.worklist = new ArrayDeque<>();
 
         for (ConsideredState<GlobalStateT, ProcessStateT, ProcessType> state : initialStates) {
@@ -55,13 +52,13 @@ extends StateSpaceExploration<GlobalStateT, ProcessStateT, InfoT, ProcessType> {
         try {
             while (!this.worklist.isEmpty()) {
                 ConsideredState<GlobalStateT, ProcessStateT, ProcessType> currentState = this.worklist.poll();
-                if (!this.exploredStates.add(currentState)) {
+                if (!getVisitedStates().add(currentState)) {
                     continue;
                 }
 
                 explorationStep(currentState);
 
-                this.numExploredStates = this.exploredStates.size();
+                this.numExploredStates = getVisitedStates().size();
             }
         } catch (ExplorationAbortedError e) {
             return;
@@ -93,17 +90,4 @@ extends StateSpaceExploration<GlobalStateT, ProcessStateT, InfoT, ProcessType> {
         return this.numExploredStates;
     }
 
-    /**
-     * {@inheritDoc}
-     * 
-     * The resulting set is <strong>not synchronized</strong>. It should only be used after
-     * {@link #run()} has returned and the calling thread has been joined with the exploring thread.
-     *
-     * @return unmodifiable view on the set of explored states
-     */
-    @Override
-    public Set<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> getExploredStates() {
-        return Collections.unmodifiableSet(this.exploredStates);
-    }
-
 }
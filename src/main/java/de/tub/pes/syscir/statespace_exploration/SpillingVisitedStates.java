@@ -0,0 +1,494 @@
+package de.tub.pes.syscir.statespace_exploration;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of {@link VisitedStates} storing the visited states exactly in their encoding by a
+ * {@link StateCodec}, keeping only the most recently visited encodings on the heap and spilling all
+ * others to hash tables on disk.
+ *
+ * Every added state is encoded once. As equal states have equal encodings, all further comparisons
+ * are performed on the encodings, and the states themselves are not retained. The encodings kept on
+ * the heap are limited by a budget in bytes given at construction: As soon as it is exceeded, the
+ * oldest encodings are moved to disk. The budget includes an estimate of the per-entry overhead of
+ * the heap tables.
+ * <p>
+ * To allow concurrent access, the encodings are distributed over several independently synchronized
+ * segments, each with its own share of the budget and its own disk table. The files of the disk
+ * tables are created in the given directory and deleted as soon as they are no longer used, i.e. when
+ * an index is grown or this object is {@link #close() closed}.
+ * <p>
+ * Iterating over {@link #asSet()} decodes all stored encodings. If a {@link StateInterner} is given,
+ * the components of decoded states are interned, such that equal components of different states
+ * share the same objects.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <GlobalStateT> the type of the global state
+ * @param <ProcessStateT> the type of the state of one process
+ * @param <ProcessT> the type of processes
+ */
+public class SpillingVisitedStates<GlobalStateT extends GlobalState<GlobalStateT>, ProcessStateT extends ProcessState<ProcessStateT, ?>, ProcessT extends AnalyzedProcess<ProcessT, GlobalStateT, ProcessStateT, ?>>
+extends VisitedStates<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>> {
+
+    private static final int NUM_SEGMENTS = 16;
+
+    // estimated heap bytes needed per cached encoding in addition to its content (array header,
+    // Encoding object, and entry of the LinkedHashSet)
+    private static final int ENTRY_OVERHEAD = 96;
+
+    /**
+     * Encoding of a state together with its 64-bit tag (derived from the hash of the encoding).
+     */
+    private static record Encoding(byte[] bytes, long tag) {
+
+        private static Encoding of(byte[] bytes) {
+            // FNV-1a, mixed such that every input bit affects every output bit
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : bytes) {
+                hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+            }
+            hash = mix(hash);
+            return new Encoding(bytes, hash == 0 ? 1 : hash);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Encoding encoding && encoding.tag == this.tag
+                    && Arrays.equals(encoding.bytes, this.bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) this.tag;
+        }
+    }
+
+    /**
+     * Open addressing hash table of encodings on disk.
+     *
+     * The encodings are appended, each preceded by its length, to a data file. The index file consists
+     * of slots of a nonzero 64-bit tag (0 marks an empty slot) and the position of the encoding in the
+     * data file. Both files are accessed by positional reads and writes, which leaves caching to the
+     * operating system and needs no mappings that would have to be released. When the index is grown,
+     * the old index file is closed, which deletes it.
+     */
+    private static class DiskTable {
+
+        private static final int INDEX_SLOT_BYTES = 16;
+        private static final long INITIAL_CAPACITY = 1 << 12;
+        // number of slots read at once when probing or scanning the index
+        private static final int PROBE_SLOTS = 4;
+        private static final int SCAN_SLOTS = 1 << 12;
+
+        private final File directory;
+
+        private FileChannel indexChannel;
+        private long capacity;
+
+        private final FileChannel dataChannel;
+        private long dataSize;
+
+        private final ByteBuffer probeBuffer = ByteBuffer.allocateDirect(PROBE_SLOTS * INDEX_SLOT_BYTES);
+        private final ByteBuffer slotBuffer = ByteBuffer.allocateDirect(INDEX_SLOT_BYTES);
+
+        private long size;
+
+        private DiskTable(File directory) throws IOException {
+            this.directory = directory;
+            this.dataChannel = createFile(directory);
+            this.indexChannel = createIndex(INITIAL_CAPACITY);
+            this.capacity = INITIAL_CAPACITY;
+        }
+
+        private static FileChannel createFile(File directory) throws IOException {
+            Path file = Files.createTempFile(directory.toPath(), "visited", ".bin");
+            // the file is deleted when the channel is closed (on some platforms already when it is opened),
+            // and on a best-effort basis when the virtual machine exits without closing it
+            return FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+        }
+
+        private FileChannel createIndex(long capacity) throws IOException {
+            FileChannel result = createFile(this.directory);
+            // extend the file to its full size, the skipped bytes are read as zeros, i.e. empty slots
+            result.write(ByteBuffer.allocate(1), capacity * INDEX_SLOT_BYTES - 1);
+            return result;
+        }
+
+        private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new EOFException("unexpected end of spill file");
+                }
+                position += read;
+            }
+            buffer.flip();
+        }
+
+        private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        }
+
+        private byte[] read(long position) throws IOException {
+            ByteBuffer length = ByteBuffer.allocate(4);
+            readFully(this.dataChannel, length, position);
+            ByteBuffer result = ByteBuffer.allocate(length.getInt());
+            readFully(this.dataChannel, result, position + 4);
+            return result.array();
+        }
+
+        private boolean matches(long position, byte[] bytes) throws IOException {
+            // the stored length is compared first, so reading too many bytes is harmless
+            ByteBuffer stored = ByteBuffer.allocate(4 + bytes.length);
+            stored.limit((int) Math.min(stored.capacity(), this.dataSize - position));
+            readFully(this.dataChannel, stored, position);
+            return stored.getInt() == bytes.length && stored.remaining() == bytes.length
+                    && stored.equals(ByteBuffer.wrap(bytes));
+        }
+
+        // returns the slot containing the encoding with the given tag and bytes, or -(s + 1) for the empty
+        // slot s where it would be inserted. if bytes is null, only the empty slot is searched.
+        private long find(FileChannel index, long capacity, long tag, byte[] bytes) throws IOException {
+            long mask = capacity - 1;
+            long slot = tag & mask;
+            while (true) {
+                int numSlots = (int) Math.min(PROBE_SLOTS, capacity - slot);
+                this.probeBuffer.clear().limit(numSlots * INDEX_SLOT_BYTES);
+                readFully(index, this.probeBuffer, slot * INDEX_SLOT_BYTES);
+                for (int i = 0; i < numSlots; i++) {
+                    long slotTag = this.probeBuffer.getLong(i * INDEX_SLOT_BYTES);
+                    if (slotTag == 0) {
+                        return -(slot + i + 1);
+                    }
+                    if (bytes != null && slotTag == tag
+                            && matches(this.probeBuffer.getLong(i * INDEX_SLOT_BYTES + 8), bytes)) {
+                        return slot + i;
+                    }
+                }
+                slot = (slot + numSlots) & mask;
+            }
+        }
+
+        private boolean contains(Encoding encoding) throws IOException {
+            return find(this.indexChannel, this.capacity, encoding.tag(), encoding.bytes()) >= 0;
+        }
+
+        // the encoding must not be contained yet
+        private void insert(Encoding encoding) throws IOException {
+            // keep the load factor at or below 1/2
+            if (2 * (this.size + 1) > this.capacity) {
+                grow();
+            }
+
+            long slot = -find(this.indexChannel, this.capacity, encoding.tag(), encoding.bytes()) - 1;
+            writeSlot(this.indexChannel, slot, encoding.tag(), append(encoding.bytes()));
+            this.size++;
+        }
+
+        private void writeSlot(FileChannel index, long slot, long tag, long position) throws IOException {
+            this.slotBuffer.clear();
+            this.slotBuffer.putLong(tag).putLong(position).flip();
+            writeFully(index, this.slotBuffer, slot * INDEX_SLOT_BYTES);
+        }
+
+        private long append(byte[] bytes) throws IOException {
+            long result = this.dataSize;
+            ByteBuffer buffer = ByteBuffer.allocate(4 + bytes.length);
+            buffer.putInt(bytes.length).put(bytes).flip();
+            writeFully(this.dataChannel, buffer, result);
+            this.dataSize += buffer.capacity();
+            return result;
+        }
+
+        private void grow() throws IOException {
+            FileChannel oldIndex = this.indexChannel;
+            long oldCapacity = this.capacity;
+            long newCapacity = 2 * oldCapacity;
+            FileChannel newIndex = createIndex(newCapacity);
+
+            try {
+                forEachSlot(oldIndex, oldCapacity, (tag, position) -> {
+                    // entries are distinct, so only an empty slot needs to be found
+                    long slot = -find(newIndex, newCapacity, tag, null) - 1;
+                    writeSlot(newIndex, slot, tag, position);
+                });
+            } catch (IOException | RuntimeException e) {
+                newIndex.close();
+                throw e;
+            }
+
+            this.indexChannel = newIndex;
+            this.capacity = newCapacity;
+            oldIndex.close();
+        }
+
+        private static interface SlotAction {
+            void accept(long tag, long position) throws IOException;
+        }
+
+        private static void forEachSlot(FileChannel index, long capacity, SlotAction action) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(SCAN_SLOTS * INDEX_SLOT_BYTES);
+            for (long slot = 0; slot < capacity; slot += SCAN_SLOTS) {
+                int numSlots = (int) Math.min(SCAN_SLOTS, capacity - slot);
+                buffer.clear().limit(numSlots * INDEX_SLOT_BYTES);
+                readFully(index, buffer, slot * INDEX_SLOT_BYTES);
+                for (int i = 0; i < numSlots; i++) {
+                    long tag = buffer.getLong(i * INDEX_SLOT_BYTES);
+                    if (tag != 0) {
+                        action.accept(tag, buffer.getLong(i * INDEX_SLOT_BYTES + 8));
+                    }
+                }
+            }
+        }
+
+        private void forEach(Consumer<byte[]> action) throws IOException {
+            forEachSlot(this.indexChannel, this.capacity, (tag, position) -> action.accept(read(position)));
+        }
+
+        private void close() throws IOException {
+            try {
+                this.indexChannel.close();
+            } finally {
+                this.dataChannel.close();
+            }
+        }
+    }
+
+    /**
+     * Segment of the visited states: The most recently added encodings in order of addition, and a
+     * disk table (created on demand) for all others.
+     */
+    private static class Segment {
+
+        private final File directory;
+        private final long maxCachedBytes;
+        private final AtomicLong numSpilledStates;
+
+        private final LinkedHashSet<Encoding> cache = new LinkedHashSet<>();
+        private long cachedBytes;
+        private DiskTable diskTable;
+
+        private Segment(File directory, long maxCachedBytes, AtomicLong numSpilledStates) {
+            this.directory = directory;
+            this.maxCachedBytes = maxCachedBytes;
+            this.numSpilledStates = numSpilledStates;
+        }
+
+        private synchronized boolean add(Encoding encoding) {
+            if (this.cache.contains(encoding) || isSpilled(encoding)) {
+                return false;
+            }
+
+            this.cache.add(encoding);
+            this.cachedBytes += cost(encoding);
+            while (this.cachedBytes > this.maxCachedBytes) {
+                Iterator<Encoding> it = this.cache.iterator();
+                Encoding oldest = it.next();
+                it.remove();
+                this.cachedBytes -= cost(oldest);
+                spill(oldest);
+            }
+            return true;
+        }
+
+        private synchronized boolean contains(Encoding encoding) {
+            return this.cache.contains(encoding) || isSpilled(encoding);
+        }
+
+        private boolean isSpilled(Encoding encoding) {
+            try {
+                return this.diskTable != null && this.diskTable.contains(encoding);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void spill(Encoding encoding) {
+            try {
+                if (this.diskTable == null) {
+                    this.diskTable = new DiskTable(this.directory);
+                }
+                this.diskTable.insert(encoding);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.numSpilledStates.incrementAndGet();
+        }
+
+        private synchronized void collect(List<byte[]> result) {
+            if (this.diskTable != null) {
+                try {
+                    this.diskTable.forEach(result::add);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            for (Encoding encoding : this.cache) {
+                result.add(encoding.bytes());
+            }
+        }
+
+        private synchronized void close() throws IOException {
+            if (this.diskTable != null) {
+                this.diskTable.close();
+                this.diskTable = null;
+            }
+        }
+    }
+
+    private final StateCodec<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>> codec;
+    private final StateInterner interner;
+
+    private final Segment[] segments;
+    private final AtomicInteger size;
+    private final AtomicLong numSpilledStates;
+
+    /**
+     * Constructs a new, empty SpillingVisitedStates keeping encodings of at most the given number of
+     * bytes on the heap and storing the spilled encodings in the given directory.
+     *
+     * @param directory the directory in which the disk tables shall be created
+     * @param maxCachedBytes the (approximate) maximum number of bytes used for encodings kept on the
+     *        heap
+     * @param codec the codec encoding the visited states
+     * @param interner the interner used for the components of decoded states, or null
+     * @throws IllegalArgumentException if maxCachedBytes is negative or directory is not a directory
+     */
+    public SpillingVisitedStates(File directory, long maxCachedBytes,
+            StateCodec<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>> codec, StateInterner interner)
+                    throws IllegalArgumentException {
+        if (maxCachedBytes < 0) {
+            throw new IllegalArgumentException("maximum number of cached bytes must not be negative");
+        }
+        if (!directory.isDirectory()) {
+            throw new IllegalArgumentException(directory + " is not a directory");
+        }
+
+        this.codec = codec;
+        this.interner = interner;
+        this.size = new AtomicInteger();
+        this.numSpilledStates = new AtomicLong();
+        this.segments = new Segment[NUM_SEGMENTS];
+        for (int i = 0; i < NUM_SEGMENTS; i++) {
+            this.segments[i] = new Segment(directory, maxCachedBytes / NUM_SEGMENTS, this.numSpilledStates);
+        }
+    }
+
+    private static long cost(Encoding encoding) {
+        return encoding.bytes().length + ENTRY_OVERHEAD;
+    }
+
+    private Segment getSegment(Encoding encoding) {
+        // use the upper bits, as the lower ones are used to index the tables
+        return this.segments[(int) (encoding.tag() >>> 60)];
+    }
+
+    @Override
+    public boolean add(ConsideredState<GlobalStateT, ProcessStateT, ProcessT> state) {
+        Encoding encoding = Encoding.of(this.codec.encode(state));
+        if (!getSegment(encoding).add(encoding)) {
+            return false;
+        }
+        this.size.incrementAndGet();
+        return true;
+    }
+
+    @Override
+    public boolean contains(ConsideredState<GlobalStateT, ProcessStateT, ProcessT> state) {
+        Encoding encoding = Encoding.of(this.codec.encode(state));
+        return getSegment(encoding).contains(encoding);
+    }
+
+    @Override
+    public int size() {
+        return this.size.get();
+    }
+
+    /**
+     * Returns the number of states spilled to disk.
+     *
+     * @return number of spilled states
+     */
+    public long getNumSpilledStates() {
+        return this.numSpilledStates.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Iterating over the returned set decodes all stored states, it should therefore only be done after
+     * the exploration is finished.
+     */
+    @Override
+    public Set<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>> asSet() {
+        return new AbstractSet<>() {
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public boolean contains(Object o) {
+                return o instanceof ConsideredState<?, ?, ?> s
+                        && SpillingVisitedStates.this.contains((ConsideredState<GlobalStateT, ProcessStateT, ProcessT>) s);
+            }
+
+            @Override
+            public Iterator<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>> iterator() {
+                return Collections.unmodifiableList(snapshot()).iterator();
+            }
+
+            @Override
+            public int size() {
+                return SpillingVisitedStates.this.size();
+            }
+        };
+    }
+
+    private List<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>> snapshot() {
+        List<byte[]> encodings = new ArrayList<>(size());
+        for (Segment segment : this.segments) {
+            segment.collect(encodings);
+        }
+
+        List<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>> result = new ArrayList<>(encodings.size());
+        for (byte[] encoding : encodings) {
+            ConsideredState<GlobalStateT, ProcessStateT, ProcessT> state = this.codec.decode(encoding);
+            result.add(this.interner == null ? state : this.interner.internComponents(state));
+        }
+        return result;
+    }
+
+    /**
+     * Closes the disk tables and deletes their files. Afterwards, this object must no longer be used.
+     *
+     * @throws IOException if closing some file fails
+     */
+    @Override
+    public void close() throws IOException {
+        for (Segment segment : this.segments) {
+            segment.close();
+        }
+    }
+
+}
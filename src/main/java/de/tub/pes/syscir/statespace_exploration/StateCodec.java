@@ -0,0 +1,35 @@
+package de.tub.pes.syscir.statespace_exploration;
+
+/**
+ * Interface for canonical binary encodings of locked states, allowing states to be stored off-heap
+ * (see {@link SpillingVisitedStates}).
+ *
+ * Two states must be equal if and only if their encodings by the same codec are equal, and every
+ * encoding must be decodable back into a locked state equal to the encoded one. Implementations must
+ * be thread-safe.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <StateT> the type of encoded states
+ */
+public interface StateCodec<StateT> {
+
+    /**
+     * Returns the canonical encoding of the given state.
+     *
+     * @param state a locked state
+     * @return encoding of the state
+     * @throws IllegalArgumentException if the state is not locked
+     */
+    byte[] encode(StateT state) throws IllegalArgumentException;
+
+    /**
+     * Reconstructs the state from its encoding by this codec.
+     *
+     * @param encoding the encoding of some state
+     * @return the decoded, locked state
+     * @throws IllegalArgumentException if the encoding is malformed or was not produced by this codec
+     */
+    StateT decode(byte[] encoding) throws IllegalArgumentException;
+
+}
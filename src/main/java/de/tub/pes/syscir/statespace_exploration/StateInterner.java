@@ -0,0 +1,128 @@
+package de.tub.pes.syscir.statespace_exploration;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class storing one canonical instance per distinct locked component of a {@link ConsideredState}.
+ *
+ * Neighbouring states of an exploration usually differ in few components only, e.g. in the state of
+ * a single process. By replacing every component of a newly reached state by the canonical instance
+ * equal to it (see {@link #internComponents(ConsideredState)}), each distinct {@link GlobalState},
+ * {@link ProcessState} and {@link EvaluationContext} is only kept once, no matter in how many
+ * explored states it occurs. As a side effect, equal components of different states are identical,
+ * so comparing them returns after the reference check.
+ * <p>
+ * Only locked objects can be interned. Interned objects are never modified: if the components of an
+ * object are not canonical yet, an equal clone with canonical components is created instead (see
+ * {@link LockableObject#withInternedComponents(StateInterner)}). Objects may therefore already be
+ * shared with other threads when they are interned.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ */
+public class StateInterner {
+
+    private final Map<LockableObject<?>, LockableObject<?>> canonicalInstances;
+
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    /**
+     * Constructs a new, empty StateInterner.
+     */
+    public StateInterner() {
+        this.canonicalInstances = new ConcurrentHashMap<>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    /**
+     * Returns the canonical instance equal to the given locked object.
+     *
+     * If no such instance is known yet, the components of the given object are interned and the object
+     * itself, or an equal clone with canonical components, becomes the canonical instance.
+     *
+     * @param <T> the type of the object
+     * @param object a locked object
+     * @return the canonical instance equal to the object
+     * @throws IllegalArgumentException if the object is not locked
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends LockableObject<?>> T intern(T object) throws IllegalArgumentException {
+        if (!object.isLocked()) {
+            throw new IllegalArgumentException("only locked objects can be interned");
+        }
+
+        LockableObject<?> canonical = this.canonicalInstances.get(object);
+        if (canonical != null) {
+            this.hits.increment();
+            return (T) canonical;
+        }
+
+        T interned = (T) object.withInternedComponents(this);
+        canonical = this.canonicalInstances.putIfAbsent(interned, interned);
+        if (canonical != null) {
+            // some other thread was faster
+            this.hits.increment();
+            return (T) canonical;
+        }
+
+        this.misses.increment();
+        return interned;
+    }
+
+    /**
+     * Returns a locked state equal to the given locked state whose global state and process states are
+     * the canonical instances.
+     *
+     * The given state is not modified. It is returned as is if all of its components already are
+     * canonical. The state itself is not stored by this interner, as explorations keep their own set of
+     * explored states anyway.
+     *
+     * @param <GlobalStateT> the type of global state
+     * @param <ProcessStateT> the type of process state
+     * @param <ProcessT> the type of processes
+     * @param state a locked state
+     * @return the given state or an equal one with canonical components
+     * @throws IllegalArgumentException if the state is not locked
+     */
+    public <GlobalStateT extends GlobalState<GlobalStateT>, ProcessStateT extends ProcessState<ProcessStateT, ?>, ProcessT extends AnalyzedProcess<ProcessT, GlobalStateT, ProcessStateT, ?>> ConsideredState<GlobalStateT, ProcessStateT, ProcessT> internComponents(
+            ConsideredState<GlobalStateT, ProcessStateT, ProcessT> state) throws IllegalArgumentException {
+        if (!state.isLocked()) {
+            throw new IllegalArgumentException("only locked objects can be interned");
+        }
+        return state.withInternedComponents(this);
+    }
+
+    /**
+     * Returns the number of distinct canonical instances stored in this interner.
+     *
+     * @return number of canonical instances
+     */
+    public int getNumCanonicalInstances() {
+        return this.canonicalInstances.size();
+    }
+
+    /**
+     * Returns how often a canonical instance has been found for an object to be interned.
+     *
+     * @return number of hits
+     */
+    public long getNumHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns how often an object to be interned has become a new canonical instance.
+     *
+     * @return number of misses
+     */
+    public long getNumMisses() {
+        return this.misses.sum();
+    }
+
+}
@@ -1,6 +1,9 @@
 package de.tub.pes.syscir.statespace_exploration;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
@@ -76,6 +79,9 @@ public abstract class StateSpaceExploration<GlobalStateT extends GlobalState<Glo
     private Scheduler<GlobalStateT, ProcessStateT, InfoT, ProcessT> scheduler;
     private ExplorationRecord<GlobalStateT, ProcessStateT, InfoT> record;
 
+    private volatile StateInterner stateInterner;
+    private VisitedStates<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>> visitedStates;
+
     private volatile boolean aborted;
     private volatile boolean done;
 
@@ -110,6 +116,71 @@ public abstract class StateSpaceExploration<GlobalStateT extends GlobalState<Glo
         return this.record;
     }
 
+    /**
+     * Returns the set of states already visited during the exploration.
+     *
+     * @return visited states
+     */
+    protected VisitedStates<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>> getVisitedStates() {
+        return this.visitedStates;
+    }
+
+    /**
+     * Sets how the states already visited during the exploration are stored, e.g. to only store
+     * fingerprints of them (see {@link FingerprintVisitedStates} and {@link BitstateVisitedStates}).
+     * <p>
+     * This method must be invoked before the exploration is started. Explorations running on multiple
+     * threads require the parameter to be thread-safe. By default, all visited states are stored exactly
+     * (see {@link ExactVisitedStates}).
+     * <p>
+     * A {@link CanonicalizingVisitedStates} object can only be used if the record doesn't need the
+     * transitions out of every reachable state (see {@link ExplorationRecord#requiresAllStates()}).
+     *
+     * @param visitedStates an empty set of visited states
+     * @throws IllegalArgumentException if the visited states skip equivalent states but the record
+     *         needs all of them
+     */
+    public void setVisitedStates(VisitedStates<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>> visitedStates) {
+        if (visitedStates instanceof CanonicalizingVisitedStates && this.record.requiresAllStates()) {
+            throw new IllegalArgumentException("the record needs all reachable states, so equivalent states cannot be skipped");
+        }
+        this.visitedStates = Objects.requireNonNull(visitedStates);
+    }
+
+    /**
+     * Returns an estimate of the probability that at least one reachable state has been omitted by the
+     * exploration, which can only happen if the visited states are not stored exactly.
+     *
+     * @return estimated probability of omission
+     * @see VisitedStates#getOmissionProbability()
+     */
+    public double getOmissionProbability() {
+        return this.visitedStates.getOmissionProbability();
+    }
+
+    /**
+     * Returns the {@link StateInterner} used to share equal components between reached states, or null
+     * if interning is disabled.
+     *
+     * @return state interner or null
+     */
+    public StateInterner getStateInterner() {
+        return this.stateInterner;
+    }
+
+    /**
+     * Sets the {@link StateInterner} used to share equal components between reached states. If the
+     * parameter is null, interning is disabled.
+     * <p>
+     * By default, interning is disabled. This method should be invoked before the exploration is
+     * started.
+     *
+     * @param stateInterner the new state interner or null
+     */
+    public void setStateInterner(StateInterner stateInterner) {
+        this.stateInterner = stateInterner;
+    }
+
     /**
      * Performs the state space exploration.
      * 
@@ -133,7 +204,7 @@ public abstract class StateSpaceExploration<GlobalStateT extends GlobalState<Glo
                     getScheduler().endEvaluation(currentState);
             // if the set of transitions is empty, the end of the simulation has been reached
             result += transitions.size();
-            handleExploration(currentState, transitions);
+            handleExploration(currentState, internComponents(transitions));
         }
 
         // Scheduler#getReadyProcesses may differ from ConsideredState#getReadyProcesses in that the latter
@@ -145,12 +216,39 @@ public abstract class StateSpaceExploration<GlobalStateT extends GlobalState<Glo
                     selectedProcess.makeStep(currentState);
             assert !transitions.isEmpty(); // a ready process should be able to make at least one transition
             result += transitions.size();
-            handleExploration(currentState, transitions);
+            handleExploration(currentState, internComponents(transitions));
         }
 
         return result;
     }
 
+    /**
+     * Returns the given transitions with the components of their resulting states replaced by their
+     * canonical instances, unless interning is disabled.
+     * <p>
+     * The resulting states themselves are not modified. Transitions whose resulting state already
+     * consists of canonical instances only are returned as is, all others are replaced by transitions
+     * to an equal state (see {@link StateInterner#internComponents(ConsideredState)}).
+     *
+     * @param transitions some transitions
+     * @return the transitions to be handled instead
+     */
+    protected Collection<ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT>> internComponents(
+            Collection<ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT>> transitions) {
+        StateInterner interner = this.stateInterner;
+        if (interner == null) {
+            return transitions;
+        }
+        List<ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT>> result =
+                new ArrayList<>(transitions.size());
+        for (ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT> transition : transitions) {
+            ConsideredState<GlobalStateT, ProcessStateT, ProcessT> state =
+                    interner.internComponents(transition.resultingState());
+            result.add(state == transition.resultingState() ? transition : transition.replaceResultingState(state));
+        }
+        return result;
+    }
+
     /**
      * Adds the follow-up state to the worklist and records the transition.
      * 
@@ -183,9 +281,26 @@ public abstract class StateSpaceExploration<GlobalStateT extends GlobalState<Glo
     /**
      * Returns an unmodifiable view on the set of states explored during the exploration.
      *
+     * If only fingerprints of the explored states are stored, an {@link UnsupportedOperationException}
+     * is thrown.
+     *
      * @return unmodifiable view on the set of explored states
+     * @throws UnsupportedOperationException if the explored states are not stored
      */
-    public abstract Set<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>> getExploredStates();
+    public Set<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>> getExploredStates()
+            throws UnsupportedOperationException {
+        return this.visitedStates.asSet();
+    }
+
+    /**
+     * Releases the resources held by the set of visited states, e.g. files on disk (see
+     * {@link VisitedStates#close()}). Afterwards, the explored states can no longer be accessed.
+     *
+     * @throws IOException if releasing some resource fails
+     */
+    public void closeVisitedStates() throws IOException {
+        this.visitedStates.close();
+    }
 
     /**
      * Returns whether or not the exploration has been aborted for any reason.
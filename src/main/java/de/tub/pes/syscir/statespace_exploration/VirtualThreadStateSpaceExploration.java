@@ -0,0 +1,268 @@
+package de.tub.pes.syscir.statespace_exploration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Concurrent implementation of the {@link StateSpaceExploration} running its exploration steps on
+ * virtual threads.
+ *
+ * This implementation is meant for {@link ExplorationRecord}s that block inside
+ * {@link ExplorationRecord#explorationMade(ConsideredState, ConsideredState, TransitionInformation)},
+ * e.g. because they write to disk or to a socket. A blocked virtual thread releases its carrier
+ * thread, so the remaining exploration steps continue while the record waits for its I/O. For
+ * records that do not block, {@link ConcurrentStateSpaceExploration} or
+ * {@link WorkStealingStateSpaceExploration} should be preferred.
+ * <p>
+ * States waiting to be explored are kept in a shared worklist. At most a fixed number of virtual
+ * threads (see {@link #VirtualThreadStateSpaceExploration(int, Scheduler, ExplorationRecord, Set)})
+ * take states from this list, so the number of threads does not grow with the frontier of the
+ * exploration.
+ * <p>
+ * As with the other concurrent implementations, the record is informed concurrently and must
+ * therefore be thread-safe. Records should guard their state with {@link java.util.concurrent.locks.Lock}s
+ * rather than synchronized blocks, as a virtual thread blocked inside a synchronized block keeps its
+ * carrier thread.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <GlobalStateT> the type of {@link GlobalState} used in the exploration
+ * @param <ProcessStateT> the type of {@link ProcessState} used in the exploration
+ * @param <InfoT> the type of {@link TransitionInformation} supplied by the {@link AnalyzedProcess}
+ */
+public class VirtualThreadStateSpaceExploration<GlobalStateT extends GlobalState<GlobalStateT>, ProcessStateT extends ProcessState<ProcessStateT, ?>, InfoT extends TransitionInformation<InfoT>, ProcessType extends AnalyzedProcess<ProcessType, GlobalStateT, ProcessStateT, InfoT>>
+extends StateSpaceExploration<GlobalStateT, ProcessStateT, InfoT, ProcessType> {
+
+    private int maxConcurrentSteps;
+
+    private Set<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> initialStates;
+    private Queue<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> worklist;
+    private AtomicInteger pendingStates;
+    private Semaphore workerPermits;
+    private ThreadLocal<List<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>>> successorCache;
+
+    private ExecutorService executor;
+    private CountDownLatch finished;
+
+    private final AtomicReference<Throwable> thrown;
+
+    /**
+     * Constructs a new VirtualThreadStateSpaceExploration using the given scheduler, recording all
+     * state transitions in the given record and beginning its exploration at the given initial states.
+     * <p>
+     * At most 16 times the number of available processors exploration steps run at the same time. All
+     * initial states are locked by this constructor.
+     *
+     * @param scheduler the {@link Scheduler} implementation used for this exploration
+     * @param record the {@link ExplorationRecord} informed about every possible state transition
+     * @param initialStates the initial state from where the exploration shall be performed
+     */
+    public VirtualThreadStateSpaceExploration(Scheduler<GlobalStateT, ProcessStateT, InfoT, ProcessType> scheduler,
+            ExplorationRecord<GlobalStateT, ProcessStateT, InfoT> record,
+            Set<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> initialStates) {
+        this(16 * Runtime.getRuntime().availableProcessors(), scheduler, record, initialStates);
+    }
+
+    /**
+     * Constructs a new VirtualThreadStateSpaceExploration using the given scheduler, recording all
+     * state transitions in the given record and beginning its exploration at the given initial states.
+     * <p>
+     * All initial states are locked by this constructor.
+     *
+     * @param maxConcurrentSteps the maximum number of virtual threads exploring states at the same time
+     * @param scheduler the {@link Scheduler} implementation used for this exploration
+     * @param record the {@link ExplorationRecord} informed about every possible state transition
+     * @param initialStates the initial state from where the exploration shall be performed
+     * @throws IllegalArgumentException if maxConcurrentSteps is less than 1
+     */
+    public VirtualThreadStateSpaceExploration(int maxConcurrentSteps,
+            Scheduler<GlobalStateT, ProcessStateT, InfoT, ProcessType> scheduler,
+            ExplorationRecord<GlobalStateT, ProcessStateT, InfoT> record,
+            Set<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> initialStates) {
+        super(scheduler, record);
+
+        if (maxConcurrentSteps < 1) {
+            throw new IllegalArgumentException("needs at least 1 concurrent step");
+        }
+        this.maxConcurrentSteps = maxConcurrentSteps;
+
+        this.initialStates = new LinkedHashSet<>();
+        setVisitedStates(new ExactVisitedStates<>(true));
+        this.worklist = new ConcurrentLinkedQueue<>();
+        this.pendingStates = new AtomicInteger();
+        this.successorCache = new ThreadLocal<>();
+        this.thrown = new AtomicReference<>();
+
+        for (ConsideredState<GlobalStateT, ProcessStateT, ProcessType> state : initialStates) {
+            state.lock();
+            this.initialStates.add(state);
+        }
+
+        // executor is initialized in #run() to catch illegal additional invocations
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * If this method is invoked again while the exploration is already running, an
+     * {@link IllegalStateException} is thrown.
+     *
+     * @throws IllegalStateException if the exploration is already running
+     */
+    @Override
+    public void run() throws IllegalStateException {
+        // check for additional invocations
+        synchronized (this) {
+            if (this.executor != null) {
+                throw new IllegalStateException("exploration is already running");
+            }
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("exploration-", 0).factory());
+            this.workerPermits = new Semaphore(this.maxConcurrentSteps);
+            this.finished = new CountDownLatch(1);
+        }
+
+        try {
+            // hold one additional pending count while submitting the initial states, so that the exploration
+            // cannot be considered finished before all of them have been submitted
+            this.pendingStates.incrementAndGet();
+            submitAll(this.initialStates);
+            stepFinished();
+
+            // wait for the last exploration step to finish
+            while (true) {
+                try {
+                    this.finished.await();
+                    break;
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+            }
+        } finally {
+            this.executor.shutdownNow();
+        }
+
+        // if an exception was thrown during the exploration, rethrow it. otherwise, return normally.
+        if (this.thrown.get() != null) {
+            throw new RuntimeException(this.thrown.get());
+        }
+
+        if (!isAborted()) {
+            done();
+        }
+    }
+
+    private void submitAll(Collection<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> states) {
+        for (ConsideredState<GlobalStateT, ProcessStateT, ProcessType> state : states) {
+            // the state is marked visited right away, so it is looked up only once and submitted at most once
+            if (isAborted() || !getVisitedStates().add(state)) {
+                continue;
+            }
+
+            // the pending count is increased before the state is added, so it can never drop to zero while
+            // some successor still has to be explored
+            this.pendingStates.incrementAndGet();
+            this.worklist.add(state);
+        }
+        startWorkers();
+    }
+
+    private void startWorkers() {
+        while (!this.worklist.isEmpty() && this.workerPermits.tryAcquire()) {
+            try {
+                this.executor.execute(this::work);
+            } catch (RejectedExecutionException e) {
+                // the executor has already been shut down after the exploration has finished
+                this.workerPermits.release();
+                return;
+            }
+        }
+    }
+
+    private void work() {
+        // store the current explorer such that internally used classes can access it without an explicit
+        // reference
+        setCurrentExplorer(this);
+
+        try {
+            while (true) {
+                ConsideredState<GlobalStateT, ProcessStateT, ProcessType> state = this.worklist.poll();
+                if (state != null) {
+                    runExplorationStep(state);
+                    continue;
+                }
+
+                // give up the permit, but take it back if a state has been added in the meantime by a thread
+                // that could not obtain a permit itself
+                this.workerPermits.release();
+                if (this.worklist.isEmpty() || !this.workerPermits.tryAcquire()) {
+                    return;
+                }
+            }
+        } finally {
+            setCurrentExplorer(null);
+        }
+    }
+
+    private void runExplorationStep(ConsideredState<GlobalStateT, ProcessStateT, ProcessType> currentState) {
+        try {
+            if (isAborted()) {
+                return;
+            }
+
+            List<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> successors = new ArrayList<>();
+            this.successorCache.set(successors);
+            explorationStep(currentState);
+
+            submitAll(successors);
+        } catch (ExplorationAbortedError e) {
+            // nothing to do, all other steps will notice the abortion themselves
+        } catch (Throwable t) {
+            // store the first uncaught exception and abort, so that all remaining steps return immediately and
+            // #run() can rethrow it
+            this.thrown.compareAndSet(null, t);
+            abort();
+        } finally {
+            this.successorCache.remove();
+            stepFinished();
+        }
+    }
+
+    private void stepFinished() {
+        if (this.pendingStates.decrementAndGet() == 0) {
+            this.finished.countDown();
+        }
+    }
+
+    @Override
+    protected void handleExploration(ConsideredState<GlobalStateT, ProcessStateT, ProcessType> from,
+            Collection<ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessType>> transitions) {
+        List<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> successors = this.successorCache.get();
+        for (ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessType> transition : transitions) {
+            successors.add(transition.resultingState());
+            getRecord().explorationMade(from, transition.resultingState(), transition.transitionInformation());
+        }
+    }
+
+    @Override
+    public int getNumPendingStates() {
+        return this.pendingStates.get();
+    }
+
+    @Override
+    public int getNumExploredStates() {
+        return getVisitedStates().size();
+    }
+
+}
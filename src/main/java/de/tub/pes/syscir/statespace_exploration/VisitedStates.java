@@ -0,0 +1,99 @@
+package de.tub.pes.syscir.statespace_exploration;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Abstract class representing the set of states already visited during a
+ * {@link StateSpaceExploration}.
+ *
+ * Implementations may either store the visited states exactly (see {@link ExactVisitedStates}) or
+ * only store compact fingerprints of them (see {@link FingerprintVisitedStates} and
+ * {@link BitstateVisitedStates}). In the latter case, a state that has not yet been visited may be
+ * mistaken for a visited one and therefore be omitted from the exploration. The probability of such
+ * an omission can be estimated by {@link #getOmissionProbability()}.
+ * <p>
+ * Only locked states may be added to or looked up in a VisitedStates object. Unless otherwise
+ * specified, implementations are thread-safe.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <StateT> the type of visited states
+ */
+public abstract class VisitedStates<StateT> implements AutoCloseable {
+
+    /**
+     * Marks the given state as visited.
+     *
+     * @param state a locked state
+     * @return true if the state is considered not to have been visited before, false otherwise
+     */
+    public abstract boolean add(StateT state);
+
+    /**
+     * Returns whether or not the given state is considered to have been visited.
+     *
+     * @param state a locked state
+     * @return whether the state has been visited
+     */
+    public abstract boolean contains(StateT state);
+
+    /**
+     * Returns the number of states marked as visited.
+     *
+     * @return number of visited states
+     */
+    public abstract int size();
+
+    /**
+     * Returns an unmodifiable view on the set of visited states.
+     *
+     * Implementations that don't store the states themselves throw an
+     * {@link UnsupportedOperationException}.
+     *
+     * @return unmodifiable view on the set of visited states
+     * @throws UnsupportedOperationException if the visited states are not stored
+     */
+    public abstract Set<StateT> asSet() throws UnsupportedOperationException;
+
+    /**
+     * Returns an estimate of the probability that at least one state reached so far has been omitted
+     * because it was mistaken for an already visited state.
+     *
+     * By default, this method returns 0, which is correct for all implementations storing the states
+     * exactly.
+     *
+     * @return estimated probability of omission
+     */
+    public double getOmissionProbability() {
+        return 0;
+    }
+
+    /**
+     * Releases the resources held by this object, e.g. files on disk. Afterwards, this object must no
+     * longer be used.
+     *
+     * By default, this method does nothing, which is correct for all implementations only storing
+     * states on the heap.
+     *
+     * @throws IOException if releasing some resource fails
+     */
+    @Override
+    public void close() throws IOException {
+        // nothing to release
+    }
+
+    /**
+     * Mixes the bits of the given value such that every input bit affects every output bit
+     * (finalization step of SplitMix64).
+     *
+     * @param value some value
+     * @return the mixed value
+     */
+    public static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+}
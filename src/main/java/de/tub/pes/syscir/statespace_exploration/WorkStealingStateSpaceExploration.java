@@ -0,0 +1,240 @@
+package de.tub.pes.syscir.statespace_exploration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Concurrent implementation of the {@link StateSpaceExploration} based on work stealing.
+ *
+ * Every state to be explored is represented by a task of a {@link ForkJoinPool}. Newly reached
+ * states are pushed onto the deque of the worker thread that reached them, idle workers steal from
+ * the deques of busy ones. Termination is detected by counting pending tasks (see
+ * {@link CountedCompleter}) instead of polling a shared worklist, so that the exploration ends as
+ * soon as the last state has been explored.
+ * <p>
+ * The number of threads used can be specified in the constructor. The {@link ExplorationRecord} is
+ * informed in the same way as by {@link ConcurrentStateSpaceExploration}, i.e. concurrently from
+ * all worker threads.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <GlobalStateT> the type of {@link GlobalState} used in the exploration
+ * @param <ProcessStateT> the type of {@link ProcessState} used in the exploration
+ * @param <InfoT> the type of {@link TransitionInformation} supplied by the {@link AnalyzedProcess}
+ */
+public class WorkStealingStateSpaceExploration<GlobalStateT extends GlobalState<GlobalStateT>, ProcessStateT extends ProcessState<ProcessStateT, ?>, InfoT extends TransitionInformation<InfoT>, ProcessType extends AnalyzedProcess<ProcessType, GlobalStateT, ProcessStateT, InfoT>>
+extends StateSpaceExploration<GlobalStateT, ProcessStateT, InfoT, ProcessType> {
+
+    /**
+     * Task exploring one state and forking one subtask per successor.
+     *
+     * A task completes once all its subtasks have completed, the root task completes once every
+     * reachable state has been explored.
+     */
+    private class ExplorationTask extends CountedCompleter<Void> {
+
+        private static final long serialVersionUID = 1L;
+
+        // cleared once explored, as the task stays reachable from its subtasks until they complete
+        private ConsideredState<GlobalStateT, ProcessStateT, ProcessType> state;
+
+        private ExplorationTask(ExplorationTask parent,
+                ConsideredState<GlobalStateT, ProcessStateT, ProcessType> state) {
+            super(parent);
+            this.state = state;
+        }
+
+        @Override
+        public void compute() {
+            try {
+                if (this.state != null) {
+                    explore();
+                    this.state = null;
+                } else {
+                    forkAll(WorkStealingStateSpaceExploration.this.initialStates);
+                }
+            } catch (ExplorationAbortedError e) {
+                // nothing to do, all other tasks will notice the abortion themselves
+            } catch (Throwable t) {
+                // store the first uncaught exception and abort, so that all remaining tasks complete
+                // without exploring and #run() can rethrow it
+                WorkStealingStateSpaceExploration.this.thrown.compareAndSet(null, t);
+                abort();
+            }
+            tryComplete();
+        }
+
+        private void explore() {
+            WorkStealingStateSpaceExploration.this.pendingStates.decrementAndGet();
+
+            // the state has already been marked as visited by the forking task
+            if (isAborted()) {
+                return;
+            }
+
+            // collect the successors in a list so that they can be forked as subtasks of this task
+            List<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> successors = new ArrayList<>();
+            WorkStealingStateSpaceExploration.this.successorCache.set(successors);
+            try {
+                explorationStep(this.state);
+            } finally {
+                WorkStealingStateSpaceExploration.this.successorCache.remove();
+            }
+
+            forkAll(successors);
+        }
+
+        private void forkAll(Collection<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> states) {
+            for (ConsideredState<GlobalStateT, ProcessStateT, ProcessType> successor : states) {
+                if (isAborted()) {
+                    return;
+                }
+                // claim the state before forking, so that it is hashed only once and no task is
+                // allocated for states that are already visited
+                if (!getVisitedStates().add(successor)) {
+                    continue;
+                }
+                WorkStealingStateSpaceExploration.this.pendingStates.incrementAndGet();
+                addToPendingCount(1);
+                new ExplorationTask(this, successor).fork();
+            }
+        }
+    }
+
+    private int numOfThreads;
+
+    private Set<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> initialStates;
+    private AtomicInteger pendingStates;
+    private ThreadLocal<List<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>>> successorCache;
+
+    private volatile boolean running;
+    private final AtomicReference<Throwable> thrown;
+
+    /**
+     * Constructs a new WorkStealingStateSpaceExploration using the given scheduler, recording all state
+     * transitions in the given record and beginning its exploration at the given initial states.
+     * <p>
+     * The number of used threads defaults to the number of available processors. All initial states are
+     * locked by this constructor.
+     *
+     * @param scheduler the {@link Scheduler} implementation used for this exploration
+     * @param record the {@link ExplorationRecord} informed about every possible state transition
+     * @param initialStates the initial state from where the exploration shall be performed
+     */
+    public WorkStealingStateSpaceExploration(Scheduler<GlobalStateT, ProcessStateT, InfoT, ProcessType> scheduler,
+            ExplorationRecord<GlobalStateT, ProcessStateT, InfoT> record,
+            Set<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> initialStates) {
+        this(Runtime.getRuntime().availableProcessors(), scheduler, record, initialStates);
+    }
+
+    /**
+     * Constructs a new WorkStealingStateSpaceExploration using the given scheduler, recording all state
+     * transitions in the given record and beginning its exploration at the given initial states.
+     * <p>
+     * All initial states are locked by this constructor.
+     *
+     * @param numOfThreads the number of concurrent threads used for the exploration
+     * @param scheduler the {@link Scheduler} implementation used for this exploration
+     * @param record the {@link ExplorationRecord} informed about every possible state transition
+     * @param initialStates the initial state from where the exploration shall be performed
+     * @throws IllegalArgumentException if numOfThreads is less than 1
+     */
+    public WorkStealingStateSpaceExploration(int numOfThreads,
+            Scheduler<GlobalStateT, ProcessStateT, InfoT, ProcessType> scheduler,
+            ExplorationRecord<GlobalStateT, ProcessStateT, InfoT> record,
+            Set<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> initialStates) {
+        super(scheduler, record);
+
+        if (numOfThreads < 1) {
+            throw new IllegalArgumentException("needs at least 1 thread");
+        }
+        this.numOfThreads = numOfThreads;
+
+        this.initialStates = new LinkedHashSet<>();
+        setVisitedStates(new ExactVisitedStates<>(true));
+        this.pendingStates = new AtomicInteger();
+        this.successorCache = new ThreadLocal<>();
+        this.thrown = new AtomicReference<>();
+
+        for (ConsideredState<GlobalStateT, ProcessStateT, ProcessType> state : initialStates) {
+            state.lock();
+            this.initialStates.add(state);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * If this method is invoked again while the exploration is already running, an
+     * {@link IllegalStateException} is thrown.
+     *
+     * @throws IllegalStateException if the exploration is already running
+     */
+    @Override
+    public void run() throws IllegalStateException {
+        // check for additional invocations
+        synchronized (this) {
+            if (this.running) {
+                throw new IllegalStateException("exploration is already running");
+            }
+            this.running = true;
+        }
+
+        // the worker threads store the current explorer such that internally used classes can access it
+        // without an explicit reference
+        try (ForkJoinPool pool = new ForkJoinPool(this.numOfThreads, p -> new ForkJoinWorkerThread(p) {
+
+            @Override
+            protected void onStart() {
+                super.onStart();
+                setCurrentExplorer(WorkStealingStateSpaceExploration.this);
+            }
+
+            @Override
+            protected void onTermination(Throwable exception) {
+                setCurrentExplorer(null);
+                super.onTermination(exception);
+            }
+        }, null, false)) {
+            pool.invoke(new ExplorationTask(null, null));
+        }
+
+        // if an exception was thrown during the exploration, rethrow it. otherwise, return normally.
+        if (this.thrown.get() != null) {
+            throw new RuntimeException(this.thrown.get());
+        }
+
+        if (!isAborted()) {
+            done();
+        }
+    }
+
+    @Override
+    protected void handleExploration(ConsideredState<GlobalStateT, ProcessStateT, ProcessType> from,
+            Collection<ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessType>> transitions) {
+        List<ConsideredState<GlobalStateT, ProcessStateT, ProcessType>> successors = this.successorCache.get();
+        for (ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessType> transition : transitions) {
+            successors.add(transition.resultingState());
+            getRecord().explorationMade(from, transition.resultingState(), transition.transitionInformation());
+        }
+    }
+
+    @Override
+    public int getNumPendingStates() {
+        return this.pendingStates.get();
+    }
+
+    @Override
+    public int getNumExploredStates() {
+        return getVisitedStates().size();
+    }
+
+}
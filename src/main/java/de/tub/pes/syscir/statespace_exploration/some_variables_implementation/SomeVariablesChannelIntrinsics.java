@@ -0,0 +1,772 @@
+package de.tub.pes.syscir.statespace_exploration.some_variables_implementation;
+
+import static de.tub.pes.syscir.util.WrapperUtil.wrap;
+
+import de.tub.pes.syscir.engine.TransformerFactory;
+import de.tub.pes.syscir.engine.util.Constants;
+import de.tub.pes.syscir.statespace_exploration.AbstractedValue;
+import de.tub.pes.syscir.statespace_exploration.DeltaTimeBlocker;
+import de.tub.pes.syscir.statespace_exploration.EvaluationLocation;
+import de.tub.pes.syscir.statespace_exploration.EventBlocker.Event;
+import de.tub.pes.syscir.statespace_exploration.LocalState;
+import de.tub.pes.syscir.statespace_exploration.TimedBlocker;
+import de.tub.pes.syscir.statespace_exploration.TransitionResult;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.ChannelIntrinsicExecution;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.ChannelIntrinsicExecution.Statement;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.ComposableTransitionInformation;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.ExpressionCrawler;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.ExpressionCrawler.SmallStepResult;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.GlobalVariable;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.LocalVariable;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.Variable;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.VariableHolder;
+import de.tub.pes.syscir.util.CollectionUtil;
+import de.tub.pes.syscir.util.WrappedSCClassInstance;
+import de.tub.pes.syscir.util.WrappedSCFunction;
+import de.tub.pes.syscir.util.WrappedSCPortInstance;
+import de.tub.pes.syscir.sc_model.SCFunction;
+import de.tub.pes.syscir.sc_model.SCParameter;
+import de.tub.pes.syscir.sc_model.SCPort;
+import de.tub.pes.syscir.sc_model.SCSystem;
+import de.tub.pes.syscir.sc_model.SCVariable;
+import de.tub.pes.syscir.sc_model.expressions.AccessExpression;
+import de.tub.pes.syscir.sc_model.expressions.BinaryExpression;
+import de.tub.pes.syscir.sc_model.expressions.BracketExpression;
+import de.tub.pes.syscir.sc_model.expressions.ConstantExpression;
+import de.tub.pes.syscir.sc_model.expressions.EventNotificationExpression;
+import de.tub.pes.syscir.sc_model.expressions.Expression;
+import de.tub.pes.syscir.sc_model.expressions.FunctionCallExpression;
+import de.tub.pes.syscir.sc_model.expressions.ReturnExpression;
+import de.tub.pes.syscir.sc_model.expressions.SCDeltaCountExpression;
+import de.tub.pes.syscir.sc_model.expressions.SCVariableExpression;
+import de.tub.pes.syscir.sc_model.expressions.UnaryExpression;
+import de.tub.pes.syscir.sc_model.variables.SCClassInstance;
+import de.tub.pes.syscir.sc_model.variables.SCEvent;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Built-in models of the standard channels sc_signal, sc_clock, sc_fifo and sc_mutex, used by
+ * {@link SomeVariablesProcess} and {@link SomeVariablesScheduler} to compute the effect of calling
+ * some functions of these channels in a single small step instead of interpreting their
+ * implementations expression by expression.
+ *
+ * The state of a channel remains stored in the member variables of the channel instance. A model
+ * follows the implementation of the function statement by statement, evaluating each statement the
+ * way the expression handler would and recording the variables it reads and writes, and reports the
+ * statements as a {@link ChannelIntrinsicExecution} via
+ * {@link de.tub.pes.syscir.statespace_exploration.standard_implementations.InformationHandler#handleChannelIntrinsic}.
+ * Whenever interpreting the implementation would split the state, block the calling process, resume
+ * another process or fail, or the implementation doesn't have the expected shape, the model declines
+ * and the function is interpreted as before. Supported are read, write and update of signals and
+ * clocks, read, write, num_available and num_free of fifos and lock and unlock of mutexes. The
+ * update of fifos is always interpreted, as its conditions cannot be decided by the expression
+ * handler.
+ * <p>
+ * Models are only used for the types marked as intrinsic in the types definition file (see
+ * {@link TransformerFactory#getIntrinsicTypes()}), only if the information handler of the crawler
+ * supports channel intrinsics and only while they are enabled (see {@link #setEnabled(boolean)}).
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <LocalStateT> the type of local state
+ * @param <ValueT> the type of abstracted value
+ * @param <TransitionResultT> the type of transition result
+ * @param <InfoT> the type of transition information
+ */
+public class SomeVariablesChannelIntrinsics<LocalStateT extends LocalState<LocalStateT, ValueT> & VariableHolder<LocalVariable<?>, ValueT>, ValueT extends AbstractedValue<ValueT, ?, ?>, TransitionResultT extends TransitionResult<TransitionResultT, SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, InfoT, SomeVariablesProcess<ValueT, InfoT>>, InfoT extends ComposableTransitionInformation<InfoT>> {
+
+    private enum ChannelKind {
+        SIGNAL, FIFO, MUTEX
+    }
+
+    private static final Map<String, ChannelKind> MODELED_TYPES = Map.of("sc_signal", ChannelKind.SIGNAL, "sc_clock",
+            ChannelKind.SIGNAL, "sc_fifo", ChannelKind.FIFO, "sc_mutex", ChannelKind.MUTEX);
+
+    // members of the channel implementations (see config/implementation) that are not needed to decide
+    // whether calling a function blocks, and the values the constructors assign to the other members,
+    // if not 0
+    private static final Map<ChannelKind, Set<String>> CONTENT_MEMBERS = Map.of(ChannelKind.FIFO, Set.of("buf"));
+    private static final Map<ChannelKind, Map<String, Object>> INITIAL_VALUES = Map.of(ChannelKind.FIFO,
+            Map.of("size", 16, "free", 16), ChannelKind.MUTEX, Map.of("_locked", false));
+
+    private static Map<String, ChannelKind> configuredTypes;
+
+    private static volatile boolean enabled = false;
+
+    private static synchronized Map<String, ChannelKind> getConfiguredTypes() {
+        if (configuredTypes == null) {
+            Map<String, ChannelKind> result = new LinkedHashMap<>();
+            for (String type : TransformerFactory.getIntrinsicTypes()) {
+                ChannelKind kind = MODELED_TYPES.get(type);
+                if (kind != null) {
+                    result.put(type, kind);
+                }
+            }
+            configuredTypes = result;
+        }
+        return configuredTypes;
+    }
+
+    private static ChannelKind getModeledKind(String type) {
+        for (Entry<String, ChannelKind> entry : MODELED_TYPES.entrySet()) {
+            if (type.equals(entry.getKey()) || type.startsWith(entry.getKey() + Constants.GENERIC_TYPE_DELIMITER)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether the given variable is part of the state that decides whether calling a function
+     * of a fifo or mutex blocks, i.e. an event, a port, a reference to a mutex or a member of a fifo or
+     * mutex other than the contents of the fifo.
+     *
+     * Storing these variables suffices to decide the blocking behavior of fifos and mutexes, whether or
+     * not the built-in models are used.
+     *
+     * @param variable some global variable
+     * @return whether the variable is part of the blocking state of a channel
+     */
+    public static boolean isChannelState(GlobalVariable<?, ?> variable) {
+        if (variable.getSCVariable() instanceof SCEvent || variable.getSCVariable() instanceof SCPort) {
+            return true;
+        }
+        if (!(variable.getSCVariable() instanceof SCVariable member)) {
+            return false;
+        }
+        if (getModeledKind(member.getType()) == ChannelKind.MUTEX) {
+            return true;
+        }
+        if (!(variable.getQualifier() instanceof WrappedSCClassInstance instance)) {
+            return false;
+        }
+        ChannelKind kind = getModeledKind(instance.getType());
+        return (kind == ChannelKind.FIFO || kind == ChannelKind.MUTEX)
+                && !CONTENT_MEMBERS.getOrDefault(kind, Set.of()).contains(member.getName());
+    }
+
+    /**
+     * Stores the values the channel state (see {@link #isChannelState(GlobalVariable)}) of all
+     * instances of the given system has after their construction in the given global state, as
+     * constructors are not executed during the exploration. References to mutexes are initialized with
+     * the mutex instance of the same name.
+     *
+     * @param <ValueT> the type of abstracted value
+     * @param scSystem the system
+     * @param globalState an unlocked global state of that system
+     * @param abstraction the function abstracting concrete values
+     */
+    public static <ValueT extends AbstractedValue<ValueT, ?, ?>> void initializeChannels(SCSystem scSystem,
+            SomeVariablesGlobalState<ValueT> globalState, Function<Object, ? extends ValueT> abstraction) {
+        for (SCClassInstance instance : scSystem.getInstances()) {
+            ChannelKind kind = getModeledKind(instance.getType());
+            for (SCVariable member : instance.getSCClass().getMembers()) {
+                GlobalVariable<?, ?> variable = new GlobalVariable<>(wrap(instance), member);
+                if (!isChannelState(variable) || member.isConst()) {
+                    continue;
+                }
+                Object value;
+                if (getModeledKind(member.getType()) == ChannelKind.MUTEX) {
+                    value = wrap(scSystem.getInstanceByName(member.getName()));
+                } else {
+                    value = INITIAL_VALUES.getOrDefault(kind, Map.of()).getOrDefault(member.getName(), 0);
+                }
+                globalState.setVariableValue(variable, abstraction.apply(value));
+            }
+        }
+    }
+
+    /**
+     * Returns whether the built-in models are used at all.
+     *
+     * @return whether channel intrinsics are enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether the built-in models are used at all. If disabled, all channel functions are
+     * interpreted, regardless of the types definition file. Disabled by default.
+     *
+     * @param enabled whether channel intrinsics are enabled
+     */
+    public static void setEnabled(boolean enabled) {
+        SomeVariablesChannelIntrinsics.enabled = enabled;
+    }
+
+    private final ExpressionCrawler<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, LocalStateT, TransitionResultT, ValueT, InfoT, SomeVariablesProcess<ValueT, InfoT>> crawler;
+    private final SomeVariablesExpressionHandler<LocalStateT, ValueT, TransitionResultT, InfoT> expressionHandler;
+
+    private final Predicate<? super GlobalVariable<?, ?>> globalVariableStorageCondition;
+    private final Predicate<? super LocalVariable<?>> localVariableStorageCondition;
+
+    private final Map<String, ChannelKind> intrinsicTypes;
+
+    /**
+     * Constructs new channel intrinsics for the given crawler, using the models of all types marked as
+     * intrinsic in the types definition file.
+     *
+     * @param crawler the expression crawler delegating some calls to this object
+     * @param expressionHandler the expression handler of that crawler
+     * @param globalVariableStorageCondition the condition under which values of global variables are
+     *        stored
+     * @param localVariableStorageCondition the condition under which values of local variables are
+     *        stored
+     */
+    public SomeVariablesChannelIntrinsics(
+            ExpressionCrawler<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, LocalStateT, TransitionResultT, ValueT, InfoT, SomeVariablesProcess<ValueT, InfoT>> crawler,
+            SomeVariablesExpressionHandler<LocalStateT, ValueT, TransitionResultT, InfoT> expressionHandler,
+            Predicate<? super GlobalVariable<?, ?>> globalVariableStorageCondition,
+            Predicate<? super LocalVariable<?>> localVariableStorageCondition) {
+        this.crawler = crawler;
+        this.expressionHandler = expressionHandler;
+        this.globalVariableStorageCondition = globalVariableStorageCondition;
+        this.localVariableStorageCondition = localVariableStorageCondition;
+        this.intrinsicTypes = getConfiguredTypes();
+    }
+
+    private boolean isActive() {
+        return enabled && !this.intrinsicTypes.isEmpty()
+                && this.crawler.getInformationHandler().supportsChannelIntrinsics();
+    }
+
+    /**
+     * Attempts to execute the function called by the given expression using a built-in model of the
+     * channel it is called on. Must only be called once all parameters of the call have been
+     * evaluated.
+     *
+     * If the model is applicable, the resulting transitions have already returned from the call, i.e.
+     * the return value of the function has been passed to the parent of the expression.
+     *
+     * @param currentState the current state
+     * @param localState the local part of the current state
+     * @param expression the function call expression
+     * @param comingFrom from where the evaluation is reaching the expression
+     * @return the result of executing the function, or null if it must be interpreted
+     */
+    public SmallStepResult<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, InfoT, TransitionResultT> handleFunctionCall(
+            TransitionResultT currentState, LocalStateT localState, FunctionCallExpression expression,
+            int comingFrom) {
+        if (!isActive()) {
+            return null;
+        }
+
+        ValueT thisValue;
+        if (expression.getParent() instanceof AccessExpression) {
+            thisValue = this.crawler.getValueOfExpression(currentState, localState, 1, 0);
+        } else {
+            thisValue = localState.getTopOfStack().getThisValue();
+        }
+        if (!thisValue.isDetermined()) {
+            return null;
+        }
+
+        WrappedSCClassInstance channel = getChannel(thisValue.get());
+        ChannelKind kind = channel == null ? null : getKind(channel);
+        if (kind == null) {
+            return null;
+        }
+
+        SCFunction function = expression.getFunction();
+        List<WrappedSCFunction> stackTrace = localState.getStackTrace().enter(wrap(function));
+        Execution execution =
+                new Execution(thisValue.get(), channel, function, currentState, localState, expression, stackTrace);
+
+        boolean applicable;
+        try {
+            applicable = switch (kind) {
+                case SIGNAL -> switch (function.getName()) {
+                    case "read" -> signalRead(execution);
+                    case "write" -> signalWrite(execution);
+                    default -> false;
+                };
+                case FIFO -> switch (function.getName()) {
+                    case "read" -> fifoRead(execution);
+                    case "write" -> fifoWrite(execution);
+                    case "num_available" -> fifoNumAvailable(execution);
+                    case "num_free" -> fifoNumFree(execution);
+                    default -> false;
+                };
+                case MUTEX -> switch (function.getName()) {
+                    case "lock" -> mutexLock(execution);
+                    case "unlock" -> mutexUnlock(execution);
+                    default -> false;
+                };
+            };
+        } catch (ClassCastException e) {
+            // let the interpreter deal with incompatible values
+            return null;
+        }
+        if (!applicable) {
+            return null;
+        }
+
+        ChannelIntrinsicExecution description = execution.describe();
+        List<TransitionResultT> transitions = apply(execution, currentState);
+        List<TransitionResultT> result = new ArrayList<>(transitions.size());
+        for (TransitionResultT transition : transitions) {
+            LocalStateT resultingLocalState = this.crawler.getLocalState(transition);
+            this.crawler.returnToParent(expression.getParent(), resultingLocalState, execution.result);
+            result.add(transition.replaceTransitionInformation(this.crawler.getInformationHandler()
+                    .handleChannelIntrinsic(expression, description, transition, resultingLocalState)));
+        }
+        return new SmallStepResult<>(result, false, false);
+    }
+
+    /**
+     * Attempts to execute the update method of the given channel using a built-in model of the
+     * channel.
+     *
+     * @param channel the channel to be updated
+     * @param currentState the state before the update, with an unlocked resulting state
+     * @param localState the local part of that state, positioned at the start of the update method
+     * @return the transitions resulting from the update, or null if it must be interpreted
+     */
+    public List<TransitionResultT> handleUpdate(WrappedSCClassInstance channel, TransitionResultT currentState,
+            LocalStateT localState) {
+        if (!isActive() || getKind(channel) != ChannelKind.SIGNAL) {
+            return null;
+        }
+
+        SCFunction function = channel.getSCClass().getMemberFunctionByName("update");
+        Execution execution = new Execution(channel, channel, function, currentState, localState, null,
+                localState.getStackTrace());
+        try {
+            if (!signalUpdate(execution)) {
+                return null;
+            }
+        } catch (ClassCastException e) {
+            return null;
+        }
+
+        ChannelIntrinsicExecution description = execution.describe();
+        List<TransitionResultT> transitions = apply(execution, currentState);
+        List<TransitionResultT> result = new ArrayList<>(transitions.size());
+        for (TransitionResultT transition : transitions) {
+            result.add(transition.replaceTransitionInformation(this.crawler.getInformationHandler()
+                    .handleChannelIntrinsic(null, description, transition, this.crawler.getLocalState(transition))));
+        }
+        return result;
+    }
+
+    private WrappedSCClassInstance getChannel(Object thisObject) {
+        if (thisObject instanceof WrappedSCClassInstance instance) {
+            return instance;
+        } else if (thisObject instanceof WrappedSCPortInstance portInstance) {
+            return this.crawler.getChannel(portInstance);
+        } else if (thisObject instanceof SCPort port) {
+            return this.crawler.getChannel(port);
+        }
+        return null;
+    }
+
+    private ChannelKind getKind(WrappedSCClassInstance channel) {
+        String type = channel.getType();
+        for (Entry<String, ChannelKind> entry : this.intrinsicTypes.entrySet()) {
+            if (type.equals(entry.getKey())
+                    || type.startsWith(entry.getKey() + Constants.GENERIC_TYPE_DELIMITER)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    // int read() { return val; }
+    private boolean signalRead(Execution execution) {
+        return execution.hasBodySize(1) && execution.returnValue(execution.statement(0));
+    }
+
+    // void write(int newval) { _val = newval; request_update(); }
+    private boolean signalWrite(Execution execution) {
+        return execution.hasBodySize(2) && execution.assign(execution.statement(0))
+                && execution.requestUpdate(execution.statement(1));
+    }
+
+    // void update() { if (!(_val == val)) { change.notify(SC_ZERO_TIME); delta = sc_delta_count(); } val = _val; }
+    private boolean signalUpdate(Execution execution) {
+        if (!execution.hasBodySize(2)) {
+            return false;
+        }
+
+        Boolean changed = execution.decide(execution.statement(0, 0));
+        if (changed == null) {
+            // the interpreter would consider both outcomes
+            return false;
+        }
+        if (changed) {
+            if (!execution.notify(execution.statement(0, 1), DeltaTimeBlocker.INSTANCE)
+                    || !execution.assign(execution.statement(0, 2))) {
+                return false;
+            }
+        }
+        return execution.assign(execution.statement(1));
+    }
+
+    // int read() { int val; while (num_readable - num_read == 0) { wait(data_written_event); }
+    // num_read = num_read + 1; val = buf[ri]; ri = (ri + 1) % size; free = free + 1; request_update(); return val; }
+    private boolean fifoRead(Execution execution) {
+        if (!execution.hasBodySize(8)) {
+            return false;
+        }
+
+        // the loop would block the caller until data is available
+        if (!Boolean.FALSE.equals(execution.decide(execution.statement(1, 0)))) {
+            return false;
+        }
+        for (int i = 2; i <= 5; i++) {
+            if (!execution.assign(execution.statement(i))) {
+                return false;
+            }
+        }
+        return execution.requestUpdate(execution.statement(6)) && execution.returnValue(execution.statement(7));
+    }
+
+    // void write(int val) { while (size - num_readable - num_written == 0) { wait(data_read_event); }
+    // num_written = num_written + 1; buf[wi] = val; wi = (wi + 1) % size; free = free - 1; request_update(); }
+    private boolean fifoWrite(Execution execution) {
+        if (!execution.hasBodySize(6)) {
+            return false;
+        }
+
+        // the loop would block the caller until space is available
+        if (!Boolean.FALSE.equals(execution.decide(execution.statement(0, 0)))) {
+            return false;
+        }
+        for (int i = 1; i <= 4; i++) {
+            if (!execution.assign(execution.statement(i))) {
+                return false;
+            }
+        }
+        return execution.requestUpdate(execution.statement(5));
+    }
+
+    // int num_available() { return (num_readable - num_read); }
+    private boolean fifoNumAvailable(Execution execution) {
+        return execution.hasBodySize(1) && execution.returnValue(execution.statement(0));
+    }
+
+    // int num_free() { return (size - num_readable - num_written); }
+    private boolean fifoNumFree(Execution execution) {
+        return execution.hasBodySize(1) && execution.returnValue(execution.statement(0));
+    }
+
+    // void lock() { while (_locked) { wait(_free); } _locked = true; }
+    private boolean mutexLock(Execution execution) {
+        if (!execution.hasBodySize(2)) {
+            return false;
+        }
+
+        // the loop would block the caller until the mutex is unlocked
+        if (!Boolean.FALSE.equals(execution.decide(execution.statement(0, 0)))) {
+            return false;
+        }
+        return execution.assign(execution.statement(1));
+    }
+
+    // void unlock() { _locked = false; _free.notify(); }
+    private boolean mutexUnlock(Execution execution) {
+        return execution.hasBodySize(2) && execution.assign(execution.statement(0))
+                && execution.notify(execution.statement(1), null);
+    }
+
+    private List<TransitionResultT> apply(Execution execution, TransitionResultT currentState) {
+        SomeVariablesGlobalState<ValueT> globalState = currentState.globalState();
+        for (Entry<GlobalVariable<?, ?>, ValueT> write : execution.writes.entrySet()) {
+            globalState.setVariableValue(write.getKey(), write.getValue());
+        }
+        if (execution.updateRequested) {
+            globalState.getRequestedUpdates().add(execution.channel);
+        }
+
+        if (execution.notifiedEvent == null) {
+            return List.of(currentState);
+        }
+        return CollectionUtil.asList(this.crawler.getScheduler().notifyEvents(currentState,
+                execution.notifiedEvent, execution.notificationDelay));
+    }
+
+    /**
+     * The statements and effects of one execution of a channel function, collected before any of them
+     * is applied to the state.
+     *
+     * Statements are evaluated like the expression handler evaluates them. All accesses are recorded
+     * for the statement most recently started by {@link #statement(int...)}.
+     */
+    private class Execution {
+
+        private final Object thisObject;
+        private final WrappedSCClassInstance channel;
+        private final SCFunction function;
+        private final TransitionResultT currentState;
+        private final LocalStateT localState;
+        private final FunctionCallExpression expression;
+        private final List<WrappedSCFunction> stackTrace;
+
+        private final List<Statement> statements;
+        private final Map<GlobalVariable<?, ?>, ValueT> writes;
+        private final Map<LocalVariable<?>, ValueT> localWrites;
+        private boolean updateRequested;
+        private Event notifiedEvent;
+        private TimedBlocker notificationDelay;
+        private ValueT result;
+
+        private List<Integer> statementIndices;
+        private Set<Variable<?, ?>> statementRead;
+        private Set<Variable<?, ?>> statementWritten;
+        private boolean statementRequestsUpdate;
+        private Event statementNotifies;
+        private TimedBlocker statementNotificationDelay;
+
+        private Execution(Object thisObject, WrappedSCClassInstance channel, SCFunction function,
+                TransitionResultT currentState, LocalStateT localState, FunctionCallExpression expression,
+                List<WrappedSCFunction> stackTrace) {
+            this.thisObject = thisObject;
+            this.channel = channel;
+            this.function = function;
+            this.currentState = currentState;
+            this.localState = localState;
+            this.expression = expression;
+            this.stackTrace = stackTrace;
+
+            this.statements = new ArrayList<>();
+            this.writes = new LinkedHashMap<>();
+            this.localWrites = new LinkedHashMap<>();
+        }
+
+        private boolean hasBodySize(int size) {
+            return this.function != null && this.function.getBody().size() == size;
+        }
+
+        /**
+         * Ends the current statement and starts the one at the given indices within the body of the
+         * function.
+         *
+         * @param indices the expression indices of the statement
+         * @return the expression of the statement, or null if there is none
+         */
+        private Expression statement(int... indices) {
+            endStatement();
+
+            List<Integer> indexList = new ArrayList<>(indices.length);
+            for (int index : indices) {
+                indexList.add(index);
+            }
+            Expression statement;
+            try {
+                statement = new EvaluationLocation(wrap(this.function), indexList).getNextExpression();
+            } catch (IndexOutOfBoundsException e) {
+                return null;
+            }
+
+            this.statementIndices = List.copyOf(indexList);
+            this.statementRead = new LinkedHashSet<>();
+            this.statementWritten = new LinkedHashSet<>();
+            return statement;
+        }
+
+        private void endStatement() {
+            if (this.statementIndices == null) {
+                return;
+            }
+            this.statements.add(new Statement(this.statementIndices, this.statementRead, this.statementWritten,
+                    this.statementRequestsUpdate, this.statementNotifies, this.statementNotificationDelay));
+            this.statementIndices = null;
+            this.statementRequestsUpdate = false;
+            this.statementNotifies = null;
+            this.statementNotificationDelay = null;
+        }
+
+        private ChannelIntrinsicExecution describe() {
+            endStatement();
+            return new ChannelIntrinsicExecution(this.channel, wrap(this.function), this.stackTrace,
+                    this.statements);
+        }
+
+        /**
+         * Evaluates a condition, returning null if its value is not determined.
+         */
+        private Boolean decide(Expression condition) {
+            ValueT value = condition == null ? null : evaluate(condition);
+            if (value == null || !value.isDetermined()) {
+                return null;
+            }
+            return SomeVariablesChannelIntrinsics.this.crawler.getAsBoolean(value.get());
+        }
+
+        /**
+         * Evaluates an assignment "variable = value".
+         */
+        private boolean assign(Expression statement) {
+            if (!(statement instanceof BinaryExpression assignment) || !assignment.getOp().equals("=")
+                    || !(assignment.getLeft() instanceof SCVariableExpression target)) {
+                return false;
+            }
+
+            ValueT value = evaluate(assignment.getRight());
+            if (value == null) {
+                return false;
+            }
+            write(variable(target), value);
+            return true;
+        }
+
+        /**
+         * Evaluates a non-empty return statement.
+         */
+        private boolean returnValue(Expression statement) {
+            if (!(statement instanceof ReturnExpression ret) || ret.getReturnStatement() == null) {
+                return false;
+            }
+
+            this.result = evaluate(ret.getReturnStatement());
+            return this.result != null;
+        }
+
+        private boolean requestUpdate(Expression statement) {
+            if (!(statement instanceof FunctionCallExpression call)
+                    || !call.getFunction().getName().equals("request_update")) {
+                return false;
+            }
+
+            this.updateRequested = true;
+            this.statementRequestsUpdate = true;
+            return true;
+        }
+
+        /**
+         * Evaluates an event notification, which must be immediate iff delay is null.
+         */
+        private boolean notify(Expression statement, TimedBlocker delay) {
+            if (!(statement instanceof EventNotificationExpression notification)
+                    || notification.getParameters().isEmpty() != (delay == null)
+                    || !(notification.getEvent() instanceof SCVariableExpression eventExpression)) {
+                return false;
+            }
+
+            ValueT eventValue = evaluate(eventExpression);
+            if (eventValue == null || !eventValue.isDetermined()) {
+                return false;
+            }
+            Event event = (Event) eventValue.get();
+            if (delay == null && !this.currentState.resultingState().getProcessesWaitingFor(event).isEmpty()) {
+                // resuming other processes is left to the interpreter
+                return false;
+            }
+
+            this.notifiedEvent = event;
+            this.notificationDelay = delay;
+            this.statementNotifies = event;
+            this.statementNotificationDelay = delay;
+            return true;
+        }
+
+        /**
+         * Evaluates an expression built from constants, variables and simple operators like the
+         * expression handler would, returning null for anything else.
+         */
+        private ValueT evaluate(Expression expression) {
+            ExpressionCrawler<?, ?, ?, ?, ValueT, ?, ?> crawler = SomeVariablesChannelIntrinsics.this.crawler;
+
+            if (expression instanceof ConstantExpression constant) {
+                // use the constant as written in the implementation, such that the stored value is identical
+                return crawler.getDeterminedValue(constant.getValue());
+            } else if (expression instanceof SCDeltaCountExpression) {
+                return crawler.getDeterminedValue(DeltaTimeBlocker.INSTANCE);
+            } else if (expression instanceof SCVariableExpression variableExpression) {
+                // array accesses read the whole array, not the index
+                return read(variable(variableExpression));
+            } else if (expression instanceof BracketExpression bracket) {
+                return evaluate(bracket.getInBrackets());
+            } else if (expression instanceof UnaryExpression unary) {
+                ValueT operand = evaluate(unary.getExpression());
+                if (operand == null) {
+                    return null;
+                } else if (unary.getOperator().equals("-")) {
+                    return operand.isDetermined()
+                            ? crawler.getDeterminedValue(-1 * crawler.getAsInteger(operand).get())
+                            : crawler.getNonDeterminedValue();
+                } else if (unary.getOperator().equals("!")) {
+                    return operand.isDetermined()
+                            ? crawler.getDeterminedValue(!crawler.getAsBoolean(operand).get())
+                            : crawler.getNonDeterminedValue();
+                }
+                return null;
+            } else if (expression instanceof BinaryExpression binary && !binary.getOp().equals("=")) {
+                ValueT left = evaluate(binary.getLeft());
+                ValueT right = left == null ? null : evaluate(binary.getRight());
+                if (right == null) {
+                    return null;
+                }
+                BinaryOperator<ValueT> operator =
+                        SomeVariablesChannelIntrinsics.this.expressionHandler.getSimpleOperator(binary.getOp());
+                return operator == null ? crawler.getNonDeterminedValue() : operator.apply(left, right);
+            }
+            return null;
+        }
+
+        /**
+         * Returns the variable accessed by the given expression, distinguishing local and member
+         * variables like the expression handler does.
+         */
+        private Variable<?, ?> variable(SCVariableExpression expression) {
+            SCVariable var = expression.getVar();
+            boolean global;
+            if (this.function.getParameters().stream().anyMatch(p -> p.getVar().equals(var))) {
+                global = false;
+            } else {
+                global = (var.getDeclaration() == null) || (var.getDeclaration().getParent() == null);
+            }
+            return global ? new GlobalVariable<>(this.thisObject, var) : new LocalVariable<>(this.stackTrace, var);
+        }
+
+        private ValueT read(Variable<?, ?> variable) {
+            this.statementRead.add(variable);
+            ExpressionCrawler<?, ?, ?, ?, ValueT, ?, ?> crawler = SomeVariablesChannelIntrinsics.this.crawler;
+
+            if (variable instanceof GlobalVariable<?, ?> global) {
+                if (this.writes.containsKey(global)) {
+                    return this.writes.get(global);
+                }
+                return this.currentState.globalState().getVariableValues().getOrDefault(global,
+                        crawler.getNonDeterminedValue());
+            }
+
+            LocalVariable<?> local = (LocalVariable<?>) variable;
+            if (this.localWrites.containsKey(local)) {
+                return this.localWrites.get(local);
+            }
+            List<SCParameter> parameters = this.function.getParameters();
+            for (int i = 0; i < parameters.size(); i++) {
+                if (parameters.get(i).getVar().equals(local.scVariable()) && this.expression != null
+                        && SomeVariablesChannelIntrinsics.this.localVariableStorageCondition.test(local)) {
+                    return SomeVariablesChannelIntrinsics.this.crawler.getValueOfChild(this.currentState,
+                            this.localState, i);
+                }
+            }
+            return crawler.getNonDeterminedValue();
+        }
+
+        private void write(Variable<?, ?> variable, ValueT value) {
+            this.statementWritten.add(variable);
+            if (variable instanceof GlobalVariable<?, ?> global) {
+                if (SomeVariablesChannelIntrinsics.this.globalVariableStorageCondition.test(global)) {
+                    this.writes.put(global, value);
+                }
+            } else if (SomeVariablesChannelIntrinsics.this.localVariableStorageCondition
+                    .test((LocalVariable<?>) variable)) {
+                this.localWrites.put((LocalVariable<?>) variable, value);
+            }
+        }
+    }
+
+}
@@ -3,6 +3,7 @@ package de.tub.pes.syscir.statespace_exploration.some_variables_implementation;
 import static de.tub.pes.syscir.util.WrapperUtil.wrap;
 
 import de.tub.pes.syscir.statespace_exploration.AbstractedValue;
+import de.tub.pes.syscir.statespace_exploration.CallContext;
 import de.tub.pes.syscir.statespace_exploration.EvaluationContext;
 import de.tub.pes.syscir.statespace_exploration.EventBlocker.Event;
 import de.tub.pes.syscir.statespace_exploration.LocalState;
@@ -31,10 +32,11 @@ import de.tub.pes.syscir.sc_model.expressions.SCVariableExpression;
 import de.tub.pes.syscir.sc_model.expressions.UnaryExpression;
 import de.tub.pes.syscir.sc_model.variables.SCEvent;
 import de.tub.pes.syscir.sc_model.variables.SCPortEvent;
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.function.BinaryOperator;
 import java.util.function.Predicate;
@@ -115,6 +117,12 @@ public class SomeVariablesExpressionHandler<LocalStateT extends LocalState<Local
     private Predicate<? super GlobalVariable<?, ?>> globalVariableStorageCondition;
     private Predicate<? super LocalVariable<?>> localVariableStorageCondition;
 
+    private SomeVariablesChannelIntrinsics<LocalStateT, ValueT, TransitionResultT, InfoT> channelIntrinsics;
+
+    // variables last accessed by each variable expression, per thread, see getLocalVariable
+    private final ThreadLocal<Map<Expression, Variable<?, ?>>> variableCache =
+            ThreadLocal.withInitial(IdentityHashMap::new);
+
     /**
      * Constructs a new SomeVariableNoInformationExpressionHandler.
      * 
@@ -131,6 +139,8 @@ public class SomeVariablesExpressionHandler<LocalStateT extends LocalState<Local
         this.crawler = crawler;
         this.globalVariableStorageCondition = globalVariableStorageCondition;
         this.localVariableStorageCondition = localVariableStorageCondition;
+        this.channelIntrinsics = new SomeVariablesChannelIntrinsics<>(crawler, this, globalVariableStorageCondition,
+                localVariableStorageCondition);
     }
 
     /**
@@ -178,6 +188,53 @@ public class SomeVariablesExpressionHandler<LocalStateT extends LocalState<Local
         return eventValue;
     }
 
+    /**
+     * Returns the local variable accessed by the given variable expression, i.e. the one specified by
+     * var at the current stack trace.
+     *
+     * The variable object is cached per expression and reused as long as the stack trace matches, so
+     * that its slot in the symbol table of the variable maps is only looked up once.
+     *
+     * @param localState the local state evaluating the variable expression
+     * @param expression the variable expression
+     * @param var the SysCIR variable specifier
+     * @return the accessed local variable
+     */
+    protected LocalVariable<?> getLocalVariable(LocalStateT localState, Expression expression, Object var) {
+        CallContext<WrappedSCFunction> stackTrace = localState.getStackTrace();
+        Map<Expression, Variable<?, ?>> cache = this.variableCache.get();
+        if (cache.get(expression) instanceof LocalVariable<?> cached && cached.stack() == stackTrace
+                && cached.scVariable() == var) {
+            return cached;
+        }
+        LocalVariable<?> result = new LocalVariable<>(stackTrace, var);
+        cache.put(expression, result);
+        return result;
+    }
+
+    /**
+     * Returns the global variable accessed by the given variable expression, i.e. the one specified by
+     * var in the given instance.
+     *
+     * Like {@link #getLocalVariable(LocalState, Expression, Object)}, the variable object is cached per
+     * expression and reused as long as the instance matches.
+     *
+     * @param expression the variable expression
+     * @param instance the instance the variable belongs to
+     * @param var the SysCIR variable specifier
+     * @return the accessed global variable
+     */
+    protected GlobalVariable<?, ?> getGlobalVariable(Expression expression, Object instance, Object var) {
+        Map<Expression, Variable<?, ?>> cache = this.variableCache.get();
+        if (cache.get(expression) instanceof GlobalVariable<?, ?> cached && cached.instance() == instance
+                && cached.scVariable() == var) {
+            return cached;
+        }
+        GlobalVariable<?, ?> result = new GlobalVariable<>(instance, var);
+        cache.put(expression, result);
+        return result;
+    }
+
     /**
      * See
      * {@link ExpressionCrawler#handleSpecialExpression(TransitionResult, LocalState, Expression, int)}.
@@ -203,7 +260,7 @@ public class SomeVariablesExpressionHandler<LocalStateT extends LocalState<Local
 
         if (expression instanceof SCVariableExpression ve) {
             var = ve.getVar();
-            if (localState.getTopOfStack().getFunction().getParameters().stream()
+            if (localState.getTopOfStackReadOnly().getFunction().getParameters().stream()
                     .anyMatch(p -> p.getVar().equals(var))) {
                 global = false;
             } else {
@@ -248,7 +305,7 @@ public class SomeVariablesExpressionHandler<LocalStateT extends LocalState<Local
         if (treatAsValue) {
             // distinguish between local and global variable based on the existence of a DeclarationExpression
             if (!global) {
-                LocalVariable<?> variable = new LocalVariable<>(localState.getStackTrace(), var);
+                LocalVariable<?> variable = getLocalVariable(localState, expression, var);
                 readVariables.add(variable);
                 result = localState.getValue(variable, this.crawler::getNonDeterminedValue);
             } else {
@@ -270,7 +327,7 @@ public class SomeVariablesExpressionHandler<LocalStateT extends LocalState<Local
                                 this.crawler.getNonDeterminedValue());
                         return new SmallStepResult<>(List.of(currentState), false, false);
                     } else {
-                        GlobalVariable<?, ?> variable = new GlobalVariable<>(scope.get(), var);
+                        GlobalVariable<?, ?> variable = getGlobalVariable(expression, scope.get(), var);
                         readVariables.add(variable);
                         result = currentState.globalState().getVariableValues().getOrDefault(variable,
                                 this.crawler.getNonDeterminedValue());
@@ -280,7 +337,7 @@ public class SomeVariablesExpressionHandler<LocalStateT extends LocalState<Local
         } else {
             // see above regarding global/local
             if (!global) {
-                result = this.crawler.getDeterminedValue(new LocalVariable<>(localState.getStackTrace(), var));
+                result = this.crawler.getDeterminedValue(getLocalVariable(localState, expression, var));
             } else {
                 ValueT scope = getVariableQualifier(currentState, localState, expression);
                 if (!scope.isDetermined()) {
@@ -288,7 +345,7 @@ public class SomeVariablesExpressionHandler<LocalStateT extends LocalState<Local
                             this.crawler.getNonDeterminedValue());
                     return new SmallStepResult<>(List.of(currentState), false, false);
                 } else {
-                    result = this.crawler.getDeterminedValue(new GlobalVariable<>(scope.get(), var));
+                    result = this.crawler.getDeterminedValue(getGlobalVariable(expression, scope.get(), var));
                 }
             }
         }
@@ -314,7 +371,7 @@ public class SomeVariablesExpressionHandler<LocalStateT extends LocalState<Local
             ValueT scopeVal = this.crawler.getValueOfExpression(currentState, localState, 1, 0);
             return scopeVal;
         } else {
-            return localState.getTopOfStack().getThisValue();
+            return localState.getTopOfStackReadOnly().getThisValue();
         }
     }
 
@@ -695,6 +752,36 @@ public class SomeVariablesExpressionHandler<LocalStateT extends LocalState<Local
         return null;
     }
 
+    /**
+     * See
+     * {@link SomeVariablesChannelIntrinsics#handleFunctionCall(TransitionResult, LocalState, FunctionCallExpression, int)}.
+     *
+     * @param currentState the current state
+     * @param localState the local part of the current state
+     * @param expression the function call expression
+     * @param comingFrom from where the evaluation is reaching the expression
+     * @return the result of executing the function, or null if it must be interpreted
+     */
+    protected SmallStepResult<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, InfoT, TransitionResultT> handleIntrinsicFunctionCall(
+            TransitionResultT currentState, LocalStateT localState, FunctionCallExpression expression,
+            int comingFrom) {
+        return this.channelIntrinsics.handleFunctionCall(currentState, localState, expression, comingFrom);
+    }
+
+    /**
+     * See
+     * {@link SomeVariablesChannelIntrinsics#handleUpdate(WrappedSCClassInstance, TransitionResult, LocalState)}.
+     *
+     * @param channel the channel to be updated
+     * @param currentState the state before the update, with an unlocked resulting state
+     * @param localState the local part of that state
+     * @return the transitions resulting from the update, or null if it must be interpreted
+     */
+    protected List<TransitionResultT> handleIntrinsicUpdate(WrappedSCClassInstance channel,
+            TransitionResultT currentState, LocalStateT localState) {
+        return this.channelIntrinsics.handleUpdate(channel, currentState, localState);
+    }
+
     /**
      * Called when a function has been called (i.e. entered), right before the SmallStepResult is
      * created. Not called when entering special case functions (wait, notify, request_update).
@@ -707,7 +794,8 @@ public class SomeVariablesExpressionHandler<LocalStateT extends LocalState<Local
      */
     public void functionCalled(FunctionCallExpression expression, TransitionResultT currentState,
             LocalStateT localState) {
-        EvaluationContext<ValueT> callingContext = localState.getExecutionStack().get(localState.getExecutionStack().size() - 2);
+        List<EvaluationContext<ValueT>> executionStack = localState.getExecutionStackReadOnly();
+        EvaluationContext<ValueT> callingContext = executionStack.get(executionStack.size() - 2);
         List<WrappedSCFunction> stackTrace = localState.getStackTrace();
 
         AccessedVariablesInformation writtenVariables = new AccessedVariablesInformation();
@@ -739,8 +827,7 @@ public class SomeVariablesExpressionHandler<LocalStateT extends LocalState<Local
      */
     protected void functionReturned(FunctionCallExpression expression, TransitionResultT currentState,
             LocalStateT localState) {
-        List<WrappedSCFunction> stackTrace = new ArrayList<>(localState.getStackTrace());
-        stackTrace.add(wrap(expression.getFunction()));
+        List<WrappedSCFunction> stackTrace = localState.getStackTrace().enter(wrap(expression.getFunction()));
 
         for (SCParameter param : expression.getFunction().getParameters()) {
             LocalVariable<SCVariable> var = new LocalVariable<SCVariable>(stackTrace, param.getVar());
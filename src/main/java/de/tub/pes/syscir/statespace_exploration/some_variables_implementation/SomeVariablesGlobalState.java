@@ -1,14 +1,18 @@
 package de.tub.pes.syscir.statespace_exploration.some_variables_implementation;
 
 import de.tub.pes.syscir.statespace_exploration.AbstractedValue;
+import de.tub.pes.syscir.statespace_exploration.AccessRecorder;
 import de.tub.pes.syscir.statespace_exploration.EventBlocker.Event;
+import de.tub.pes.syscir.statespace_exploration.Fingerprintable;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.GlobalVariable;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.SlotVariableMap;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.VariableSymbolTable;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.VariableHolder;
 import de.tub.pes.syscir.statespace_exploration.GlobalState;
+import de.tub.pes.syscir.statespace_exploration.PersistentHashMap;
 import de.tub.pes.syscir.statespace_exploration.TimedBlocker;
 import de.tub.pes.syscir.util.WrappedSCClassInstance;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -39,7 +43,8 @@ implements VariableHolder<GlobalVariable<?, ?>, ValueT> {
      *        values are not allowed)
      * @param requestedUpdates set of ports for which updates have been requested
      * @param simulationStopped whether or not sc_stop() has been called
-     * @param variableValues the values of all stored global variables
+     * @param variableValues the values of all stored global variables (preferably a
+     *        {@link SlotVariableMap}, which its copies will keep using)
      */
     public SomeVariablesGlobalState(Map<Event, TimedBlocker> eventStates, Set<WrappedSCClassInstance> requestedUpdates,
             boolean simulationStopped, Map<GlobalVariable<?, ?>, ValueT> variableValues) {
@@ -56,17 +61,48 @@ implements VariableHolder<GlobalVariable<?, ?>, ValueT> {
     public SomeVariablesGlobalState(SomeVariablesGlobalState<ValueT> copyOf) {
         super(copyOf);
 
-        this.variableValues = new LinkedHashMap<>(copyOf.variableValues);
+        this.variableValues = copyVariableMap(copyOf.variableValues);
+    }
+
+    private static <V> Map<GlobalVariable<?, ?>, V> copyVariableMap(Map<GlobalVariable<?, ?>, V> copyOf) {
+        if (copyOf instanceof SlotVariableMap<GlobalVariable<?, ?>, V> slotMap) {
+            return new SlotVariableMap<>(slotMap);
+        }
+        return new PersistentHashMap<>(copyOf);
+    }
+
+    /**
+     * Returns a new, empty and modifiable map of the same kind as the one storing the variable values
+     * of this state, e.g. to construct a modified version of this state.
+     *
+     * @return empty map for global variable values
+     */
+    Map<GlobalVariable<?, ?>, ValueT> createVariableMap() {
+        if (this.variableValues instanceof SlotVariableMap<GlobalVariable<?, ?>, ValueT> slotMap) {
+            return new SlotVariableMap<>(slotMap.getSymbols());
+        }
+        return new PersistentHashMap<>();
+    }
+
+    /**
+     * Returns the symbol table assigning slots to the variables of this state, or null if the variable
+     * values are not stored by slot.
+     *
+     * @return symbol table or null
+     */
+    public VariableSymbolTable getVariableSymbols() {
+        return this.variableValues instanceof SlotVariableMap<?, ?> slotMap ? slotMap.getSymbols() : null;
     }
 
     @Override
     public Map<GlobalVariable<?, ?>, ValueT> getVariableValues() {
-        return Collections.unmodifiableMap(this.variableValues);
+        return AccessRecorder.recordingView(Collections.unmodifiableMap(this.variableValues));
     }
 
     @Override
     public void setVariableValue(GlobalVariable<?, ?> variable, ValueT value) {
         requireNotLocked();
+        AccessRecorder.recordVariableWrite(variable);
         resetHashCode();
         this.variableValues.put(variable, value);
     }
@@ -74,6 +110,7 @@ implements VariableHolder<GlobalVariable<?, ?>, ValueT> {
     @Override
     public void deleteVariableValue(GlobalVariable<?, ?> variable) {
         requireNotLocked();
+        AccessRecorder.recordVariableWrite(variable);
         resetHashCode();
         this.variableValues.remove(variable);
     }
@@ -90,6 +127,11 @@ implements VariableHolder<GlobalVariable<?, ?>, ValueT> {
         return result;
     }
 
+    @Override
+    protected long fingerprintInternal() {
+        return Fingerprintable.combine(super.fingerprintInternal(), Fingerprintable.of(this.variableValues));
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other == this) {
@@ -201,6 +201,18 @@ BaseProcess<SomeVariablesProcess<ValueT, InfoT>, SomeVariablesGlobalState<ValueT
         return this.expressionHandler.handleSpecialExpression(currentState, localState, expression, comingFrom);
     }
 
+    @Override
+    public SmallStepResult<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, InfoT, ProcessTransitionResult<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, InfoT, SomeVariablesProcess<ValueT, InfoT>>> handleSpecialCaseFunctionCall(
+            ProcessTransitionResult<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, InfoT, SomeVariablesProcess<ValueT, InfoT>> currentState,
+            SomeVariablesProcessState<ValueT> localState, FunctionCallExpression expression, int comingFrom) {
+        SmallStepResult<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, InfoT, ProcessTransitionResult<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, InfoT, SomeVariablesProcess<ValueT, InfoT>>> result =
+                super.handleSpecialCaseFunctionCall(currentState, localState, expression, comingFrom);
+        if (result != null) {
+            return result;
+        }
+        return this.expressionHandler.handleIntrinsicFunctionCall(currentState, localState, expression, comingFrom);
+    }
+
     @Override
     public ValueT aggregateExpressionValue(
             ProcessTransitionResult<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, InfoT, SomeVariablesProcess<ValueT, InfoT>> currentState,
@@ -2,12 +2,15 @@ package de.tub.pes.syscir.statespace_exploration.some_variables_implementation;
 
 import de.tub.pes.syscir.statespace_exploration.AbstractedValue;
 import de.tub.pes.syscir.statespace_exploration.EvaluationContext;
+import de.tub.pes.syscir.statespace_exploration.Fingerprintable;
+import de.tub.pes.syscir.statespace_exploration.PersistentHashMap;
 import de.tub.pes.syscir.statespace_exploration.ProcessBlocker;
 import de.tub.pes.syscir.statespace_exploration.ProcessState;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.LocalVariable;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.SlotVariableMap;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.VariableHolder;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.VariableSymbolTable;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -35,7 +38,8 @@ extends ProcessState<SomeVariablesProcessState<ValueT>, ValueT> implements Varia
      * @param waitingFor what this process is waiting for (null means it's ready to be scheduled)
      * @param executionStack where in the program this process is currently waiting (the last element in
      *        the list is at the top of the execution stack)
-     * @param variableValues the values of all stored global variables
+     * @param variableValues the values of all stored local variables (preferably a
+     *        {@link SlotVariableMap}, which its copies will keep using)
      */
     public SomeVariablesProcessState(ProcessBlocker waitingFor, List<EvaluationContext<ValueT>> executionStack,
             Map<LocalVariable<?>, ValueT> variableValues) {
@@ -57,7 +61,26 @@ extends ProcessState<SomeVariablesProcessState<ValueT>, ValueT> implements Varia
      *        the list is at the top of the execution stack)
      */
     public SomeVariablesProcessState(ProcessBlocker waitingFor, List<EvaluationContext<ValueT>> executionStack) {
-        this(waitingFor, executionStack, new LinkedHashMap<>());
+        this(waitingFor, executionStack, new PersistentHashMap<>());
+    }
+
+    /**
+     * Constructs a new, mutable SomeVariablesProcessState waiting for the given {@link ProcessBlocker}
+     * at the given execution stack. No variables are initially stored, and variables stored later are
+     * kept in a {@link SlotVariableMap} using the given symbol table.
+     * <p>
+     * The parameters are stored in the newly created object as is, without being copied. The lists must
+     * be modifiable. Care must be taken not to modify them externally, especially after this state has
+     * been locked.
+     * 
+     * @param waitingFor what this process is waiting for (null means it's ready to be scheduled)
+     * @param executionStack where in the program this process is currently waiting (the last element in
+     *        the list is at the top of the execution stack)
+     * @param symbols the symbol table assigning slots to local variables
+     */
+    public SomeVariablesProcessState(ProcessBlocker waitingFor, List<EvaluationContext<ValueT>> executionStack,
+            VariableSymbolTable symbols) {
+        this(waitingFor, executionStack, new SlotVariableMap<>(symbols));
     }
 
     /**
@@ -68,7 +91,27 @@ extends ProcessState<SomeVariablesProcessState<ValueT>, ValueT> implements Varia
     public SomeVariablesProcessState(SomeVariablesProcessState<ValueT> copyOf) {
         super(copyOf);
 
-        this.variableValues = new LinkedHashMap<>(copyOf.variableValues);
+        this.variableValues = copyVariableMap(copyOf.variableValues);
+    }
+
+    private static <V> Map<LocalVariable<?>, V> copyVariableMap(Map<LocalVariable<?>, V> copyOf) {
+        if (copyOf instanceof SlotVariableMap<LocalVariable<?>, V> slotMap) {
+            return new SlotVariableMap<>(slotMap);
+        }
+        return new PersistentHashMap<>(copyOf);
+    }
+
+    /**
+     * Returns a new, empty and modifiable map of the same kind as the one storing the variable values
+     * of this state, e.g. to construct a modified version of this state.
+     *
+     * @return empty map for local variable values
+     */
+    Map<LocalVariable<?>, ValueT> createVariableMap() {
+        if (this.variableValues instanceof SlotVariableMap<LocalVariable<?>, ValueT> slotMap) {
+            return new SlotVariableMap<>(slotMap.getSymbols());
+        }
+        return new PersistentHashMap<>();
     }
 
     @Override
@@ -102,6 +145,11 @@ extends ProcessState<SomeVariablesProcessState<ValueT>, ValueT> implements Varia
         return result;
     }
 
+    @Override
+    protected long fingerprintInternal() {
+        return Fingerprintable.combine(super.fingerprintInternal(), Fingerprintable.of(this.variableValues));
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other == this) {
@@ -150,6 +150,27 @@ BaseScheduler<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT
         return this.expressionHandler.handleSpecialExpression(currentState, localState, expression, comingFrom);
     }
 
+    @Override
+    public SmallStepResult<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, InfoT, SchedulerTransitionResult<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, SomeVariablesSchedulerState<ValueT>, InfoT, SomeVariablesProcess<ValueT, InfoT>>> handleSpecialCaseFunctionCall(
+            SchedulerTransitionResult<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, SomeVariablesSchedulerState<ValueT>, InfoT, SomeVariablesProcess<ValueT, InfoT>> currentState,
+            SomeVariablesSchedulerState<ValueT> localState, FunctionCallExpression expression, int comingFrom) {
+        SmallStepResult<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, InfoT, SchedulerTransitionResult<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, SomeVariablesSchedulerState<ValueT>, InfoT, SomeVariablesProcess<ValueT, InfoT>>> result =
+                super.handleSpecialCaseFunctionCall(currentState, localState, expression, comingFrom);
+        if (result != null) {
+            return result;
+        }
+        return this.expressionHandler.handleIntrinsicFunctionCall(currentState, localState, expression, comingFrom);
+    }
+
+    @Override
+    protected List<SchedulerTransitionResult<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, SomeVariablesSchedulerState<ValueT>, InfoT, SomeVariablesProcess<ValueT, InfoT>>> handleIntrinsicUpdate(
+            WrappedSCClassInstance port,
+            SchedulerTransitionResult<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, SomeVariablesSchedulerState<ValueT>, InfoT, SomeVariablesProcess<ValueT, InfoT>> currentState) {
+        return this.expressionHandler.handleIntrinsicUpdate(port,
+                currentState.replaceResultingState(currentState.resultingState().unlockedVersion()),
+                currentState.schedulerState());
+    }
+
     @Override
     public ValueT aggregateExpressionValue(
             SchedulerTransitionResult<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, SomeVariablesSchedulerState<ValueT>, InfoT, SomeVariablesProcess<ValueT, InfoT>> currentState,
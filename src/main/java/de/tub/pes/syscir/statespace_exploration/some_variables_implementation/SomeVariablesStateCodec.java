@@ -0,0 +1,564 @@
+package de.tub.pes.syscir.statespace_exploration.some_variables_implementation;
+
+import de.tub.pes.syscir.statespace_exploration.AbstractedValue;
+import de.tub.pes.syscir.statespace_exploration.AnalyzedProcess;
+import de.tub.pes.syscir.statespace_exploration.ConsideredState;
+import de.tub.pes.syscir.statespace_exploration.DeltaTimeBlocker;
+import de.tub.pes.syscir.statespace_exploration.EvaluationContext;
+import de.tub.pes.syscir.statespace_exploration.EventBlocker;
+import de.tub.pes.syscir.statespace_exploration.EventBlocker.Event;
+import de.tub.pes.syscir.statespace_exploration.PersistentHashMap;
+import de.tub.pes.syscir.statespace_exploration.PersistentHashSet;
+import de.tub.pes.syscir.statespace_exploration.ProcessBlocker;
+import de.tub.pes.syscir.statespace_exploration.ProcessTerminatedBlocker;
+import de.tub.pes.syscir.statespace_exploration.RealTimedBlocker;
+import de.tub.pes.syscir.statespace_exploration.StateCodec;
+import de.tub.pes.syscir.statespace_exploration.TimedBlocker;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.BinaryAbstractedValue;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.GlobalVariable;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.LocalVariable;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.SlotVariableMap;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.Variable;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.VariableSymbolTable;
+import de.tub.pes.syscir.util.WrappedSCClassInstance;
+import de.tub.pes.syscir.util.WrappedSCFunction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Canonical binary encoding of locked {@link ConsideredState}s of the SomeVariables implementation.
+ *
+ * Two states are equal if and only if their encodings by the same codec are equal, such that
+ * equality and hashing can be performed on contiguous byte arrays and encoded states can be stored
+ * off-heap. Every encoding can be decoded back into an equal, locked state by the same codec
+ * ({@link #decode(byte[])}).
+ * <p>
+ * Variables are encoded by their slots in a {@link VariableSymbolTable}, in the order of their slots.
+ * Ints, longs, booleans and unknown values of {@link BinaryAbstractedValue}s, blockers and strings
+ * are encoded by their contents. Objects of the model occurring in a state (class instances,
+ * processes, events, functions, and other values) are encoded by their ids in the same symbol table
+ * (see {@link VariableSymbolTable#getObjectId(Object)}), which also fix the order of unordered
+ * components (event states, requested updates and processes). The codec itself keeps no state, so
+ * all codecs using the same table produce the same encodings. If the codec is constructed from the
+ * initial state of an exploration ({@link #SomeVariablesStateCodec(ConsideredState)}), the ids of its
+ * processes and events are assigned in a deterministic order, such that encodings of the same model
+ * are equal across virtual machines. They can nevertheless only be decoded into the objects of the
+ * model analyzed by this virtual machine.
+ * <p>
+ * All integers are written as variable-length quantities, so small ids, indices and slot distances
+ * take a single byte. This class is thread-safe.
+ * <p>
+ * Implements {@link StateCodec}, so it can be used to spill states to disk (see
+ * {@link de.tub.pes.syscir.statespace_exploration.SpillingVisitedStates}).
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <ValueT> the type of abstracted value used in the analysis
+ * @param <ProcessT> the type of processes
+ */
+public class SomeVariablesStateCodec<ValueT extends AbstractedValue<ValueT, ?, ?>, ProcessT extends AnalyzedProcess<ProcessT, SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, ?>>
+implements StateCodec<ConsideredState<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, ProcessT>> {
+
+    private static final int VALUE_NULL = 0;
+    private static final int VALUE_UNKNOWN = 1;
+    private static final int VALUE_FALSE = 2;
+    private static final int VALUE_TRUE = 3;
+    private static final int VALUE_INT = 4;
+    private static final int VALUE_LONG = 5;
+    private static final int VALUE_DETERMINED_OBJECT = 6;
+    private static final int VALUE_OBJECT = 7;
+
+    private static final int OBJECT_NULL = 0;
+    private static final int OBJECT_SYMBOL = 1;
+    private static final int OBJECT_STRING = 2;
+    private static final int OBJECT_DELTA_TIME = 3;
+    private static final int OBJECT_REAL_TIME = 4;
+    private static final int OBJECT_TERMINATED = 5;
+    private static final int OBJECT_EVENTS = 6;
+
+    private static final class Writer {
+
+        private byte[] buffer = new byte[256];
+        private int size;
+
+        private void writeByte(int value) {
+            if (this.size == this.buffer.length) {
+                this.buffer = Arrays.copyOf(this.buffer, 2 * this.buffer.length);
+            }
+            this.buffer[this.size++] = (byte) value;
+        }
+
+        private void writeUnsigned(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        private void writeSigned(long value) {
+            writeUnsigned((value << 1) ^ (value >> 63));
+        }
+
+        private byte[] toArray() {
+            return Arrays.copyOf(this.buffer, this.size);
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] buffer;
+        private int position;
+
+        private Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        private int readByte() {
+            if (this.position >= this.buffer.length) {
+                throw new IllegalArgumentException("truncated encoding");
+            }
+            return this.buffer[this.position++] & 0xFF;
+        }
+
+        private long readUnsigned() {
+            long result = 0;
+            for (int shift = 0;; shift += 7) {
+                int b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+        }
+
+        private long readSigned() {
+            long raw = readUnsigned();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        private int readInt() {
+            return (int) readUnsigned();
+        }
+    }
+
+    private final VariableSymbolTable symbols;
+
+    /**
+     * Constructs a new codec using the symbol table of the given initial state (or a new one, if its
+     * variable values are not backed by a table).
+     *
+     * The processes of the state and the objects stored in its global variables (such as events) are
+     * registered with the table in the order of the processes and of the slots of the variables. As
+     * long as the initial state is constructed deterministically, encodings are thus independent of the
+     * virtual machine.
+     *
+     * @param initialState the initial state of the exploration
+     */
+    public SomeVariablesStateCodec(
+            ConsideredState<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, ProcessT> initialState) {
+        this(initialState.getGlobalStateReadOnly().getVariableSymbols() == null ? new VariableSymbolTable()
+                : initialState.getGlobalStateReadOnly().getVariableSymbols());
+
+        for (ProcessT process : initialState.getProcessStatesReadOnly().keySet()) {
+            this.symbols.getObjectId(process);
+        }
+        Map<GlobalVariable<?, ?>, ValueT> globalVariables = new SlotVariableMap<>(this.symbols);
+        globalVariables.putAll(initialState.getGlobalStateReadOnly().getVariableValues());
+        for (ValueT value : globalVariables.values()) {
+            if (value instanceof BinaryAbstractedValue<?> binary && binary.isDetermined()) {
+                // assigns ids to the objects of the value in the order in which encoding it would
+                writeObject(new Writer(), binary.get());
+            }
+        }
+    }
+
+    /**
+     * Constructs a new codec using the given symbol table.
+     *
+     * Objects of the model are assigned ids on first encounter, so the encodings only remain comparable
+     * across virtual machines if the states are encoded in a deterministic order.
+     *
+     * @param symbols the symbol table assigning slots to variables and ids to other objects
+     */
+    public SomeVariablesStateCodec(VariableSymbolTable symbols) {
+        this.symbols = symbols;
+    }
+
+    /**
+     * Returns the symbol table assigning slots and ids used by this codec.
+     *
+     * @return the symbol table
+     */
+    public VariableSymbolTable getSymbols() {
+        return this.symbols;
+    }
+
+    private int objectId(Object object) {
+        return this.symbols.getObjectId(object);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T object(int id) {
+        try {
+            return (T) this.symbols.getObject(id);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("unknown id " + id, e);
+        }
+    }
+
+    /**
+     * Returns the canonical encoding of the given state.
+     *
+     * @param state a locked state
+     * @return encoding of the state
+     * @throws IllegalArgumentException if the state is not locked
+     */
+    @Override
+    public byte[] encode(
+            ConsideredState<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, ProcessT> state) {
+        if (!state.isLocked()) {
+            throw new IllegalArgumentException("only locked states can be encoded");
+        }
+
+        Writer out = new Writer();
+        SomeVariablesGlobalState<ValueT> globalState = state.getGlobalStateReadOnly();
+
+        out.writeByte(globalState.isSimulationStopped() ? 1 : 0);
+
+        Map<Event, TimedBlocker> eventStates = globalState.getEventStates();
+        List<TimedBlocker> blockers = new ArrayList<>(eventStates.values());
+        long[] pairs = new long[eventStates.size()];
+        int i = 0;
+        for (Event event : eventStates.keySet()) {
+            pairs[i] = ((long) objectId(event) << 32) | i;
+            i++;
+        }
+        Arrays.sort(pairs);
+        out.writeUnsigned(pairs.length);
+        int previousKey = -1;
+        for (long pair : pairs) {
+            int key = (int) (pair >>> 32);
+            out.writeUnsigned(key - previousKey - 1);
+            writeObject(out, blockers.get((int) pair));
+            previousKey = key;
+        }
+
+        Set<WrappedSCClassInstance> requestedUpdates = globalState.getRequestedUpdates();
+        int[] ids = new int[requestedUpdates.size()];
+        i = 0;
+        for (WrappedSCClassInstance instance : requestedUpdates) {
+            ids[i++] = objectId(instance);
+        }
+        Arrays.sort(ids);
+        writeAscending(out, ids);
+
+        writeVariables(out, globalState.getVariableValues());
+
+        Map<ProcessT, SomeVariablesProcessState<ValueT>> processStates = state.getProcessStatesReadOnly();
+        List<Entry<ProcessT, SomeVariablesProcessState<ValueT>>> processEntries =
+                new ArrayList<>(processStates.entrySet());
+        int[] processIds = new int[processEntries.size()];
+        Integer[] order = new Integer[processEntries.size()];
+        for (i = 0; i < processIds.length; i++) {
+            processIds[i] = objectId(processEntries.get(i).getKey());
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(processIds[a], processIds[b]));
+
+        out.writeUnsigned(processEntries.size());
+        for (int index : order) {
+            out.writeUnsigned(processIds[index]);
+            writeProcessState(out, processEntries.get(index).getValue());
+        }
+
+        return out.toArray();
+    }
+
+    private static void writeAscending(Writer out, int[] values) {
+        out.writeUnsigned(values.length);
+        int previous = -1;
+        for (int value : values) {
+            out.writeUnsigned(value - previous - 1);
+            previous = value;
+        }
+    }
+
+    private void writeProcessState(Writer out, SomeVariablesProcessState<ValueT> processState) {
+        writeObject(out, processState.getWaitingFor());
+
+        List<EvaluationContext<ValueT>> executionStack = processState.getExecutionStackReadOnly();
+        out.writeUnsigned(executionStack.size());
+        for (EvaluationContext<ValueT> context : executionStack) {
+            out.writeUnsigned(objectId(context.getFunction()));
+            List<Integer> indices = context.getExpressionIndices();
+            out.writeUnsigned(indices.size());
+            for (int index : indices) {
+                out.writeSigned(index);
+            }
+            out.writeSigned(context.getComingFrom());
+            writeValue(out, context.getThisValue());
+            List<List<ValueT>> expressionValues = context.getExpressionValues();
+            out.writeUnsigned(expressionValues.size());
+            for (List<ValueT> values : expressionValues) {
+                out.writeUnsigned(values.size());
+                for (ValueT value : values) {
+                    writeValue(out, value);
+                }
+            }
+        }
+
+        writeVariables(out, processState.getVariableValues());
+    }
+
+    private void writeVariables(Writer out, Map<? extends Variable<?, ?>, ValueT> variableValues) {
+        int[] slots = new int[variableValues.size()];
+        List<ValueT> values = new ArrayList<>(slots.length);
+        boolean ascending = true;
+        int i = 0;
+        for (Entry<? extends Variable<?, ?>, ValueT> entry : variableValues.entrySet()) {
+            slots[i] = this.symbols.getSlot(entry.getKey());
+            ascending &= i == 0 || slots[i - 1] < slots[i];
+            values.add(entry.getValue());
+            i++;
+        }
+
+        // maps not backed by the symbol table iterate in some other order
+        Integer[] order = new Integer[slots.length];
+        for (i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        if (!ascending) {
+            Arrays.sort(order, (a, b) -> Integer.compare(slots[a], slots[b]));
+        }
+
+        out.writeUnsigned(slots.length);
+        int previousSlot = -1;
+        for (int index : order) {
+            out.writeUnsigned(slots[index] - previousSlot - 1);
+            writeValue(out, values.get(index));
+            previousSlot = slots[index];
+        }
+    }
+
+    private void writeValue(Writer out, ValueT value) {
+        if (value == null) {
+            out.writeByte(VALUE_NULL);
+        } else if (value instanceof BinaryAbstractedValue<?> binary) {
+            if (!binary.isDetermined()) {
+                out.writeByte(VALUE_UNKNOWN);
+            } else if (binary.get() instanceof Boolean b) {
+                out.writeByte(b ? VALUE_TRUE : VALUE_FALSE);
+            } else if (binary.get() instanceof Integer x) {
+                out.writeByte(VALUE_INT);
+                out.writeSigned(x);
+            } else if (binary.get() instanceof Long x) {
+                out.writeByte(VALUE_LONG);
+                out.writeSigned(x);
+            } else {
+                out.writeByte(VALUE_DETERMINED_OBJECT);
+                writeObject(out, binary.get());
+            }
+        } else {
+            out.writeByte(VALUE_OBJECT);
+            writeObject(out, value);
+        }
+    }
+
+    // blockers and strings are encoded by their contents, such that values computed during the
+    // exploration need not be registered with the symbol table
+    private void writeObject(Writer out, Object object) {
+        if (object == null) {
+            out.writeByte(OBJECT_NULL);
+        } else if (object instanceof String string) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            out.writeByte(OBJECT_STRING);
+            out.writeUnsigned(bytes.length);
+            for (byte b : bytes) {
+                out.writeByte(b);
+            }
+        } else if (object instanceof DeltaTimeBlocker) {
+            out.writeByte(OBJECT_DELTA_TIME);
+        } else if (object instanceof RealTimedBlocker blocker) {
+            out.writeByte(OBJECT_REAL_TIME);
+            out.writeUnsigned(blocker.getFemtoseconds());
+        } else if (object instanceof ProcessTerminatedBlocker) {
+            out.writeByte(OBJECT_TERMINATED);
+        } else if (object instanceof EventBlocker blocker) {
+            Set<Event> events = blocker.getEvents();
+            int[] ids = new int[events.size()];
+            int i = 0;
+            for (Event event : events) {
+                ids[i++] = objectId(event);
+            }
+            Arrays.sort(ids);
+            out.writeByte(OBJECT_EVENTS);
+            // the choice is irrelevant for equality unless there are several events
+            out.writeByte(blocker.isChoice() || ids.length <= 1 ? 1 : 0);
+            writeObject(out, blocker.getTimeout());
+            writeAscending(out, ids);
+        } else {
+            out.writeByte(OBJECT_SYMBOL);
+            out.writeUnsigned(objectId(object));
+        }
+    }
+
+    /**
+     * Reconstructs the state from its encoding by this codec.
+     *
+     * The result is locked and equal to the encoded state.
+     *
+     * @param encoding the encoding of some state
+     * @return the decoded state
+     * @throws IllegalArgumentException if the encoding is malformed or was not produced by this codec
+     */
+    @Override
+    public ConsideredState<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, ProcessT> decode(
+            byte[] encoding) {
+        Reader in = new Reader(encoding);
+
+        boolean simulationStopped = in.readByte() != 0;
+
+        Map<Event, TimedBlocker> eventStates = new PersistentHashMap<>();
+        int size = in.readInt();
+        int key = -1;
+        for (int i = 0; i < size; i++) {
+            key += in.readInt() + 1;
+            eventStates.put(object(key), readObject(in));
+        }
+
+        Set<WrappedSCClassInstance> requestedUpdates = new PersistentHashSet<>();
+        size = in.readInt();
+        key = -1;
+        for (int i = 0; i < size; i++) {
+            key += in.readInt() + 1;
+            requestedUpdates.add(object(key));
+        }
+
+        Map<GlobalVariable<?, ?>, ValueT> globalVariables = new SlotVariableMap<>(this.symbols);
+        readVariables(in, globalVariables);
+
+        SomeVariablesGlobalState<ValueT> globalState =
+                new SomeVariablesGlobalState<>(eventStates, requestedUpdates, simulationStopped, globalVariables);
+        globalState.setSimulationStopped(simulationStopped);
+
+        Map<ProcessT, SomeVariablesProcessState<ValueT>> processStates = new LinkedHashMap<>();
+        size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            ProcessT process = object(in.readInt());
+            processStates.put(process, readProcessState(in));
+        }
+
+        if (in.position != encoding.length) {
+            throw new IllegalArgumentException("trailing bytes in encoding");
+        }
+
+        ConsideredState<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, ProcessT> result =
+                new ConsideredState<>(globalState, processStates);
+        result.lock();
+        return result;
+    }
+
+    private SomeVariablesProcessState<ValueT> readProcessState(Reader in) {
+        ProcessBlocker waitingFor = readObject(in);
+
+        int depth = in.readInt();
+        List<EvaluationContext<ValueT>> executionStack = new ArrayList<>(depth);
+        for (int i = 0; i < depth; i++) {
+            WrappedSCFunction function = object(in.readInt());
+            int numIndices = in.readInt();
+            List<Integer> indices = new ArrayList<>(numIndices);
+            for (int j = 0; j < numIndices; j++) {
+                indices.add((int) in.readSigned());
+            }
+            int comingFrom = (int) in.readSigned();
+            ValueT thisValue = readValue(in);
+            int numLevels = in.readInt();
+            List<List<ValueT>> expressionValues = new ArrayList<>(numLevels);
+            for (int j = 0; j < numLevels; j++) {
+                int numValues = in.readInt();
+                List<ValueT> values = new ArrayList<>(numValues);
+                for (int k = 0; k < numValues; k++) {
+                    values.add(readValue(in));
+                }
+                expressionValues.add(values);
+            }
+            executionStack.add(new EvaluationContext<>(function, indices, comingFrom, expressionValues, thisValue));
+        }
+
+        SomeVariablesProcessState<ValueT> result =
+                new SomeVariablesProcessState<>(waitingFor, executionStack, this.symbols);
+        Map<LocalVariable<?>, ValueT> localVariables = new SlotVariableMap<>(this.symbols);
+        readVariables(in, localVariables);
+        for (Entry<LocalVariable<?>, ValueT> entry : localVariables.entrySet()) {
+            result.setVariableValue(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K extends Variable<?, ?>> void readVariables(Reader in, Map<K, ValueT> target) {
+        int size = in.readInt();
+        int slot = -1;
+        for (int i = 0; i < size; i++) {
+            slot += in.readInt() + 1;
+            target.put((K) this.symbols.getVariable(slot), readValue(in));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ValueT readValue(Reader in) {
+        int tag = in.readByte();
+        return switch (tag) {
+            case VALUE_NULL -> null;
+            case VALUE_UNKNOWN -> (ValueT) BinaryAbstractedValue.empty();
+            case VALUE_FALSE -> (ValueT) BinaryAbstractedValue.of(false);
+            case VALUE_TRUE -> (ValueT) BinaryAbstractedValue.of(true);
+            case VALUE_INT -> (ValueT) BinaryAbstractedValue.of((int) in.readSigned());
+            case VALUE_LONG -> (ValueT) BinaryAbstractedValue.of(in.readSigned());
+            case VALUE_DETERMINED_OBJECT -> (ValueT) BinaryAbstractedValue.of(readObject(in));
+            case VALUE_OBJECT -> readObject(in);
+            default -> throw new IllegalArgumentException("unknown value tag " + tag);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T readObject(Reader in) {
+        int tag = in.readByte();
+        return (T) switch (tag) {
+            case OBJECT_NULL -> null;
+            case OBJECT_SYMBOL -> object(in.readInt());
+            case OBJECT_STRING -> {
+                byte[] bytes = new byte[in.readInt()];
+                for (int i = 0; i < bytes.length; i++) {
+                    bytes[i] = (byte) in.readByte();
+                }
+                yield new String(bytes, StandardCharsets.UTF_8);
+            }
+            case OBJECT_DELTA_TIME -> DeltaTimeBlocker.INSTANCE;
+            case OBJECT_REAL_TIME -> RealTimedBlocker.ofFemtoseconds(in.readUnsigned());
+            case OBJECT_TERMINATED -> ProcessTerminatedBlocker.INSTANCE;
+            case OBJECT_EVENTS -> {
+                boolean choice = in.readByte() != 0;
+                TimedBlocker timeout = readObject(in);
+                Set<Event> events = new LinkedHashSet<>();
+                int size = in.readInt();
+                int id = -1;
+                for (int i = 0; i < size; i++) {
+                    id += in.readInt() + 1;
+                    events.add(object(id));
+                }
+                yield new EventBlocker(events, choice, timeout);
+            }
+            default -> throw new IllegalArgumentException("unknown object tag " + tag);
+        };
+    }
+
+}
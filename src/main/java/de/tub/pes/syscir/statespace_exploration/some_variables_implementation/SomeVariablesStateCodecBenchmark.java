@@ -0,0 +1,209 @@
+package de.tub.pes.syscir.statespace_exploration.some_variables_implementation;
+
+import de.tub.pes.syscir.statespace_exploration.AbstractedValue;
+import de.tub.pes.syscir.statespace_exploration.AnalyzedProcess;
+import de.tub.pes.syscir.statespace_exploration.ConsideredState;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compares equality and hashing of states on their object graphs to equality and hashing on their
+ * encodings by a {@link SomeVariablesStateCodec}.
+ *
+ * {@link #run(SomeVariablesStateCodec, Collection)} encodes all given states, checks that every
+ * encoding decodes to an equal state, and measures the time taken by the first invocation of hashCode
+ * and equals on the decoded states against {@link Arrays#hashCode(byte[])} and
+ * {@link Arrays#equals(byte[], byte[])} on copies of the encodings. To let the JIT compiler settle,
+ * this is first repeated {@value #WARMUP_RUNS} times without measuring, and then {@value #MEASURED_RUNS}
+ * times, of which the median of every time is reported.
+ * <p>
+ * The benchmark is run after the exploration of an example if the system property
+ * {@value #PROPERTY} is set to true.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <ValueT> the type of abstracted value used in the analysis
+ * @param <ProcessT> the type of processes
+ */
+public class SomeVariablesStateCodecBenchmark<ValueT extends AbstractedValue<ValueT, ?, ?>, ProcessT extends AnalyzedProcess<ProcessT, SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, ?>> {
+
+    /**
+     * Name of the system property enabling the benchmark.
+     */
+    public static final String PROPERTY = "syscir.codecBenchmark";
+
+    /**
+     * Number of unmeasured runs preceding the measured ones.
+     */
+    public static final int WARMUP_RUNS = 5;
+
+    /**
+     * Number of measured runs, of which the median times are reported.
+     */
+    public static final int MEASURED_RUNS = 11;
+
+    // indices of the measured times
+    private static final int ENCODING = 0;
+    private static final int DECODING = 1;
+    private static final int OBJECT_HASH = 2;
+    private static final int BYTE_HASH = 3;
+    private static final int OBJECT_EQUALS = 4;
+    private static final int BYTE_EQUALS = 5;
+    private static final int NUM_TIMES = 6;
+
+    /**
+     * Results of the benchmark. All times are medians of the measured runs, in microseconds.
+     */
+    public static record Result(int numStates, long numBytes, int numIds, long encodingTime, long decodingTime,
+            long objectHashTime, long byteHashTime, long objectEqualsTime, long byteEqualsTime) {
+
+        /**
+         * Prints these results, one per line.
+         *
+         * @param output the stream to print to
+         */
+        public void print(PrintStream output) {
+            output.println("Codec #states: " + this.numStates);
+            output.println("Codec avg. bytes per state: " + this.numBytes / Math.max(1.0, this.numStates));
+            output.println("Codec #ids: " + this.numIds);
+            output.println("Codec runs: " + MEASURED_RUNS + " after " + WARMUP_RUNS + " warmup runs, median times");
+            output.println("Codec encoding time: " + this.encodingTime + " us");
+            output.println("Codec decoding time: " + this.decodingTime + " us");
+            output.println("Object hashCode time: " + this.objectHashTime + " us");
+            output.println("Byte hashCode time: " + this.byteHashTime + " us");
+            output.println("Object equals time: " + this.objectEqualsTime + " us");
+            output.println("Byte equals time: " + this.byteEqualsTime + " us");
+        }
+    }
+
+    /**
+     * Returns whether the benchmark has been enabled by the system property {@value #PROPERTY}.
+     *
+     * @return whether the benchmark shall be run
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(PROPERTY);
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.round(nanos / 1000.0);
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * Runs the benchmark on the given locked states.
+     *
+     * The codec must use the same symbol table as the variable maps of the states, so that decoded
+     * states can be compared to the original ones slot by slot.
+     *
+     * @param codec the codec to benchmark, e.g. the one used by the exploration
+     * @param originalStates the states to encode, e.g. all states reached by an exploration
+     * @return the measured results
+     * @throws IllegalStateException if some state is not equal to its decoded encoding
+     */
+    public Result run(SomeVariablesStateCodec<ValueT, ProcessT> codec,
+            Collection<ConsideredState<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, ProcessT>> originalStates) {
+        List<ConsideredState<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, ProcessT>> states =
+                new ArrayList<>(originalStates);
+
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            runOnce(codec, states, new long[NUM_TIMES]);
+        }
+        long[][] times = new long[NUM_TIMES][MEASURED_RUNS];
+        long[] runTimes = new long[NUM_TIMES];
+        long numBytes = 0;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            numBytes = runOnce(codec, states, runTimes);
+            for (int j = 0; j < NUM_TIMES; j++) {
+                times[j][i] = runTimes[j];
+            }
+        }
+
+        return new Result(states.size(), numBytes, codec.getSymbols().getNumObjects(),
+                toMicros(median(times[ENCODING])), toMicros(median(times[DECODING])),
+                toMicros(median(times[OBJECT_HASH])), toMicros(median(times[BYTE_HASH])),
+                toMicros(median(times[OBJECT_EQUALS])), toMicros(median(times[BYTE_EQUALS])));
+    }
+
+    // performs one run, storing the measured times in nanoseconds, and returns the total size of the
+    // encodings
+    private long runOnce(SomeVariablesStateCodec<ValueT, ProcessT> codec,
+            List<ConsideredState<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, ProcessT>> states,
+            long[] times) {
+        List<byte[]> encodings = new ArrayList<>(states.size());
+        List<ConsideredState<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, ProcessT>> decoded =
+                new ArrayList<>(states.size());
+
+        long numBytes = 0;
+        long start = System.nanoTime();
+        for (ConsideredState<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, ProcessT> state : states) {
+            byte[] encoding = codec.encode(state);
+            encodings.add(encoding);
+            numBytes += encoding.length;
+        }
+        times[ENCODING] = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (byte[] encoding : encodings) {
+            decoded.add(codec.decode(encoding));
+        }
+        times[DECODING] = System.nanoTime() - start;
+
+        for (int i = 0; i < states.size(); i++) {
+            if (!Arrays.equals(codec.encode(decoded.get(i)), encodings.get(i))) {
+                throw new IllegalStateException("state codec does not round-trip " + states.get(i));
+            }
+        }
+
+        // decoded states and copies of the encodings have not been hashed or compared before
+        List<byte[]> copies = encodings.stream().map(byte[]::clone).toList();
+        int[] objectHashes = new int[states.size()];
+        int[] byteHashes = new int[states.size()];
+
+        start = System.nanoTime();
+        for (int i = 0; i < states.size(); i++) {
+            objectHashes[i] = decoded.get(i).hashCode();
+        }
+        times[OBJECT_HASH] = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < states.size(); i++) {
+            byteHashes[i] = Arrays.hashCode(copies.get(i));
+        }
+        times[BYTE_HASH] = System.nanoTime() - start;
+
+        int numObjectsEqual = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < states.size(); i++) {
+            numObjectsEqual += states.get(i).equals(decoded.get(i)) ? 1 : 0;
+        }
+        times[OBJECT_EQUALS] = System.nanoTime() - start;
+
+        int numBytesEqual = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < states.size(); i++) {
+            numBytesEqual += Arrays.equals(encodings.get(i), copies.get(i)) ? 1 : 0;
+        }
+        times[BYTE_EQUALS] = System.nanoTime() - start;
+
+        for (int i = 0; i < states.size(); i++) {
+            if (objectHashes[i] != states.get(i).hashCode() || byteHashes[i] != Arrays.hashCode(encodings.get(i))) {
+                throw new IllegalStateException("hashCode of decoded state differs from original " + states.get(i));
+            }
+        }
+        if (numObjectsEqual != states.size() || numBytesEqual != states.size()) {
+            throw new IllegalStateException("decoded states are not equal to the original states");
+        }
+
+        return numBytes;
+    }
+
+}
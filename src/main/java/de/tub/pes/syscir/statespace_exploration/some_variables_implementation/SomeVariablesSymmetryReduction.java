@@ -0,0 +1,516 @@
+package de.tub.pes.syscir.statespace_exploration.some_variables_implementation;
+
+import de.tub.pes.syscir.sc_model.SCConnectionInterface;
+import de.tub.pes.syscir.sc_model.SCPort;
+import de.tub.pes.syscir.sc_model.SCPortInstance;
+import de.tub.pes.syscir.sc_model.SCVariable;
+import de.tub.pes.syscir.sc_model.variables.SCClassInstance;
+import de.tub.pes.syscir.statespace_exploration.AbstractedValue;
+import de.tub.pes.syscir.statespace_exploration.ConsideredState;
+import de.tub.pes.syscir.statespace_exploration.EvaluationContext;
+import de.tub.pes.syscir.statespace_exploration.EventBlocker;
+import de.tub.pes.syscir.statespace_exploration.EventBlocker.Event;
+import de.tub.pes.syscir.statespace_exploration.PersistentHashMap;
+import de.tub.pes.syscir.statespace_exploration.PersistentHashSet;
+import de.tub.pes.syscir.statespace_exploration.ProcessBlocker;
+import de.tub.pes.syscir.statespace_exploration.TimedBlocker;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.ComposableTransitionInformation;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.GlobalVariable;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.LocalVariable;
+import de.tub.pes.syscir.util.WrappedSCClassInstance;
+import de.tub.pes.syscir.util.WrappedSCPortInstance;
+import de.tub.pes.syscir.util.WrappedSCProcess;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Symmetry reduction for explorations using {@link SomeVariablesGlobalState}s and
+ * {@link SomeVariablesProcessState}s.
+ *
+ * Many designs contain several instances of the same module that are bound to the same channels,
+ * e.g. multiple producers writing to one fifo. States that only differ by a permutation of such
+ * interchangeable instances (and their processes) behave equivalently. This class maps each state
+ * to a canonical representative under these permutations, such that only one state per equivalence
+ * class needs to be explored. It is meant to be used with a
+ * {@link de.tub.pes.syscir.statespace_exploration.CanonicalizingVisitedStates}.
+ * <p>
+ * Two module instances are considered interchangeable if they are instances of the same class and
+ * swapping them (i.e. their processes, events, ports and the variables owned by them) maps the
+ * initial state onto itself. This excludes, among others, instances bound to different channels or
+ * owning different sub-channels. The analyzed code itself is assumed not to distinguish instances in
+ * any other way (e.g. by their names).
+ * <p>
+ * The representative of a state is found heuristically by sorting the instances of every group of
+ * interchangeable instances by a signature of their local portion of the state. As the
+ * representative is always obtained by applying an actual permutation of interchangeable instances,
+ * states that are not equivalent are never mapped to the same representative. Equivalent states may
+ * however receive different representatives if the signatures of some instances coincide, which only
+ * weakens the reduction.
+ * <p>
+ * Only values that directly hold an instance, port or event are renamed. Instances referenced from
+ * within other values are not recognized.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <ValueT> the type of abstracted value used in the analysis
+ * @param <InfoT> the type of transition information used in the analysis
+ */
+public class SomeVariablesSymmetryReduction<ValueT extends AbstractedValue<ValueT, ?, ?>, InfoT extends ComposableTransitionInformation<InfoT>> {
+
+    // the member owning some object, and the role of that object for its member
+    private class Owned {
+
+        private final Member member;
+        private final Object role;
+
+        private Owned(Member member, Object role) {
+            this.member = member;
+            this.role = role;
+        }
+
+        private Member member() {
+            return this.member;
+        }
+
+        private Object role() {
+            return this.role;
+        }
+
+    }
+
+    private class Member {
+
+        private final int index;
+        private final WrappedSCClassInstance instance;
+
+        private final Map<Object, GlobalVariable<?, ?>> variablesByRole;
+        private final Map<Object, Event> eventsByRole;
+        private final Map<SCPort, SCPortInstance> portsBySocket;
+        private final Map<WrappedSCProcess, SomeVariablesProcess<ValueT, InfoT>> processesBySCProcess;
+
+        private Member(int index, WrappedSCClassInstance instance) {
+            this.index = index;
+            this.instance = instance;
+
+            this.variablesByRole = new LinkedHashMap<>();
+            this.eventsByRole = new LinkedHashMap<>();
+            this.portsBySocket = new LinkedHashMap<>();
+            this.processesBySCProcess = new LinkedHashMap<>();
+        }
+
+        @Override
+        public String toString() {
+            return this.instance.toString();
+        }
+
+    }
+
+    private final Function<Object, ? extends ValueT> determinedValueConstructor;
+
+    private final List<Member> members;
+    private final List<List<Member>> groups;
+
+    private final Map<SCClassInstance, Member> membersByInstance;
+    private final Map<GlobalVariable<?, ?>, Owned> variableOwners;
+    private final Map<Event, Owned> eventOwners;
+    private final Map<Object, Owned> portOwners;
+    private final Map<SomeVariablesProcess<ValueT, InfoT>, Owned> processOwners;
+
+    /**
+     * Constructs a new SomeVariablesSymmetryReduction, determining the groups of interchangeable
+     * module instances from the given initial state.
+     * <p>
+     * Every event, port and instance variable owned by a module instance must already be stored in the
+     * initial state, otherwise it cannot be renamed.
+     *
+     * @param initialState the initial state of the exploration
+     * @param determinedValueConstructor function constructing the abstracted value determined to be
+     *        the given object
+     */
+    public SomeVariablesSymmetryReduction(
+            ConsideredState<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, SomeVariablesProcess<ValueT, InfoT>> initialState,
+            Function<Object, ? extends ValueT> determinedValueConstructor) {
+        this.determinedValueConstructor = determinedValueConstructor;
+
+        this.members = new ArrayList<>();
+        this.membersByInstance = new HashMap<>();
+        this.variableOwners = new HashMap<>();
+        this.eventOwners = new IdentityHashMap<>();
+        this.portOwners = new HashMap<>();
+        this.processOwners = new HashMap<>();
+
+        // every module instance with at least one process is a candidate for symmetry
+        for (SomeVariablesProcess<ValueT, InfoT> process : initialState.getProcessStates().keySet()) {
+            WrappedSCClassInstance instance = process.getSCClassInstance();
+            Member member = this.membersByInstance.computeIfAbsent(instance.getOriginal(), i -> {
+                Member m = new Member(this.members.size(), instance);
+                this.members.add(m);
+                return m;
+            });
+            member.processesBySCProcess.put(process.getSCProcess(), process);
+            this.processOwners.put(process, new Owned(member, process.getSCProcess()));
+        }
+
+        for (Member member : this.members) {
+            for (SCConnectionInterface con : member.instance.getPortSocketInstances()) {
+                if (con instanceof SCPortInstance portInstance) {
+                    member.portsBySocket.put(portInstance.getPortSocket(), portInstance);
+                    Owned owned = new Owned(member, portInstance.getPortSocket());
+                    this.portOwners.put(portInstance, owned);
+                    this.portOwners.put(WrappedSCPortInstance.getWrapped(portInstance), owned);
+                }
+            }
+        }
+
+        for (Entry<GlobalVariable<?, ?>, ValueT> entry : initialState.getGlobalState().getVariableValues()
+                .entrySet()) {
+            GlobalVariable<?, ?> variable = entry.getKey();
+            Owned owned = getOwnedRole(variable);
+            if (owned == null || owned.member().variablesByRole.putIfAbsent(owned.role(), variable) != null) {
+                continue;
+            }
+            this.variableOwners.put(variable, owned);
+
+            ValueT value = entry.getValue();
+            if (value != null && value.isDetermined() && value.get() instanceof Event event
+                    && !this.eventOwners.containsKey(event)) {
+                owned.member().eventsByRole.put(owned.role(), event);
+                this.eventOwners.put(event, owned);
+            }
+        }
+
+        // greedily group the candidates by checking whether swapping them maps the initial state onto itself
+        this.groups = new ArrayList<>();
+        List<List<Member>> candidateGroups = new ArrayList<>();
+        for (Member member : this.members) {
+            List<Member> group = null;
+            for (List<Member> candidateGroup : candidateGroups) {
+                Member representative = candidateGroup.get(0);
+                if (!representative.instance.getSCClass().equals(member.instance.getSCClass())) {
+                    continue;
+                }
+                if (isSymmetric(initialState, representative, member)) {
+                    group = candidateGroup;
+                    break;
+                }
+            }
+
+            if (group == null) {
+                group = new ArrayList<>();
+                candidateGroups.add(group);
+            }
+            group.add(member);
+        }
+
+        for (List<Member> group : candidateGroups) {
+            if (group.size() > 1) {
+                this.groups.add(Collections.unmodifiableList(group));
+            }
+        }
+    }
+
+    private Owned getOwnedRole(GlobalVariable<?, ?> variable) {
+        if (variable.instance() instanceof WrappedSCClassInstance instance) {
+            Member member = this.membersByInstance.get(instance.getOriginal());
+            return member == null ? null : new Owned(member, variable.scVariable());
+        }
+
+        // variables of ports (e.g. the change events of sc_signal ports) are created separately for every
+        // port instance, so they are identified by the port socket and their name
+        Owned port = this.portOwners.get(variable.instance());
+        if (port == null) {
+            return null;
+        }
+        Object variableRole =
+                variable.scVariable() instanceof SCVariable scVariable ? scVariable.getName() : variable.scVariable();
+        return new Owned(port.member(), List.of(port.role(), variableRole));
+    }
+
+    private boolean isSymmetric(
+            ConsideredState<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, SomeVariablesProcess<ValueT, InfoT>> initialState,
+            Member first, Member second) {
+        if (!first.processesBySCProcess.keySet().equals(second.processesBySCProcess.keySet())
+                || !first.variablesByRole.keySet().equals(second.variablesByRole.keySet())
+                || !first.eventsByRole.keySet().equals(second.eventsByRole.keySet())
+                || !first.portsBySocket.keySet().equals(second.portsBySocket.keySet())) {
+            return false;
+        }
+
+        return rename(initialState, getTransposition(first, second)).equals(initialState);
+    }
+
+    /**
+     * Returns the groups of interchangeable module instances found in the initial state.
+     * <p>
+     * Only groups with at least two instances are returned.
+     *
+     * @return unmodifiable list of groups of interchangeable instances
+     */
+    public List<List<WrappedSCClassInstance>> getSymmetryGroups() {
+        return this.groups.stream().map(g -> g.stream().map(m -> m.instance).toList()).toList();
+    }
+
+    /**
+     * Returns the canonical representative of the given state.
+     * <p>
+     * If the given state is its own representative, it is returned as is. Otherwise, a new, locked
+     * state is returned.
+     *
+     * @param state a locked state
+     * @return the locked canonical representative of the state
+     */
+    public ConsideredState<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, SomeVariablesProcess<ValueT, InfoT>> canonicalize(
+            ConsideredState<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, SomeVariablesProcess<ValueT, InfoT>> state) {
+        List<Member> permutation = null;
+
+        for (List<Member> group : this.groups) {
+            Member representative = group.get(0);
+            Map<Member, Integer> signatures = new HashMap<>();
+            for (Member member : group) {
+                signatures.put(member,
+                        getSignature(state, member, member == representative ? null
+                                : getTransposition(member, representative)));
+            }
+
+            List<Member> sorted = new ArrayList<>(group);
+            sorted.sort(Comparator.comparingInt((Member m) -> signatures.get(m)).thenComparingInt(m -> m.index));
+
+            for (int i = 0; i < sorted.size(); i++) {
+                if (sorted.get(i) == group.get(i)) {
+                    continue;
+                }
+                if (permutation == null) {
+                    permutation = getIdentity();
+                }
+                permutation.set(sorted.get(i).index, group.get(i));
+            }
+        }
+
+        if (permutation == null) {
+            return state;
+        }
+        return rename(state, permutation);
+    }
+
+    // computes a hash of all parts of the state belonging to the given member, with the member renamed
+    // to the representative of its group such that the signature doesn't depend on the member's identity
+    private int getSignature(
+            ConsideredState<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, SomeVariablesProcess<ValueT, InfoT>> state,
+            Member member, List<Member> toRepresentative) {
+        SomeVariablesGlobalState<ValueT> globalState = state.getGlobalState();
+
+        int result = 0;
+        for (SomeVariablesProcess<ValueT, InfoT> process : member.processesBySCProcess.values()) {
+            SomeVariablesProcessState<ValueT> processState = state.getProcessState(process);
+            if (toRepresentative != null) {
+                processState = rename(processState, toRepresentative);
+            }
+            result = result * 31 + Objects.hashCode(processState);
+        }
+        for (GlobalVariable<?, ?> variable : member.variablesByRole.values()) {
+            ValueT value = globalState.getVariableValues().get(variable);
+            if (toRepresentative != null) {
+                value = rename(value, toRepresentative);
+            }
+            result = result * 31 + Objects.hashCode(value);
+        }
+        for (Event event : member.eventsByRole.values()) {
+            result = result * 31 + Objects.hashCode(globalState.getEventStates().get(event));
+        }
+        if (globalState.getRequestedUpdates().contains(member.instance)) {
+            result = ~result;
+        }
+        return result;
+    }
+
+    private List<Member> getIdentity() {
+        return new ArrayList<>(this.members);
+    }
+
+    private List<Member> getTransposition(Member first, Member second) {
+        List<Member> result = getIdentity();
+        result.set(first.index, second);
+        result.set(second.index, first);
+        return result;
+    }
+
+    private ConsideredState<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, SomeVariablesProcess<ValueT, InfoT>> rename(
+            ConsideredState<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, SomeVariablesProcess<ValueT, InfoT>> state,
+            List<Member> permutation) {
+        Map<SomeVariablesProcess<ValueT, InfoT>, SomeVariablesProcessState<ValueT>> processStates =
+                new LinkedHashMap<>();
+        for (Entry<SomeVariablesProcess<ValueT, InfoT>, SomeVariablesProcessState<ValueT>> entry : state
+                .getProcessStates().entrySet()) {
+            processStates.put(rename(entry.getKey(), permutation), rename(entry.getValue(), permutation));
+        }
+
+        ConsideredState<SomeVariablesGlobalState<ValueT>, SomeVariablesProcessState<ValueT>, SomeVariablesProcess<ValueT, InfoT>> result =
+                new ConsideredState<>(rename(state.getGlobalState(), permutation), processStates);
+        result.lock();
+        return result;
+    }
+
+    private SomeVariablesGlobalState<ValueT> rename(SomeVariablesGlobalState<ValueT> globalState,
+            List<Member> permutation) {
+        Map<Event, TimedBlocker> eventStates = new PersistentHashMap<>();
+        for (Entry<Event, TimedBlocker> entry : globalState.getEventStates().entrySet()) {
+            eventStates.put(rename(entry.getKey(), permutation), entry.getValue());
+        }
+
+        Set<WrappedSCClassInstance> requestedUpdates = new PersistentHashSet<>();
+        for (WrappedSCClassInstance instance : globalState.getRequestedUpdates()) {
+            requestedUpdates.add(rename(instance, permutation));
+        }
+
+        Map<GlobalVariable<?, ?>, ValueT> variableValues = globalState.createVariableMap();
+        for (Entry<GlobalVariable<?, ?>, ValueT> entry : globalState.getVariableValues().entrySet()) {
+            variableValues.put(rename(entry.getKey(), permutation), rename(entry.getValue(), permutation));
+        }
+
+        SomeVariablesGlobalState<ValueT> result = new SomeVariablesGlobalState<>(eventStates, requestedUpdates,
+                globalState.isSimulationStopped(), variableValues);
+        result.setSimulationStopped(globalState.isSimulationStopped());
+        return result;
+    }
+
+    private SomeVariablesProcessState<ValueT> rename(SomeVariablesProcessState<ValueT> processState,
+            List<Member> permutation) {
+        List<EvaluationContext<ValueT>> executionStack =
+                new ArrayList<>(processState.getExecutionStackReadOnly().size());
+        for (EvaluationContext<ValueT> context : processState.getExecutionStackReadOnly()) {
+            executionStack.add(rename(context, permutation));
+        }
+
+        Map<LocalVariable<?>, ValueT> variableValues = processState.createVariableMap();
+        for (Entry<LocalVariable<?>, ValueT> entry : processState.getVariableValues().entrySet()) {
+            variableValues.put(entry.getKey(), rename(entry.getValue(), permutation));
+        }
+
+        SomeVariablesProcessState<ValueT> result = new SomeVariablesProcessState<>(
+                rename(processState.getWaitingFor(), permutation), executionStack, variableValues);
+        result.lock();
+        return result;
+    }
+
+    private EvaluationContext<ValueT> rename(EvaluationContext<ValueT> context, List<Member> permutation) {
+        boolean changed = false;
+
+        List<List<ValueT>> expressionValues = new ArrayList<>(context.getExpressionValues().size());
+        for (List<ValueT> values : context.getExpressionValues()) {
+            List<ValueT> renamedValues = new ArrayList<>(values.size());
+            for (ValueT value : values) {
+                ValueT renamed = rename(value, permutation);
+                changed |= renamed != value;
+                renamedValues.add(renamed);
+            }
+            expressionValues.add(renamedValues);
+        }
+
+        ValueT thisValue = rename(context.getThisValue(), permutation);
+        changed |= thisValue != context.getThisValue();
+
+        if (!changed) {
+            return context;
+        }
+        return new EvaluationContext<>(context.getFunction(), new ArrayList<>(context.getExpressionIndices()),
+                context.getComingFrom(), expressionValues, thisValue);
+    }
+
+    private ProcessBlocker rename(ProcessBlocker blocker, List<Member> permutation) {
+        if (!(blocker instanceof EventBlocker eventBlocker)) {
+            return blocker;
+        }
+
+        Set<Event> events = new LinkedHashSet<>();
+        for (Event event : eventBlocker.getEvents()) {
+            events.add(rename(event, permutation));
+        }
+        return events.equals(eventBlocker.getEvents()) ? blocker : eventBlocker.replaceEvents(events);
+    }
+
+    private GlobalVariable<?, ?> rename(GlobalVariable<?, ?> variable, List<Member> permutation) {
+        Owned owned = this.variableOwners.get(variable);
+        if (owned != null) {
+            Member target = permutation.get(owned.member().index);
+            GlobalVariable<?, ?> result =
+                    target == owned.member() ? variable : target.variablesByRole.get(owned.role());
+            if (result != null) {
+                return result;
+            }
+        }
+
+        Object instance = renameObject(variable.instance(), permutation);
+        return instance == variable.instance() ? variable : new GlobalVariable<>(instance, variable.scVariable());
+    }
+
+    private SomeVariablesProcess<ValueT, InfoT> rename(SomeVariablesProcess<ValueT, InfoT> process,
+            List<Member> permutation) {
+        Owned owned = this.processOwners.get(process);
+        if (owned == null) {
+            return process;
+        }
+        return permutation.get(owned.member().index).processesBySCProcess.getOrDefault(owned.role(), process);
+    }
+
+    private WrappedSCClassInstance rename(WrappedSCClassInstance instance, List<Member> permutation) {
+        Member member = this.membersByInstance.get(instance.getOriginal());
+        return member == null ? instance : permutation.get(member.index).instance;
+    }
+
+    private Event rename(Event event, List<Member> permutation) {
+        Owned owned = this.eventOwners.get(event);
+        if (owned == null) {
+            return event;
+        }
+        return permutation.get(owned.member().index).eventsByRole.getOrDefault(owned.role(), event);
+    }
+
+    private ValueT rename(ValueT value, List<Member> permutation) {
+        if (value == null || !value.isDetermined()) {
+            return value;
+        }
+        Object object = value.get();
+        Object renamed = renameObject(object, permutation);
+        return renamed == object ? value : this.determinedValueConstructor.apply(renamed);
+    }
+
+    private Object renameObject(Object object, List<Member> permutation) {
+        if (object instanceof WrappedSCClassInstance instance) {
+            return rename(instance, permutation);
+        }
+        if (object instanceof SCClassInstance instance) {
+            Member member = this.membersByInstance.get(instance);
+            return member == null ? instance : permutation.get(member.index).instance.getOriginal();
+        }
+        if (object instanceof Event event) {
+            return rename(event, permutation);
+        }
+
+        Owned port = this.portOwners.get(object);
+        if (port == null) {
+            return object;
+        }
+        SCPortInstance renamed = permutation.get(port.member().index).portsBySocket.get(port.role());
+        if (renamed == null) {
+            return object;
+        }
+        return object instanceof WrappedSCPortInstance ? WrappedSCPortInstance.getWrapped(renamed) : renamed;
+    }
+
+    @Override
+    public String toString() {
+        return "SymmetryReduction" + this.groups;
+    }
+
+}
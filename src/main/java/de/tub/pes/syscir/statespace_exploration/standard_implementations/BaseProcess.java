@@ -3,6 +3,7 @@ package de.tub.pes.syscir.statespace_exploration.standard_implementations;
 import static de.tub.pes.syscir.util.WrapperUtil.wrap;
 
 import de.tub.pes.syscir.statespace_exploration.AbstractedValue;
+import de.tub.pes.syscir.statespace_exploration.AccessRecorder;
 import de.tub.pes.syscir.statespace_exploration.AnalyzedProcess;
 import de.tub.pes.syscir.statespace_exploration.ConsideredState;
 import de.tub.pes.syscir.statespace_exploration.DeltaTimeBlocker;
@@ -27,7 +28,9 @@ import de.tub.pes.syscir.sc_model.SCSystem;
 import de.tub.pes.syscir.sc_model.expressions.FunctionCallExpression;
 import de.tub.pes.syscir.sc_model.variables.SCClassInstance;
 import de.tub.pes.syscir.sc_model.variables.SCTIMEUNIT;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -60,6 +63,9 @@ implements AnalyzedProcess<ProcessT, GlobalStateT, ProcessStateT, InfoT> {
     private final WrappedSCClassInstance scClassInstance;
     private final int hashCode;
 
+    private boolean inPlaceSmallSteps;
+    private TransitionCache<ProcessT, GlobalStateT, ProcessStateT, InfoT> transitionCache;
+
     /**
      * Constructs a new BaseProcess representing the given SysCIR process, belonging to the given SysCIR
      * class instance (i.e. the module instance) and using the given scheduler.
@@ -79,6 +85,54 @@ implements AnalyzedProcess<ProcessT, GlobalStateT, ProcessStateT, InfoT> {
         this.hashCode = this.scProcess.hashCode();
     }
 
+    /**
+     * Sets whether {@link #makeStep(ConsideredState)} shall execute small steps in place on a single
+     * working state, backtracking to the alternatives of branch points depth-first, instead of keeping
+     * all intermediate states in a worklist.
+     * <p>
+     * Executing in place saves hashing and copying intermediate states, but it never merges branches
+     * that rejoin with equal states. The remainder of the step is thus executed once per path: k
+     * consecutive if-statements with undetermined conditions lead to 2^k executions of the code after
+     * them, where the worklist executes it once. Executing in place is therefore only worthwhile for
+     * processes with few branch points per step.
+     * <p>
+     * This must be set before the process is used in an exploration. By default, the worklist is used.
+     *
+     * @param inPlaceSmallSteps whether to execute small steps in place
+     */
+    public void setInPlaceSmallSteps(boolean inPlaceSmallSteps) {
+        this.inPlaceSmallSteps = inPlaceSmallSteps;
+    }
+
+    /**
+     * Returns whether {@link #makeStep(ConsideredState)} executes small steps in place.
+     *
+     * @return whether small steps are executed in place
+     * @see #setInPlaceSmallSteps(boolean)
+     */
+    public boolean isInPlaceSmallSteps() {
+        return this.inPlaceSmallSteps;
+    }
+
+    /**
+     * Sets the number of local states for which {@link #makeStep(ConsideredState)} shall cache the
+     * resulting transitions, such that steps from equal local states in agreeing global states can be
+     * replayed instead of being executed again (see {@link TransitionCache}).
+     * <p>
+     * This must be set before the process is used in an exploration. A size of zero (the default)
+     * disables the cache.
+     *
+     * @param size the capacity of the transition cache, or zero
+     */
+    @SuppressWarnings("unchecked")
+    public void setTransitionCacheSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("cache size must not be negative");
+        }
+        // by the type bounds, every process is an instance of its ProcessT
+        this.transitionCache = size == 0 ? null : new TransitionCache<>((ProcessT) this, size);
+    }
+
     @Override
     public WrappedSCProcess getSCProcess() {
         return this.scProcess;
@@ -114,6 +168,12 @@ implements AnalyzedProcess<ProcessT, GlobalStateT, ProcessStateT, InfoT> {
      * {@link SmallStepResult#endOfStep()} is true for every branch of the evaluation, returning the
      * gathered transition results. For efficiency, states are only locked in the end and reused in
      * between where possible.
+     * <p>
+     * Depending on {@link #isInPlaceSmallSteps()}, the branches are either handled via a worklist of
+     * intermediate states or depth-first on a single working state.
+     * <p>
+     * If a transition cache has been configured (see {@link #setTransitionCacheSize(int)}), the step is
+     * replayed from the cache if possible and stored in it otherwise.
      * 
      * @param currentState {@inheritDoc}
      * @return {@inheritDoc}
@@ -122,6 +182,52 @@ implements AnalyzedProcess<ProcessT, GlobalStateT, ProcessStateT, InfoT> {
     public Set<ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT>> makeStep(ConsideredState<GlobalStateT, ProcessStateT, ProcessT> currentState) {
         StateSpaceExploration<?, ?, ?, ?> explorer = StateSpaceExploration.getCurrentExplorer();
 
+        TransitionCache<ProcessT, GlobalStateT, ProcessStateT, InfoT> cache =
+                currentState.isLocked() ? this.transitionCache : null;
+        AccessRecorder recorder = null;
+        if (cache != null) {
+            Set<ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT>> cached = cache.lookup(currentState);
+            if (cached != null) {
+                return cached;
+            }
+            recorder = AccessRecorder.start(this);
+        }
+
+        Map<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>, InfoT> resultingTransitions;
+        try {
+            ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT> initialTransitionResult =
+                    new ProcessTransitionResult<>(currentState, getNeutralInformation());
+            InfoT initialInformation = getInformationHandler().handleStartOfCode(initialTransitionResult,
+                    getLocalState(initialTransitionResult));
+
+            resultingTransitions = this.inPlaceSmallSteps ? makeStepInPlace(explorer, currentState, initialInformation)
+                    : makeStepWithWorklist(explorer, currentState, initialInformation);
+        } finally {
+            if (recorder != null) {
+                recorder.stop();
+            }
+        }
+
+        // finalize the result
+
+        Set<ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT>> result =
+                new LinkedHashSet<>(resultingTransitions.size());
+        for (Entry<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>, InfoT> transition : resultingTransitions
+                .entrySet()) {
+            result.add(finalizeTransitionResult(
+                    new ProcessTransitionResult<>(transition.getKey(), transition.getValue())));
+        }
+
+        if (cache != null) {
+            cache.store(currentState, recorder, result);
+        }
+
+        return result;
+    }
+
+    private Map<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>, InfoT> makeStepWithWorklist(
+            StateSpaceExploration<?, ?, ?, ?> explorer, ConsideredState<GlobalStateT, ProcessStateT, ProcessT> currentState,
+            InfoT initialInformation) {
         /*
          * This uses a modified worklist (transitionsToHandle) algorithm to make one small step after the
          * other until the end of a (large) step is reached. Elements of the worklist are stored as map
@@ -131,6 +237,11 @@ implements AnalyzedProcess<ProcessT, GlobalStateT, ProcessStateT, InfoT> {
          * 
          * Some transitions which may repeat themselves (e.g., loop conditions) are stored to detect if they
          * reappear and not put them into the worklist again.
+         * 
+         * Straight-line code is fast-forwarded: If a small step yields exactly one ordinary successor while
+         * the worklist is empty, putting it into the worklist could not merge it with anything and it would
+         * be polled again immediately. Such successors are therefore handled next directly, without hashing
+         * them.
          */
 
         Map<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>, InfoT> seenTransitions = new LinkedHashMap<>();
@@ -138,20 +249,22 @@ implements AnalyzedProcess<ProcessT, GlobalStateT, ProcessStateT, InfoT> {
                 new LinkedHashMap<>();
         Map<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>, InfoT> resultingTransitions = new LinkedHashMap<>();
 
-        ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT> initialTransitionResult =
-                new ProcessTransitionResult<>(currentState, getNeutralInformation());
-        InfoT initialInformation = getInformationHandler().handleStartOfCode(initialTransitionResult,
-                getLocalState(initialTransitionResult));
-        transitionsToHandle.put(currentState.unlockedVersion(), initialInformation);
+        ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT> fastForwarded =
+                new ProcessTransitionResult<>(currentState.unlockedVersion(), initialInformation);
 
-        while (!transitionsToHandle.isEmpty()) {
+        while (fastForwarded != null || !transitionsToHandle.isEmpty()) {
             if (explorer.isAborted()) {
                 throw new ExplorationAbortedError();
             }
 
-            ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT> nextToHandle =
-                    new ProcessTransitionResult<>(transitionsToHandle.firstEntry().getKey(),
-                            transitionsToHandle.pollFirstEntry().getValue());
+            ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT> nextToHandle;
+            if (fastForwarded != null) {
+                nextToHandle = fastForwarded;
+                fastForwarded = null;
+            } else {
+                nextToHandle = new ProcessTransitionResult<>(transitionsToHandle.firstEntry().getKey(),
+                        transitionsToHandle.pollFirstEntry().getValue());
+            }
             SmallStepResult<GlobalStateT, ProcessStateT, InfoT, ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT>> nextTransitions =
                     makeSmallStep(nextToHandle);
             if (nextTransitions.endOfStep()) {
@@ -182,6 +295,14 @@ implements AnalyzedProcess<ProcessT, GlobalStateT, ProcessStateT, InfoT> {
                     transitionsToHandle.merge(transition.resultingState().unlockedClone(), newInformation.clone(),
                             InfoT::compose);
                 }
+            } else if (nextTransitions.transitions().size() == 1 && transitionsToHandle.isEmpty()) {
+                // straight-line code, continue without the worklist
+                ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT> transition =
+                        nextTransitions.transitions().get(0);
+                fastForwarded = transition.resultingState().isLocked()
+                        ? new ProcessTransitionResult<>(transition.resultingState().unlockedClone(),
+                                transition.transitionInformation())
+                        : transition;
             } else {
                 for (ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT> transition : nextTransitions
                         .transitions()) {
@@ -191,17 +312,80 @@ implements AnalyzedProcess<ProcessT, GlobalStateT, ProcessStateT, InfoT> {
             }
         }
 
-        // finalize the result
+        return resultingTransitions;
+    }
 
-        Set<ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT>> result =
-                new LinkedHashSet<>(resultingTransitions.size());
-        for (Entry<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>, InfoT> transition : resultingTransitions
-                .entrySet()) {
-            result.add(finalizeTransitionResult(
-                    new ProcessTransitionResult<>(transition.getKey(), transition.getValue())));
+    private Map<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>, InfoT> makeStepInPlace(
+            StateSpaceExploration<?, ?, ?, ?> explorer, ConsideredState<GlobalStateT, ProcessStateT, ProcessT> currentState,
+            InfoT initialInformation) {
+        /*
+         * This executes the small steps depth-first on a single working state which the crawler modifies in
+         * place. If a small step branches, the crawler has already produced (copy-on-write) copies for all
+         * but one branch. Execution continues on the working state and the other branches are pushed onto
+         * the stack of alternatives, to which execution backtracks once the current branch reaches the end
+         * of the step.
+         * 
+         * In contrast to the worklist algorithm, intermediate states are neither hashed nor compared, except
+         * for possibly repeating steps, which still need to be detected to guarantee termination. States
+         * that are reached via multiple branches are handled once per branch and their information is
+         * composed in the result. Branches rejoining after a control structure are therefore not merged,
+         * so the number of executed paths grows exponentially with the number of consecutive branch points
+         * (see setInPlaceSmallSteps). Merging them would require hashing the intermediate states, which is
+         * exactly what this variant avoids.
+         */
+
+        Map<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>, InfoT> seenTransitions = new LinkedHashMap<>();
+        Deque<ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT>> alternatives = new ArrayDeque<>();
+        Map<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>, InfoT> resultingTransitions = new LinkedHashMap<>();
+
+        ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT> working =
+                new ProcessTransitionResult<>(currentState.unlockedVersion(), initialInformation);
+
+        while (working != null) {
+            if (explorer.isAborted()) {
+                throw new ExplorationAbortedError();
+            }
+
+            SmallStepResult<GlobalStateT, ProcessStateT, InfoT, ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT>> nextTransitions =
+                    makeSmallStep(working);
+            working = null;
+
+            if (nextTransitions.endOfStep()) {
+                for (ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT> transition : nextTransitions
+                        .transitions()) {
+                    resultingTransitions.merge(transition.resultingState(), transition.transitionInformation(),
+                            InfoT::compose);
+                }
+            } else if (nextTransitions.possiblyRepeatingStep()) {
+                for (ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT> transition : nextTransitions
+                        .transitions()) {
+                    transition.resultingState().lock();
+                    InfoT oldInformation = seenTransitions.get(transition.resultingState());
+                    if (transition.transitionInformation().equals(oldInformation)) {
+                        continue;
+                    }
+                    InfoT newInformation = seenTransitions.merge(transition.resultingState(),
+                            transition.transitionInformation(), InfoT::compose);
+                    if (newInformation.equals(oldInformation)) {
+                        continue;
+                    }
+
+                    alternatives.push(new ProcessTransitionResult<>(transition.resultingState().unlockedClone(),
+                            newInformation.clone()));
+                }
+            } else {
+                for (ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT> transition : nextTransitions
+                        .transitions()) {
+                    alternatives.push(new ProcessTransitionResult<>(transition.resultingState().unlockedVersion(),
+                            transition.transitionInformation()));
+                }
+            }
+
+            // the last branch is usually the one modified in place, so continue with it
+            working = alternatives.poll();
         }
 
-        return result;
+        return resultingTransitions;
     }
 
     @Override
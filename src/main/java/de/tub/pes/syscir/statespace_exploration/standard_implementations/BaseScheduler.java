@@ -3,6 +3,7 @@ package de.tub.pes.syscir.statespace_exploration.standard_implementations;
 import static de.tub.pes.syscir.util.WrapperUtil.wrap;
 
 import de.tub.pes.syscir.statespace_exploration.AbstractedValue;
+import de.tub.pes.syscir.statespace_exploration.AccessRecorder;
 import de.tub.pes.syscir.statespace_exploration.AnalyzedProcess;
 import de.tub.pes.syscir.statespace_exploration.ConsideredState;
 import de.tub.pes.syscir.statespace_exploration.DeltaTimeBlocker;
@@ -22,11 +23,11 @@ import de.tub.pes.syscir.statespace_exploration.StateSpaceExploration;
 import de.tub.pes.syscir.statespace_exploration.StateSpaceExploration.ExplorationAbortedError;
 import de.tub.pes.syscir.statespace_exploration.TimedBlocker;
 import de.tub.pes.syscir.statespace_exploration.TransitionResult;
-import de.tub.pes.syscir.util.CollectionUtil;
 import de.tub.pes.syscir.util.WrappedSCClassInstance;
 import de.tub.pes.syscir.util.WrappedSCFunction;
 import de.tub.pes.syscir.sc_model.SCSystem;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -64,10 +65,7 @@ implements Scheduler<GlobalStateT, ProcessStateT, InfoT, ProcessT> {
     private final SimulationStopMode stopMode;
     private final Predicate<? super Event> eventConsiderationCondition;
 
-    // Cache ready processes because canAdvanceSimulation occurs right before getReadyProcesses in
-    // StateSpaceExplorer#explore.
-    private ThreadLocal<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>> lastOptainedReadyProcessesFor;
-    private ThreadLocal<Collection<ProcessT>> lastOptainedReadyProcesses;
+    private UpdateCache<InfoT> updateCache;
 
     /**
      * Creates a new StandardScheduler with the given stop mode.
@@ -81,9 +79,25 @@ implements Scheduler<GlobalStateT, ProcessStateT, InfoT, ProcessT> {
 
         this.stopMode = Objects.requireNonNull(stopMode);
         this.eventConsiderationCondition = Objects.requireNonNull(eventConsiderationCondition);
+    }
 
-        this.lastOptainedReadyProcessesFor = new ThreadLocal<>();
-        this.lastOptainedReadyProcesses = new ThreadLocal<>();
+    /**
+     * Sets the number of channels for which {@link #updatePort(WrappedSCClassInstance, Map)} shall
+     * cache the outcome of updating them, such that updates in agreeing global states can be replayed
+     * instead of being interpreted again (see {@link UpdateCache}). The cache is shared by all threads
+     * using this scheduler.
+     * <p>
+     * The cache is only used if the information handler supports sequencing (see
+     * {@link InformationHandler#supportsSequencing()}). This must be set before the scheduler is used
+     * in an exploration. A size of zero (the default) disables the cache.
+     *
+     * @param size the capacity of the update cache, or zero
+     */
+    public void setUpdateCacheSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("cache size must not be negative");
+        }
+        this.updateCache = size == 0 ? null : new UpdateCache<>(size);
     }
 
     @Override
@@ -105,30 +119,25 @@ implements Scheduler<GlobalStateT, ProcessStateT, InfoT, ProcessT> {
      */
     @Override
     public Collection<ProcessT> getReadyProcesses(ConsideredState<GlobalStateT, ProcessStateT, ProcessT> currentState) {
-        if (currentState.getGlobalState().isSimulationStopped()
+        if (currentState.getGlobalStateReadOnly().isSimulationStopped()
                 && this.stopMode == SimulationStopMode.SC_STOP_FINISH_IMMEDIATE) {
             return Set.of();
         }
 
         Collection<ProcessT> guaranteedReady = getReadyProcessesInternal(currentState);
-        Set<ProcessT> maybeReady = new LinkedHashSet<>();
-        for (Entry<ProcessT,ProcessStateT> entry : currentState.getProcessStates().entrySet()) {
-            ProcessStateT state = entry.getValue();
-            if (!(state.getWaitingFor() instanceof EventBlocker eb) ){
-                continue;
-            }
-            if (eb.isChoice()) {
-                if (!eb.getEvents().stream().allMatch(this.eventConsiderationCondition)) {
-                    maybeReady.add(entry.getKey());
-                }
-            } else {
-                if (!eb.getEvents().stream().anyMatch(this.eventConsiderationCondition)) {
-                    maybeReady.add(entry.getKey());
+        // processes waiting for events are never guaranteed to be ready, so no duplicates can occur
+        List<ProcessT> maybeReady = null;
+        for (ProcessT process : currentState.getEventBlockedProcesses()) {
+            EventBlocker eb = (EventBlocker) currentState.getProcessStateReadOnly(process).getWaitingFor();
+            if (isMaybeReady(eb)) {
+                if (maybeReady == null) {
+                    maybeReady = new ArrayList<>();
                 }
+                maybeReady.add(process);
             }
         }
 
-        if (maybeReady.isEmpty()) {
+        if (maybeReady == null) {
             return guaranteedReady;
         }
 
@@ -136,6 +145,17 @@ implements Scheduler<GlobalStateT, ProcessStateT, InfoT, ProcessT> {
         return maybeReady;
     }
 
+    private boolean isMaybeReady(EventBlocker blocker) {
+        // a choice may be resolved by any event not considered, otherwise all events must be unconsidered
+        boolean choice = blocker.isChoice();
+        for (Event event : blocker.getEvents()) {
+            if (this.eventConsiderationCondition.test(event) != choice) {
+                return choice;
+            }
+        }
+        return !choice;
+    }
+
     /**
      * {@inheritDoc}
      * <p>
@@ -143,7 +163,7 @@ implements Scheduler<GlobalStateT, ProcessStateT, InfoT, ProcessT> {
      */
     @Override
     public boolean canEndEvaluation(ConsideredState<GlobalStateT, ProcessStateT, ProcessT> currentState) {
-        if (currentState.getGlobalState().isSimulationStopped()
+        if (currentState.getGlobalStateReadOnly().isSimulationStopped()
                 && this.stopMode == SimulationStopMode.SC_STOP_FINISH_IMMEDIATE) {
             return false;
         }
@@ -160,16 +180,8 @@ implements Scheduler<GlobalStateT, ProcessStateT, InfoT, ProcessT> {
      * @return collection of processes guaranteed to be ready
      */
     protected Collection<ProcessT> getReadyProcessesInternal(ConsideredState<GlobalStateT, ProcessStateT, ProcessT> currentState) {
-        if (currentState == this.lastOptainedReadyProcessesFor.get()) {
-            return this.lastOptainedReadyProcesses.get();
-        }
-
-        Collection<ProcessT> result = currentState.getReadyProcesses();
-        if (currentState.isLocked()) {
-            this.lastOptainedReadyProcessesFor.set(currentState);
-            this.lastOptainedReadyProcesses.set(result);
-        }
-        return result;
+        // locked states compute their ready processes only once
+        return currentState.getReadyProcesses();
     }
 
     @Override
@@ -228,6 +240,60 @@ implements Scheduler<GlobalStateT, ProcessStateT, InfoT, ProcessT> {
     public Map<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>, InfoT> updatePort(
             WrappedSCClassInstance port,
             Map<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>, InfoT> ingoingTransitions) {
+        UpdateCache<InfoT> cache = this.updateCache;
+        InformationHandler<InfoT, ValueT> handler = getInformationHandler();
+        if (cache == null || !handler.supportsSequencing()) {
+            return interpretUpdate(port, ingoingTransitions);
+        }
+
+        // with a cache, each ingoing transition is updated on its own, starting from the neutral information.
+        // the outcome then only depends on the global state and is appended to the ingoing information.
+        Map<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>, InfoT> resultingTransitions = new LinkedHashMap<>();
+        for (Entry<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>, InfoT> ingoingTransition : ingoingTransitions
+                .entrySet()) {
+            ConsideredState<GlobalStateT, ProcessStateT, ProcessT> ingoingState = ingoingTransition.getKey();
+            InfoT ingoingInformation = ingoingTransition.getValue();
+
+            List<UpdateCache.CachedOutcome<InfoT>> cached = cache.lookup(port, ingoingState.getGlobalStateReadOnly());
+            if (cached != null) {
+                for (int i = 0; i < cached.size(); i++) {
+                    UpdateCache.CachedOutcome<InfoT> outcome = cached.get(i);
+                    ConsideredState<GlobalStateT, ProcessStateT, ProcessT> state =
+                            i == cached.size() - 1 ? ingoingState : ingoingState.unlockedClone();
+                    if (!outcome.delta().isEmpty()) {
+                        outcome.delta().applyTo(state.getGlobalState());
+                    }
+                    resultingTransitions.merge(state, handler.handleSequence(ingoingInformation, outcome.information()),
+                            InfoT::compose);
+                }
+                continue;
+            }
+
+            // lock the global state, such that it is cloned on the first modification and can be projected
+            // afterwards
+            GlobalStateT globalState = ingoingState.getGlobalStateReadOnly();
+            globalState.lock();
+
+            Map<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>, InfoT> results;
+            AccessRecorder recorder = AccessRecorder.start(null);
+            try {
+                results = interpretUpdate(port, Map.of(ingoingState, getNeutralInformation()));
+            } finally {
+                recorder.stop();
+            }
+            cache.store(port, globalState, recorder, results);
+
+            for (Entry<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>, InfoT> result : results.entrySet()) {
+                resultingTransitions.merge(result.getKey(), handler.handleSequence(ingoingInformation, result.getValue()),
+                        InfoT::compose);
+            }
+        }
+        return resultingTransitions;
+    }
+
+    private Map<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>, InfoT> interpretUpdate(
+            WrappedSCClassInstance port,
+            Map<ConsideredState<GlobalStateT, ProcessStateT, ProcessT>, InfoT> ingoingTransitions) {
         Map<SchedulerConsideredState<GlobalStateT, LocalStateT, ProcessStateT, ProcessT>, InfoT> seenTransitions =
                 new LinkedHashMap<>();
         SequencedMap<SchedulerConsideredState<GlobalStateT, LocalStateT, ProcessStateT, ProcessT>, InfoT> transitionsToHandle =
@@ -245,6 +311,18 @@ implements Scheduler<GlobalStateT, ProcessStateT, InfoT, ProcessT> {
             SchedulerTransitionResult<GlobalStateT, ProcessStateT, LocalStateT, InfoT, ProcessT> initialTransitionResult =
                     new SchedulerTransitionResult<>(initialConsideredState, ingoingTransition.getValue());
             InfoT initialInformation = getInformationHandler().handleStartOfCode(initialTransitionResult, localState);
+
+            List<SchedulerTransitionResult<GlobalStateT, ProcessStateT, LocalStateT, InfoT, ProcessT>> intrinsicTransitions =
+                    handleIntrinsicUpdate(port,
+                            new SchedulerTransitionResult<>(initialConsideredState, initialInformation));
+            if (intrinsicTransitions != null) {
+                for (SchedulerTransitionResult<GlobalStateT, ProcessStateT, LocalStateT, InfoT, ProcessT> transition : intrinsicTransitions) {
+                    resultingTransitions.merge(transition.resultingState(), transition.transitionInformation(),
+                            InfoT::compose);
+                }
+                continue;
+            }
+
             transitionsToHandle.put(initialConsideredState, initialInformation);
         }
 
@@ -295,6 +373,27 @@ implements Scheduler<GlobalStateT, ProcessStateT, InfoT, ProcessT> {
 
     public abstract LocalStateT constructLocalSchedulerState(WrappedSCClassInstance port, WrappedSCFunction entryPoint);
 
+    /**
+     * Called before the update method of the given channel is interpreted, allowing subclasses to
+     * compute the outcome of the update directly instead, e.g. by a built-in model of the channel.
+     * 
+     * The given state is positioned at the start of the update method. If the outcome is computed, the
+     * returned transitions must describe the states after the update method has been left, including
+     * their transition information.
+     * 
+     * This implementation always returns null.
+     *
+     * @param port the channel to be updated
+     * @param currentState the state before the update
+     * @return the transitions resulting from the update, or null if the update method shall be
+     *         interpreted
+     */
+    protected List<SchedulerTransitionResult<GlobalStateT, ProcessStateT, LocalStateT, InfoT, ProcessT>> handleIntrinsicUpdate(
+            WrappedSCClassInstance port,
+            SchedulerTransitionResult<GlobalStateT, ProcessStateT, LocalStateT, InfoT, ProcessT> currentState) {
+        return null;
+    }
+
     @Override
     public SmallStepResult<GlobalStateT, ProcessStateT, InfoT, SchedulerTransitionResult<GlobalStateT, ProcessStateT, LocalStateT, InfoT, ProcessT>> handleEndOfCodeReached(
             SchedulerTransitionResult<GlobalStateT, ProcessStateT, LocalStateT, InfoT, ProcessT> currentState, LocalStateT localState,
@@ -395,8 +494,10 @@ implements Scheduler<GlobalStateT, ProcessStateT, InfoT, ProcessT> {
         // processes waiting on events just notified are considered waiting for the same delta cycle
         // TODO: assuming that process waiting for delta-waiting event becomes ready in the same delta cycle
         // the event is called
+        BitSet notifiedIds = EventBlocker.toIdSet(deltaWaitingEvents);
         for (Entry<ProcessT, ProcessStateT> entry : eventWaitingProcesses) {
-            currentInformation = notifyEventsForProcess(entry, currentState, deltaWaitingEvents, currentInformation);
+            currentInformation =
+                    notifyEventsForProcess(entry, currentState, deltaWaitingEvents, notifiedIds, currentInformation);
         }
 
         // compute new process states by replacing those waiting for delta by ready ones
@@ -435,8 +536,10 @@ implements Scheduler<GlobalStateT, ProcessStateT, InfoT, ProcessT> {
         // processes waiting on events just notified are considered waiting for the same delta cycle
         // TODO: assuming that process waiting for time-waiting event becomes ready immediately when the
         // event is called
+        BitSet notifiedIds = EventBlocker.toIdSet(notifiedEvents);
         for (Entry<ProcessT, ProcessStateT> entry : eventWaitingProcesses) {
-            currentInformation = notifyEventsForProcess(entry, currentState, notifiedEvents, currentInformation);
+            currentInformation =
+                    notifyEventsForProcess(entry, currentState, notifiedEvents, notifiedIds, currentInformation);
         }
 
         // compute new process states by replacing those waiting for the shortest time or for events that
@@ -482,20 +585,15 @@ implements Scheduler<GlobalStateT, ProcessStateT, InfoT, ProcessT> {
      */
     private InfoT notifyEventsForProcess(Entry<ProcessT, ProcessStateT> entry,
             ConsideredState<GlobalStateT, ProcessStateT, ProcessT> currentState, Set<Event> notifiedEvents,
-            InfoT currentInformation) {
+            BitSet notifiedIds, InfoT currentInformation) {
         EventBlocker blocker = ((EventBlocker) entry.getValue().getWaitingFor());
 
-        Set<Event> remainingEvents = CollectionUtil.setDiff(blocker.getEvents(), notifiedEvents);
-
-        if (remainingEvents.size() == blocker.getEvents().size()) {
+        EventBlocker remaining = blocker.removeNotifiedEvents(notifiedIds);
+        if (remaining == blocker) {
             return currentInformation;
         }
 
-        if (remainingEvents.isEmpty() || blocker.isChoice()) {
-            entry.getValue().setWaitingFor(null);
-        } else {
-            entry.getValue().setWaitingFor(blocker.replaceEvents(remainingEvents));
-        }
+        entry.getValue().setWaitingFor(remaining);
         return getInformationHandler().handleProcessWaitedForEvents(entry.getKey(), entry.getValue(), notifiedEvents,
                 blocker,
                 currentInformation);
@@ -528,25 +626,13 @@ implements Scheduler<GlobalStateT, ProcessStateT, InfoT, ProcessT> {
         } else {
             eventStates.remove(event);
 
-            Iterator<Entry<ProcessT, ProcessStateT>> entryIt = currentState.getProcessStates().entrySet().iterator();
-            while (entryIt.hasNext()) {
-                Entry<ProcessT, ProcessStateT> entry = entryIt.next();
-
-                if (!(entry.getValue().getWaitingFor() instanceof EventBlocker eb)) {
-                    continue;
-                }
-
-                Set<Event> remainingEvents = CollectionUtil.setDiff(eb.getEvents(), Set.of(event));
-                if (remainingEvents.size() == eb.getEvents().size()) {
-                    continue;
-                }
+            // only the states of processes actually waiting for the event are visited and made modifiable
+            for (ProcessT process : currentState.getProcessesWaitingFor(event)) {
+                EventBlocker eb = (EventBlocker) currentState.getProcessStateReadOnly(process).getWaitingFor();
 
-                if (eb.isChoice() || remainingEvents.isEmpty()) {
-                    entry.getValue().setWaitingFor(null);
-                } else {
-                    entry.getValue().setWaitingFor(eb.replaceEvents(remainingEvents));
-                }
-                currentInformation = getInformationHandler().handleProcessWaitedForEvents(entry.getKey(), entry.getValue(),
+                ProcessStateT processState = currentState.getProcessState(process);
+                processState.setWaitingFor(eb.removeNotifiedEvent(event));
+                currentInformation = getInformationHandler().handleProcessWaitedForEvents(process, processState,
                         Set.of(event), eb, currentInformation);
             }
         }
@@ -1,6 +1,7 @@
 package de.tub.pes.syscir.statespace_exploration.standard_implementations;
 
 import de.tub.pes.syscir.statespace_exploration.AbstractedValue;
+import de.tub.pes.syscir.statespace_exploration.Fingerprintable;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 
@@ -13,7 +14,7 @@ import java.util.Objects;
  * @param <X> the type of the value
  */
 public class BinaryAbstractedValue<X>
-implements AbstractedValue<BinaryAbstractedValue<X>, BinaryAbstractedValue<Boolean>, X> {
+implements AbstractedValue<BinaryAbstractedValue<X>, BinaryAbstractedValue<Boolean>, X>, Fingerprintable {
 
     public static class BinaryAbstractedLogic implements AbstractedLogic<BinaryAbstractedValue<Boolean>> {
 
@@ -125,6 +126,11 @@ implements AbstractedValue<BinaryAbstractedValue<X>, BinaryAbstractedValue<Boole
         return this.determined ? this.value.hashCode() : EMPTY_VALUE_HASH;
     }
 
+    @Override
+    public long fingerprint() {
+        return this.determined ? Fingerprintable.combine(1, Fingerprintable.of(this.value)) : EMPTY_VALUE_HASH;
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other == this) {
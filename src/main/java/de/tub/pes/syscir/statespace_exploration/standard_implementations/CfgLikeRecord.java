@@ -9,10 +9,12 @@ import de.tub.pes.syscir.statespace_exploration.ExplorationRecord;
 import de.tub.pes.syscir.statespace_exploration.GlobalState;
 import de.tub.pes.syscir.statespace_exploration.ProcessState;
 import de.tub.pes.syscir.statespace_exploration.TransitionInformation;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -24,15 +26,16 @@ import java.util.stream.Collectors;
 public class CfgLikeRecord<GlobalStateT extends GlobalState<GlobalStateT>, ProcessStateT extends ProcessState<ProcessStateT, ?>, InfoT extends TransitionInformation<InfoT>>
 implements ExplorationRecord<GlobalStateT, ProcessStateT, InfoT> {
 
-    private static record Transition<G extends GlobalState<G>, P extends ProcessState<P, ?>, T extends TransitionInformation<T>> (
-            ConsideredState<G, P, ?> fromState, ConsideredState<G, P, ?> toState, T information) {}
+    // the states are represented by their keys (see the constructor)
+    private static record Transition<T extends TransitionInformation<T>> (Object fromState, Object toState,
+            T information) {}
 
     public class Node implements CfgNode<Node, Edge, Variable<?, ?>, InfoT> {
 
         private final int id;
 
-        private final ConsideredState<GlobalStateT, ProcessStateT, ?> fromState;
-        private final ConsideredState<GlobalStateT, ProcessStateT, ?> toState;
+        private final Object fromState;
+        private final Object toState;
         private final InfoT information;
 
         private volatile Map<Variable<?, ?>, AbstractedValue<?, ?, Boolean>> read;
@@ -41,11 +44,11 @@ implements ExplorationRecord<GlobalStateT, ProcessStateT, InfoT> {
         private final Set<Edge> incoming;
         private final Set<Edge> outgoing;
 
-        public Node(int id, Transition<GlobalStateT, ProcessStateT, InfoT> transition) {
+        public Node(int id, Transition<InfoT> transition) {
             this(id, transition.fromState(), transition.toState(), transition.information());
         }
 
-        public Node(int id, ConsideredState<GlobalStateT, ProcessStateT, ?> fromState, ConsideredState<GlobalStateT, ProcessStateT, ?> toState, InfoT information) {
+        public Node(int id, Object fromState, Object toState, InfoT information) {
             this.id = id;
 
             this.fromState = fromState;
@@ -60,11 +63,23 @@ implements ExplorationRecord<GlobalStateT, ProcessStateT, InfoT> {
             return this.id;
         }
 
-        public ConsideredState<GlobalStateT, ProcessStateT, ?> getFromState() {
+        /**
+         * Returns the key of the state from which this transition is made (see
+         * {@link CfgLikeRecord#CfgLikeRecord(boolean, Function, Function, ConsideredState, Function)}).
+         *
+         * @return key of the source state (null for the entry node)
+         */
+        public Object getFromStateKey() {
             return this.fromState;
         }
 
-        public ConsideredState<GlobalStateT, ProcessStateT, ?> getToState() {
+        /**
+         * Returns the key of the state reached by this transition (see
+         * {@link CfgLikeRecord#CfgLikeRecord(boolean, Function, Function, ConsideredState, Function)}).
+         *
+         * @return key of the target state
+         */
+        public Object getToStateKey() {
             return this.toState;
         }
 
@@ -176,52 +191,117 @@ implements ExplorationRecord<GlobalStateT, ProcessStateT, InfoT> {
     private AtomicInteger nextStateId;
 
     private Node entryNode;
-    private Map<Transition<GlobalStateT, ProcessStateT, InfoT>, Node> nodes;
-    private Map<ConsideredState<GlobalStateT, ProcessStateT, ?>, Set<Node>> nodesReachingThisState;
-    private Map<ConsideredState<GlobalStateT, ProcessStateT, ?>, Set<Node>> nodesLeavingThisState;
-    private Map<ConsideredState<GlobalStateT, ProcessStateT, ?>, Integer> states;
-
+    private Function<? super ConsideredState<GlobalStateT, ProcessStateT, ?>, ?> stateKey;
+    private Map<Transition<InfoT>, Node> nodes;
+    private Map<Object, Set<Node>> nodesReachingThisState;
+    private Map<Object, Set<Node>> nodesLeavingThisState;
+    private Map<Object, Integer> states;
+
+    /**
+     * Constructs a new record, identifying states by themselves.
+     *
+     * @param threadSafe whether the record may be informed concurrently
+     * @param variablesReadGetter function returning the variables read by a transition
+     * @param variablesWrittenGetter function returning the variables written by a transition
+     * @param initialState the initial state of the exploration
+     */
     public CfgLikeRecord(boolean threadSafe,
             Function<InfoT, Map<Variable<?, ?>, ? extends AbstractedValue<?, ?, Boolean>>> variablesReadGetter,
             Function<InfoT, Map<Variable<?, ?>, ? extends AbstractedValue<?, ?, Boolean>>> variablesWrittenGetter,
             ConsideredState<GlobalStateT, ProcessStateT, ?> initialState) {
+        this(threadSafe, variablesReadGetter, variablesWrittenGetter, initialState, state -> state);
+    }
+
+    /**
+     * Constructs a new record, identifying states by the keys computed by the given function.
+     * <p>
+     * Only the keys are retained, not the states. Two states are considered the same iff their keys
+     * are equal, so the keys must be equal for equal states. A compact key such as a fingerprint or an
+     * encoding of the state allows the states to be garbage collected once they have been explored,
+     * e.g. when the visited states don't retain them either.
+     *
+     * @param threadSafe whether the record may be informed concurrently
+     * @param variablesReadGetter function returning the variables read by a transition
+     * @param variablesWrittenGetter function returning the variables written by a transition
+     * @param initialState the initial state of the exploration
+     * @param stateKey function computing the key identifying a state
+     */
+    public CfgLikeRecord(boolean threadSafe,
+            Function<InfoT, Map<Variable<?, ?>, ? extends AbstractedValue<?, ?, Boolean>>> variablesReadGetter,
+            Function<InfoT, Map<Variable<?, ?>, ? extends AbstractedValue<?, ?, Boolean>>> variablesWrittenGetter,
+            ConsideredState<GlobalStateT, ProcessStateT, ?> initialState,
+            Function<? super ConsideredState<GlobalStateT, ProcessStateT, ?>, ?> stateKey) {
         this.threadSafe = threadSafe;
+        this.stateKey = Objects.requireNonNull(stateKey);
         this.variablesReadGetter = Objects.requireNonNull(variablesReadGetter);
         this.variablesWrittenGetter = Objects.requireNonNull(variablesWrittenGetter);
 
         this.nextNodeId = new AtomicInteger();
         this.nextStateId = new AtomicInteger();
 
-        Objects.requireNonNull(initialState);
-        this.entryNode = new Node(this.nextNodeId.getAndIncrement(), null, initialState, null);
+        Object initialKey = Objects.requireNonNull(stateKey.apply(Objects.requireNonNull(initialState)));
+        this.entryNode = new Node(this.nextNodeId.getAndIncrement(), null, initialKey, null);
         this.nodes = createMap();
-        this.nodes.put(null, this.entryNode);
+        // keyed by a transition without source state, as thread-safe maps reject null keys
+        this.nodes.put(new Transition<>(null, initialKey, null), this.entryNode);
         this.nodesReachingThisState = createMap();
-        this.nodesReachingThisState.computeIfAbsent(initialState, x -> createSet()).add(this.entryNode);
+        this.nodesReachingThisState.computeIfAbsent(initialKey, x -> createSet()).add(this.entryNode);
         this.nodesLeavingThisState = createMap();
         this.states = createMap();
-        this.states.put(initialState, this.nextStateId.getAndIncrement());
+        this.states.put(initialKey, this.nextStateId.getAndIncrement());
     }
 
     @Override
-    public void explorationMade(ConsideredState<GlobalStateT, ProcessStateT, ?> from, ConsideredState<GlobalStateT, ProcessStateT, ?> to, InfoT info) {
+    public void explorationMade(ConsideredState<GlobalStateT, ProcessStateT, ?> fromState, ConsideredState<GlobalStateT, ProcessStateT, ?> toState, InfoT info) {
+        Object from = this.stateKey.apply(fromState);
+        Object to = this.stateKey.apply(toState);
         this.states.computeIfAbsent(from, x -> this.nextStateId.getAndIncrement());
         this.states.computeIfAbsent(to, x -> this.nextStateId.getAndIncrement());
 
-        this.nodes.computeIfAbsent(new Transition<>(from, to, info), t -> {
-            Set<Node> baseSourceNodes = this.nodesReachingThisState.get(from);
-            Set<Node> baseTargetNodes = this.nodesLeavingThisState.getOrDefault(to, Set.of());
-            Node newNode = new Node(this.nextNodeId.getAndIncrement(), from, to, info);
-            this.nodesReachingThisState.computeIfAbsent(to, x -> createSet()).add(newNode);
+        // claim the transition, only the thread creating its node connects it to the others
+        Transition<InfoT> transition = new Transition<>(from, to, info);
+        List<Node> created = new ArrayList<>(1);
+        Node newNode = this.nodes.computeIfAbsent(transition, t -> {
+            Node node = new Node(this.nextNodeId.getAndIncrement(), t);
+            created.add(node);
+            return node;
+        });
+        if (created.isEmpty()) {
+            return;
+        }
+
+        // the node is registered at a state and the nodes on the other side of that state are read
+        // while holding the state's monitor, so that of two transitions meeting at a state recorded
+        // concurrently, exactly one sees the other and creates the edge between them. the monitors are
+        // only held briefly and never nested, so neither contention nor pinning of virtual threads is an
+        // issue
+        List<Node> baseSourceNodes;
+        Set<Node> reachingFrom = this.nodesReachingThisState.computeIfAbsent(from, x -> createSet());
+        synchronized (reachingFrom) {
+            baseSourceNodes = List.copyOf(reachingFrom);
             this.nodesLeavingThisState.computeIfAbsent(from, x -> createSet()).add(newNode);
-            for (Node sourceNode : baseSourceNodes) {
-                new Edge(sourceNode, newNode);
-            }
-            for (Node targetNode : baseTargetNodes) {
+        }
+        List<Node> baseTargetNodes;
+        Set<Node> reachingTo = this.nodesReachingThisState.computeIfAbsent(to, x -> createSet());
+        synchronized (reachingTo) {
+            baseTargetNodes = List.copyOf(this.nodesLeavingThisState.getOrDefault(to, Set.of()));
+            reachingTo.add(newNode);
+        }
+
+        for (Node sourceNode : baseSourceNodes) {
+            new Edge(sourceNode, newNode);
+        }
+        for (Node targetNode : baseTargetNodes) {
+            if (targetNode != newNode) {
                 new Edge(newNode, targetNode);
             }
-            return newNode;
-        });
+        }
+        // a transition back to its source state follows itself. the nodes reaching that state are read
+        // before the new node is registered there, and the loop over the target nodes skips it, so the
+        // edge is added here, exactly once
+        if (from.equals(to)) {
+            new Edge(newNode, newNode);
+        }
     }
 
     private <X, Y> Map<X, Y> createMap() {
@@ -0,0 +1,107 @@
+package de.tub.pes.syscir.statespace_exploration.standard_implementations;
+
+import de.tub.pes.syscir.statespace_exploration.EventBlocker.Event;
+import de.tub.pes.syscir.statespace_exploration.TimedBlocker;
+import de.tub.pes.syscir.util.WrappedSCClassInstance;
+import de.tub.pes.syscir.util.WrappedSCFunction;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Description of the execution of a channel function by a built-in model of the channel, passed to
+ * {@link InformationHandler#handleChannelIntrinsic(de.tub.pes.syscir.sc_model.expressions.Expression, ChannelIntrinsicExecution, de.tub.pes.syscir.statespace_exploration.TransitionResult, de.tub.pes.syscir.statespace_exploration.LocalState)}.
+ *
+ * The execution is described statement by statement, listing the statements of the implementation of
+ * the function in the order in which interpreting it would have evaluated them. A statement is an
+ * expression that is evaluated as a whole, i.e. the top of an expression statement, the condition of
+ * a control structure, a call of request_update or an event notification. Declarations without
+ * initial value are left out, as they neither read nor write any variable. For each statement, the
+ * variables read and written are exactly those the expression handler would have reported while
+ * interpreting it.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ */
+public class ChannelIntrinsicExecution {
+
+    /**
+     * One statement evaluated by the execution.
+     *
+     * @param expressionIndices the indices of the statement within the body of the function (see
+     *        {@link de.tub.pes.syscir.statespace_exploration.EvaluationLocation#getExpressionIndices()})
+     * @param variablesRead the variables read by the statement
+     * @param variablesWritten the variables written by the statement
+     * @param updateRequested whether the statement requests an update of the channel
+     * @param notifiedEvent the event notified by the statement, or null
+     * @param notificationDelay the delay of that notification, or null if there is none or it is
+     *        immediate
+     */
+    public static record Statement(List<Integer> expressionIndices, Set<Variable<?, ?>> variablesRead,
+            Set<Variable<?, ?>> variablesWritten, boolean updateRequested, Event notifiedEvent,
+            TimedBlocker notificationDelay) {}
+
+    private final WrappedSCClassInstance channel;
+    private final WrappedSCFunction function;
+    private final List<WrappedSCFunction> stackTrace;
+    private final List<Statement> statements;
+
+    /**
+     * Constructs a new description of an execution.
+     *
+     * @param channel the channel whose function is executed
+     * @param function the executed function
+     * @param stackTrace the stack trace within the executed function
+     * @param statements the statements evaluated, in order
+     */
+    public ChannelIntrinsicExecution(WrappedSCClassInstance channel, WrappedSCFunction function,
+            List<WrappedSCFunction> stackTrace, List<Statement> statements) {
+        this.channel = channel;
+        this.function = function;
+        this.stackTrace = stackTrace;
+        this.statements = List.copyOf(statements);
+    }
+
+    public WrappedSCClassInstance getChannel() {
+        return this.channel;
+    }
+
+    public WrappedSCFunction getFunction() {
+        return this.function;
+    }
+
+    public List<WrappedSCFunction> getStackTrace() {
+        return this.stackTrace;
+    }
+
+    public List<Statement> getStatements() {
+        return this.statements;
+    }
+
+    /**
+     * Returns the variables read by any statement of the execution.
+     *
+     * @return the variables read
+     */
+    public Set<Variable<?, ?>> getVariablesRead() {
+        Set<Variable<?, ?>> result = new LinkedHashSet<>();
+        for (Statement statement : this.statements) {
+            result.addAll(statement.variablesRead());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the variables written by any statement of the execution.
+     *
+     * @return the variables written
+     */
+    public Set<Variable<?, ?>> getVariablesWritten() {
+        Set<Variable<?, ?>> result = new LinkedHashSet<>();
+        for (Statement statement : this.statements) {
+            result.addAll(statement.variablesWritten());
+        }
+        return result;
+    }
+
+}
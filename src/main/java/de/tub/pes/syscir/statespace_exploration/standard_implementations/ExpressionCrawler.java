@@ -28,44 +28,30 @@ import de.tub.pes.syscir.sc_model.SCPort;
 import de.tub.pes.syscir.sc_model.SCPortInstance;
 import de.tub.pes.syscir.sc_model.SCSystem;
 import de.tub.pes.syscir.sc_model.expressions.AccessExpression;
-import de.tub.pes.syscir.sc_model.expressions.ArrayAccessExpression;
-import de.tub.pes.syscir.sc_model.expressions.ArrayInitializerExpression;
-import de.tub.pes.syscir.sc_model.expressions.AssertionExpression;
 import de.tub.pes.syscir.sc_model.expressions.BinaryExpression;
 import de.tub.pes.syscir.sc_model.expressions.BracketExpression;
 import de.tub.pes.syscir.sc_model.expressions.BreakExpression;
 import de.tub.pes.syscir.sc_model.expressions.CaseExpression;
 import de.tub.pes.syscir.sc_model.expressions.ConstantExpression;
 import de.tub.pes.syscir.sc_model.expressions.ContinueExpression;
-import de.tub.pes.syscir.sc_model.expressions.DeleteExpression;
 import de.tub.pes.syscir.sc_model.expressions.DoWhileLoopExpression;
-import de.tub.pes.syscir.sc_model.expressions.EmptyExpression;
 import de.tub.pes.syscir.sc_model.expressions.EndlineExpression;
 import de.tub.pes.syscir.sc_model.expressions.EnumElementExpression;
 import de.tub.pes.syscir.sc_model.expressions.EventNotificationExpression;
 import de.tub.pes.syscir.sc_model.expressions.Expression;
-import de.tub.pes.syscir.sc_model.expressions.ExpressionBlock;
 import de.tub.pes.syscir.sc_model.expressions.ForLoopExpression;
 import de.tub.pes.syscir.sc_model.expressions.FunctionCallExpression;
 import de.tub.pes.syscir.sc_model.expressions.IfElseExpression;
 import de.tub.pes.syscir.sc_model.expressions.LoopExpression;
-import de.tub.pes.syscir.sc_model.expressions.NameExpression;
-import de.tub.pes.syscir.sc_model.expressions.NewExpression;
-import de.tub.pes.syscir.sc_model.expressions.OutputExpression;
 import de.tub.pes.syscir.sc_model.expressions.QuestionmarkExpression;
-import de.tub.pes.syscir.sc_model.expressions.RefDerefExpression;
 import de.tub.pes.syscir.sc_model.expressions.ReturnExpression;
 import de.tub.pes.syscir.sc_model.expressions.SCClassInstanceExpression;
 import de.tub.pes.syscir.sc_model.expressions.SCDeltaCountExpression;
 import de.tub.pes.syscir.sc_model.expressions.SCPortSCSocketExpression;
 import de.tub.pes.syscir.sc_model.expressions.SCStopExpression;
-import de.tub.pes.syscir.sc_model.expressions.SCTimeStampExpression;
-import de.tub.pes.syscir.sc_model.expressions.SCVariableDeclarationExpression;
 import de.tub.pes.syscir.sc_model.expressions.SCVariableExpression;
-import de.tub.pes.syscir.sc_model.expressions.SCVariableNonDetSet;
 import de.tub.pes.syscir.sc_model.expressions.SwitchExpression;
 import de.tub.pes.syscir.sc_model.expressions.TimeUnitExpression;
-import de.tub.pes.syscir.sc_model.expressions.UnaryExpression;
 import de.tub.pes.syscir.sc_model.expressions.WhileLoopExpression;
 import de.tub.pes.syscir.sc_model.variables.SCTIMEUNIT;
 import java.util.ArrayList;
@@ -356,7 +342,8 @@ public abstract class ExpressionCrawler<GlobalStateT extends GlobalState<GlobalS
             ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT> result) {
         result = new ProcessTransitionResult<>(result.resultingState(),
                 getInformationHandler().finalizeInformation(result.transitionInformation()));
-        result.resultingState().getProcessStates().values().forEach(ProcessState::clearStateInformation);
+        // process states still shared with the previous state have no information stored
+        result.resultingState().getProcessStatesReadOnly().values().forEach(ProcessState::clearStateInformation);
         result.resultingState().lock();
         return result;
     }
@@ -432,101 +419,68 @@ public abstract class ExpressionCrawler<GlobalStateT extends GlobalState<GlobalS
             return returnFromFunction(currentState, localState, null, comingFrom);
         }
 
-        // Constants
-        if (nextExpression instanceof ConstantExpression ex) {
-            return handleConstantExpression(currentState, localState, ex, comingFrom, ConstantExpression::getValue);
-        } else if (nextExpression instanceof EndlineExpression ex) {
-            return handleConstantExpression(currentState, localState, ex, comingFrom, x -> "\n");
-        } else if (nextExpression instanceof EnumElementExpression ex) {
-            return handleConstantExpression(currentState, localState, ex, comingFrom,
-                    EnumElementExpression::getEnumElement);
-        } else if (nextExpression instanceof SCClassInstanceExpression ex) {
-            return handleConstantExpression(currentState, localState, ex, comingFrom,
-                    e -> wrap(e.getInstance()));
-        } else if (nextExpression instanceof SCDeltaCountExpression ex) {
-            return handleConstantExpression(currentState, localState, ex, comingFrom, x -> DeltaTimeBlocker.INSTANCE);
-        } else if (nextExpression instanceof SCPortSCSocketExpression ex) {
-            return handleConstantExpression(currentState, localState, ex, comingFrom,
-                    SCPortSCSocketExpression::getSCPortSCSocket);
-        } else if (nextExpression instanceof SCVariableExpression ex) {
-            return handleConstantExpression(currentState, localState, ex, comingFrom, SCVariableExpression::getVar);
-        } else if (nextExpression instanceof TimeUnitExpression ex) {
-            return handleConstantExpression(currentState, localState, ex, comingFrom, TimeUnitExpression::getTimeUnit);
-        }
-
-        // Ignored expressions
-        if (nextExpression instanceof AssertionExpression ex) {
-            return handleIgnoredExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof EmptyExpression ex) {
-            return handleIgnoredExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof NameExpression ex) {
-            return handleIgnoredExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof SCTimeStampExpression ex) {
-            return handleIgnoredExpression(currentState, localState, ex, comingFrom);
-        }
-
-        // Bottom-up evaluated expressions
-        if (nextExpression instanceof AccessExpression ex) {
-            return handleBottomUpExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof ArrayAccessExpression ex) {
-            return handleBottomUpExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof ArrayInitializerExpression ex) {
-            return handleBottomUpExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof BinaryExpression ex) {
-            return handleBottomUpExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof BracketExpression ex) {
-            return handleBracketExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof DeleteExpression ex) {
-            return handleBottomUpExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof ExpressionBlock ex) {
-            return handleBottomUpExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof NewExpression ex) {
-            return handleBottomUpExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof OutputExpression ex) {
-            return handleBottomUpExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof RefDerefExpression ex) {
-            return handleBottomUpExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof SCVariableDeclarationExpression ex) {
-            return handleBottomUpExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof SCVariableNonDetSet ex) {
-            return handleBottomUpExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof UnaryExpression ex) {
-            return handleBottomUpExpression(currentState, localState, ex, comingFrom);
-        }
-
-        // Control structures
-        if (nextExpression instanceof IfElseExpression ex) {
-            return handleIfElseExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof WhileLoopExpression ex) {
-            return handleWhileLoopExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof DoWhileLoopExpression ex) {
-            return handleWhileLoopExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof ForLoopExpression ex) {
-            return handleForLoopExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof SwitchExpression ex) {
-            return handleSwitchExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof CaseExpression ex) {
-            return handleCaseExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof BreakExpression ex) {
-            return handleBreakExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof ContinueExpression ex) {
-            return handleContinueExpression(currentState, localState, ex, comingFrom);
-        }
-        // TODO GoalAnnotation, continue, goto
-
-        // Function calls
-        if (nextExpression instanceof FunctionCallExpression ex) {
-            return handleFunctionCallExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof ReturnExpression ex) {
-            return handleReturnExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof EventNotificationExpression ex) {
-            return handleEventNotificationExpression(currentState, localState, ex, comingFrom);
-        } else if (nextExpression instanceof SCStopExpression ex) {
-            return handleSCStopExpression(currentState, localState, ex, comingFrom);
-        }
-
-        // Other types of expressions
-        return handleOtherExpression(currentState, localState, nextExpression, comingFrom);
+        // dispatch on the kind precomputed by the execution plan instead of testing the class
+        return switch (currentLocation.getNextExpressionKind()) {
+            // Constants
+            case CONSTANT -> handleConstantExpression(currentState, localState, (ConstantExpression) nextExpression,
+                    comingFrom, ConstantExpression::getValue);
+            case ENDLINE -> handleConstantExpression(currentState, localState, (EndlineExpression) nextExpression,
+                    comingFrom, x -> "\n");
+            case ENUM_ELEMENT -> handleConstantExpression(currentState, localState,
+                    (EnumElementExpression) nextExpression, comingFrom, EnumElementExpression::getEnumElement);
+            case CLASS_INSTANCE -> handleConstantExpression(currentState, localState,
+                    (SCClassInstanceExpression) nextExpression, comingFrom, e -> wrap(e.getInstance()));
+            case DELTA_COUNT -> handleConstantExpression(currentState, localState,
+                    (SCDeltaCountExpression) nextExpression, comingFrom, x -> DeltaTimeBlocker.INSTANCE);
+            case PORT_SOCKET -> handleConstantExpression(currentState, localState,
+                    (SCPortSCSocketExpression) nextExpression, comingFrom, SCPortSCSocketExpression::getSCPortSCSocket);
+            case VARIABLE -> handleConstantExpression(currentState, localState, (SCVariableExpression) nextExpression,
+                    comingFrom, SCVariableExpression::getVar);
+            case TIME_UNIT -> handleConstantExpression(currentState, localState, (TimeUnitExpression) nextExpression,
+                    comingFrom, TimeUnitExpression::getTimeUnit);
+
+            // Ignored expressions
+            case ASSERTION, EMPTY, NAME, TIME_STAMP ->
+                handleIgnoredExpression(currentState, localState, nextExpression, comingFrom);
+
+            // Bottom-up evaluated expressions
+            case ACCESS, ARRAY_ACCESS, ARRAY_INITIALIZER, BINARY, DELETE, BLOCK, NEW, OUTPUT, REF_DEREF,
+                    VARIABLE_DECLARATION, NON_DET_SET, UNARY ->
+                handleBottomUpExpression(currentState, localState, nextExpression, comingFrom);
+            case BRACKET -> handleBracketExpression(currentState, localState, (BracketExpression) nextExpression,
+                    comingFrom);
+
+            // Control structures
+            case IF_ELSE -> handleIfElseExpression(currentState, localState, (IfElseExpression) nextExpression,
+                    comingFrom);
+            case WHILE_LOOP -> handleWhileLoopExpression(currentState, localState,
+                    (WhileLoopExpression) nextExpression, comingFrom);
+            case DO_WHILE_LOOP -> handleWhileLoopExpression(currentState, localState,
+                    (DoWhileLoopExpression) nextExpression, comingFrom);
+            case FOR_LOOP -> handleForLoopExpression(currentState, localState, (ForLoopExpression) nextExpression,
+                    comingFrom);
+            case SWITCH -> handleSwitchExpression(currentState, localState, (SwitchExpression) nextExpression,
+                    comingFrom);
+            case CASE -> handleCaseExpression(currentState, localState, (CaseExpression) nextExpression, comingFrom);
+            case BREAK -> handleBreakExpression(currentState, localState, (BreakExpression) nextExpression,
+                    comingFrom);
+            case CONTINUE -> handleContinueExpression(currentState, localState, (ContinueExpression) nextExpression,
+                    comingFrom);
+            // TODO GoalAnnotation, continue, goto
+
+            // Function calls
+            case FUNCTION_CALL -> handleFunctionCallExpression(currentState, localState,
+                    (FunctionCallExpression) nextExpression, comingFrom);
+            case RETURN -> handleReturnExpression(currentState, localState, (ReturnExpression) nextExpression,
+                    comingFrom);
+            case EVENT_NOTIFICATION -> handleEventNotificationExpression(currentState, localState,
+                    (EventNotificationExpression) nextExpression, comingFrom);
+            case SC_STOP -> handleSCStopExpression(currentState, localState, (SCStopExpression) nextExpression,
+                    comingFrom);
+
+            // Other types of expressions
+            case OTHER -> handleOtherExpression(currentState, localState, nextExpression, comingFrom);
+        };
 
         // TODO how to deal with SocketFunctionCallExpression? simply "not supported" for now?
     }
@@ -566,7 +520,7 @@ public abstract class ExpressionCrawler<GlobalStateT extends GlobalState<GlobalS
      */
     public ValueT getValueOfExpression(TransitionResultT currentState, LocalStateT localState, int levelsAbove,
             int indexOfChild) {
-        EvaluationContext<ValueT> ec = localState.getExecutionStack().getLast();
+        EvaluationContext<ValueT> ec = localState.getExecutionStackReadOnly().getLast();
         return ec.getExpressionValue(levelsAbove, indexOfChild);
     }
 
@@ -0,0 +1,99 @@
+package de.tub.pes.syscir.statespace_exploration.standard_implementations;
+
+import de.tub.pes.syscir.statespace_exploration.AbstractedValue;
+import de.tub.pes.syscir.statespace_exploration.AccessRecorder;
+import de.tub.pes.syscir.statespace_exploration.EventBlocker.Event;
+import de.tub.pes.syscir.statespace_exploration.GlobalState;
+import de.tub.pes.syscir.statespace_exploration.PersistentHashMap;
+import de.tub.pes.syscir.statespace_exploration.PersistentHashSet;
+import de.tub.pes.syscir.statespace_exploration.TimedBlocker;
+import de.tub.pes.syscir.util.WrappedSCClassInstance;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * The modifications a recorded computation has made to a global state, such that they can be
+ * applied to another global state agreeing with the {@link GlobalStateProjection} of the original
+ * one.
+ *
+ * A delta consists of the resulting values of all variables written (with null denoting deleted
+ * variables), and the resulting event states and requested updates if they have been accessed.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ */
+public class GlobalStateDelta {
+
+    private final Map<Object, Object> writtenVariables;
+    private final Map<Event, TimedBlocker> eventStates;
+    private final Set<WrappedSCClassInstance> requestedUpdates;
+
+    private GlobalStateDelta(Map<Object, Object> writtenVariables, Map<Event, TimedBlocker> eventStates,
+            Set<WrappedSCClassInstance> requestedUpdates) {
+        this.writtenVariables = writtenVariables;
+        this.eventStates = eventStates;
+        this.requestedUpdates = requestedUpdates;
+    }
+
+    /**
+     * Returns the delta leading to the given resulting global state according to the given recording.
+     * <p>
+     * The recording must be representable (see
+     * {@link GlobalStateProjection#isRepresentable(GlobalState, AccessRecorder)}) and already be
+     * stopped.
+     *
+     * @param resultingState the global state after the recorded computation
+     * @param recorder the recording
+     * @return delta of the global state
+     */
+    public static GlobalStateDelta of(GlobalState<?> resultingState, AccessRecorder recorder) {
+        Map<Object, Object> writtenVariables = Map.of();
+        if (!recorder.getWrittenVariables().isEmpty()) {
+            Map<?, ?> variableValues = ((VariableHolder<?, ?>) resultingState).getVariableValues();
+            writtenVariables = new HashMap<>();
+            for (Object variable : recorder.getWrittenVariables()) {
+                writtenVariables.put(variable, variableValues.get(variable));
+            }
+        }
+
+        return new GlobalStateDelta(writtenVariables,
+                recorder.isEventStatesAccessed() ? new PersistentHashMap<>(resultingState.getEventStates()) : null,
+                recorder.isRequestedUpdatesAccessed() ? new PersistentHashSet<>(resultingState.getRequestedUpdates())
+                        : null);
+    }
+
+    /**
+     * Returns whether applying this delta leaves every global state unchanged.
+     *
+     * @return whether this delta is empty
+     */
+    public boolean isEmpty() {
+        return this.writtenVariables.isEmpty() && this.eventStates == null && this.requestedUpdates == null;
+    }
+
+    /**
+     * Applies this delta to the given unlocked global state.
+     *
+     * @param globalState the global state to modify
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void applyTo(GlobalState<?> globalState) {
+        for (Entry<Object, Object> entry : this.writtenVariables.entrySet()) {
+            VariableHolder holder = (VariableHolder) globalState;
+            if (entry.getValue() == null) {
+                holder.deleteVariableValue((Variable<?, ?>) entry.getKey());
+            } else {
+                holder.setVariableValue((Variable<?, ?>) entry.getKey(), (AbstractedValue) entry.getValue());
+            }
+        }
+        if (this.eventStates != null) {
+            globalState.setEventStates(new PersistentHashMap<>(this.eventStates));
+        }
+        if (this.requestedUpdates != null) {
+            globalState.setRequestedUpdates(new PersistentHashSet<>(this.requestedUpdates));
+        }
+    }
+
+}
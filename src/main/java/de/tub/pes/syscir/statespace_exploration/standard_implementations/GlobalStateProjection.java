@@ -0,0 +1,122 @@
+package de.tub.pes.syscir.statespace_exploration.standard_implementations;
+
+import de.tub.pes.syscir.statespace_exploration.AccessRecorder;
+import de.tub.pes.syscir.statespace_exploration.EventBlocker.Event;
+import de.tub.pes.syscir.statespace_exploration.GlobalState;
+import de.tub.pes.syscir.statespace_exploration.PersistentHashMap;
+import de.tub.pes.syscir.statespace_exploration.PersistentHashSet;
+import de.tub.pes.syscir.statespace_exploration.TimedBlocker;
+import de.tub.pes.syscir.util.WrappedSCClassInstance;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The portion of a global state that a recorded computation has read, such that the computation can
+ * be assumed to behave identically on every global state agreeing with this projection.
+ *
+ * A projection consists of the values of all variables read individually (with null denoting
+ * absent variables), all variable values if they have been iterated over, and the event states and
+ * requested updates if they have been accessed.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ */
+public class GlobalStateProjection {
+
+    private final Map<Object, Object> readVariables;
+    private final Map<Object, Object> allVariables;
+    private final Map<Event, TimedBlocker> eventStates;
+    private final Set<WrappedSCClassInstance> requestedUpdates;
+
+    private GlobalStateProjection(Map<Object, Object> readVariables, Map<Object, Object> allVariables,
+            Map<Event, TimedBlocker> eventStates, Set<WrappedSCClassInstance> requestedUpdates) {
+        this.readVariables = readVariables;
+        this.allVariables = allVariables;
+        this.eventStates = eventStates;
+        this.requestedUpdates = requestedUpdates;
+    }
+
+    /**
+     * Returns the projection of the given global state to the portion accessed in the given recording,
+     * or null if the recording cannot be described by a projection of the global state.
+     * <p>
+     * The latter is the case if the state of any process has been accessed, the global state has been
+     * replaced or variables have been accessed although the global state is no {@link VariableHolder}.
+     * The recording must already be stopped.
+     *
+     * @param globalState the global state before the recorded computation
+     * @param recorder the recording
+     * @return projection of the global state, or null
+     */
+    public static GlobalStateProjection of(GlobalState<?> globalState, AccessRecorder recorder) {
+        if (!isRepresentable(globalState, recorder)) {
+            return null;
+        }
+
+        Map<Object, Object> readVariables = null;
+        Map<Object, Object> allVariables = null;
+        if (recorder.isAllVariablesRead()) {
+            allVariables = new HashMap<>(getVariableValues(globalState));
+        } else if (!recorder.getReadVariables().isEmpty()) {
+            Map<?, ?> variableValues = getVariableValues(globalState);
+            readVariables = new HashMap<>();
+            for (Object variable : recorder.getReadVariables()) {
+                readVariables.put(variable, variableValues.get(variable));
+            }
+        }
+
+        return new GlobalStateProjection(readVariables, allVariables,
+                recorder.isEventStatesAccessed() ? new PersistentHashMap<>(globalState.getEventStates()) : null,
+                recorder.isRequestedUpdatesAccessed() ? new PersistentHashSet<>(globalState.getRequestedUpdates())
+                        : null);
+    }
+
+    /**
+     * Returns whether the accesses of the given recording can be described by a projection and a
+     * {@link GlobalStateDelta} of the given global state.
+     *
+     * @param globalState the global state before the recorded computation
+     * @param recorder the recording
+     * @return whether the recording is representable
+     */
+    public static boolean isRepresentable(GlobalState<?> globalState, AccessRecorder recorder) {
+        if (recorder.isOtherProcessesAccessed() || recorder.isGlobalStateReplaced()) {
+            return false;
+        }
+        boolean variablesAccessed = recorder.isAllVariablesRead() || !recorder.getReadVariables().isEmpty()
+                || !recorder.getWrittenVariables().isEmpty();
+        return !variablesAccessed || globalState instanceof VariableHolder<?, ?>;
+    }
+
+    /**
+     * Returns whether the given global state agrees with this projection.
+     *
+     * @param globalState some global state
+     * @return whether the state agrees with this projection
+     */
+    public boolean matches(GlobalState<?> globalState) {
+        if (this.readVariables != null) {
+            Map<?, ?> variableValues = getVariableValues(globalState);
+            for (Entry<Object, Object> entry : this.readVariables.entrySet()) {
+                if (!Objects.equals(variableValues.get(entry.getKey()), entry.getValue())) {
+                    return false;
+                }
+            }
+        }
+        if (this.allVariables != null && !this.allVariables.equals(getVariableValues(globalState))) {
+            return false;
+        }
+        if (this.eventStates != null && !this.eventStates.equals(globalState.getEventStates())) {
+            return false;
+        }
+        return this.requestedUpdates == null || this.requestedUpdates.equals(globalState.getRequestedUpdates());
+    }
+
+    private static Map<?, ?> getVariableValues(GlobalState<?> globalState) {
+        return ((VariableHolder<?, ?>) globalState).getVariableValues();
+    }
+
+}
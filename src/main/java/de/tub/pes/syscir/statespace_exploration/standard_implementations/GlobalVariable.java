@@ -5,20 +5,29 @@ import de.tub.pes.syscir.statespace_exploration.EventBlocker.Event;
 import de.tub.pes.syscir.util.WrappedSCClassInstance;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 /**
- * Record representing a variable (not its value) that is not process-specific, i.e. not a local
+ * Class representing a variable (not its value) that is not process-specific, i.e. not a local
  * variable.
  * 
  * The variable consists of the instance to which it belongs (the qualifier) as well as the
- * SCVariable specifying it.
+ * SCVariable specifying it. Two global variables are equal iff both components are equal.
  * 
  * @author Jonas Becker-Kupczok
  *
  * @param <InstanceT> the type of instance the variable belongs to
  * @param <SCVarT> the type specifying the variable (usually a subclass of SCVariable or SCPort)
  */
-public record GlobalVariable<InstanceT, SCVarT> (InstanceT instance, SCVarT scVariable) implements Variable<InstanceT, SCVarT> {
+public final class GlobalVariable<InstanceT, SCVarT> extends Variable<InstanceT, SCVarT> {
+
+    private final InstanceT instance;
+    private final SCVarT scVariable;
+
+    public GlobalVariable(InstanceT instance, SCVarT scVariable) {
+        this.instance = instance;
+        this.scVariable = scVariable;
+    }
 
     public static GlobalVariable<WrappedSCClassInstance, List<EvaluationLocation>> blockTrigger(
             WrappedSCClassInstance processInstance,
@@ -31,6 +40,14 @@ public record GlobalVariable<InstanceT, SCVarT> (InstanceT instance, SCVarT scVa
         return new GlobalVariable<>(eventInstance, null);
     }
 
+    public InstanceT instance() {
+        return this.instance;
+    }
+
+    public SCVarT scVariable() {
+        return this.scVariable;
+    }
+
     @Override
     public InstanceT getQualifier() {
         return instance();
@@ -41,6 +58,20 @@ public record GlobalVariable<InstanceT, SCVarT> (InstanceT instance, SCVarT scVa
         return scVariable();
     }
 
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        return other instanceof GlobalVariable<?, ?> variable && Objects.equals(this.instance, variable.instance)
+                && Objects.equals(this.scVariable, variable.scVariable);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(this.instance) + Objects.hashCode(this.scVariable);
+    }
+
     @Override
     public String toString() {
         return "GVar[" + this.instance + "." + this.scVariable + "]";
@@ -86,6 +86,81 @@ public interface InformationHandler<InfoT extends ComposableTransitionInformatio
         return information;
     }
 
+    /**
+     * Returns whether this handler can describe the execution of channel functions that are not
+     * interpreted but computed by a built-in model of the channel (see
+     * {@link #handleChannelIntrinsic(Expression, ChannelIntrinsicExecution, TransitionResult, LocalState)}).
+     *
+     * Handlers that need to observe every expression evaluated within the implementation of a channel
+     * must return false, which is the default.
+     *
+     * @return whether channel intrinsics are supported
+     */
+    default boolean supportsChannelIntrinsics() {
+        return false;
+    }
+
+    /**
+     * Returns the information describing the execution of a channel function by a built-in model of
+     * the channel, replacing the evaluation of all expressions within the function.
+     *
+     * The execution describes the statements that interpreting the function would have evaluated. For
+     * a function call, neither entering nor returning from the call is reported separately, i.e. this
+     * method replaces the invocation of
+     * {@link #handleExpressionEvaluation(Expression, int, TransitionResult, LocalState)} for entering
+     * the function, and the resulting state has already returned to the caller. For the update of a
+     * channel, it replaces all invocations after
+     * {@link #handleStartOfCode(TransitionResult, LocalState)}, including the one for the end of the
+     * code. The result should take into account the information from previous steps already contained
+     * in resultingState.
+     *
+     * @param <LocalStateT> the type of local state used for the evaluation of the calling code
+     * @param evaluated the function call expression that was just evaluated (is null for the update of
+     *        a channel)
+     * @param execution the description of the execution
+     * @param resultingState the state after the execution of the function
+     * @param localState the local part of that state
+     * @return the information describing the execution of the function
+     */
+    default <LocalStateT extends LocalState<LocalStateT, ValueT>> InfoT handleChannelIntrinsic(Expression evaluated,
+            ChannelIntrinsicExecution execution, TransitionResult<?, ?, ?, InfoT, ?> resultingState,
+            LocalStateT localState) {
+        return resultingState.transitionInformation();
+    }
+
+    /**
+     * Returns whether this handler can describe the evaluation of consecutive pieces of code by
+     * combining the information gathered for each of them on its own (see
+     * {@link #handleSequence(ComposableTransitionInformation, ComposableTransitionInformation)}).
+     *
+     * This allows the outcome of such a piece of code (e.g. the update of a channel) to be reused after
+     * different previous steps. The default is false.
+     *
+     * @return whether sequencing is supported
+     */
+    default boolean supportsSequencing() {
+        return false;
+    }
+
+    /**
+     * Returns the information describing the evaluation of some code after the code described by the
+     * previous information, given the information gathered for the later code on its own, i.e. starting
+     * with {@link #handleStartOfCode(TransitionResult, LocalState)} from
+     * {@link #getNeutralInformation()}.
+     *
+     * The result must be the same as if the later code had been evaluated starting from the previous
+     * information. Neither parameter is modified. Only invoked if {@link #supportsSequencing()} returns
+     * true.
+     *
+     * @param previous the information gathered so far (not finalized)
+     * @param next the information gathered for the later code on its own (not finalized)
+     * @return the information describing the evaluation of both
+     * @throws UnsupportedOperationException if sequencing is not supported
+     */
+    default InfoT handleSequence(InfoT previous, InfoT next) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("sequencing not supported by " + getClass().getSimpleName());
+    }
+
     /**
      * Called whenver a process was made ready because the delta cycle it waited for ended.
      * 
@@ -1,21 +1,24 @@
 package de.tub.pes.syscir.statespace_exploration.standard_implementations;
 
+import de.tub.pes.syscir.statespace_exploration.CallContext;
 import de.tub.pes.syscir.util.WrappedSCFunction;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
- * Record representing a local variable (not its value), i.e. one that is process specific.
+ * Class representing a local variable (not its value), i.e. one that is process specific.
  * 
  * The variable consists of the execution stack (the qualifier) to differentiate different instances
- * of the same SCVariable for different function calls as well as the SCVariable specifying it.
+ * of the same SCVariable for different function calls as well as the SCVariable specifying it. The
+ * stack is interned as a {@link CallContext}, such that comparing and hashing it takes constant time.
+ * Two local variables are equal iff both components are equal.
  * 
  * @author Jonas Becker-Kupczok
  *
  * @param <SCVarT> the type specifying the variable (usually a subclass of SCVariable or SCPort)
  */
-public record LocalVariable<SCVarT>(List<WrappedSCFunction> stack, SCVarT scVariable)
-implements Variable<List<WrappedSCFunction>, SCVarT> {
+public final class LocalVariable<SCVarT> extends Variable<List<WrappedSCFunction>, SCVarT> {
 
     // object indicating the special "this" variable if used for the scVariable field
     public static final Object THIS_VAR = new Object() {
@@ -35,6 +38,14 @@ implements Variable<List<WrappedSCFunction>, SCVarT> {
         }
     };
 
+    private final List<WrappedSCFunction> stack;
+    private final SCVarT scVariable;
+
+    public LocalVariable(List<WrappedSCFunction> stack, SCVarT scVariable) {
+        this.stack = CallContext.of(stack);
+        this.scVariable = scVariable;
+    }
+
     public static LocalVariable<Object> getThisVariable(List<WrappedSCFunction> stack) {
         return new LocalVariable<Object>(stack, THIS_VAR);
     }
@@ -43,6 +54,14 @@ implements Variable<List<WrappedSCFunction>, SCVarT> {
         return new LocalVariable<Object>(stack, RESULT_VAR);
     }
 
+    public List<WrappedSCFunction> stack() {
+        return this.stack;
+    }
+
+    public SCVarT scVariable() {
+        return this.scVariable;
+    }
+
     @Override
     public List<WrappedSCFunction> getQualifier() {
         return stack();
@@ -61,6 +80,20 @@ implements Variable<List<WrappedSCFunction>, SCVarT> {
         return this.scVariable == RESULT_VAR;
     }
 
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        return other instanceof LocalVariable<?> variable && this.stack.equals(variable.stack)
+                && Objects.equals(this.scVariable, variable.scVariable);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.stack.hashCode() + Objects.hashCode(this.scVariable);
+    }
+
     @Override
     public String toString() {
         String stackString = this.stack.stream().map(fun -> fun.getName()).collect(Collectors.joining("."));
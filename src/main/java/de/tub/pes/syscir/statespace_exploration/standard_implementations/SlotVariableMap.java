@@ -0,0 +1,341 @@
+package de.tub.pes.syscir.statespace_exploration.standard_implementations;
+
+import de.tub.pes.syscir.statespace_exploration.Fingerprintable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A map from {@link Variable}s to values that stores the values in an array indexed by the slots
+ * assigned to the variables by a {@link VariableSymbolTable}.
+ *
+ * The array is split into chunks of 32 slots. Chunks are never modified once they are reachable from
+ * more than one map; instead, every modification replaces the affected chunk and the array of chunks
+ * by modified copies. Therefore, copying a SlotVariableMap via
+ * {@link #SlotVariableMap(SlotVariableMap)} takes constant time, and comparing two maps using the same
+ * symbol table only compares the chunks that are not shared between them.
+ * <p>
+ * Like {@link de.tub.pes.syscir.statespace_exploration.PersistentHashMap}, the map keeps its
+ * hashCode and fingerprint up to date on every modification, computing both the same way as a
+ * PersistentHashMap with the same contents. The hashes of keys and values are assumed not to change
+ * while they are contained in the map.
+ * <p>
+ * Null keys are not supported, null values are. The iteration order is the order of the slots of the
+ * keys. Iterators operate on the contents of the map at the time of their creation and are never
+ * invalidated by modifications. This class is not thread-safe.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <K> the type of variables
+ * @param <V> the type of values
+ */
+public class SlotVariableMap<K extends Variable<?, ?>, V> extends AbstractMap<K, V> implements Fingerprintable {
+
+    private static final int CHUNK_BITS = 5;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final Object[][] NO_CHUNKS = new Object[0][];
+
+    // stored in place of null values, as null marks an empty slot
+    private static final Object NULL_VALUE = new Object();
+
+    private class SlotIterator implements Iterator<Entry<K, V>> {
+
+        private final Object[][] chunks;
+        private int nextSlot;
+        private K lastKey;
+        private boolean canRemove;
+
+        private SlotIterator(Object[][] chunks) {
+            this.chunks = chunks;
+            this.nextSlot = -1;
+            advance();
+        }
+
+        private void advance() {
+            int slot = this.nextSlot + 1;
+            while ((slot >>> CHUNK_BITS) < this.chunks.length) {
+                Object[] chunk = this.chunks[slot >>> CHUNK_BITS];
+                if (chunk == null) {
+                    slot = (slot | CHUNK_MASK) + 1;
+                    continue;
+                }
+                if (chunk[slot & CHUNK_MASK] != null) {
+                    this.nextSlot = slot;
+                    return;
+                }
+                slot++;
+            }
+            this.nextSlot = -2;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.nextSlot >= 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int slot = this.nextSlot;
+            Object value = this.chunks[slot >>> CHUNK_BITS][slot & CHUNK_MASK];
+            advance();
+
+            this.lastKey = (K) SlotVariableMap.this.symbols.getVariable(slot);
+            this.canRemove = true;
+            return new SlotEntry(this.lastKey, unmask(value));
+        }
+
+        @Override
+        public void remove() {
+            if (!this.canRemove) {
+                throw new IllegalStateException("next() has not been called since the last removal");
+            }
+            this.canRemove = false;
+            SlotVariableMap.this.remove(this.lastKey);
+        }
+
+    }
+
+    private class SlotEntry extends SimpleEntry<K, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        private SlotEntry(K key, V value) {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value) {
+            put(getKey(), value);
+            return super.setValue(value);
+        }
+
+    }
+
+    private class SlotEntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new SlotIterator(SlotVariableMap.this.chunks);
+        }
+
+        @Override
+        public int size() {
+            return SlotVariableMap.this.size;
+        }
+
+        @Override
+        public void clear() {
+            SlotVariableMap.this.clear();
+        }
+
+    }
+
+    private final VariableSymbolTable symbols;
+
+    private Object[][] chunks;
+    private int size;
+
+    private int hashCode;
+    private long fingerprint;
+
+    private Set<Entry<K, V>> entrySet;
+
+    /**
+     * Constructs a new, empty SlotVariableMap using the given symbol table.
+     *
+     * @param symbols the symbol table assigning slots to variables
+     */
+    public SlotVariableMap(VariableSymbolTable symbols) {
+        this.symbols = Objects.requireNonNull(symbols);
+        this.chunks = NO_CHUNKS;
+    }
+
+    /**
+     * Constructs a new SlotVariableMap containing the same mappings and using the same symbol table as
+     * the given map.
+     *
+     * The chunks of the given map are shared and this constructor takes constant time.
+     *
+     * @param copyOf the map to copy
+     */
+    public SlotVariableMap(SlotVariableMap<K, V> copyOf) {
+        this.symbols = copyOf.symbols;
+        this.chunks = copyOf.chunks;
+        this.size = copyOf.size;
+        this.hashCode = copyOf.hashCode;
+        this.fingerprint = copyOf.fingerprint;
+    }
+
+    /**
+     * Returns the symbol table assigning slots to the keys of this map.
+     *
+     * @return symbol table
+     */
+    public VariableSymbolTable getSymbols() {
+        return this.symbols;
+    }
+
+    /**
+     * Returns the 64-bit fingerprint of this map, which is the same as that of a
+     * {@link de.tub.pes.syscir.statespace_exploration.PersistentHashMap} with the same contents.
+     *
+     * @return fingerprint
+     */
+    @Override
+    public long fingerprint() {
+        return this.fingerprint;
+    }
+
+    private static Object mask(Object value) {
+        return value == null ? NULL_VALUE : value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V unmask(Object value) {
+        return value == NULL_VALUE ? null : (V) value;
+    }
+
+    private Object getRaw(int slot) {
+        int chunkIndex = slot >>> CHUNK_BITS;
+        if (slot < 0 || chunkIndex >= this.chunks.length) {
+            return null;
+        }
+        Object[] chunk = this.chunks[chunkIndex];
+        return chunk == null ? null : chunk[slot & CHUNK_MASK];
+    }
+
+    // replaces the entry at the given slot (null meaning no entry) and returns the previous one
+    private Object setRaw(int slot, Object raw) {
+        int chunkIndex = slot >>> CHUNK_BITS;
+        Object[] chunk = chunkIndex < this.chunks.length ? this.chunks[chunkIndex] : null;
+        Object old = chunk == null ? null : chunk[slot & CHUNK_MASK];
+        if (old == raw) {
+            return old;
+        }
+
+        Object[][] newChunks = Arrays.copyOf(this.chunks, Math.max(this.chunks.length, chunkIndex + 1));
+        Object[] newChunk = chunk == null ? new Object[CHUNK_SIZE] : chunk.clone();
+        newChunk[slot & CHUNK_MASK] = raw;
+        newChunks[chunkIndex] = newChunk;
+        this.chunks = newChunks;
+        return old;
+    }
+
+    private void entryAdded(Object key, Object value) {
+        this.hashCode += key.hashCode() ^ Objects.hashCode(value);
+        this.fingerprint += Fingerprintable.entry(key, value);
+    }
+
+    private void entryRemoved(Object key, Object value) {
+        this.hashCode -= key.hashCode() ^ Objects.hashCode(value);
+        this.fingerprint -= Fingerprintable.entry(key, value);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return getRaw(this.symbols.findSlot(key)) != null;
+    }
+
+    @Override
+    public V get(Object key) {
+        return unmask(getRaw(this.symbols.findSlot(key)));
+    }
+
+    @Override
+    public V put(K key, V value) {
+        Objects.requireNonNull(key);
+
+        Object old = setRaw(this.symbols.getSlot(key), mask(value));
+        if (old == null) {
+            this.size++;
+        } else {
+            entryRemoved(key, unmask(old));
+        }
+        entryAdded(key, value);
+        return unmask(old);
+    }
+
+    @Override
+    public V remove(Object key) {
+        int slot = this.symbols.findSlot(key);
+        if (getRaw(slot) == null) {
+            return null;
+        }
+
+        Object old = setRaw(slot, null);
+        this.size--;
+        entryRemoved(key, unmask(old));
+        return unmask(old);
+    }
+
+    @Override
+    public void clear() {
+        this.chunks = NO_CHUNKS;
+        this.size = 0;
+        this.hashCode = 0;
+        this.fingerprint = 0;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (this.entrySet == null) {
+            this.entrySet = new SlotEntrySet();
+        }
+        return this.entrySet;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hashCode;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other == this) {
+            return true;
+        }
+        if (!(other instanceof SlotVariableMap<?, ?> map) || map.symbols != this.symbols) {
+            return super.equals(other);
+        }
+
+        if (this.size != map.size || this.hashCode != map.hashCode || this.fingerprint != map.fingerprint) {
+            return false;
+        }
+
+        int numChunks = Math.max(this.chunks.length, map.chunks.length);
+        for (int i = 0; i < numChunks; i++) {
+            Object[] chunk = i < this.chunks.length ? this.chunks[i] : null;
+            Object[] otherChunk = i < map.chunks.length ? map.chunks[i] : null;
+            if (chunk == otherChunk) {
+                continue;
+            }
+            for (int j = 0; j < CHUNK_SIZE; j++) {
+                if (!Objects.equals(chunk == null ? null : chunk[j], otherChunk == null ? null : otherChunk[j])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,221 @@
+package de.tub.pes.syscir.statespace_exploration.standard_implementations;
+
+import de.tub.pes.syscir.statespace_exploration.AccessRecorder;
+import de.tub.pes.syscir.statespace_exploration.AnalyzedProcess;
+import de.tub.pes.syscir.statespace_exploration.ConsideredState;
+import de.tub.pes.syscir.statespace_exploration.GlobalState;
+import de.tub.pes.syscir.statespace_exploration.ProcessState;
+import de.tub.pes.syscir.statespace_exploration.ProcessTransitionResult;
+import de.tub.pes.syscir.statespace_exploration.TransitionInformation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of the transitions of one process, allowing to replay a step instead of executing
+ * it again.
+ *
+ * Entries are keyed by the local state of the process and whether the simulation has been stopped.
+ * Each entry additionally stores the {@link GlobalStateProjection} that the step depended on, as
+ * observed by an {@link AccessRecorder} during the step, and is only replayed on states that agree
+ * with that projection. Replaying a step sets the stored resulting local state, applies the stored
+ * {@link GlobalStateDelta} to the global state and returns a clone of the stored transition
+ * information.
+ * <p>
+ * Steps that access the state of any other process (e.g. by immediately notifying an event or
+ * stopping the simulation) are not cached, as their effect cannot be described by such a delta.
+ * <p>
+ * The cache is split into segments that are synchronized individually and evict their least
+ * recently used entries once their share of the capacity is exceeded, such that it can be used
+ * concurrently by multiple threads. Hits and misses are counted over all instances of this class.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <ProcessT> the type of process
+ * @param <GlobalStateT> the type of global state abstraction
+ * @param <ProcessStateT> the type of local state abstraction
+ * @param <InfoT> the type of additional transition information
+ */
+public class TransitionCache<ProcessT extends AnalyzedProcess<ProcessT, GlobalStateT, ProcessStateT, InfoT>, GlobalStateT extends GlobalState<GlobalStateT>, ProcessStateT extends ProcessState<ProcessStateT, ?>, InfoT extends TransitionInformation<InfoT>> {
+
+    private static final int NUM_SEGMENTS = 16;
+    private static final int MAX_PROJECTIONS_PER_KEY = 8;
+
+    private static final LongAdder numHits = new LongAdder();
+    private static final LongAdder numMisses = new LongAdder();
+
+    private record Key<ProcessStateT>(ProcessStateT processState, boolean simulationStopped) {}
+
+    private record CachedResult<ProcessStateT, InfoT>(ProcessStateT processState, GlobalStateDelta delta,
+            InfoT information) {}
+
+    private record CachedStep<ProcessStateT, InfoT>(GlobalStateProjection projection,
+            List<CachedResult<ProcessStateT, InfoT>> results) {}
+
+    private final ProcessT process;
+    private final List<Map<Key<ProcessStateT>, List<CachedStep<ProcessStateT, InfoT>>>> segments;
+
+    /**
+     * Constructs a new, empty cache for the given process, holding up to approximately the given
+     * number of local states.
+     *
+     * @param process the process whose transitions are cached
+     * @param capacity the maximum number of local states to cache transitions for
+     */
+    public TransitionCache(ProcessT process, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+
+        this.process = process;
+
+        int segmentCapacity = Math.max(1, capacity / NUM_SEGMENTS);
+        this.segments = new ArrayList<>(NUM_SEGMENTS);
+        for (int i = 0; i < NUM_SEGMENTS; i++) {
+            this.segments.add(new LinkedHashMap<>(16, 0.75f, true) {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(
+                        Entry<Key<ProcessStateT>, List<CachedStep<ProcessStateT, InfoT>>> eldest) {
+                    return size() > segmentCapacity;
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the number of steps replayed from any transition cache since the last invocation of
+     * {@link #resetStatistics()}.
+     *
+     * @return number of cache hits
+     */
+    public static long getNumHits() {
+        return numHits.sum();
+    }
+
+    /**
+     * Returns the number of steps not found in any transition cache since the last invocation of
+     * {@link #resetStatistics()}.
+     *
+     * @return number of cache misses
+     */
+    public static long getNumMisses() {
+        return numMisses.sum();
+    }
+
+    /**
+     * Resets the statistics reported by {@link #getNumHits()} and {@link #getNumMisses()}.
+     */
+    public static void resetStatistics() {
+        numHits.reset();
+        numMisses.reset();
+    }
+
+    private Map<Key<ProcessStateT>, List<CachedStep<ProcessStateT, InfoT>>> getSegment(Key<ProcessStateT> key) {
+        int hash = key.hashCode();
+        return this.segments.get((hash ^ (hash >>> 16)) & (NUM_SEGMENTS - 1));
+    }
+
+    private Key<ProcessStateT> getKey(ConsideredState<GlobalStateT, ProcessStateT, ProcessT> state) {
+        return new Key<>(state.getProcessStateReadOnly(this.process),
+                state.getGlobalStateReadOnly().isSimulationStopped());
+    }
+
+    /**
+     * Returns the replayed transitions of the process from the given state if a matching step has been
+     * cached, or null otherwise.
+     * <p>
+     * The given state must be locked. The returned transitions are finalized and locked, as if
+     * returned by {@link AnalyzedProcess#makeStep(ConsideredState)}.
+     *
+     * @param currentState the state in which the process makes a step
+     * @return the replayed transitions, or null
+     */
+    public Set<ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT>> lookup(
+            ConsideredState<GlobalStateT, ProcessStateT, ProcessT> currentState) {
+        Key<ProcessStateT> key = getKey(currentState);
+        Map<Key<ProcessStateT>, List<CachedStep<ProcessStateT, InfoT>>> segment = getSegment(key);
+        List<CachedStep<ProcessStateT, InfoT>> steps;
+        synchronized (segment) {
+            steps = segment.get(key);
+        }
+
+        if (steps != null) {
+            GlobalStateT globalState = currentState.getGlobalStateReadOnly();
+            for (CachedStep<ProcessStateT, InfoT> step : steps) {
+                if (step.projection().matches(globalState)) {
+                    numHits.increment();
+                    return replay(step, currentState);
+                }
+            }
+        }
+
+        numMisses.increment();
+        return null;
+    }
+
+    /**
+     * Stores the transitions the process has made from the given state, given the accesses recorded
+     * while making the step.
+     * <p>
+     * If the recorded accesses show that the step cannot be replayed by this cache, nothing is stored.
+     *
+     * @param currentState the locked state in which the process has made the step
+     * @param recorder the recording of the step, already stopped
+     * @param transitions the finalized transitions resulting from the step
+     */
+    public void store(ConsideredState<GlobalStateT, ProcessStateT, ProcessT> currentState, AccessRecorder recorder,
+            Collection<ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT>> transitions) {
+        GlobalStateProjection projection = GlobalStateProjection.of(currentState.getGlobalStateReadOnly(), recorder);
+        if (projection == null) {
+            return;
+        }
+
+        List<CachedResult<ProcessStateT, InfoT>> results = new ArrayList<>(transitions.size());
+        for (ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT> transition : transitions) {
+            ConsideredState<GlobalStateT, ProcessStateT, ProcessT> resultingState = transition.resultingState();
+            results.add(new CachedResult<>(resultingState.getProcessStateReadOnly(this.process),
+                    GlobalStateDelta.of(resultingState.getGlobalStateReadOnly(), recorder),
+                    transition.transitionInformation().clone()));
+        }
+        CachedStep<ProcessStateT, InfoT> step = new CachedStep<>(projection, results);
+
+        Key<ProcessStateT> key = getKey(currentState);
+        Map<Key<ProcessStateT>, List<CachedStep<ProcessStateT, InfoT>>> segment = getSegment(key);
+        synchronized (segment) {
+            List<CachedStep<ProcessStateT, InfoT>> steps = segment.get(key);
+            // lists are copied on write, such that lookups can iterate over them without synchronization
+            List<CachedStep<ProcessStateT, InfoT>> newSteps = new ArrayList<>(MAX_PROJECTIONS_PER_KEY);
+            newSteps.add(step);
+            if (steps != null) {
+                newSteps.addAll(steps.subList(0, Math.min(steps.size(), MAX_PROJECTIONS_PER_KEY - 1)));
+            }
+            segment.put(key, newSteps);
+        }
+    }
+
+    private Set<ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT>> replay(
+            CachedStep<ProcessStateT, InfoT> step, ConsideredState<GlobalStateT, ProcessStateT, ProcessT> currentState) {
+        Set<ProcessTransitionResult<GlobalStateT, ProcessStateT, InfoT, ProcessT>> result =
+                new LinkedHashSet<>(step.results().size());
+        for (CachedResult<ProcessStateT, InfoT> cached : step.results()) {
+            ConsideredState<GlobalStateT, ProcessStateT, ProcessT> state = currentState.unlockedClone();
+            state.setState(this.process, cached.processState());
+            if (!cached.delta().isEmpty()) {
+                cached.delta().applyTo(state.getGlobalState());
+            }
+            state.lock();
+            result.add(new ProcessTransitionResult<>(state, cached.information().clone()));
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,190 @@
+package de.tub.pes.syscir.statespace_exploration.standard_implementations;
+
+import de.tub.pes.syscir.statespace_exploration.AccessRecorder;
+import de.tub.pes.syscir.statespace_exploration.ConsideredState;
+import de.tub.pes.syscir.statespace_exploration.GlobalState;
+import de.tub.pes.syscir.statespace_exploration.TransitionInformation;
+import de.tub.pes.syscir.util.WrappedSCClassInstance;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of the outcomes of updating a channel in the update phase, allowing to replay an
+ * update instead of interpreting the update method of the channel again.
+ *
+ * Entries are keyed by the channel instance and whether the simulation has been stopped. Like in a
+ * {@link TransitionCache}, each entry additionally stores the {@link GlobalStateProjection} that the
+ * update depended on, i.e. the channel variables and event states read, and is only replayed on
+ * global states that agree with that projection. An outcome consists of the {@link GlobalStateDelta}
+ * of the update and the transition information gathered for the update on its own, i.e. starting
+ * from the neutral information. The information of the update phase so far is not part of the key,
+ * instead, the cached information is appended to it when replaying (see
+ * {@link InformationHandler#handleSequence(ComposableTransitionInformation, ComposableTransitionInformation)}).
+ * <p>
+ * Updates that access the state of any process (e.g. by immediately notifying an event) are not
+ * cached, as their effect cannot be described by such a delta.
+ * <p>
+ * The cache is split into segments that are synchronized individually and evict their least
+ * recently used entries once their share of the capacity is exceeded, such that it can be used
+ * concurrently by multiple threads. Hits and misses are counted over all instances of this class.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ * @param <InfoT> the type of additional transition information
+ */
+public class UpdateCache<InfoT extends TransitionInformation<InfoT>> {
+
+    private static final int NUM_SEGMENTS = 16;
+    private static final int MAX_PROJECTIONS_PER_KEY = 8;
+
+    private static final LongAdder numHits = new LongAdder();
+    private static final LongAdder numMisses = new LongAdder();
+
+    private record Key(WrappedSCClassInstance channel, boolean simulationStopped) {}
+
+    /**
+     * One possible outcome of a cached update.
+     *
+     * @param <InfoT> the type of additional transition information
+     * @param delta the modifications of the global state
+     * @param information the information gathered for the update on its own (locked)
+     */
+    public static record CachedOutcome<InfoT>(GlobalStateDelta delta, InfoT information) {}
+
+    private record CachedUpdate<InfoT>(GlobalStateProjection projection, List<CachedOutcome<InfoT>> outcomes) {}
+
+    private final List<Map<Key, List<CachedUpdate<InfoT>>>> segments;
+
+    /**
+     * Constructs a new, empty cache holding updates for up to approximately the given number of
+     * combinations of channel and simulation stoppage.
+     *
+     * @param capacity the maximum number of keys to cache updates for
+     */
+    public UpdateCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+
+        int segmentCapacity = Math.max(1, capacity / NUM_SEGMENTS);
+        this.segments = new ArrayList<>(NUM_SEGMENTS);
+        for (int i = 0; i < NUM_SEGMENTS; i++) {
+            this.segments.add(new LinkedHashMap<>(16, 0.75f, true) {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Entry<Key, List<CachedUpdate<InfoT>>> eldest) {
+                    return size() > segmentCapacity;
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the number of updates replayed from any update cache since the last invocation of
+     * {@link #resetStatistics()}.
+     *
+     * @return number of cache hits
+     */
+    public static long getNumHits() {
+        return numHits.sum();
+    }
+
+    /**
+     * Returns the number of updates not found in any update cache since the last invocation of
+     * {@link #resetStatistics()}.
+     *
+     * @return number of cache misses
+     */
+    public static long getNumMisses() {
+        return numMisses.sum();
+    }
+
+    /**
+     * Resets the statistics reported by {@link #getNumHits()} and {@link #getNumMisses()}.
+     */
+    public static void resetStatistics() {
+        numHits.reset();
+        numMisses.reset();
+    }
+
+    private Map<Key, List<CachedUpdate<InfoT>>> getSegment(Key key) {
+        int hash = key.hashCode();
+        return this.segments.get((hash ^ (hash >>> 16)) & (NUM_SEGMENTS - 1));
+    }
+
+    /**
+     * Returns the outcomes of updating the given channel in the given global state if a matching
+     * update has been cached, or null otherwise.
+     *
+     * @param channel the channel to be updated
+     * @param globalState the global state before the update
+     * @return the cached outcomes, or null
+     */
+    public List<CachedOutcome<InfoT>> lookup(WrappedSCClassInstance channel, GlobalState<?> globalState) {
+        Key key = new Key(channel, globalState.isSimulationStopped());
+        Map<Key, List<CachedUpdate<InfoT>>> segment = getSegment(key);
+        List<CachedUpdate<InfoT>> updates;
+        synchronized (segment) {
+            updates = segment.get(key);
+        }
+
+        if (updates != null) {
+            for (CachedUpdate<InfoT> update : updates) {
+                if (update.projection().matches(globalState)) {
+                    numHits.increment();
+                    return update.outcomes();
+                }
+            }
+        }
+
+        numMisses.increment();
+        return null;
+    }
+
+    /**
+     * Stores the outcomes of updating the given channel, given the accesses recorded during the
+     * update.
+     * <p>
+     * If the recorded accesses show that the update cannot be replayed by this cache, nothing is
+     * stored.
+     *
+     * @param channel the updated channel
+     * @param globalState the global state before the update, unmodified by it
+     * @param recorder the recording of the update, already stopped
+     * @param results the resulting states with the information gathered for the update on its own
+     */
+    public void store(WrappedSCClassInstance channel, GlobalState<?> globalState, AccessRecorder recorder,
+            Map<? extends ConsideredState<?, ?, ?>, InfoT> results) {
+        GlobalStateProjection projection = GlobalStateProjection.of(globalState, recorder);
+        if (projection == null) {
+            return;
+        }
+
+        List<CachedOutcome<InfoT>> outcomes = new ArrayList<>(results.size());
+        for (Entry<? extends ConsideredState<?, ?, ?>, InfoT> result : results.entrySet()) {
+            outcomes.add(new CachedOutcome<>(GlobalStateDelta.of(result.getKey().getGlobalStateReadOnly(), recorder),
+                    result.getValue().clone()));
+        }
+        CachedUpdate<InfoT> update = new CachedUpdate<>(projection, List.copyOf(outcomes));
+
+        Key key = new Key(channel, globalState.isSimulationStopped());
+        Map<Key, List<CachedUpdate<InfoT>>> segment = getSegment(key);
+        synchronized (segment) {
+            List<CachedUpdate<InfoT>> updates = segment.get(key);
+            // lists are copied on write, such that lookups can iterate over them without synchronization
+            List<CachedUpdate<InfoT>> newUpdates = new ArrayList<>(MAX_PROJECTIONS_PER_KEY);
+            newUpdates.add(update);
+            if (updates != null) {
+                newUpdates.addAll(updates.subList(0, Math.min(updates.size(), MAX_PROJECTIONS_PER_KEY - 1)));
+            }
+            segment.put(key, newUpdates);
+        }
+    }
+
+}
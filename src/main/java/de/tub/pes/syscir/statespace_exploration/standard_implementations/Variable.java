@@ -1,15 +1,27 @@
 package de.tub.pes.syscir.statespace_exploration.standard_implementations;
 
+import de.tub.pes.syscir.statespace_exploration.Fingerprintable;
+
 /**
- * Interface representing a variable (not its value) that is either a {@link GlobalVariable} or a
+ * Class representing a variable (not its value) that is either a {@link GlobalVariable} or a
  * {@link LocalVariable}.
  *
+ * Besides its qualifier and SCVariable, every variable caches the slot it has been assigned by the
+ * {@link VariableSymbolTable} that last looked it up, such that maps indexed by these slots (see
+ * {@link SlotVariableMap}) only need to consult the table once per variable object. The cache is not
+ * part of the identity of the variable.
+ *
  * @author Jonas Becker-Kupczok
  *
  * @param <QualifierT> the type of qualifier that is required to uniquely identify the variable in addition to the SCVariable
  * @param <SCVarT> the type specifying the variable (a subclass of SCVariable or SCPort)
  */
-public sealed interface Variable<QualifierT, SCVarT> permits GlobalVariable, LocalVariable {
+public abstract sealed class Variable<QualifierT, SCVarT> implements Fingerprintable permits GlobalVariable, LocalVariable {
+
+    private static record SlotBinding(VariableSymbolTable symbols, int slot) {}
+
+    // published as one object, so that a slot is never paired with the wrong table
+    private volatile SlotBinding slotBinding;
 
     /**
      * Returns the qualifier that is needed to uniquely identify the variable in addition to the
@@ -17,13 +29,40 @@ public sealed interface Variable<QualifierT, SCVarT> permits GlobalVariable, Loc
      *
      * @return qualifier
      */
-    QualifierT getQualifier();
+    public abstract QualifierT getQualifier();
 
     /**
      * Returns the SysCIR variable specifier.
      *
      * @return sc variable
      */
-    SCVarT getSCVariable();
+    public abstract SCVarT getSCVariable();
+
+    @Override
+    public long fingerprint() {
+        return Fingerprintable.combine(Fingerprintable.of(getQualifier()), Fingerprintable.of(getSCVariable()));
+    }
+
+    /**
+     * Returns the slot cached for this variable by the given symbol table, or -1 if there is none.
+     *
+     * @param symbols some symbol table
+     * @return the cached slot or -1
+     */
+    int getCachedSlot(VariableSymbolTable symbols) {
+        SlotBinding binding = this.slotBinding;
+        return binding != null && binding.symbols() == symbols ? binding.slot() : -1;
+    }
+
+    /**
+     * Caches the slot assigned to this variable by the given symbol table, replacing any slot cached
+     * for another table.
+     *
+     * @param symbols the symbol table
+     * @param slot the slot assigned to this variable by that table
+     */
+    void cacheSlot(VariableSymbolTable symbols, int slot) {
+        this.slotBinding = new SlotBinding(symbols, slot);
+    }
 
 }
@@ -0,0 +1,254 @@
+package de.tub.pes.syscir.statespace_exploration.standard_implementations;
+
+import static de.tub.pes.syscir.util.WrapperUtil.wrap;
+
+import de.tub.pes.syscir.sc_model.SCConnectionInterface;
+import de.tub.pes.syscir.sc_model.SCFunction;
+import de.tub.pes.syscir.sc_model.SCSystem;
+import de.tub.pes.syscir.sc_model.SCVariable;
+import de.tub.pes.syscir.sc_model.variables.SCClassInstance;
+import de.tub.pes.syscir.sc_model.variables.SCEvent;
+import de.tub.pes.syscir.util.WeakIdentityHashMap;
+import de.tub.pes.syscir.util.WrappedSCClassInstance;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns a dense int slot to every {@link Variable} of a SystemC design, such that variable values
+ * can be stored in arrays indexed by these slots (see {@link SlotVariableMap}).
+ *
+ * One table exists per {@link SCSystem} and is obtained by {@link #of(SCSystem)}. When it is
+ * created, the table assigns the lowest slots to the members, events and ports of all class
+ * instances of the system. Variables that only come into existence during the exploration (such as
+ * local variables, which are qualified by the call stack they belong to) are assigned the next free
+ * slot when they are first stored. Slots are never reassigned, so a slot identifies the same variable
+ * in all states of an exploration.
+ * <p>
+ * In the same fashion, the table assigns dense ids to other objects of the model that occur in
+ * states, such as class instances, functions and processes (see {@link #getObjectId(Object)}). The
+ * class instances of the system and the functions of their classes are assigned the lowest ids when
+ * the table is created. As long as all other objects are first registered in a deterministic order,
+ * slots and ids only depend on the model and not on the virtual machine analyzing it.
+ * <p>
+ * This class is thread-safe. Looking up the slot of a variable that already has one (or the id of an
+ * object that already has one) does not block.
+ *
+ * @author Jonas Becker-Kupczok
+ *
+ */
+public class VariableSymbolTable {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final Map<SCSystem, VariableSymbolTable> tables = new WeakIdentityHashMap<>();
+
+    private final Map<Variable<?, ?>, Integer> slots;
+    private volatile Variable<?, ?>[] variables;
+    private int size;
+
+    private final Map<Object, Integer> objectIds;
+    private volatile Object[] objects;
+    private int numObjects;
+
+    /**
+     * Constructs a new, empty symbol table.
+     *
+     * Usually, {@link #of(SCSystem)} should be used instead, such that all states of one exploration
+     * share the same table.
+     */
+    public VariableSymbolTable() {
+        this.slots = new ConcurrentHashMap<>();
+        this.variables = new Variable<?, ?>[INITIAL_CAPACITY];
+        this.objectIds = new ConcurrentHashMap<>();
+        this.objects = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns the symbol table of the given system, creating it if necessary.
+     *
+     * @param scSystem the system
+     * @return the symbol table of that system
+     */
+    public static VariableSymbolTable of(SCSystem scSystem) {
+        synchronized (tables) {
+            return tables.computeIfAbsent(scSystem, VariableSymbolTable::create);
+        }
+    }
+
+    private static VariableSymbolTable create(SCSystem scSystem) {
+        VariableSymbolTable result = new VariableSymbolTable();
+
+        for (SCClassInstance classInstance : scSystem.getInstances()) {
+            WrappedSCClassInstance instance = wrap(classInstance);
+            for (SCVariable scVariable : classInstance.getSCClass().getMembers()) {
+                result.getSlot(new GlobalVariable<>(instance, scVariable));
+            }
+            for (SCEvent scEvent : classInstance.getSCClass().getEvents()) {
+                result.getSlot(new GlobalVariable<>(instance, scEvent));
+            }
+        }
+        for (SCConnectionInterface con : scSystem.getPortSocketInstances()) {
+            result.getSlot(new GlobalVariable<>(wrap(con.getOwner()), con.getPortSocket()));
+        }
+
+        for (SCClassInstance classInstance : scSystem.getInstances()) {
+            result.getObjectId(wrap(classInstance));
+        }
+        for (SCClassInstance classInstance : scSystem.getInstances()) {
+            for (SCFunction function : classInstance.getSCClass().getMemberFunctions()) {
+                result.getObjectId(wrap(function));
+            }
+        }
+        for (SCFunction function : scSystem.getGlobalFunctions()) {
+            result.getObjectId(wrap(function));
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the slot of the given variable, assigning the next free slot if it has none yet.
+     *
+     * The slot is cached on the given variable object, so that later lookups of the same object don't
+     * need to consult the table.
+     *
+     * @param variable some variable
+     * @return the slot of that variable
+     */
+    public int getSlot(Variable<?, ?> variable) {
+        int cached = variable.getCachedSlot(this);
+        if (cached >= 0) {
+            return cached;
+        }
+        Integer slot = this.slots.get(variable);
+        if (slot == null) {
+            slot = this.slots.computeIfAbsent(variable, this::assignSlot);
+        }
+        variable.cacheSlot(this, slot);
+        return slot;
+    }
+
+    /**
+     * Returns the slot of the given object if it is a variable that has been assigned one, or -1
+     * otherwise. No new slot is assigned.
+     *
+     * Like {@link #getSlot(Variable)}, this caches a found slot on the given variable object.
+     *
+     * @param variable some object
+     * @return the slot of that object, or -1
+     */
+    public int findSlot(Object variable) {
+        if (!(variable instanceof Variable<?, ?> v)) {
+            return -1;
+        }
+        int cached = v.getCachedSlot(this);
+        if (cached >= 0) {
+            return cached;
+        }
+        Integer slot = this.slots.get(v);
+        if (slot == null) {
+            return -1;
+        }
+        v.cacheSlot(this, slot);
+        return slot;
+    }
+
+    /**
+     * Returns the variable to which the given slot has been assigned.
+     *
+     * @param slot some slot
+     * @return the variable with that slot
+     * @throws IndexOutOfBoundsException if the slot has not been assigned
+     */
+    public Variable<?, ?> getVariable(int slot) {
+        Variable<?, ?> result = this.variables[slot];
+        if (result == null) {
+            throw new IndexOutOfBoundsException(slot);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of slots assigned so far.
+     *
+     * @return number of assigned slots
+     */
+    public synchronized int size() {
+        return this.size;
+    }
+
+    private synchronized Integer assignSlot(Variable<?, ?> variable) {
+        int slot = this.size++;
+        Variable<?, ?>[] array = this.variables;
+        if (slot == array.length) {
+            array = Arrays.copyOf(array, array.length * 2);
+        }
+        array[slot] = variable;
+        // (re)publish the array before the slot becomes visible through the map
+        this.variables = array;
+        return slot;
+    }
+
+    /**
+     * Returns the id of the given object, assigning the next free id if it has none yet.
+     *
+     * Objects are identified by equality, so equal objects share one id. The table retains every
+     * object that has been assigned an id for as long as it exists itself, i.e. as long as the system
+     * it belongs to. Only objects of the model should therefore be registered, not values computed
+     * during the exploration.
+     *
+     * @param object some object of the model
+     * @return the id of that object
+     */
+    public int getObjectId(Object object) {
+        Integer id = this.objectIds.get(object);
+        if (id != null) {
+            return id;
+        }
+        return this.objectIds.computeIfAbsent(object, this::assignObjectId);
+    }
+
+    /**
+     * Returns the object to which the given id has been assigned.
+     *
+     * @param id some id
+     * @return the object with that id
+     * @throws IndexOutOfBoundsException if the id has not been assigned
+     */
+    public Object getObject(int id) {
+        Object[] array = this.objects;
+        Object result = id < 0 || id >= array.length ? null : array[id];
+        if (result == null) {
+            throw new IndexOutOfBoundsException(id);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of object ids assigned so far.
+     *
+     * @return number of assigned ids
+     */
+    public synchronized int getNumObjects() {
+        return this.numObjects;
+    }
+
+    private synchronized Integer assignObjectId(Object object) {
+        int id = this.numObjects++;
+        Object[] array = this.objects;
+        if (id == array.length) {
+            array = Arrays.copyOf(array, array.length * 2);
+        }
+        array[id] = object;
+        // (re)publish the array before the id becomes visible through the map
+        this.objects = array;
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "VariableSymbolTable[" + size() + " slots, " + getNumObjects() + " objects]";
+    }
+
+}
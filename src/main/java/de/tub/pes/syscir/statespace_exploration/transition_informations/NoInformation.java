@@ -7,6 +7,7 @@ import de.tub.pes.syscir.statespace_exploration.LocalState;
 import de.tub.pes.syscir.statespace_exploration.ProcessState;
 import de.tub.pes.syscir.statespace_exploration.TransitionInformation;
 import de.tub.pes.syscir.statespace_exploration.TransitionResult;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.ChannelIntrinsicExecution;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.ComposableTransitionInformation;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.InformationHandler;
 import de.tub.pes.syscir.sc_model.expressions.Expression;
@@ -60,6 +61,17 @@ public class NoInformation implements ComposableTransitionInformation<NoInformat
             return INSTANCE;
         }
 
+        @Override
+        public boolean supportsChannelIntrinsics() {
+            return true;
+        }
+
+        @Override
+        public NoInformation handleChannelIntrinsic(Expression evaluated, ChannelIntrinsicExecution execution,
+                TransitionResult resultingState, LocalState localState) {
+            return INSTANCE;
+        }
+
     };
 
     @SuppressWarnings("unchecked")
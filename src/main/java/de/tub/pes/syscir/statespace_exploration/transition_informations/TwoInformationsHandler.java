@@ -7,6 +7,7 @@ import de.tub.pes.syscir.statespace_exploration.EventBlocker.Event;
 import de.tub.pes.syscir.statespace_exploration.LocalState;
 import de.tub.pes.syscir.statespace_exploration.ProcessState;
 import de.tub.pes.syscir.statespace_exploration.TransitionResult;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.ChannelIntrinsicExecution;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.ComposableTransitionInformation;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.InformationHandler;
 import de.tub.pes.syscir.sc_model.expressions.Expression;
@@ -84,6 +85,22 @@ implements InformationHandler<TwoInformations<FirstInfoT, SecondInfoT>, ValueT>
                 this.secondHandler.finalizeInformation(information.second()));
     }
 
+    @Override
+    public boolean supportsChannelIntrinsics() {
+        return this.firstHandler.supportsChannelIntrinsics() && this.secondHandler.supportsChannelIntrinsics();
+    }
+
+    @Override
+    public <LocalStateT extends LocalState<LocalStateT, ValueT>> TwoInformations<FirstInfoT, SecondInfoT> handleChannelIntrinsic(
+            Expression evaluated, ChannelIntrinsicExecution execution,
+            TransitionResult<?, ?, ?, TwoInformations<FirstInfoT, SecondInfoT>, ?> resultingState, LocalStateT localState) {
+        return new TwoInformations<>(
+                this.firstHandler.handleChannelIntrinsic(evaluated, execution, maskForFirst(resultingState),
+                        localState),
+                this.secondHandler.handleChannelIntrinsic(evaluated, execution, maskForSecond(resultingState),
+                        localState));
+    }
+
     @Override
     public TwoInformations<FirstInfoT, SecondInfoT> handleProcessWaitedForDelta(AnalyzedProcess<?, ?, ?, ?> process,
             ProcessState<?, ValueT> resultingState, TwoInformations<FirstInfoT, SecondInfoT> currentInformation) {
@@ -9,6 +9,7 @@ import de.tub.pes.syscir.statespace_exploration.ProcessState;
 import de.tub.pes.syscir.statespace_exploration.TransitionResult;
 import de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesExpressionHandler;
 import de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesExpressionHandler.AccessedVariablesInformation;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.ChannelIntrinsicExecution;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.ExpressionCrawler;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.ExpressionCrawler.ExecutionConditions;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.InformationHandler;
@@ -86,6 +87,34 @@ implements InformationHandler<VariablesReadWrittenInformation<BoolT>, ValueT> {
         return resultingState.transitionInformation();
     }
 
+    @Override
+    public boolean supportsChannelIntrinsics() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsSequencing() {
+        return true;
+    }
+
+    @Override
+    public VariablesReadWrittenInformation<BoolT> handleSequence(VariablesReadWrittenInformation<BoolT> previous,
+            VariablesReadWrittenInformation<BoolT> next) {
+        return previous.unlockedClone().concat(next);
+    }
+
+    @Override
+    public <LocalStateT extends LocalState<LocalStateT, ValueT>> VariablesReadWrittenInformation<BoolT> handleChannelIntrinsic(
+            Expression evaluated, ChannelIntrinsicExecution execution,
+            TransitionResult<?, ?, ?, VariablesReadWrittenInformation<BoolT>, ?> resultingState,
+            LocalStateT localState) {
+        BoolT condition = getCurrentCondition(localState);
+        return resultingState.transitionInformation()
+                .concat(new VariablesReadWrittenInformation<>(
+                        createInformationMap(new AccessedVariablesInformation(execution.getVariablesRead()), condition),
+                        createInformationMap(new AccessedVariablesInformation(execution.getVariablesWritten()), condition)));
+    }
+
     protected <LocalStateT extends LocalState<LocalStateT, ValueT>> BoolT getCurrentCondition(LocalStateT localState) {
         ExecutionConditions<BoolT> currentExecutionConditions =
                 localState.getStateInformation(ExpressionCrawler.executionConditionsKey());
@@ -14,6 +14,8 @@ import de.tub.pes.syscir.statespace_exploration.EventBlocker.Event;
 import de.tub.pes.syscir.statespace_exploration.LocalState;
 import de.tub.pes.syscir.statespace_exploration.ProcessState;
 import de.tub.pes.syscir.statespace_exploration.TransitionResult;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.ChannelIntrinsicExecution;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.ChannelIntrinsicExecution.Statement;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.ExpressionCrawler.InsufficientPrecisionException;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.GlobalVariable;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.Variable;
@@ -142,7 +144,7 @@ extends PdgInformationHandler<ValueT> {
         }
 
         // write block trigger
-        List<EvaluationLocation> resumptionLocation = resultingState.getExecutionStack().stream()
+        List<EvaluationLocation> resumptionLocation = resultingState.getExecutionStackReadOnly().stream()
                 .map(EvaluationContext::toLocation)
                 .collect(Collectors.toCollection(ArrayList::new));
         List<Integer> resumptionIndices = resumptionLocation.getLast().getExpressionIndices();
@@ -229,13 +231,29 @@ extends PdgInformationHandler<ValueT> {
         }
 
         // write block trigger for update block
-        WrappedSCFunction updateFunction = wrap(instance.getSCClass().getMemberFunctionByName("update"));
-        List<EvaluationLocation> resumptionLocation = List.of(new EvaluationLocation(updateFunction, new ArrayList<>()));
-        GlobalVariable<WrappedSCClassInstance, List<EvaluationLocation>> blockTrigger =
-                GlobalVariable.blockTrigger(instance, resumptionLocation);
-        variablesWritten.add(blockTrigger);
+        variablesWritten.add(getUpdateTrigger(instance));
 
         return currentNode;
     }
 
+    @Override
+    protected void handleIntrinsicStatement(PdgInformation currentInfo, ChannelIntrinsicExecution execution,
+            Statement statement, Set<Variable<?, ?>> variablesRead, Set<Variable<?, ?>> variablesWritten) {
+        if (statement.updateRequested()) {
+            // write block trigger for update block, see handleRequestUpdate(...)
+            variablesWritten.add(getUpdateTrigger(execution.getChannel()));
+        }
+        if (statement.notifiedEvent() != null && statement.notificationDelay() != null) {
+            // write event trigger, see handleNotify(...)
+            variablesWritten.add(GlobalVariable.eventTrigger(statement.notifiedEvent()));
+        }
+    }
+
+    private GlobalVariable<WrappedSCClassInstance, List<EvaluationLocation>> getUpdateTrigger(
+            WrappedSCClassInstance instance) {
+        WrappedSCFunction updateFunction = wrap(instance.getSCClass().getMemberFunctionByName("update"));
+        List<EvaluationLocation> resumptionLocation = List.of(new EvaluationLocation(updateFunction, new ArrayList<>()));
+        return GlobalVariable.blockTrigger(instance, resumptionLocation);
+    }
+
 }
@@ -1,5 +1,6 @@
 package de.tub.pes.syscir.statespace_exploration.transition_informations.pdg;
 
+import de.tub.pes.syscir.dependencies.DgEdge.EdgeType;
 import de.tub.pes.syscir.dependencies.DgNode.NodeType;
 import de.tub.pes.syscir.statespace_exploration.AbstractedValue;
 import de.tub.pes.syscir.statespace_exploration.HashCachingLockableObject;
@@ -260,6 +261,86 @@ implements ComposableTransitionInformation<PdgInformation> {
         return this;
     }
 
+    /**
+     * Appends the given PDG of code evaluated after the code described by this PDG, where the given PDG
+     * has been built on its own, i.e. without any reaching definitions at its start.
+     * <p>
+     * In the given PDG, every variable read before having been written is read from its in node. Such
+     * data edges are redirected to the definitions reaching the end of this PDG, and so are reaching
+     * definitions referring to the time before the later code. Other edges of in nodes (e.g. to entry
+     * nodes) don't depend on the reaching definitions and are kept. The result is the PDG that would
+     * have been built by evaluating the later code starting from this PDG.
+     * <p>
+     * Whether the returned object is a new instance or this object with modified state is left to the
+     * implementation. The given PDG is not modified.
+     *
+     * @param next the PDG of the later code, not finalized
+     * @return the PDG of both
+     */
+    public PdgInformation append(PdgInformation next) {
+        if (isLocked()) {
+            return unlockedClone().append(next);
+        }
+
+        // the definitions reaching the start of the later code, an absent variable is read from its in node
+        Map<Variable<?, ?>, Set<PdgNode>> reachingBefore = new LinkedHashMap<>(this.reachingDefs);
+        Set<PdgNodeId> nodesBefore = new LinkedHashSet<>(this.nodes.keySet());
+
+        for (PdgNode node : next.nodes.values()) {
+            this.nodes.computeIfAbsent(node.getId(), PdgNode::new);
+        }
+
+        for (PdgNode theirs : next.nodes.values()) {
+            PdgNode ours = this.nodes.get(theirs.getId());
+            for (PdgEdge edge : theirs.getOutgoing()) {
+                PdgNode target = this.nodes.get(edge.getTarget().getId());
+                if (edge.getType() == EdgeType.DATA && theirs.getType() == NodeType.IN
+                        && reachingBefore.containsKey(theirs.getId().identifier())) {
+                    for (PdgNode definedAt : reachingBefore.get(theirs.getId().identifier())) {
+                        PdgNode source =
+                                definedAt == null ? this.nodes.computeIfAbsent(theirs.getId(), PdgNode::new) : definedAt;
+                        new PdgEdge(EdgeType.DATA, source, target, false).insert();
+                    }
+                } else {
+                    new PdgEdge(edge.getType(), ours, target, false).insert();
+                }
+            }
+        }
+
+        // in nodes only needed for the redirected edges are not part of the result
+        for (PdgNode theirs : next.nodes.values()) {
+            PdgNode ours = this.nodes.get(theirs.getId());
+            if (ours.getType() == NodeType.IN && !nodesBefore.contains(ours.getId()) && ours.getOutgoing().isEmpty()
+                    && ours.getIncoming().isEmpty()) {
+                this.nodes.remove(ours.getId());
+            }
+        }
+
+        for (Entry<Variable<?, ?>, Set<PdgNode>> entry : next.reachingDefs.entrySet()) {
+            Variable<?, ?> variable = entry.getKey();
+            Set<PdgNode> reaching = new LinkedHashSet<>();
+            for (PdgNode definedAt : entry.getValue()) {
+                boolean fromBefore = definedAt == null
+                        || (definedAt.getType() == NodeType.IN && definedAt.getId().identifier().equals(variable));
+                if (fromBefore && reachingBefore.containsKey(variable)) {
+                    reaching.addAll(reachingBefore.get(variable));
+                } else if (fromBefore) {
+                    reaching.add(this.nodes.get(new PdgNodeId(NodeType.IN, variable)));
+                } else {
+                    reaching.add(this.nodes.get(definedAt.getId()));
+                }
+            }
+            this.reachingDefs.put(variable, reaching);
+        }
+
+        if (next.currentEntryNode != null) {
+            this.currentEntryNode = this.nodes.get(next.currentEntryNode.getId());
+        }
+
+        resetHashCode();
+        return this;
+    }
+
     // increase visibility
     @Override
     public PdgInformation unlockedVersion() {
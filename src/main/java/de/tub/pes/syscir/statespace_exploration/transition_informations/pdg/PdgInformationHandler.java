@@ -8,6 +8,7 @@ import de.tub.pes.syscir.dependencies.DgNode.NodeType;
 import de.tub.pes.syscir.statespace_exploration.AbstractedValue;
 import de.tub.pes.syscir.statespace_exploration.AnalyzedProcess;
 import de.tub.pes.syscir.statespace_exploration.EvaluationContext;
+import de.tub.pes.syscir.statespace_exploration.CallContext;
 import de.tub.pes.syscir.statespace_exploration.EvaluationLocation;
 import de.tub.pes.syscir.statespace_exploration.EventBlocker;
 import de.tub.pes.syscir.statespace_exploration.EventBlocker.Event;
@@ -15,11 +16,14 @@ import de.tub.pes.syscir.statespace_exploration.LocalState;
 import de.tub.pes.syscir.statespace_exploration.ProcessState;
 import de.tub.pes.syscir.statespace_exploration.TransitionResult;
 import de.tub.pes.syscir.statespace_exploration.some_variables_implementation.SomeVariablesExpressionHandler;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.ChannelIntrinsicExecution;
+import de.tub.pes.syscir.statespace_exploration.standard_implementations.ChannelIntrinsicExecution.Statement;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.InformationHandler;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.LocalVariable;
 import de.tub.pes.syscir.statespace_exploration.standard_implementations.Variable;
 import de.tub.pes.syscir.statespace_exploration.transition_informations.pdg.PdgNode.PdgNodeId;
 import de.tub.pes.syscir.statespace_exploration.transition_informations.pdg.PdgNode.StatementId;
+import de.tub.pes.syscir.util.WrappedSCClassInstance;
 import de.tub.pes.syscir.util.WrappedSCFunction;
 import de.tub.pes.syscir.sc_model.SCParameter;
 import de.tub.pes.syscir.sc_model.expressions.AccessExpression;
@@ -74,6 +78,16 @@ implements InformationHandler<PdgInformation, ValueT> {
         return new PdgInformation();
     }
 
+    @Override
+    public boolean supportsSequencing() {
+        return true;
+    }
+
+    @Override
+    public PdgInformation handleSequence(PdgInformation previous, PdgInformation next) {
+        return previous.unlockedClone().append(next);
+    }
+
     @Override
     public <LocalStateT extends LocalState<LocalStateT, ValueT>> void announceEvaluation(Expression expression,
             TransitionResult<?, ?, ?, PdgInformation, ?> currentState,
@@ -86,7 +100,7 @@ implements InformationHandler<PdgInformation, ValueT> {
         // evaluation location is not that of the evaluated expression. store the real one so that it can be
         // retrieved if necessary
         List<EvaluationLocation> stack =
-                localState.getExecutionStack().stream().map(EvaluationContext::toLocation)
+                localState.getExecutionStackReadOnly().stream().map(EvaluationContext::toLocation)
                 .collect(Collectors.toCollection(ArrayList::new));
         for (EvaluationLocation location : stack) {
             location.lock();
@@ -282,7 +296,6 @@ implements InformationHandler<PdgInformation, ValueT> {
         List<EvaluationLocation> currentLocation = this.announcedLocation.get();
         List<EvaluationLocation> trimmedLocation = trimLocation(currentLocation, evaluated);
         StatementId currentStatementId = new StatementId(localState.getInitialThisValue(), currentLocation);
-        StatementId trimmedStatementId = new StatementId(localState.getInitialThisValue(), trimmedLocation);
         Set<Variable<?, ?>> variablesRead =
                 localState.getStateInformation(SomeVariablesExpressionHandler.VARIABLES_READ_KEY);
         variablesRead = new LinkedHashSet<>(variablesRead == null ? Set.of() : variablesRead);
@@ -294,8 +307,7 @@ implements InformationHandler<PdgInformation, ValueT> {
 
         if (evaluationFinished && evaluated.getParent() instanceof FunctionCallExpression fe) {
             // parameter evaluated, add variable representing it as written
-            List<WrappedSCFunction> stackTrace = localState.getStackTrace();
-            stackTrace.add(wrap(fe.getFunction()));
+            CallContext<WrappedSCFunction> stackTrace = localState.getStackTrace().enter(wrap(fe.getFunction()));
             int indexOfChild = currentLocation.getLast().getExpressionIndices().getLast();
             LocalVariable<?> paramVar;
             String functionName = fe.getFunction().getName();
@@ -317,8 +329,7 @@ implements InformationHandler<PdgInformation, ValueT> {
                 && ae.getLeft() == evaluated && ae.getRight() instanceof FunctionCallExpression fe) {
             // new "this" for function call evaluated, add variable representing "this" for the called function
             // as written
-            List<WrappedSCFunction> stackTrace = localState.getStackTrace();
-            stackTrace.add(wrap(fe.getFunction()));
+            CallContext<WrappedSCFunction> stackTrace = localState.getStackTrace().enter(wrap(fe.getFunction()));
             variablesWritten.add(LocalVariable.getThisVariable(stackTrace));
         }
 
@@ -339,12 +350,12 @@ implements InformationHandler<PdgInformation, ValueT> {
             // as read
             variablesWritten = new LinkedHashSet<>();
 
-            List<WrappedSCFunction> stackTrace = localState.getStackTrace();
+            CallContext<WrappedSCFunction> stackTrace = localState.getStackTrace();
             assert stackTrace.getLast().equals(wrap(fe.getFunction()));
 
             if (!(fe.getParent() instanceof AccessExpression ae && ae.getRight() == fe)) {
                 // current "this" becomes new "this"
-                variablesRead.add(LocalVariable.getThisVariable(stackTrace.subList(0, stackTrace.size() - 1)));
+                variablesRead.add(LocalVariable.getThisVariable(stackTrace.getParent()));
                 variablesWritten.add(LocalVariable.getThisVariable(stackTrace));
             }
 
@@ -357,13 +368,13 @@ implements InformationHandler<PdgInformation, ValueT> {
             int sizeOfReturnedFromStack;
             if (fe.getFunction().hasReturnType() && !isTopOfStatement(fe)) {
                 // do not remove the return result
-                List<WrappedSCFunction> returnedFromStack = localState.getStackTrace();
-                returnedFromStack.add(wrap(fe.getFunction()));
+                CallContext<WrappedSCFunction> returnedFromStack =
+                        localState.getStackTrace().enter(wrap(fe.getFunction()));
                 sizeOfReturnedFromStack = returnedFromStack.size();
                 protectedResultVar = LocalVariable.getResultVariable(returnedFromStack);
             } else {
                 protectedResultVar = null;
-                sizeOfReturnedFromStack = localState.getExecutionStack().size() + 1;
+                sizeOfReturnedFromStack = localState.getExecutionStackReadOnly().size() + 1;
             }
             currentInfo.getReachingDefs().keySet().removeIf(
                     variable -> isVariableOutOfScope(variable, sizeOfReturnedFromStack, protectedResultVar));
@@ -381,8 +392,8 @@ implements InformationHandler<PdgInformation, ValueT> {
                 && fe.getFunction().hasReturnType() && !isTopOfStatement(fe)) {
             // if the result of a function call is used, add the corresponding variable as read and store it to
             // be removed after the data dependency has been registered
-            List<WrappedSCFunction> stackTrace = localState.getStackTrace();
-            stackTrace.add(wrap(((FunctionCallExpression) evaluated.getChild(comingFrom)).getFunction()));
+            CallContext<WrappedSCFunction> stackTrace = localState.getStackTrace()
+                    .enter(wrap(((FunctionCallExpression) evaluated.getChild(comingFrom)).getFunction()));
             usedReturnValue = LocalVariable.getResultVariable(stackTrace);
             variablesRead.add(usedReturnValue);
         }
@@ -392,12 +403,43 @@ implements InformationHandler<PdgInformation, ValueT> {
                     resultingState, localState, currentLocation);
         }
 
-        // ========== read and written variables have been determined ========== //
+        addDependencies(currentInfo, currentNode, variablesRead, variablesWritten, usedReturnValue, evaluated,
+                comingFrom, localState.getInitialThisValue(), currentLocation, trimmedLocation);
+
+        return currentInfo;
+    }
+
+    /**
+     * Adds the data dependencies of the given node on the reaching definitions of all variables read,
+     * registers it as the reaching definition of all variables written and adds its control
+     * dependencies (or, for a parameter of a function call, its member edge).
+     *
+     * If currentNode is null, a node at the trimmed location is inserted if the evaluation reads or
+     * writes any variables or might be controlling other statements.
+     *
+     * @param currentInfo the (unlocked) current PdgInformation
+     * @param currentNode the node corresponding to the expression if it was already determined, or null
+     *        else
+     * @param variablesRead the variables read by the evaluation
+     * @param variablesWritten the variables written by the evaluation
+     * @param usedReturnValue the result variable of a function call which goes out of scope after the
+     *        evaluation, or null
+     * @param evaluated the evaluated expression
+     * @param comingFrom from where the expression was entered
+     * @param initialThis the initial value of "this" in the current transition
+     * @param currentLocation the location of the expression
+     * @param trimmedLocation the location of the node the expression belongs to (see
+     *        {@link #trimLocation(List, Expression)})
+     */
+    protected void addDependencies(PdgInformation currentInfo, PdgNode currentNode, Set<Variable<?, ?>> variablesRead,
+            Set<Variable<?, ?>> variablesWritten, LocalVariable<?> usedReturnValue, Expression evaluated, int comingFrom,
+            WrappedSCClassInstance initialThis, List<EvaluationLocation> currentLocation,
+            List<EvaluationLocation> trimmedLocation) {
+        PdgNodeId trimmedNodeId = new PdgNodeId(NodeType.STATEMENT, new StatementId(initialThis, trimmedLocation));
 
         if (!variablesRead.isEmpty()) {
             // if variables were read, add the corresponding data dependencies
-            currentNode = currentInfo.getNodes()
-                    .computeIfAbsent(new PdgNodeId(NodeType.STATEMENT, trimmedStatementId), PdgNode::new);
+            currentNode = currentInfo.getNodes().computeIfAbsent(trimmedNodeId, PdgNode::new);
 
             for (Variable<?, ?> read : variablesRead) {
                 Set<PdgNode> writtenAt = currentInfo.getReachingDefs().get(read);
@@ -427,8 +469,7 @@ implements InformationHandler<PdgInformation, ValueT> {
         if (!variablesWritten.isEmpty()) {
             // if variabes were written, insert a node (to capture control dependencies) and add it the reaching
             // definitions
-            currentNode = currentInfo.getNodes()
-                    .computeIfAbsent(new PdgNodeId(NodeType.STATEMENT, trimmedStatementId), PdgNode::new);
+            currentNode = currentInfo.getNodes().computeIfAbsent(trimmedNodeId, PdgNode::new);
 
             for (Variable<?, ?> written : variablesWritten) {
                 currentInfo.getReachingDefs().put(written, new LinkedHashSet<>(Set.of(currentNode)));
@@ -442,19 +483,18 @@ implements InformationHandler<PdgInformation, ValueT> {
         int controllingIndex = getControllingIndex(evaluated, 1); // quite hacky: 1 never gives special case
         if (currentNode == null && parent != null && comingFrom == -1 && controllingIndex != -1
                 && evaluated == parent.getChild(controllingIndex)) {
-            currentNode = currentInfo.getNodes().computeIfAbsent(new PdgNodeId(NodeType.STATEMENT, trimmedStatementId),
-                    PdgNode::new);
+            currentNode = currentInfo.getNodes().computeIfAbsent(trimmedNodeId, PdgNode::new);
         }
 
         if (currentNode != null && comingFrom == evaluated.getNumOfChildren() - 1
                 && evaluated.getParent() instanceof FunctionCallExpression fe) {
             // add member edge for function call parameters
 
-            List<EvaluationLocation> callNodeLocation = new ArrayList<>(this.announcedLocation.get());
+            List<EvaluationLocation> callNodeLocation = new ArrayList<>(currentLocation);
             EvaluationLocation topLocation = callNodeLocation.removeLast().unlockedClone();
             topLocation.getExpressionIndices().removeLast();
             callNodeLocation.add(topLocation);
-            StatementId callNodeId = new StatementId(localState.getInitialThisValue(), callNodeLocation);
+            StatementId callNodeId = new StatementId(initialThis, callNodeLocation);
 
             PdgNode callNode =
                     currentInfo.getNodes().computeIfAbsent(new PdgNodeId(NodeType.STATEMENT, callNodeId), PdgNode::new);
@@ -472,7 +512,7 @@ implements InformationHandler<PdgInformation, ValueT> {
             } else {
                 for (List<EvaluationLocation> controllingLocation : controllingLocations) {
                     StatementId controllingId = controllingLocation == null ? null
-                            : new StatementId(localState.getInitialThisValue(), controllingLocation);
+                            : new StatementId(initialThis, controllingLocation);
                     PdgNode controllingNode = controllingId == null ? currentInfo.getCurrentEntryNode()
                             : currentInfo.getNodes().get(new PdgNodeId(NodeType.STATEMENT, controllingId));
                     if (controllingNode == null) {
@@ -484,7 +524,6 @@ implements InformationHandler<PdgInformation, ValueT> {
             }
         }
 
-        return currentInfo;
     }
 
     /**
@@ -758,6 +797,99 @@ implements InformationHandler<PdgInformation, ValueT> {
                 PdgNode::new);
     }
 
+    /**
+     * Called during
+     * {@link #handleChannelIntrinsic(Expression, ChannelIntrinsicExecution, TransitionResult, LocalState)}
+     * for every statement of the execution, before its dependencies are added.
+     *
+     * Subclasses can use the information to modify currentInfo (which is guaranteed to be unlocked) as
+     * well as variablesRead and variablesWritten (which are guaranteed to be modifiable) accordingly,
+     * in the same way as for an interpreted statement.
+     *
+     * @implSpec This implementation does nothing.
+     *
+     * @param currentInfo the (unlocked) current PdgInformation
+     * @param execution the execution of the channel function
+     * @param statement the statement
+     * @param variablesRead the (modifiable) set of read variables
+     * @param variablesWritten the (modifiable) set of written variables
+     */
+    protected void handleIntrinsicStatement(PdgInformation currentInfo, ChannelIntrinsicExecution execution,
+            Statement statement, Set<Variable<?, ?>> variablesRead, Set<Variable<?, ?>> variablesWritten) {}
+
+    @Override
+    public boolean supportsChannelIntrinsics() {
+        return true;
+    }
+
+    @Override
+    public <LocalStateT extends LocalState<LocalStateT, ValueT>> PdgInformation handleChannelIntrinsic(
+            Expression evaluated, ChannelIntrinsicExecution execution,
+            TransitionResult<?, ?, ?, PdgInformation, ?> resultingState, LocalStateT localState) {
+        /*
+         * Replays what handleExpressionEvaluation(...) would have done while interpreting the function:
+         * first entering the call (if any), then evaluating every statement at its location within the
+         * called function.
+         */
+
+        PdgInformation currentInfo = resultingState.transitionInformation().unlockedVersion();
+        WrappedSCClassInstance initialThis = localState.getInitialThisValue();
+
+        List<EvaluationLocation> callLocation;
+        if (evaluated instanceof FunctionCallExpression fe) {
+            callLocation = this.announcedLocation.get();
+
+            // entering into function call, see handleExpressionEvaluation(...)
+            Set<Variable<?, ?>> variablesRead = new LinkedHashSet<>();
+            Set<Variable<?, ?>> variablesWritten = new LinkedHashSet<>();
+            if (!(fe.getParent() instanceof AccessExpression ae && ae.getRight() == fe)) {
+                variablesRead.add(LocalVariable.getThisVariable(localState.getStackTrace()));
+                variablesWritten.add(LocalVariable.getThisVariable(execution.getStackTrace()));
+            }
+            variablesRead.add(LocalVariable.getThisVariable(execution.getStackTrace()));
+
+            int sizeOfCalledStack = execution.getStackTrace().size() + 1;
+            currentInfo.getReachingDefs().keySet().removeIf(
+                    variable -> isVariableOutOfScope(variable, sizeOfCalledStack, null));
+
+            addDependencies(currentInfo, null, variablesRead, variablesWritten, null, fe,
+                    fe.getParameters().size() - 1, initialThis, callLocation, trimLocation(callLocation, fe));
+        } else {
+            callLocation = List.of();
+        }
+
+        for (Statement statement : execution.getStatements()) {
+            EvaluationLocation statementLocation =
+                    new EvaluationLocation(execution.getFunction(), new ArrayList<>(statement.expressionIndices()));
+            statementLocation.lock();
+            List<EvaluationLocation> location = new ArrayList<>(callLocation);
+            location.add(statementLocation);
+            location = Collections.unmodifiableList(location);
+            Expression expression = statementLocation.getNextExpression();
+
+            Set<Variable<?, ?>> variablesRead = new LinkedHashSet<>(statement.variablesRead());
+            Set<Variable<?, ?>> variablesWritten = new LinkedHashSet<>(statement.variablesWritten());
+            if (expression instanceof ReturnExpression re && re.getNumOfChildren() > 0) {
+                // non-empty return statement writes result of function call
+                variablesWritten.add(LocalVariable.getResultVariable(execution.getStackTrace()));
+            }
+            handleIntrinsicStatement(currentInfo, execution, statement, variablesRead, variablesWritten);
+
+            PdgNode currentNode = currentInfo.getNodes()
+                    .computeIfAbsent(new PdgNodeId(NodeType.STATEMENT, new StatementId(initialThis, location)),
+                            PdgNode::new);
+            addDependencies(currentInfo, currentNode, variablesRead, variablesWritten, null, expression,
+                    expression.getNumOfChildren() - 1, initialThis, location, location);
+        }
+
+        if (evaluated == null) {
+            // end of update reached, all local variables are now out of scope
+            currentInfo.getReachingDefs().keySet().removeIf(variable -> variable instanceof LocalVariable<?>);
+        }
+
+        return currentInfo;
+    }
+
     @Override
     public PdgInformation finalizeInformation(PdgInformation currentInfo) {
         currentInfo = currentInfo.unlockedVersion();
@@ -795,7 +927,7 @@ implements InformationHandler<PdgInformation, ValueT> {
         // insert an entry node for the entered code block, identified by the initial this value and the
         // location stack
 
-        List<EvaluationLocation> entryLocation = localState.getExecutionStack().stream().map(EvaluationContext::toLocation).toList();
+        List<EvaluationLocation> entryLocation = localState.getExecutionStackReadOnly().stream().map(EvaluationContext::toLocation).toList();
         if (localState.getTopOfStack().getComingFrom() != -1) {
             // the start of the evaluation is the next expression targetted
             entryLocation.getLast().getExpressionIndices().add(localState.getTopOfStack().getComingFrom() + 1);
@@ -3,10 +3,10 @@ package de.tub.pes.syscir.statespace_exploration.transition_informations.pdg;
 import de.tub.pes.syscir.dependencies.DgEdge.EdgeType;
 import de.tub.pes.syscir.dependencies.DgNode;
 import de.tub.pes.syscir.dependencies.DgNode.NodeId;
+import de.tub.pes.syscir.statespace_exploration.CallContext;
 import de.tub.pes.syscir.statespace_exploration.EvaluationLocation;
 import de.tub.pes.syscir.statespace_exploration.transition_informations.pdg.PdgNode.PdgNodeId;
 import de.tub.pes.syscir.util.WrappedSCClassInstance;
-import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -84,7 +84,9 @@ public class PdgNode extends DgNode<PdgNode, PdgNodeId, PdgEdge> {
      * process or port which is updated) and a call stack specifying the exact location of the
      * statement.
      * 
-     * The elements of the call stack are locked, but not cloned, and stored in an unmodifiable list.
+     * The elements of the call stack are locked, but not cloned, and the call stack is interned as a
+     * {@link CallContext}, such that comparing and hashing statement ids takes constant time regardless
+     * of the depth of the call stack.
      *
      * @author Jonas Becker-Kupczok
      *
@@ -93,8 +95,8 @@ public class PdgNode extends DgNode<PdgNode, PdgNodeId, PdgEdge> {
 
         public StatementId(WrappedSCClassInstance initialThis, List<EvaluationLocation> callStack) {
             this.initialThis = initialThis;
-            this.callStack = Collections.unmodifiableList(callStack);
-            this.callStack.forEach(EvaluationLocation::lock);
+            callStack.forEach(EvaluationLocation::lock);
+            this.callStack = CallContext.of(callStack);
         }
 
         @Override
@@ -2,7 +2,6 @@ package de.tub.pes.syscir.util;
 
 import de.tub.pes.syscir.sc_model.SCFunction;
 import de.tub.pes.syscir.sc_model.expressions.Expression;
-import java.util.Map;
 
 /**
  * Wrapper for {@link SCFunction} that allows no modifications and caches the hashCode. Assumes that
@@ -13,20 +12,23 @@ import java.util.Map;
  */
 public class WrappedExpression {
 
-    // cache of wrappers, avoiding the creation of a new wrapper every time the original is encountered
-    private static final Map<Expression, WrappedExpression> wrapperCache = new WeakIdentityHashMap<>();
-
     /**
-     * Returns a new wrapper around the original.
+     * Returns the wrapper around the original.
      * 
-     * No guarantee is made with regards to the identity of the wrapper. If a wrapper already exists, it
-     * may be reused. No check is made for whether or not the hashCode of that wrapper is still valid.
+     * The wrapper is created on first use and stored in the original (see
+     * {@link Expression#getWrapperSlot()}), such that the same wrapper is returned for
+     * the same original without any allocation or locking afterwards. No check is made for whether
+     * or not the hashCode of that wrapper is still valid.
      * 
      * @param original an WrappedSCFunction
      * @return a wrapper around the original
      */
     public static WrappedExpression getWrapped(Expression original) {
-        return wrapperCache.computeIfAbsent(original, WrappedExpression::new);
+        Object wrapper = original.getWrapperSlot().get();
+        if (wrapper == null) {
+            wrapper = original.getWrapperSlot().setIfAbsent(new WrappedExpression(original));
+        }
+        return (WrappedExpression) wrapper;
     }
 
     private Expression original;
@@ -7,7 +7,6 @@ import de.tub.pes.syscir.sc_model.expressions.SCVariableDeclarationExpression;
 import de.tub.pes.syscir.sc_model.variables.SCClassInstance;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Wrapper for {@link SCClassInstance} that allows no modifications and caches the hashCode. Assumes
@@ -18,20 +17,23 @@ import java.util.Map;
  */
 public class WrappedSCClassInstance {
 
-    // cache of wrappers, avoiding the creation of a new wrapper every time the original is encountered
-    private static final Map<SCClassInstance, WrappedSCClassInstance> wrapperCache = new WeakIdentityHashMap<>();
-
     /**
-     * Returns a new wrapper around the original.
+     * Returns the wrapper around the original.
      * 
-     * No guarantee is made with regards to the identity of the wrapper. If a wrapper already exists, it
-     * may be reused. No check is made for whether or not the hashCode of that wrapper is still valid.
+     * The wrapper is created on first use and stored in the original (see
+     * {@link SCClassInstance#getWrapperSlot()}), such that the same wrapper is returned
+     * for the same original without any allocation or locking afterwards. No check is made for
+     * whether or not the hashCode of that wrapper is still valid.
      * 
      * @param original an SCClassInstance
      * @return a wrapper around the original
      */
     public static WrappedSCClassInstance getWrapped(SCClassInstance original) {
-        return wrapperCache.computeIfAbsent(original, WrappedSCClassInstance::new);
+        Object wrapper = original.getWrapperSlot().get();
+        if (wrapper == null) {
+            wrapper = original.getWrapperSlot().setIfAbsent(new WrappedSCClassInstance(original));
+        }
+        return (WrappedSCClassInstance) wrapper;
     }
 
     private SCClassInstance original;
@@ -4,12 +4,12 @@ import de.tub.pes.syscir.sc_model.SCClass;
 import de.tub.pes.syscir.sc_model.SCFunction;
 import de.tub.pes.syscir.sc_model.SCParameter;
 import de.tub.pes.syscir.sc_model.SCVariable;
+import de.tub.pes.syscir.sc_model.WrapperSlot;
 import de.tub.pes.syscir.sc_model.expressions.EventNotificationExpression;
 import de.tub.pes.syscir.sc_model.expressions.Expression;
 import de.tub.pes.syscir.sc_model.expressions.FunctionCallExpression;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -21,26 +21,31 @@ import java.util.Set;
  */
 public class WrappedSCFunction {
 
-    // cache of wrappers, avoiding the creation of a new wrapper every time the original is encountered
-    private static final Map<SCFunction, WrappedSCFunction> wrapperCache = new WeakIdentityHashMap<>();
-
     /**
-     * Returns a new wrapper around the original.
+     * Returns the wrapper around the original.
      * 
-     * No guarantee is made with regards to the identity of the wrapper. If a wrapper already exists, it
-     * may be reused. No check is made for whether or not the hashCode of that wrapper is still valid.
+     * The wrapper is created on first use and stored in the original (see
+     * {@link SCFunction#getWrapperSlot()}), such that the same wrapper is returned for
+     * the same original without any allocation or locking afterwards. No check is made for whether
+     * or not the hashCode of that wrapper is still valid.
      * 
      * @param original an WrappedSCFunction
      * @return a wrapper around the original
      */
     public static WrappedSCFunction getWrapped(SCFunction original) {
-        return wrapperCache.computeIfAbsent(original, WrappedSCFunction::new);
+        Object wrapper = original.getWrapperSlot().get();
+        if (wrapper == null) {
+            wrapper = original.getWrapperSlot().setIfAbsent(new WrappedSCFunction(original));
+        }
+        return (WrappedSCFunction) wrapper;
     }
 
     private SCFunction original;
 
     private int hashCode;
 
+    private final WrapperSlot<Object> plan = new WrapperSlot<>();
+
     /**
      * Creates a new wrapper around the original, caching the originals current hashCode.
      *
@@ -55,6 +60,16 @@ public class WrappedSCFunction {
         return this.original;
     }
 
+    /**
+     * Returns the slot holding the execution plan compiled from this function by the state space
+     * exploration (see {@link de.tub.pes.syscir.statespace_exploration.ExecutionPlan#of(WrappedSCFunction)}).
+     *
+     * @return the plan slot
+     */
+    public WrapperSlot<Object> getPlanSlot() {
+        return this.plan;
+    }
+
     public List<SCVariable> getLocalVariablesAndParametersAsSCVars() {
         return this.original.getLocalVariablesAndParametersAsSCVars();
     }
@@ -5,7 +5,6 @@ import de.tub.pes.syscir.sc_model.SCPortInstance;
 import de.tub.pes.syscir.sc_model.variables.SCClassInstance;
 import de.tub.pes.syscir.sc_model.variables.SCKnownType;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Wrapper for {@link SCPortInstance} that allows no modifications and caches the hashCode. Assumes
@@ -16,20 +15,23 @@ import java.util.Map;
  */
 public class WrappedSCPortInstance {
 
-    // cache of wrappers, avoiding the creation of a new wrapper every time the original is encountered
-    private static final Map<SCPortInstance, WrappedSCPortInstance> wrapperCache = new WeakIdentityHashMap<>();
-
     /**
-     * Returns a new wrapper around the original.
+     * Returns the wrapper around the original.
      * 
-     * No guarantee is made with regards to the identity of the wrapper. If a wrapper already exists, it
-     * may be reused. No check is made for whether or not the hashCode of that wrapper is still valid.
+     * The wrapper is created on first use and stored in the original (see
+     * {@link SCPortInstance#getWrapperSlot()}), such that the same wrapper is returned
+     * for the same original without any allocation or locking afterwards. No check is made for
+     * whether or not the hashCode of that wrapper is still valid.
      * 
      * @param original an WrappedSCPortInstance
      * @return a wrapper around the original
      */
     public static WrappedSCPortInstance getWrapped(SCPortInstance original) {
-        return wrapperCache.computeIfAbsent(original, WrappedSCPortInstance::new);
+        Object wrapper = original.getWrapperSlot().get();
+        if (wrapper == null) {
+            wrapper = original.getWrapperSlot().setIfAbsent(new WrappedSCPortInstance(original));
+        }
+        return (WrappedSCPortInstance) wrapper;
     }
 
     private SCPortInstance original;
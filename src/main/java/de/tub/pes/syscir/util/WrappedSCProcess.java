@@ -6,7 +6,6 @@ import de.tub.pes.syscir.sc_model.SCProcess;
 import de.tub.pes.syscir.sc_model.variables.SCEvent;
 import java.util.EnumSet;
 import java.util.List;
-import java.util.Map;
 
 
 /**
@@ -18,21 +17,24 @@ import java.util.Map;
  */
 public class WrappedSCProcess {
 
-    // cache of wrappers, avoiding the creation of a new wrapper every time the original is encountered
-    private static final Map<SCProcess, WrappedSCProcess> wrapperCache = new WeakIdentityHashMap<>();
-
     /**
-     * Returns a new wrapper around the original.
+     * Returns the wrapper around the original.
      * 
-     * No guarantee is made with regards to the identity of the wrapper. If a wrapper already exists, it
-     * may be reused. No check is made for whether or not the hashCode of that wrapper is still valid.
+     * The wrapper is created on first use and stored in the original (see
+     * {@link SCProcess#getWrapperSlot()}), such that the same wrapper is returned for the
+     * same original without any allocation or locking afterwards. No check is made for whether or
+     * not the hashCode of that wrapper is still valid.
      * 
      * @param original an WrappedSCProcess
      * @return a wrapper around the original
      */
     public static WrappedSCProcess getWrapped(SCProcess original) {
-        return wrapperCache.computeIfAbsent(original,
-                orig -> new WrappedSCProcess(orig, WrappedSCFunction.getWrapped(orig.getFunction())));
+        Object wrapper = original.getWrapperSlot().get();
+        if (wrapper == null) {
+            wrapper = original.getWrapperSlot().setIfAbsent(new WrappedSCProcess(original,
+                    WrappedSCFunction.getWrapped(original.getFunction())));
+        }
+        return (WrappedSCProcess) wrapper;
     }
 
     private SCProcess original;